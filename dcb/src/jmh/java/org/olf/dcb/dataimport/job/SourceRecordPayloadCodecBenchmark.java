@@ -0,0 +1,108 @@
+package org.olf.dcb.dataimport.job;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.marc4j.marc.DataField;
+import org.marc4j.marc.MarcFactory;
+import org.marc4j.marc.Record;
+import org.marc4j.marc.impl.MarcFactoryImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import io.micronaut.json.tree.JsonNode;
+import io.micronaut.serde.ObjectMapper;
+
+/**
+ * Compares reading the MARC of a source record payload held as JSON, as ingest did, against
+ * reading it from the compact form with {@link SourceRecordPayloadCodec}. The stored size of
+ * each form is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SourceRecordPayloadCodecBenchmark {
+
+	private static final MarcFactory factory = new MarcFactoryImpl();
+
+	@Param({ "20", "100" })
+	int fields;
+
+	private ObjectMapper objectMapper;
+	private SourceRecordPayloadCodec codec;
+
+	private byte[] json;
+	private byte[] compact;
+
+	@Setup
+	public void setup() throws IOException {
+		objectMapper = ObjectMapper.create(Map.of(), "services.k_int.integration.marc4j");
+		codec = new SourceRecordPayloadCodec(new SourceRecordPayloadConfig() {
+			@Override
+			public boolean isEnabled() {
+				return true;
+			}
+
+			@Override
+			public int getCompressionLevel() {
+				return 6;
+			}
+
+			@Override
+			public int getMigrationBatchSize() {
+				return 500;
+			}
+		}, objectMapper);
+
+		final Record marc = factory.newRecord("00000nam a2200000 a 4500");
+		marc.addVariableField(factory.newControlField("001", "ocm12345678"));
+		marc.addVariableField(factory.newControlField("008", "040520s2004    nyua     b    001 0 eng  "));
+		for (int i = 0; i < fields; i++) {
+			final DataField field = factory.newDataField(String.valueOf(500 + (i % 400)), ' ', '0');
+			field.addSubfield(factory.newSubfield('a', "Note number " + i + " about the collected works."));
+			field.addSubfield(factory.newSubfield('b', "Further detail, with some repetition " + (i % 7)));
+			marc.addVariableField(field);
+		}
+
+		final Map<String, JsonNode> values = new LinkedHashMap<>();
+		values.put("id", JsonNode.createStringNode("1001234"));
+		values.put("deleted", JsonNode.createBooleanNode(false));
+		values.put("marc", objectMapper.writeValueToTree(marc));
+		final JsonNode payload = JsonNode.createObjectNode(values);
+
+		json = objectMapper.writeValueAsBytes(payload);
+		compact = codec.encode(payload);
+
+		System.out.printf("%n%d fields: JSON %d bytes, compact %d bytes%n", fields, json.length, compact.length);
+	}
+
+	@Benchmark
+	public Record marcFromJson() throws IOException {
+		final JsonNode payload = objectMapper.readValue(json, JsonNode.class);
+
+		return objectMapper.readValueFromTree(payload.get("marc"), Record.class);
+	}
+
+	@Benchmark
+	public Record marcFromCompact() {
+		return SourceRecordPayloadCodec.readMarc(compact).orElseThrow();
+	}
+
+	@Benchmark
+	public JsonNode payloadFromJson() throws IOException {
+		return objectMapper.readValue(json, JsonNode.class);
+	}
+
+	@Benchmark
+	public JsonNode payloadFromCompact() throws IOException {
+		return codec.decode(compact);
+	}
+}
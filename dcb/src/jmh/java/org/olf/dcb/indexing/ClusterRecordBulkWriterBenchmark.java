@@ -0,0 +1,121 @@
+package org.olf.dcb.indexing;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.olf.dcb.availability.job.BibAvailabilityCount;
+import org.olf.dcb.core.clustering.model.ClusterRecord;
+import org.olf.dcb.core.model.BibRecord;
+import org.olf.dcb.indexing.bulk.IndexOperation;
+import org.olf.dcb.indexing.conversion.ClusterRecordBulkWriter;
+import org.olf.dcb.indexing.model.ClusterRecordIndexDoc;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.opensearch.client.json.JsonpMapper;
+import org.opensearch.client.json.jackson3.JacksonJsonpMapper;
+
+import jakarta.json.stream.JsonGenerator;
+
+/**
+ * Compares encoding a cluster with {@link ClusterRecordBulkWriter} against building a
+ * {@link ClusterRecordIndexDoc} and serializing it with the client mapper, as the typed
+ * bulk request does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ClusterRecordBulkWriterBenchmark {
+
+	@Param({ "1", "10", "50" })
+	int members;
+
+	private final UUID hostLmsId = UUID.randomUUID();
+
+	private JsonpMapper mapper;
+	private ClusterRecordBulkWriter writer;
+	private ClusterRecord cluster;
+	private Map<String, Collection<BibAvailabilityCount>> availability;
+
+	@Setup
+	public void setup() {
+		mapper = new JacksonJsonpMapper();
+
+		final Set<BibRecord> bibs = new HashSet<>();
+		availability = new HashMap<>();
+		for (int i = 0; i < members; i++) {
+			final var bib = BibRecord.builder()
+				.id(UUID.randomUUID())
+				.title("The collected works, volume " + i)
+				.sourceSystemId(hostLmsId)
+				.sourceRecordId("b" + i)
+				.derivedType("Books")
+				.canonicalMetadata("dateOfPublication", "c2004")
+				.canonicalMetadata("identifiers", List.of(
+					Map.of("namespace", "ISBN", "value", "97800000000" + i)))
+				.build();
+
+			bibs.add(bib);
+
+			final List<BibAvailabilityCount> counts = new ArrayList<>();
+			for (int l = 0; l < 3; l++) {
+				counts.add(BibAvailabilityCount.builder()
+					.id(UUID.randomUUID())
+					.bibId(bib.getId())
+					.hostLms(hostLmsId)
+					.internalLocationCode("LIB" + l)
+					.remoteLocationCode("LOC" + l)
+					.count(l)
+					.status(BibAvailabilityCount.Status.MAPPED)
+					.lastUpdated(Instant.now())
+					.build());
+			}
+			availability.put(bib.getId().toString(), counts);
+		}
+
+		cluster = ClusterRecord.builder()
+			.id(UUID.randomUUID())
+			.title("The collected works")
+			.bibs(bibs)
+			.lastIndexed(Instant.now())
+			.build();
+
+		writer = new ClusterRecordBulkWriter(mapper.jsonProvider(), id -> "HOSTLMS", id -> availability);
+	}
+
+	@Benchmark
+	public byte[] streamingWriter() {
+		return writer.encode("dcb-shared-index", IndexOperation.update(cluster.getId(), cluster));
+	}
+
+	@Benchmark
+	public byte[] indexDocAndMapper() {
+		final var doc = new ClusterRecordIndexDoc(cluster, id -> "HOSTLMS", availability);
+
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.writeBytes(("{\"index\":{\"_index\":\"dcb-shared-index\",\"_id\":\"" + doc.getBibClusterId() + "\"}}\n")
+			.getBytes(StandardCharsets.UTF_8));
+
+		try (JsonGenerator generator = mapper.jsonProvider().createGenerator(out)) {
+			mapper.serialize(doc, generator);
+		}
+		out.write('\n');
+
+		return out.toByteArray();
+	}
+}
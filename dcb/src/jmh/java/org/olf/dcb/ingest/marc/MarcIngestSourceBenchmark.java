@@ -0,0 +1,145 @@
+package org.olf.dcb.ingest.marc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.marc4j.MarcStreamReader;
+import org.marc4j.marc.Record;
+import org.olf.dcb.configuration.ConfigurationRecord;
+import org.olf.dcb.core.ProcessStateService;
+import org.olf.dcb.core.interaction.shared.PublisherState;
+import org.olf.dcb.dataimport.job.model.SourceRecord;
+import org.olf.dcb.ingest.model.IngestRecord;
+import org.olf.dcb.ingest.model.IngestRecord.IngestRecordBuilder;
+import org.olf.dcb.ingest.model.RawSource;
+import org.olf.dcb.storage.RawSourceRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.reactivestreams.Publisher;
+
+/**
+ * Enriches the records of a MARC corpus with
+ * {@link MarcIngestSource#populateRecordFromMarc(IngestRecordBuilder, Record)}, one record per
+ * operation on a single thread, so the score is records per second per core. Run with
+ * {@code ./gradlew jmh -PjmhIncludes=MarcIngestSource}, pointing the corpus at a larger export
+ * for a more representative mix of records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MarcIngestSourceBenchmark {
+
+	@Param({ "src/test/resources/18recordsSGCLsample1.mrc" })
+	String corpus;
+
+	private final MarcIngestSource<Record> source = new CorpusIngestSource();
+
+	private List<Record> records;
+	private int next = 0;
+
+	@Setup
+	public void setup() throws IOException {
+		records = new ArrayList<>();
+
+		try (InputStream in = Files.newInputStream(Path.of(corpus))) {
+			final MarcStreamReader reader = new MarcStreamReader(in);
+			while (reader.hasNext()) {
+				records.add(reader.next());
+			}
+		}
+
+		if (records.isEmpty()) {
+			throw new IllegalStateException("No MARC records in " + corpus);
+		}
+	}
+
+	@Benchmark
+	public IngestRecord populateRecordFromMarc() {
+		final Record marc = records.get(next);
+		next = (next + 1) % records.size();
+
+		return source.populateRecordFromMarc(source.initIngestRecordBuilder(marc), marc).build();
+	}
+
+	/**
+	 * Just enough of an ingest source to enrich records, everything else is unsupported.
+	 */
+	private static class CorpusIngestSource implements MarcIngestSource<Record> {
+
+		@Override
+		public String getDefaultControlIdNamespace() {
+			return "BENCHMARK";
+		}
+
+		@Override
+		public IngestRecordBuilder initIngestRecordBuilder(Record resource) {
+			return IngestRecord.builder()
+				.uuid(UUID.randomUUID())
+				.sourceRecordId(resource.getControlNumber());
+		}
+
+		@Override
+		public Record resourceToMarc(Record resource) {
+			return resource;
+		}
+
+		@Override
+		public String getName() {
+			return "benchmark";
+		}
+
+		@Override
+		public Publisher<Record> getResources(Instant since, Publisher<String> terminator) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public RawSource resourceToRawSource(Record resource) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Record convertSourceToInternalType(SourceRecord source) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public RawSourceRepository getRawSourceRepository() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Publisher<ConfigurationRecord> getConfigStream() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public ProcessStateService getProcessStateService() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public PublisherState mapToPublisherState(Map<String, Object> mapData) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public Publisher<PublisherState> saveState(UUID context, String process, PublisherState state) {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
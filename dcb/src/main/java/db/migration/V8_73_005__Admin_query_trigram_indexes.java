@@ -0,0 +1,61 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Trigram indexes backing wildcard searches from the admin search planner, see @QueryIndex.
+ *
+ * These need the pg_trgm extension, which managed databases only let privileged roles create.
+ * When it cannot be created the indexes are skipped rather than failing start up, and those
+ * searches scan the table instead, though the planner still counts them as indexed. Once the
+ * extension has been installed the statements below can be run by hand.
+ *
+ * Built concurrently so writes carry on meanwhile, which can't be done inside a transaction.
+ */
+@Slf4j
+public class V8_73_005__Admin_query_trigram_indexes extends BaseJavaMigration {
+
+	private static final List<String> INDEXES = List.of(
+		"create index concurrently if not exists idx_pr_description_trgm on patron_request using gin (description gin_trgm_ops)",
+		"create index concurrently if not exists idx_pi_local_barcode_trgm on patron_identity using gin (local_barcode gin_trgm_ops)",
+		"create index concurrently if not exists idx_bib_source_id_trgm on bib_record using gin (source_record_id gin_trgm_ops)");
+
+	@Override
+	public boolean canExecuteInTransaction() {
+		return false;
+	}
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		final Connection connection = context.getConnection();
+
+		if (!trigramsAvailable(connection)) return;
+
+		try (Statement statement = connection.createStatement()) {
+			for (String index : INDEXES) {
+				statement.execute(index);
+			}
+		}
+	}
+
+	private static boolean trigramsAvailable(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("create extension if not exists pg_trgm");
+
+			return true;
+		}
+		catch (SQLException e) {
+			log.warn("Unable to create the pg_trgm extension, admin wildcard searches will not be indexed: {}", e.getMessage());
+
+			return false;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package org.olf.dcb.availability.job;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import services.k_int.micronaut.concurrency.ConcurrencyLimiter;
+
+/**
+ * Additive increase, multiplicative decrease limit on the number of concurrent calls made to a
+ * single Host LMS.
+ *
+ * Each call that completes within the latency threshold and without error grows the limit by
+ * roughly one per round of calls. A slow call shrinks it a little, and a failed call halves it,
+ * so a struggling system sees its load drop off quickly while a healthy one is allowed to climb
+ * towards the maximum. Calls wait for a permit from a {@link ConcurrencyLimiter} kept at the
+ * current limit.
+ */
+@Slf4j
+class AdaptiveConcurrencyLimiter {
+
+	static final String METRIC_NAME = "dcb.availability.limiter";
+
+	private static final double SLOW_DECREASE = 0.9d;
+	private static final double FAILURE_DECREASE = 0.5d;
+
+	private final String name;
+	private final int minLimit;
+	private final int maxLimit;
+	private final long latencyThresholdNanos;
+	private final Timer latency;
+	private final ConcurrencyLimiter permits;
+
+	private double limit;
+
+	AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+			Duration latencyThreshold, MeterRegistry meterRegistry) {
+
+		this.name = name;
+		this.minLimit = Math.max(minLimit, 1);
+		this.maxLimit = Math.max(maxLimit, this.minLimit);
+		this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+		this.latencyThresholdNanos = latencyThreshold.toNanos();
+		this.permits = new ConcurrencyLimiter((int) limit);
+
+		this.latency = Timer.builder(METRIC_NAME + ".latency")
+			.tag("lms", name)
+			.publishPercentiles(0.5, 0.95, 0.99)
+			.register(meterRegistry);
+
+		Gauge.builder(METRIC_NAME + ".limit", this, AdaptiveConcurrencyLimiter::getLimit)
+			.tag("lms", name)
+			.register(meterRegistry);
+
+		Gauge.builder(METRIC_NAME + ".in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+			.tag("lms", name)
+			.register(meterRegistry);
+	}
+
+	synchronized int getLimit() {
+		return (int) limit;
+	}
+
+	int getInFlight() {
+		return permits.getInProgress();
+	}
+
+	/**
+	 * Run the call once the limit allows it.
+	 *
+	 * @param call Supplier of the call to limit
+	 * @param failed Whether a result should be treated as a failure, for calls that report errors in their result
+	 * @return The result of the call
+	 */
+	<T> Mono<T> limit(Supplier<Mono<T>> call, Predicate<T> failed) {
+		return permits.limit(() -> {
+				final long start = System.nanoTime();
+
+				return call.get()
+					.doOnSuccess(result -> onSample(System.nanoTime() - start, result != null && failed.test(result)))
+					.doOnError(_error -> onSample(System.nanoTime() - start, true));
+			})
+			.singleOrEmpty();
+	}
+
+	void onSample(long elapsedNanos, boolean failed) {
+		latency.record(elapsedNanos, NANOSECONDS);
+
+		final int current;
+		synchronized (this) {
+			final double previous = limit;
+
+			if (failed) {
+				limit = Math.max(minLimit, limit * FAILURE_DECREASE);
+			} else if (elapsedNanos > latencyThresholdNanos) {
+				limit = Math.max(minLimit, limit * SLOW_DECREASE);
+			} else if (getInFlight() >= (int) limit / 2) {
+				// Only grow when the current limit is actually being used.
+				limit = Math.min(maxLimit, limit + (1.0d / limit));
+			}
+
+			if ((int) previous != (int) limit) {
+				log.debug("Concurrency limit for [{}] changed from [{}] to [{}]", name, (int) previous, (int) limit);
+			}
+
+			current = (int) limit;
+		}
+
+		permits.setLimit(current);
+	}
+}
@@ -5,8 +5,10 @@ import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.Objects;
 import java.util.Optional;
@@ -19,6 +21,7 @@ import org.olf.dcb.availability.job.BibAvailabilityCount.Status;
 import org.olf.dcb.core.HostLmsService;
 import org.olf.dcb.core.clustering.RecordClusteringService.MissingAvailabilityInfo;
 import org.olf.dcb.core.clustering.model.ClusterRecord;
+import org.olf.dcb.core.interaction.HostLmsClient;
 import org.olf.dcb.core.model.BibRecord;
 import org.olf.dcb.core.model.Item;
 import org.olf.dcb.core.model.ReferenceValueMapping;
@@ -33,6 +36,7 @@ import org.olf.dcb.storage.BibAvailabilityCountRepository;
 import org.reactivestreams.Publisher;
 import org.slf4j.event.Level;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.micronaut.context.annotation.Requires;
 import io.micronaut.context.env.Environment;
 import io.micronaut.core.annotation.NonNull;
@@ -50,6 +54,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.function.TupleUtils;
+import reactor.util.function.Tuple2;
 import reactor.util.function.Tuples;
 import services.k_int.federation.reactor.ReactorFederatedLockService;
 import services.k_int.jobs.Job;
@@ -188,12 +193,16 @@ public class AvailabilityCheckJob implements Job<MissingAvailabilityInfo>, JobCh
 	private final ReactiveJobRunnerService jobRunnerService;
   private final ReactorFederatedLockService lockService;
   private final OperationsService operations;
+  private final MeterRegistry meterRegistry;
+
+	// One limiter per Host LMS, retained between runs so that the learned limit carries over.
+	private final Map<UUID, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
 
 	public AvailabilityCheckJob(LiveAvailabilityService liveAvailabilityService, SharedIndexService sharedIndexService,
 			BibRecordService bibRecordService, LocationToAgencyMappingService locationToAgencyMappingService,
 			HostLmsService hostLmsService, BibAvailabilityCountRepository bibCounts,
 			ReactiveJobRunnerService jobRunnerService, ReactorFederatedLockService lockService, OperationsService operations,
-			AvailabilityCheckJobConfig jobConfig) {
+			AvailabilityCheckJobConfig jobConfig, MeterRegistry meterRegistry) {
 		
 		this.liveAvailabilityService = liveAvailabilityService;
 		this.sharedIndexService = sharedIndexService;
@@ -205,6 +214,7 @@ public class AvailabilityCheckJob implements Job<MissingAvailabilityInfo>, JobCh
 		this.lockService = lockService;
 		this.operations = operations;
 		this.jobConfig = jobConfig;
+		this.meterRegistry = meterRegistry;
 	}
 
 	static BibAvailabilityCount availabilityCount(
@@ -294,26 +304,68 @@ public class AvailabilityCheckJob implements Job<MissingAvailabilityInfo>, JobCh
 //		locationToAgencyMappingService.findLocationToAgencyMapping(filters, filters);
 	}
 	
+	private Mono<AdaptiveConcurrencyLimiter> limiterFor( UUID sourceSystemId ) {
+		final var existing = limiters.get(sourceSystemId);
+		if (existing != null) return Mono.just(existing);
+
+		final var concurrency = jobConfig.getConcurrency();
+
+		return hostLmsService.idToCode(sourceSystemId)
+			.defaultIfEmpty(sourceSystemId.toString())
+			.map( code -> limiters.computeIfAbsent(sourceSystemId, _id -> new AdaptiveConcurrencyLimiter(code,
+				concurrency.getPerSource(), concurrency.getMinPerSource(), concurrency.getMaxPerSource(),
+				concurrency.getLatencyThreshold(), meterRegistry)));
+	}
+
+	private static boolean isFailedLookup( AvailabilityReport report ) {
+		// Upstream errors, including timeouts, are reported in the result rather than signalled.
+		return report.getItems().isEmpty() && !report.getErrors().isEmpty();
+	}
+	
 	public Flux<BibAvailabilityCount> throttleFetchBySourceSystem( Collection<UUID> ids ) {
 		
 		final int totalConcurrency = jobConfig.getConcurrency().getInstanceWide()
 				.orElseGet(() -> Math.max( Runtime.getRuntime().availableProcessors() / 4, 5));
-
 		
-		final int externalPerSystem = jobConfig.getConcurrency().getPerSource();
-
-		log.info("Setting totalConcurrency={}, externalPerSystem={}",totalConcurrency,externalPerSystem);
+		log.info("Setting totalConcurrency={}",totalConcurrency);
 		
+		// Each source system is limited independently, so a slow system doesn't hold up the others.
+		// Bibs are grouped to match the batch size of the system, and each group counts as a single
+		// call against the limit. The lookups in a group are issued together so they can be sent as one batch.
 		return bibRecordService.findAllByIdIn( ids )
-			.collectMultimap( bib -> bib.getSourceSystemId().toString() )
-			.flatMapIterable(Map::values)
-			.concatMap( sameSourceBibs -> {
-				return Flux.fromIterable(sameSourceBibs)
-					.window(externalPerSystem)
-					.delayElements(Duration.of(1, ChronoUnit.SECONDS))
-					.concatMap( items -> items
-						.flatMap( this::checkSingleBib ), 0); // No prefetching
-			}, totalConcurrency);
+			.collectMultimap( BibRecord::getSourceSystemId )
+			.flatMapIterable(Map::entrySet)
+			.flatMap( sameSourceBibs -> Mono.zip(limiterFor(sameSourceBibs.getKey()), itemsBatchSizeFor(sameSourceBibs.getKey()))
+				.flatMapMany( TupleUtils.function((limiter, batchSize) -> Flux.fromIterable(sameSourceBibs.getValue())
+					.buffer( batchSize )
+					.flatMap( bibs -> limiter.limit(() -> fetchBibs(bibs), AvailabilityCheckJob::isFailedBatch)
+						.flatMapIterable( Function.identity() )
+						.flatMap( TupleUtils.function(this::updateCountsFromAvailabilityReport) ),
+						jobConfig.getConcurrency().getMaxPerSource()))),
+				totalConcurrency);
+	}
+
+	private Mono<Integer> itemsBatchSizeFor( UUID sourceSystemId ) {
+		return hostLmsService.getClientFor(sourceSystemId)
+			.map(HostLmsClient::getItemsBatchSize)
+			.onErrorResume(error -> {
+				log.warn("Unable to determine batch size for source system [{}], checking bibs individually", sourceSystemId, error);
+				return Mono.empty();
+			})
+			.defaultIfEmpty(1)
+			.map(size -> Math.max(size, 1));
+	}
+
+	private static boolean isFailedBatch( List<Tuple2<BibRecord, AvailabilityReport>> results ) {
+		return results.stream()
+			.map(Tuple2::getT2)
+			.allMatch(AvailabilityCheckJob::isFailedLookup);
+	}
+
+	private Mono<List<Tuple2<BibRecord, AvailabilityReport>>> fetchBibs( List<BibRecord> bibs ) {
+		return Flux.fromIterable(bibs)
+			.flatMap(bib -> fetchSingleBib(bib).map(report -> Tuples.of(bib, report)))
+			.collectList();
 	}
 	
 	@Transactional
@@ -322,10 +374,7 @@ public class AvailabilityCheckJob implements Job<MissingAvailabilityInfo>, JobCh
 		return throttleFetchBySourceSystem( bibs )
 			// Trying to control the rate at which DB updates are generated - in response to the exception
 			// described in comments at the top of the class
-			.buffer(15) // process n at a time
-			.concatMap(batch -> Flux.fromIterable(batch)
-				.flatMap(this::updateMappingIfRequired, 3) // 3 concurrent per batch
-			)
+			.flatMap(this::updateMappingIfRequired, jobConfig.getConcurrency().getDatabaseWrites())
 			.collectMultimap(count -> count.getBibId().toString());
 	}
 	
@@ -335,14 +384,13 @@ public class AvailabilityCheckJob implements Job<MissingAvailabilityInfo>, JobCh
 		return liveAvailabilityService.checkBibAvailability(bib, TIMEOUT, FILTERS);
 	}
 	
-	private Flux<BibAvailabilityCount> checkSingleBib ( BibRecord bib ) {
+	private Mono<AvailabilityReport> fetchSingleBib ( BibRecord bib ) {
 		
 		return Mono.just( bib )
 			.flatMap(this::remoteBibFetch)
 			.onErrorResume(e -> Mono.just(AvailabilityReport.ofErrors(AvailabilityReport.Error.builder()
 					.message("Error when fetching bib availability for [%s] %s".formatted(bib.getId().toString(), e))
-					.build())))
-			.flatMapMany( rep -> updateCountsFromAvailabilityReport(bib, rep) );
+					.build())));
 	}
 	
 	/**
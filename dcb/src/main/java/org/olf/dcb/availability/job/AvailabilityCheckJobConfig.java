@@ -21,9 +21,31 @@ public interface AvailabilityCheckJobConfig {
   @ConfigurationProperties("concurrency")
   interface Concurrency {
 
+  	/**
+  	 * Starting number of concurrent lookups against each Host LMS. The limit is then
+  	 * adjusted between the minimum and maximum below based on how the system responds.
+  	 */
   	@Bindable(defaultValue = "2")
     int getPerSource();
 
+  	@Bindable(defaultValue = "1")
+  	int getMinPerSource();
+
+  	@Bindable(defaultValue = "20")
+  	int getMaxPerSource();
+
+  	/**
+  	 * Lookups slower than this are taken as a sign the Host LMS is under strain.
+  	 */
+  	@Bindable(defaultValue = "PT5S")
+  	Duration getLatencyThreshold();
+
+  	/**
+  	 * Number of availability counts saved concurrently for a cluster.
+  	 */
+  	@Bindable(defaultValue = "3")
+  	int getDatabaseWrites();
+
   	// @Bindable(defaultValue = "#{ T(Math).max( T(Runtime).getRuntime().availableProcessors() / 4, 5) }")
   	// Bindable doesn't seem to work with an expression here. Maybe will post-upgrade.
   	// Leaving this here for info, but will mimic this in the job class, and make this optional.
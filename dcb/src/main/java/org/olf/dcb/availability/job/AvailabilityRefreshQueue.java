@@ -0,0 +1,144 @@
+package org.olf.dcb.availability.job;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.olf.dcb.core.HostLmsService;
+import org.olf.dcb.core.model.DataHostLms;
+import org.olf.dcb.core.model.SupplierRequest;
+import org.olf.dcb.item.availability.LiveAvailabilityService;
+import org.olf.dcb.storage.BibRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Targeted refresh of availability counts for bibs whose items have been seen to change
+ * state by tracking, such as a supplier item being checked out or returned, or a hold
+ * being placed.
+ *
+ * Bibs are held until no further changes have been reported for them for the debounce
+ * period, so a run of changes to the same item results in a single lookup, and are then
+ * refreshed in batches. The refresh is a live lookup, which updates the counts and
+ * flags the cluster for reindexing in the same way as lookups made by users.
+ */
+@Slf4j
+@Singleton
+public class AvailabilityRefreshQueue {
+
+	private static final String METRIC_NAME = "dcb.availability.refresh";
+	private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+	private final boolean enabled;
+	private final Duration debounce;
+	private final int batchSize;
+	private final int concurrency;
+
+	private final HostLmsService hostLmsService;
+	private final BibRepository bibRepository;
+	private final LiveAvailabilityService liveAvailabilityService;
+	private final MeterRegistry meterRegistry;
+
+	// Bib awaiting refresh, against the time the most recent change was reported.
+	private final Map<BibKey, Instant> pending = new ConcurrentHashMap<>();
+
+	public AvailabilityRefreshQueue(
+			@Value("${dcb.availability.refresh.enabled:true}") boolean enabled,
+			@Value("${dcb.availability.refresh.debounce:30s}") Duration debounce,
+			@Value("${dcb.availability.refresh.batch-size:50}") int batchSize,
+			@Value("${dcb.availability.refresh.concurrency:4}") int concurrency,
+			HostLmsService hostLmsService, BibRepository bibRepository,
+			LiveAvailabilityService liveAvailabilityService, MeterRegistry meterRegistry) {
+
+		this.enabled = enabled;
+		this.debounce = debounce;
+		this.batchSize = batchSize;
+		this.concurrency = concurrency;
+		this.hostLmsService = hostLmsService;
+		this.bibRepository = bibRepository;
+		this.liveAvailabilityService = liveAvailabilityService;
+		this.meterRegistry = meterRegistry;
+
+		meterRegistry.gauge(METRIC_NAME + ".pending", pending, Map::size);
+	}
+
+	/**
+	 * Queue a refresh of the bib supplying the request, if known.
+	 */
+	public void enqueue(@NonNull SupplierRequest supplierRequest) {
+		enqueue(supplierRequest.getHostLmsCode(), supplierRequest.getLocalBibId());
+	}
+
+	public void enqueue(@Nullable String hostLmsCode, @Nullable String localBibId) {
+		if (!enabled || hostLmsCode == null || localBibId == null) return;
+
+		log.debug("Queue availability refresh for bib [{}] at host lms [{}]", localBibId, hostLmsCode);
+		pending.put(new BibKey(hostLmsCode, localBibId), Instant.now());
+		meterRegistry.counter(METRIC_NAME, "result", "queued").increment();
+	}
+
+	@Scheduled(initialDelay = "1m", fixedDelay = "${dcb.availability.refresh.interval:15s}")
+	public void flush() {
+		final List<BibKey> due = takeDue();
+		if (due.isEmpty()) return;
+
+		log.info("Refreshing availability for [{}] bibs following tracked changes", due.size());
+
+		Flux.fromIterable(due)
+			.flatMap(this::refresh, concurrency)
+			.then()
+			.block();
+	}
+
+	List<BibKey> takeDue() {
+		final Instant quietSince = Instant.now().minus(debounce);
+
+		final List<BibKey> due = pending.entrySet().stream()
+			.filter(entry -> entry.getValue().isBefore(quietSince))
+			.map(Map.Entry::getKey)
+			.limit(batchSize)
+			.toList();
+
+		// Only remove if no newer change has arrived since selection.
+		return due.stream()
+			.filter(key -> {
+				final Instant reported = pending.get(key);
+				return reported != null && reported.isBefore(quietSince) && pending.remove(key, reported);
+			})
+			.toList();
+	}
+
+	private Mono<Void> refresh(BibKey key) {
+		return hostLmsService.findByCode(key.hostLmsCode())
+			.map(DataHostLms::getId)
+			.flatMap(hostLmsId -> Mono.from(bibRepository.findBySourceSystemIdAndSourceRecordId(hostLmsId, key.localBibId())))
+			.flatMap(bib -> liveAvailabilityService.refreshBibAvailability(bib, TIMEOUT))
+			.doOnNext(_report -> meterRegistry.counter(METRIC_NAME, "result", "refreshed").increment())
+			.switchIfEmpty(Mono.fromRunnable(() -> {
+				log.debug("No bib [{}] found for host lms [{}], skipping availability refresh", key.localBibId(), key.hostLmsCode());
+				meterRegistry.counter(METRIC_NAME, "result", "skipped").increment();
+			}))
+			.onErrorResume(error -> {
+				log.warn("Unable to refresh availability for bib [{}] at host lms [{}]", key.localBibId(), key.hostLmsCode(), error);
+				meterRegistry.counter(METRIC_NAME, "result", "error").increment();
+				return Mono.empty();
+			})
+			.then();
+	}
+
+	int pendingCount() {
+		return pending.size();
+	}
+
+	static record BibKey(String hostLmsCode, String localBibId) {}
+}
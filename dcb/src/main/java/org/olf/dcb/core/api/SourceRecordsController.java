@@ -4,6 +4,7 @@ import static org.olf.dcb.security.RoleNames.ADMINISTRATOR;
 
 import java.time.Instant;
 
+import org.olf.dcb.dataimport.job.SourceRecordPayloadCodec;
 import org.olf.dcb.dataimport.job.model.SourceRecord;
 import org.olf.dcb.storage.SourceRecordRepository;
 
@@ -32,9 +33,13 @@ public class SourceRecordsController {
 	private static final int DEFAULT_PAGE_SIZE = 100;
 
 	private final SourceRecordRepository sourceRecordRepository;
+	private final SourceRecordPayloadCodec payloadCodec;
+
+	public SourceRecordsController(SourceRecordRepository sourceRecordRepository,
+		SourceRecordPayloadCodec payloadCodec) {
 
-	public SourceRecordsController(SourceRecordRepository sourceRecordRepository) {
 		this.sourceRecordRepository = sourceRecordRepository;
+		this.payloadCodec = payloadCodec;
 	}
 
 	@Operation(
@@ -54,7 +59,8 @@ public class SourceRecordsController {
 		final Instant effectiveSince = since == null ? Instant.EPOCH : since;
 		final Pageable sortedPageable = withDateUpdatedSort(pageable);
 
-		return Mono.from(sourceRecordRepository.findAllByDateUpdatedAfter(effectiveSince, sortedPageable));
+		return Mono.from(sourceRecordRepository.findAllByDateUpdatedAfter(effectiveSince, sortedPageable))
+			.map(page -> page.map(payloadCodec::expand));
 	}
 
 	private Pageable withDateUpdatedSort(Pageable pageable) {
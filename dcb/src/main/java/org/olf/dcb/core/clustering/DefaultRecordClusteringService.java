@@ -25,6 +25,7 @@ import java.util.stream.DoubleStream;
 
 import org.apache.commons.codec.language.DoubleMetaphone;
 import org.olf.dcb.core.audit.ProcessAuditService;
+import org.olf.dcb.core.clustering.matching.MatchPointSession;
 import org.olf.dcb.core.clustering.matching.MatchpointService;
 import org.olf.dcb.core.clustering.model.ClusterRecord;
 import org.olf.dcb.core.clustering.model.MatchPoint;
@@ -185,6 +186,13 @@ public class DefaultRecordClusteringService implements RecordClusteringService {
 		return Mono.from(clusterRecords.findIdByLastIndexedIsNullOrLastIndexedLessThanOrderByDateUpdated(before, page));
 	}
 	
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public Mono<List<UUID>> findNextIdsInRangeIndexedBefore(@NonNull UUID after, @NonNull UUID upTo, @NonNull Instant before, int max) {
+		return Flux.from(clusterRecords.findIdsInRangeIndexedBefore(after, upTo, before, max))
+			.collectList();
+	}
+	
 	@Override
 	@Transactional(propagation = Propagation.MANDATORY)
 	public Mono<Long> updateLastIndexed(@NonNull Collection<UUID> ids, @NonNull Instant before) {
@@ -327,6 +335,12 @@ public class DefaultRecordClusteringService implements RecordClusteringService {
 	@Transactional(propagation = Propagation.MANDATORY)
 	protected Mono<Tuple2<BibRecord, ClusterRecord>> updateBibAndClusterData(BibRecord bib,
 			Collection<MatchPoint> currentMatchPoints, ClusterRecord cluster) {
+		return updateBibAndClusterData(bib, currentMatchPoints, cluster, matchpointService);
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	protected Mono<Tuple2<BibRecord, ClusterRecord>> updateBibAndClusterData(BibRecord bib,
+			Collection<MatchPoint> currentMatchPoints, ClusterRecord cluster, MatchPointSession session) {
 
 		// Save the cluster
 		return Mono.just(cluster)
@@ -337,7 +351,7 @@ public class DefaultRecordClusteringService implements RecordClusteringService {
 			// We can do some things at the same time.
 			.flatMap(TupleUtils.function((cr, br) ->
 				// Reconcile the matchpoints and elect the primary bib on the matched cluster
-				Mono.zip(matchpointService.reconcileMatchPoints(currentMatchPoints, br), electSelectedBib(cr))
+				Mono.zip(session.reconcileMatchPoints(currentMatchPoints, br), electSelectedBib(cr))
 						.thenReturn(Tuples.of(br, cr))));
 	}
 
@@ -376,7 +390,13 @@ public class DefaultRecordClusteringService implements RecordClusteringService {
 	@Transactional(propagation = Propagation.MANDATORY)
 	protected Mono<Tuple2<BibRecord, ClusterRecord>> clusterUsingMatchPoints(BibRecord bib,
 			Collection<MatchPoint> matchPoints) {
-		return matchClusters(bib, matchPoints)
+		return clusterUsingMatchPoints(bib, matchPoints, matchpointService);
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	protected Mono<Tuple2<BibRecord, ClusterRecord>> clusterUsingMatchPoints(BibRecord bib,
+			Collection<MatchPoint> matchPoints, MatchPointSession session) {
+		return matchClusters(bib, matchPoints, session)
 			.collectList()
 			.zipWith(bibRecords.getClusterRecordForBib(bib.getId()).singleOptional())
 			// Check to see if we want to reprocess any of these cluster records.
@@ -389,7 +409,7 @@ public class DefaultRecordClusteringService implements RecordClusteringService {
 			.switchIfEmpty(Mono.just(bib)
 				.flatMap(processAuditService.withAuditMessage("No existing cluster, create a new one"))
 				.map(this::newOrExistingClusterRecord))
-			.flatMap( curry(bib, matchPoints, this::updateBibAndClusterData) );
+			.flatMap( cluster -> updateBibAndClusterData(bib, matchPoints, cluster, session) );
 	}
 
 	private ClusterRecord newOrExistingClusterRecord(BibRecord bib) {
@@ -581,6 +601,11 @@ public class DefaultRecordClusteringService implements RecordClusteringService {
 
 	@Transactional(propagation = Propagation.MANDATORY)
 	protected Flux<ClusterRecord> matchClusters(BibRecord bib, Collection<MatchPoint> matchPoints) {
+		return matchClusters(bib, matchPoints, matchpointService);
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	protected Flux<ClusterRecord> matchClusters(BibRecord bib, Collection<MatchPoint> matchPoints, MatchPointSession session) {
 		log.trace("match clusters : {}", matchPoints);
 
 		if (matchPoints.size() == 0)
@@ -588,11 +613,17 @@ public class DefaultRecordClusteringService implements RecordClusteringService {
 
 		return Flux.fromIterable(matchPoints)
 			.collectMultimap( DefaultRecordClusteringService::initialMatchConfidence )
-			.flatMapMany( rankedPoints -> getListOfMatchedClusters(bib, rankedPoints) );
+			.flatMapMany( rankedPoints -> getListOfMatchedClusters(bib, rankedPoints, session) );
 	}
 
 	@Transactional(propagation = Propagation.MANDATORY)
 	protected Flux<ClusterRecord> getListOfMatchedClusters(BibRecord bib, Map<MatchConfidence, Collection<MatchPoint>> rankedPoints) {
+		return getListOfMatchedClusters(bib, rankedPoints, matchpointService);
+	}
+
+	@Transactional(propagation = Propagation.MANDATORY)
+	protected Flux<ClusterRecord> getListOfMatchedClusters(BibRecord bib, Map<MatchConfidence, Collection<MatchPoint>> rankedPoints,
+			MatchPointSession session) {
 		
 		final Map<UUID, MatchPoint> matchPointValueMap = new HashMap<>();
 		
@@ -609,7 +640,7 @@ public class DefaultRecordClusteringService implements RecordClusteringService {
 			.map(MatchPoint::getValue)
 			.collect(Collectors.toUnmodifiableSet());
 		
-		return matchpointService.getMatchesByDerrivedType(bib.getDerivedType(), highConfidenceValues)
+		return session.getMatchesByDerrivedType(bib.getDerivedType(), highConfidenceValues)
 			.filter( mp -> !mp.getBibId().equals(bib.getId()) )
 			.concatMap( processAuditService.withAuditMessage( match -> {
 				// The match here is the matchpoint from the database so contains no extra debug information
@@ -652,7 +683,7 @@ public class DefaultRecordClusteringService implements RecordClusteringService {
 
 		return matchpointService.generateMatchPoints(bib)
 			.collectList()
-			.flatMap(curry(bib, this::clusterUsingMatchPoints))
+			.flatMap(matchPoints -> clusterUsingMatchPoints(bib, matchPoints))
 			.map(TupleUtils.function((savedBib, savedCluster) -> {
 				log.trace("Cluster {} selected for bib {}", savedCluster, savedBib);
 				return savedBib;
@@ -663,6 +694,42 @@ public class DefaultRecordClusteringService implements RecordClusteringService {
 				.processSubject(bib.getId())) );
 	}
 
+	/**
+	 * Cluster a batch of bibs within the current transaction.
+	 * 
+	 * Identifiers and candidate match points for the whole batch are read with single queries
+	 * up front. Bibs are then clustered in turn, each seeing the match points of the bibs clustered
+	 * before it, so records in the same batch that match each other share a cluster. The match
+	 * point changes for the batch are written together at the end.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public Flux<BibRecord> clusterBibs(final List<BibRecord> bibs) {
+		if (bibs.isEmpty()) return Flux.empty();
+		
+		return matchpointService.generateMatchPoints(bibs)
+			.flatMapMany(pointsByBib -> {
+				final Set<UUID> allValues = pointsByBib.values().stream()
+					.flatMap(Collection::stream)
+					.map(MatchPoint::getValue)
+					.collect(Collectors.toUnmodifiableSet());
+				
+				return matchpointService.openBatchSession(allValues)
+					.flatMapMany(session -> Flux.fromIterable(bibs)
+						.concatMap(bib -> clusterUsingMatchPoints(bib, pointsByBib.get(bib.getId()), session)
+							.map(TupleUtils.function((savedBib, savedCluster) -> {
+								log.trace("Cluster {} selected for bib {}", savedCluster, savedBib);
+								return savedBib;
+							}))
+							.transform( processAuditService.withProcessAudit(process -> process
+								.processSubject(bib.getId())) ))
+						.collectList()
+						.flatMapMany(clustered -> session.flush()
+							.doOnNext(added -> log.debug("Batch of [{}] bibs clustered, adding [{}] match points", clustered.size(), added))
+							.thenMany(Flux.fromIterable(clustered))));
+			});
+	}
+
 	@Override
 	@Transactional(propagation = Propagation.MANDATORY)
 	public <T> Mono<Page<T>> getPageAs(Optional<Instant> since, Pageable pageable, Function<ClusterRecord, T> mapper) {
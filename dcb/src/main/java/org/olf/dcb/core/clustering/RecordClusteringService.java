@@ -2,6 +2,7 @@ package org.olf.dcb.core.clustering;
 
 import java.time.Instant;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
@@ -29,6 +30,8 @@ public interface RecordClusteringService {
 	Mono<Page<UUID>> findNextPageUpdatedBefore(Instant before, Pageable page);
 	
 	Mono<Page<UUID>> findNextPageIndexedBefore(Instant before, Pageable page);
+	
+	Mono<List<UUID>> findNextIdsInRangeIndexedBefore(UUID after, UUID upTo, Instant before, int max);
 
 	Flux<ClusterRecord> findAllByIdInListWithBibs(Collection<UUID> ids);
 
@@ -36,6 +39,8 @@ public interface RecordClusteringService {
 
 	Mono<BibRecord> clusterBib(BibRecord bib);
 
+	Flux<BibRecord> clusterBibs(List<BibRecord> bibs);
+
 	<T> Mono<Page<T>> getPageAs(Optional<Instant> since, Pageable pageable, Function<ClusterRecord, T> mapper);
 
 	Mono<ClusterRecord> electSelectedBib(ClusterRecord cr, Optional<BibRecord> ignoreBib);
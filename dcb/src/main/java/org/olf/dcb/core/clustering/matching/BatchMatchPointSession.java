@@ -0,0 +1,94 @@
+package org.olf.dcb.core.clustering.matching;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.olf.dcb.core.clustering.matching.MatchpointService.BibMatchPoints;
+import org.olf.dcb.core.clustering.model.MatchPoint;
+import org.olf.dcb.core.model.BibRecord;
+import org.olf.dcb.storage.MatchPointRepository.MatchPointIndexEntry;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Match point session for clustering a batch of bibs in a single transaction.
+ *
+ * Candidate hits for every value in the batch are fetched up front. Reconciliation is held
+ * back and overlaid on those hits, so a bib later in the batch sees the match points of bibs
+ * clustered before it, and then written for the whole batch by {@link #flush()}.
+ */
+public class BatchMatchPointSession implements MatchPointSession {
+
+	private final MatchpointService matchpointService;
+
+	// Database state at the start of the batch, keyed by value.
+	private final Map<UUID, List<MatchPointIndexEntry>> prefetched;
+
+	// Match points reconciled during this batch, keyed by bib.
+	private final Map<UUID, BibMatchPoints> pending = new LinkedHashMap<>();
+
+	BatchMatchPointSession(MatchpointService matchpointService, Collection<MatchPointIndexEntry> entries) {
+		this.matchpointService = matchpointService;
+		this.prefetched = new LinkedHashMap<>();
+
+		entries.forEach(entry -> prefetched
+			.computeIfAbsent(entry.value(), _v -> new ArrayList<>())
+			.add(entry));
+	}
+
+	@Override
+	public synchronized Flux<MatchPoint> getMatchesByDerrivedType(String derivedType, Collection<UUID> matchPointValues) {
+
+		// Mirror the database, where a null derived type matches nothing.
+		if (derivedType == null) return Flux.empty();
+
+		final List<MatchPoint> matches = new ArrayList<>();
+		for (UUID value : matchPointValues) {
+
+			// Entries for bibs reconciled in this batch are superseded by the pending values below.
+			prefetched.getOrDefault(value, List.of()).stream()
+				.filter(entry -> !pending.containsKey(entry.bibId()))
+				.filter(entry -> derivedType.equals(entry.derivedType()))
+				.map(entry -> MatchPoint.builder()
+					.value(value)
+					.bibId(entry.bibId())
+					.build())
+				.forEach(matches::add);
+
+			pending.values().stream()
+				.filter(p -> derivedType.equals(p.bib().getDerivedType()))
+				.filter(p -> p.matchPoints().stream().anyMatch(mp -> Objects.equals(value, mp.getValue())))
+				.map(p -> MatchPoint.builder()
+					.value(value)
+					.bibId(p.bib().getId())
+					.build())
+				.forEach(matches::add);
+		}
+
+		return Flux.fromIterable(matches);
+	}
+
+	@Override
+	public synchronized Mono<Collection<MatchPoint>> reconcileMatchPoints(Collection<MatchPoint> currentMatchPoints, BibRecord bib) {
+		pending.put(bib.getId(), new BibMatchPoints(bib, List.copyOf(currentMatchPoints)));
+		return Mono.just(currentMatchPoints);
+	}
+
+	/**
+	 * Write the match points for every bib clustered in this session.
+	 */
+	public Mono<Long> flush() {
+		final List<BibMatchPoints> toWrite;
+		synchronized (this) {
+			toWrite = List.copyOf(pending.values());
+		}
+
+		return matchpointService.reconcileMatchPointsForBibs(toWrite);
+	}
+}
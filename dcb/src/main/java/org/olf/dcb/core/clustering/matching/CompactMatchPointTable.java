@@ -0,0 +1,193 @@
+package org.olf.dcb.core.clustering.matching;
+
+/**
+ * Open addressing multimap of match point value to bib id, with the derived
+ * type of the bib held alongside each entry.
+ *
+ * Both UUIDs are stored as primitive long pairs in a single flat array, so each
+ * entry costs 33 bytes regardless of how many entries share a value. Entries are
+ * positioned by the value alone, which means all bibs for a value live in one
+ * probe run and can be collected with a single scan.
+ *
+ * Not thread safe. Callers are expected to guard access.
+ */
+final class CompactMatchPointTable {
+
+	@FunctionalInterface
+	interface EntryVisitor {
+		void visit( long bibMsb, long bibLsb, byte typeCode );
+	}
+
+	static final byte EMPTY = 0;
+	static final byte TOMBSTONE = -1;
+
+	private static final int LONGS_PER_SLOT = 4;
+	private static final int MIN_SLOTS = 1 << 16;
+
+	// Keeps the backing long array addressable with an int index.
+	private static final int MAX_SLOTS = 1 << 28;
+	private static final double MAX_LOAD = 0.75d;
+
+	private final int slotLimit;
+
+	private long[] keys;
+	private byte[] types;
+	private int mask;
+	private int size = 0;
+	private int tombstones = 0;
+
+	CompactMatchPointTable( long maxEntries ) {
+		this.slotLimit = slotsFor( maxEntries );
+		allocate( Math.min( MIN_SLOTS, slotLimit ) );
+	}
+
+	private static int slotsFor( long entries ) {
+		final long required = (long)Math.ceil( entries / MAX_LOAD );
+		long slots = Long.highestOneBit( Math.max( required, 1L ) );
+		if (slots < required) slots <<= 1;
+
+		return (int)Math.min( Math.max( slots, 2L ), MAX_SLOTS );
+	}
+
+	private void allocate( int slots ) {
+		keys = new long[ slots * LONGS_PER_SLOT ];
+		types = new byte[ slots ];
+		mask = slots - 1;
+		size = 0;
+		tombstones = 0;
+	}
+
+	private static int hash( long msb, long lsb ) {
+		long h = msb ^ Long.rotateLeft(lsb, 32);
+		h ^= (h >>> 33);
+		h *= 0xff51afd7ed558ccdL;
+		h ^= (h >>> 33);
+		return (int) h;
+	}
+
+	int size() {
+		return size;
+	}
+
+	int capacity() {
+		return types.length;
+	}
+
+	/**
+	 * Add or update the entry for the value/bib pair.
+	 *
+	 * @return false if the table has reached its configured limit and could not accept the entry
+	 */
+	boolean put( long valueMsb, long valueLsb, long bibMsb, long bibLsb, byte typeCode ) {
+		if (typeCode <= EMPTY) throw new IllegalArgumentException("Type codes must be positive");
+
+		int slot = hash( valueMsb, valueLsb ) & mask;
+		int firstFree = -1;
+
+		byte state;
+		while ((state = types[slot]) != EMPTY) {
+			if (state == TOMBSTONE) {
+				if (firstFree < 0) firstFree = slot;
+			} else if (matches(slot, valueMsb, valueLsb, bibMsb, bibLsb)) {
+				types[slot] = typeCode;
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		if (firstFree < 0) {
+			if ((size + tombstones + 1) > (types.length * MAX_LOAD)) {
+				if (!resize()) return false;
+
+				// Positions have changed.
+				return put( valueMsb, valueLsb, bibMsb, bibLsb, typeCode );
+			}
+			firstFree = slot;
+		} else {
+			tombstones --;
+		}
+
+		write( firstFree, valueMsb, valueLsb, bibMsb, bibLsb, typeCode );
+		size ++;
+		return true;
+	}
+
+	boolean remove( long valueMsb, long valueLsb, long bibMsb, long bibLsb ) {
+		int slot = hash( valueMsb, valueLsb ) & mask;
+
+		byte state;
+		while ((state = types[slot]) != EMPTY) {
+			if (state != TOMBSTONE && matches(slot, valueMsb, valueLsb, bibMsb, bibLsb)) {
+				types[slot] = TOMBSTONE;
+				size --;
+				tombstones ++;
+				return true;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		return false;
+	}
+
+	void forEachWithValue( long valueMsb, long valueLsb, EntryVisitor visitor ) {
+		int slot = hash( valueMsb, valueLsb ) & mask;
+
+		byte state;
+		while ((state = types[slot]) != EMPTY) {
+			if (state != TOMBSTONE) {
+				final int base = slot * LONGS_PER_SLOT;
+				if (keys[base] == valueMsb && keys[base + 1] == valueLsb) {
+					visitor.visit( keys[base + 2], keys[base + 3], state );
+				}
+			}
+			slot = (slot + 1) & mask;
+		}
+	}
+
+	void clear() {
+		allocate( Math.min( MIN_SLOTS, slotLimit ) );
+	}
+
+	private boolean matches( int slot, long valueMsb, long valueLsb, long bibMsb, long bibLsb ) {
+		final int base = slot * LONGS_PER_SLOT;
+		return keys[base] == valueMsb && keys[base + 1] == valueLsb
+			&& keys[base + 2] == bibMsb && keys[base + 3] == bibLsb;
+	}
+
+	private void write( int slot, long valueMsb, long valueLsb, long bibMsb, long bibLsb, byte typeCode ) {
+		final int base = slot * LONGS_PER_SLOT;
+		keys[base] = valueMsb;
+		keys[base + 1] = valueLsb;
+		keys[base + 2] = bibMsb;
+		keys[base + 3] = bibLsb;
+		types[slot] = typeCode;
+	}
+
+	private boolean resize() {
+		// Only grow if the live entries warrant it, otherwise rehash in place to purge tombstones.
+		final int newSlots = (size + 1) > (types.length * MAX_LOAD / 2) ? types.length << 1 : types.length;
+		if (newSlots > slotLimit) return false;
+
+		final long[] oldKeys = keys;
+		final byte[] oldTypes = types;
+		allocate( newSlots );
+
+		for (int slot = 0; slot < oldTypes.length; slot++) {
+			final byte state = oldTypes[slot];
+			if (state == EMPTY || state == TOMBSTONE) continue;
+
+			final int base = slot * LONGS_PER_SLOT;
+			final long valueMsb = oldKeys[base];
+			final long valueLsb = oldKeys[base + 1];
+
+			int target = hash( valueMsb, valueLsb ) & mask;
+			while (types[target] != EMPTY) {
+				target = (target + 1) & mask;
+			}
+			write( target, valueMsb, valueLsb, oldKeys[base + 2], oldKeys[base + 3], state );
+			size ++;
+		}
+
+		return true;
+	}
+}
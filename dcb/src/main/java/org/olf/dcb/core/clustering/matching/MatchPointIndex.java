@@ -0,0 +1,324 @@
+package org.olf.dcb.core.clustering.matching;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.olf.dcb.core.clustering.model.MatchPoint;
+import org.olf.dcb.storage.MatchPointRepository;
+import org.olf.dcb.storage.MatchPointRepository.MatchPointIndexEntry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.ApplicationEventListener;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Node local index of match point value to the bibs that generated it, used to answer the
+ * candidate lookups performed during clustering without a round trip to the database.
+ *
+ * The index is warmed from the match_point table at startup and then kept in step by
+ * {@link MatchpointService#reconcileMatchPoints(Collection, org.olf.dcb.core.model.BibRecord)}
+ * once the surrounding transaction commits, and by {@link org.olf.dcb.core.svc.BibRecordService}
+ * when a bib's match points are deleted. Until warming completes, or if the index grows
+ * beyond the configured bound, lookups return empty and callers fall back to the database.
+ * A lookup that finds nothing in the index also falls back.
+ *
+ * A hit is only complete when every change to the match points passes through this node, so
+ * the index stays disabled when clustering is distributed across nodes. Changes made directly
+ * in the database, such as by housekeeping, are picked up by {@link #invalidate()}.
+ */
+@Slf4j
+@Singleton
+@Requires(property = MatchPointIndexConfig.PREFIX + ".enabled", value = "true")
+public class MatchPointIndex implements ApplicationEventListener<StartupEvent> {
+
+	public static enum State {
+		WARMING,
+		READY,
+		DISABLED
+	}
+
+	private static final String METRIC_NAME = "dcb.clustering.match-point-index";
+
+	// Code 1 is reserved for bibs without a derived type.
+	private static final byte NULL_TYPE_CODE = 1;
+	private static final int MAX_TYPE_CODES = Byte.MAX_VALUE;
+
+	private final MatchPointIndexConfig config;
+	private final MatchPointRepository matchPointRepository;
+	private final MeterRegistry meterRegistry;
+
+	private final CompactMatchPointTable table;
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final AtomicReference<State> state = new AtomicReference<>(State.WARMING);
+
+	private final Map<String, Byte> typeCodes = new ConcurrentHashMap<>();
+
+	// Bibs whose entries were written authoritatively while the warm was in progress.
+	// Rows streamed for these during the warm are older and must be ignored.
+	private final Set<UUID> touchedDuringWarm = ConcurrentHashMap.newKeySet();
+
+	// Incremented for each warm, so that one replaced by a later warm stops loading.
+	private final AtomicLong warmGeneration = new AtomicLong();
+
+	public MatchPointIndex(MatchPointIndexConfig config, MatchPointRepository matchPointRepository,
+			MeterRegistry meterRegistry) {
+		this.config = config;
+		this.matchPointRepository = matchPointRepository;
+		this.meterRegistry = meterRegistry;
+		this.table = new CompactMatchPointTable(config.getMaxEntries());
+
+		meterRegistry.gauge(METRIC_NAME + ".entries", this, idx -> idx.size());
+	}
+
+	@Override
+	public void onApplicationEvent(StartupEvent event) {
+		if (config.isDistributed()) {
+			log.warn("Match point index is only used when a single node performs clustering. Clustering will use the database");
+			disable();
+			return;
+		}
+
+		warm();
+	}
+
+	public State getState() {
+		return state.get();
+	}
+
+	public boolean isReady() {
+		return state.get() == State.READY;
+	}
+
+	/**
+	 * Discard the index and warm it again from the database, for use after match points have
+	 * been changed without going through the index. Lookups use the database until it is ready.
+	 */
+	public void invalidate() {
+		lock.writeLock().lock();
+		try {
+			if (state.get() == State.DISABLED) return;
+
+			// Stop any warm in progress from loading into the cleared table
+			warmGeneration.incrementAndGet();
+			state.set(State.WARMING);
+			touchedDuringWarm.clear();
+			table.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		log.info("Match point index invalidated");
+		warm();
+	}
+
+	protected void warm() {
+		final long start = System.nanoTime();
+		final long generation = warmGeneration.incrementAndGet();
+		log.info("Warming match point index from the database");
+
+		Flux.from(matchPointRepository.streamIndexEntries())
+			.buffer(10_000)
+			.takeWhile(entries -> state.get() == State.WARMING && warmGeneration.get() == generation)
+			.doOnNext(entries -> loadWarmEntries(entries, generation))
+			.then()
+			.subscribe(
+				_v -> {},
+				error -> {
+					log.error("Failed to warm match point index. Clustering will use the database", error);
+					disable();
+				},
+				() -> {
+					if (warmGeneration.get() == generation && state.compareAndSet(State.WARMING, State.READY)) {
+						touchedDuringWarm.clear();
+						log.info("Match point index ready with [{}] entries in [{}]", size(),
+							Duration.ofNanos(System.nanoTime() - start));
+					}
+				});
+	}
+
+	private void loadWarmEntries(List<MatchPointIndexEntry> entries, long generation) {
+		lock.writeLock().lock();
+		try {
+			if (warmGeneration.get() != generation) return;
+
+			for (MatchPointIndexEntry entry : entries) {
+				if (touchedDuringWarm.contains(entry.bibId())) continue;
+
+				if (!putEntry(entry.value(), entry.bibId(), entry.derivedType())) return;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Find the match points with any of the supplied values, for bibs of the given derived type.
+	 *
+	 * @return Empty if the index cannot answer authoritatively and the database should be used
+	 */
+	public Optional<List<MatchPoint>> findMatches(@Nullable String derivedType, @NonNull Collection<UUID> values) {
+		if (!isReady()) {
+			meterRegistry.counter(METRIC_NAME, "result", "fallback").increment();
+			return Optional.empty();
+		}
+
+		final Byte wantedCode = typeCodes.get(typeKey(derivedType));
+		final List<MatchPoint> matches = new ArrayList<>();
+
+		// A type never seen can't match anything.
+		if (wantedCode != null) {
+			lock.readLock().lock();
+			try {
+				for (UUID value : values) {
+					table.forEachWithValue(value.getMostSignificantBits(), value.getLeastSignificantBits(),
+						(bibMsb, bibLsb, code) -> {
+							if (code == wantedCode) {
+								matches.add(MatchPoint.builder()
+									.value(value)
+									.bibId(new UUID(bibMsb, bibLsb))
+									.build());
+							}
+						});
+				}
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+
+		// Only a hit is trusted, a miss is confirmed against the database.
+		if (matches.isEmpty()) {
+			meterRegistry.counter(METRIC_NAME, "result", "miss").increment();
+			return Optional.empty();
+		}
+
+		meterRegistry.counter(METRIC_NAME, "result", "hit").increment();
+		return Optional.of(matches);
+	}
+
+	/**
+	 * Record the committed match point state for a bib.
+	 */
+	public void apply(@NonNull UUID bibId, @Nullable String derivedType, @NonNull Collection<UUID> currentValues,
+			@NonNull Collection<UUID> removedValues) {
+
+		final MatchPointIndexDelta delta = new MatchPointIndexDelta(bibId, derivedType,
+			List.copyOf(currentValues), List.copyOf(removedValues));
+
+		applyDelta(delta);
+	}
+
+	/**
+	 * Forget the committed match point values of a bib whose match points have been deleted.
+	 */
+	public void remove(@NonNull UUID bibId, @NonNull Collection<UUID> removedValues) {
+		apply(bibId, null, List.of(), removedValues);
+	}
+
+	private void applyDelta(MatchPointIndexDelta delta) {
+		if (state.get() == State.DISABLED) return;
+
+		if (state.get() == State.WARMING) {
+			touchedDuringWarm.add(delta.bibId());
+		}
+
+		lock.writeLock().lock();
+		try {
+			final long bibMsb = delta.bibId().getMostSignificantBits();
+			final long bibLsb = delta.bibId().getLeastSignificantBits();
+
+			for (UUID value : delta.removedValues()) {
+				table.remove(value.getMostSignificantBits(), value.getLeastSignificantBits(), bibMsb, bibLsb);
+			}
+
+			for (UUID value : delta.currentValues()) {
+				if (!putEntry(value, delta.bibId(), delta.derivedType())) return;
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Must hold the write lock.
+	private boolean putEntry(UUID value, UUID bibId, String derivedType) {
+		final Byte code = codeFor(derivedType);
+		if (code == null || !table.put(value.getMostSignificantBits(), value.getLeastSignificantBits(),
+				bibId.getMostSignificantBits(), bibId.getLeastSignificantBits(), code)) {
+
+			log.warn("Match point index exceeded its configured bounds of [{}] entries, [{}] derived types. Reverting to database lookups",
+				config.getMaxEntries(), MAX_TYPE_CODES - 1);
+			disable();
+			return false;
+		}
+
+		return true;
+	}
+
+	private void disable() {
+		if (state.getAndSet(State.DISABLED) != State.DISABLED) {
+			touchedDuringWarm.clear();
+
+			lock.writeLock().lock();
+			try {
+				table.clear();
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	private static String typeKey(String derivedType) {
+		return Objects.requireNonNullElse(derivedType, "");
+	}
+
+	private Byte codeFor(String derivedType) {
+		final String key = typeKey(derivedType);
+		if (key.isEmpty()) return NULL_TYPE_CODE;
+
+		final Byte existing = typeCodes.get(key);
+		if (existing != null) return existing;
+
+		synchronized (typeCodes) {
+			return typeCodes.computeIfAbsent(key, k -> {
+				// Code 0 is the empty marker and 1 is reserved.
+				final int next = typeCodes.size() + 2;
+				if (next > MAX_TYPE_CODES) return null;
+
+				return (byte) next;
+			});
+		}
+	}
+
+	private int size() {
+		lock.readLock().lock();
+		try {
+			return table.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public static record MatchPointIndexDelta(
+		UUID bibId,
+		@Nullable String derivedType,
+		List<UUID> currentValues,
+		List<UUID> removedValues) {
+	}
+}
@@ -0,0 +1,28 @@
+package org.olf.dcb.core.clustering.matching;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+
+@ConfigurationProperties(MatchPointIndexConfig.PREFIX)
+public interface MatchPointIndexConfig {
+	public static final String PREFIX = "dcb.clustering.match-point-index";
+
+	@Bindable(defaultValue = "false")
+	boolean isEnabled();
+
+	/**
+	 * Upper bound on the number of match point entries held. The index disables itself,
+	 * reverting to database lookups, rather than grow beyond this. Each entry costs
+	 * roughly 44 bytes of heap at the maximum load factor.
+	 */
+	@Bindable(defaultValue = "20000000")
+	long getMaxEntries();
+
+	/**
+	 * Whether more than one node performs clustering. The index can only be complete
+	 * when every match point change passes through it, so it stays disabled unless this
+	 * is turned off for a deployment where a single node performs all clustering.
+	 */
+	@Bindable(defaultValue = "true")
+	boolean isDistributed();
+}
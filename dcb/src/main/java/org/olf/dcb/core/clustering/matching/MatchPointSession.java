@@ -0,0 +1,22 @@
+package org.olf.dcb.core.clustering.matching;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import org.olf.dcb.core.clustering.model.MatchPoint;
+import org.olf.dcb.core.model.BibRecord;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * The match point reads and writes made while clustering. Clustering a single bib goes
+ * straight to {@link MatchpointService}, whereas a batch can answer lookups from data
+ * fetched up front and defer its writes until every bib in the batch has been clustered.
+ */
+public interface MatchPointSession {
+
+	Flux<MatchPoint> getMatchesByDerrivedType(String derivedType, Collection<UUID> matchPointValues);
+
+	Mono<Collection<MatchPoint>> reconcileMatchPoints(Collection<MatchPoint> currentMatchPoints, BibRecord bib);
+}
@@ -1,13 +1,17 @@
 package org.olf.dcb.core.clustering.matching;
 
-import static services.k_int.utils.TupleUtils.curry;
-
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.olf.dcb.core.clustering.DefaultRecordClusteringService;
@@ -28,11 +32,12 @@ import jakarta.inject.Singleton;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import services.k_int.events.ReactiveTransactionalBehaviours;
 
 @Slf4j
 @Singleton
 @Requires(bean = DefaultRecordClusteringService.class)
-public class MatchpointService {
+public class MatchpointService implements MatchPointSession {
 	public static final String MATCHPOINT_ID = "id";
 	private static final Pattern PATTERN_WILCARD = Pattern.compile("\\*");
 	
@@ -71,11 +76,16 @@ public class MatchpointService {
 	private final MatchPointRepository matchPointRepository;
 
 	private final BibRepository bibRepository;
+	private final Optional<MatchPointIndex> matchPointIndex;
+	private final ReactiveTransactionalBehaviours transactionalBehaviours;
 	
-	public MatchpointService(MatchPointRepository matchPointRepository, BibRecordService bibRecords, BibRepository bibRepository) {
+	public MatchpointService(MatchPointRepository matchPointRepository, BibRecordService bibRecords, BibRepository bibRepository,
+			Optional<MatchPointIndex> matchPointIndex, ReactiveTransactionalBehaviours transactionalBehaviours) {
 		this.bibRecords = bibRecords;
 		this.matchPointRepository = matchPointRepository;
 		this.bibRepository = bibRepository;
+		this.matchPointIndex = matchPointIndex;
+		this.transactionalBehaviours = transactionalBehaviours;
 	}
 	
 	private boolean completeIdentifiersPredicate ( BibIdentifier bibId ) {
@@ -122,11 +132,13 @@ public class MatchpointService {
 		return bibRecords.findAllIdentifiersForBib( bib )
 			.filter( this::completeIdentifiersPredicate )
 			.filter( this::usableForClusteringIdentifiersPredicate )
-			.map( id -> {
-				String s = String.format("%s:%s:%s", MATCHPOINT_ID, id.getNamespace(), id.getValue());
-				MatchPoint mp = MatchPoint.buildFromString(s, id.getNamespace());
-				return mp;
-      });
+			.map( this::toIdMatchPoint );
+	}
+	
+	private MatchPoint toIdMatchPoint( BibIdentifier id ) {
+		String s = String.format("%s:%s:%s", MATCHPOINT_ID, id.getNamespace(), id.getValue());
+		MatchPoint mp = MatchPoint.buildFromString(s, id.getNamespace());
+		return mp;
 	}
 	
 	private Flux<MatchPoint> recordMatchPoints ( BibRecord bib ) {
@@ -140,39 +152,159 @@ public class MatchpointService {
 				.map( mp -> mp.setBibId(bib.getId()));
 	}
 	
+	/**
+	 * Generate the match points for several bibs, reading their identifiers in one query.
+	 * 
+	 * @return Map of bib id to match points. Bibs without match points are still present.
+	 */
 	@Transactional(propagation = Propagation.MANDATORY)
-	public Mono<Collection<MatchPoint>> reconcileMatchPoints( Collection<MatchPoint> currentMatchPoints, BibRecord bib ) {
-
-		return Flux.fromIterable( currentMatchPoints )
-			.map( MatchPoint::getValue )
-			.collectList()
-			.map( curry(bib.getId(), matchPointRepository::deleteAllByBibIdAndValueNotIn) )
-			.flatMap(Mono::from)
-			.doOnNext( del -> {
-				if (del > 0) log.info("Deleted {} existing matchpoints that are no longer valid from {}", del, bib.getId());
+	public Mono<Map<UUID, List<MatchPoint>>> generateMatchPoints ( final Collection<BibRecord> bibs ) {
+		final Map<UUID, List<MatchPoint>> pointsByBib = new LinkedHashMap<>();
+		bibs.forEach( bib -> pointsByBib.put( bib.getId(), new ArrayList<>() ));
+		
+		return bibRecords.findAllIdentifiersForBibs( pointsByBib.keySet() )
+			.filter( this::completeIdentifiersPredicate )
+			.filter( this::usableForClusteringIdentifiersPredicate )
+			.doOnNext( id -> {
+				final UUID bibId = id.getOwner().getId();
+				pointsByBib.get( bibId ).add( toIdMatchPoint(id).setBibId(bibId) );
 			})
-			.then( symmetricDifference(bib.getId(), currentMatchPoints) )
-			.flatMapMany( matchPointRepository::saveAll )
-			.count()
-			.map( added -> {
-				// if (added > 0) log.trace("Added {} new matchpoints for {}", added, bib.getId());
-				return currentMatchPoints;
-			});
+			.then( Mono.fromSupplier(() -> pointsByBib) );
 	}
 	
+	/**
+	 * Open a session for clustering a batch of bibs, pre-fetching the existing match points
+	 * for all the supplied values in a single query.
+	 */
 	@Transactional(propagation = Propagation.MANDATORY)
-	protected Mono<List<MatchPoint>> symmetricDifference ( UUID bibId, Collection<MatchPoint> currentMatchPoints ) {
-		return Flux.from( matchPointRepository.findAllByBibId( bibId ) )
-			.map( MatchPoint::getValue )
+	public Mono<BatchMatchPointSession> openBatchSession( Collection<UUID> pointValues ) {
+		if (pointValues.isEmpty()) return Mono.just( new BatchMatchPointSession(this, List.of()) );
+		
+		return Flux.from( matchPointRepository.findIndexEntriesByValueIn( pointValues ) )
 			.collectList()
-			.map( current_bib_match_points -> currentMatchPoints.stream()
-          // Include and value not already present
-					.filter( mp -> !current_bib_match_points.contains( mp.getValue() ) )
-					.toList());
+			.map( entries -> new BatchMatchPointSession(this, entries) );
+	}
+	
+	/**
+	 * Reconcile the match points for several bibs with one read, one delete and one insert.
+	 * 
+	 * @return The number of match points added
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public Mono<Long> reconcileMatchPointsForBibs( Collection<BibMatchPoints> bibMatchPoints ) {
+		if (bibMatchPoints.isEmpty()) return Mono.just(0L);
+		
+		final Map<UUID, BibMatchPoints> byBib = new LinkedHashMap<>();
+		bibMatchPoints.forEach( bmp -> byBib.put(bmp.bib().getId(), bmp) );
+		
+		return Flux.from( matchPointRepository.findAllByBibIdIn( byBib.keySet() ) )
+			.collectMultimap( MatchPoint::getBibId )
+			.flatMap( existingByBib -> {
+				final List<UUID> toDelete = new ArrayList<>();
+				final List<MatchPoint> toAdd = new ArrayList<>();
+				
+				byBib.forEach( (bibId, bmp) -> {
+					final Set<UUID> currentValues = bmp.currentValues();
+					final Collection<MatchPoint> existing = existingByBib.getOrDefault(bibId, List.of());
+					final Set<UUID> existingValues = existing.stream()
+						.map( MatchPoint::getValue )
+						.collect(Collectors.toUnmodifiableSet());
+					
+					existing.stream()
+						.filter( mp -> !currentValues.contains(mp.getValue()) )
+						.map( MatchPoint::getId )
+						.forEach( toDelete::add );
+					
+					bmp.matchPoints().stream()
+						.filter( mp -> !existingValues.contains(mp.getValue()) )
+						.forEach( toAdd::add );
+				});
+				
+				if (toDelete.size() > 0) log.info("Deleting {} existing matchpoints that are no longer valid from {} bibs", toDelete.size(), byBib.size());
+				
+				final Mono<Long> deletes = toDelete.isEmpty()
+					? Mono.just(0L)
+					: Mono.from( matchPointRepository.deleteAllByIdIn(toDelete) );
+				
+				final Mono<Long> adds = toAdd.isEmpty()
+					? Mono.just(0L)
+					: Flux.from( matchPointRepository.saveAll(toAdd) ).count();
+				
+				return deletes
+					.then( adds )
+					.transform( updateIndexOnCommittal( byBib.values(), existingByBib ) );
+			});
 	}
+	
+	private Function<Mono<Long>, Mono<Long>> updateIndexOnCommittal( Collection<BibMatchPoints> bibMatchPoints, Map<UUID, Collection<MatchPoint>> existingByBib ) {
+		if (matchPointIndex.isEmpty()) return Function.identity();
+		
+		return mono -> mono.transform( transactionalBehaviours.doOnCommittal(() -> bibMatchPoints.forEach( bmp -> {
+			final Set<UUID> currentValues = bmp.currentValues();
+			final List<UUID> removedValues = existingByBib.getOrDefault(bmp.bib().getId(), List.of()).stream()
+				.map( MatchPoint::getValue )
+				.filter( value -> !currentValues.contains(value) )
+				.toList();
+			
+			matchPointIndex.get().apply(bmp.bib().getId(), bmp.bib().getDerivedType(), currentValues, removedValues);
+		})));
+	}
+	
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public Mono<Collection<MatchPoint>> reconcileMatchPoints( Collection<MatchPoint> currentMatchPoints, BibRecord bib ) {
 
+		final Set<UUID> currentValues = currentMatchPoints.stream()
+			.map( MatchPoint::getValue )
+			.collect(Collectors.toUnmodifiableSet());
+		
+		// Read the existing values first, so we know both what to add and what was removed.
+		return Flux.from( matchPointRepository.findAllByBibId( bib.getId() ) )
+			.map( MatchPoint::getValue )
+			.collect(Collectors.toUnmodifiableSet())
+			.flatMap( existingValues -> Mono.from( matchPointRepository.deleteAllByBibIdAndValueNotIn(bib.getId(), currentValues) )
+				.doOnNext( del -> {
+					if (del > 0) log.info("Deleted {} existing matchpoints that are no longer valid from {}", del, bib.getId());
+				})
+				.thenMany( Flux.fromIterable( currentMatchPoints )
+					// Include and value not already present
+					.filter( mp -> !existingValues.contains( mp.getValue() ) )
+					.collectList()
+					.flatMapMany( matchPointRepository::saveAll ))
+				.count()
+				.map( added -> {
+					// if (added > 0) log.trace("Added {} new matchpoints for {}", added, bib.getId());
+					return currentMatchPoints;
+				})
+				.transform( updateIndexOnCommittal(bib, currentValues, existingValues) ));
+	}
+	
+	private Function<Mono<Collection<MatchPoint>>, Mono<Collection<MatchPoint>>> updateIndexOnCommittal( BibRecord bib, Set<UUID> currentValues, Set<UUID> existingValues ) {
+		if (matchPointIndex.isEmpty()) return Function.identity();
+		
+		final List<UUID> removedValues = existingValues.stream()
+			.filter( value -> !currentValues.contains(value) )
+			.toList();
+		
+		return mono -> mono.transform( transactionalBehaviours.doOnCommittal(() -> matchPointIndex.get()
+			.apply(bib.getId(), bib.getDerivedType(), currentValues, removedValues)) );
+	}
+	
+	@Override
 	@Transactional(propagation = Propagation.MANDATORY)
 	public Flux<MatchPoint> getMatchesByDerrivedType(String derrivedType, Collection<UUID> matchPointValues) {
-		return Flux.from(matchPointRepository.getMatchesByDerrivedType(derrivedType, matchPointValues));
+		return matchPointIndex
+			.flatMap( index -> index.findMatches(derrivedType, matchPointValues) )
+			.map( Flux::fromIterable )
+			.orElseGet(() -> Flux.from(matchPointRepository.getMatchesByDerrivedType(derrivedType, matchPointValues)));
+	}
+	
+	public static record BibMatchPoints( BibRecord bib, Collection<MatchPoint> matchPoints ) {
+		
+		Set<UUID> currentValues() {
+			return matchPoints.stream()
+				.map( MatchPoint::getValue )
+				.collect(Collectors.toUnmodifiableSet());
+		}
 	}
 }
@@ -4,6 +4,7 @@ import static org.olf.dcb.utils.PropertyAccessUtils.getValue;
 import static org.olf.dcb.utils.PropertyAccessUtils.getValueOrNull;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -17,6 +18,7 @@ import org.olf.dcb.interops.ConfigType;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.scheduling.TaskExecutors;
 import io.micronaut.scheduling.annotation.ExecuteOn;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface HostLmsClient
@@ -64,6 +66,30 @@ public interface HostLmsClient
 	@ExecuteOn( TaskExecutors.BLOCKING)
 	Mono<List<Item>> getItems(BibRecord bibRecord);
 
+	/**
+	 * Largest number of bibs {@link #getItems(Collection)} will look up in a single request.
+	 * 1 indicates the system has no means of looking up items for several bibs at once.
+	 */
+	default int getItemsBatchSize() {
+		return 1;
+	}
+
+	/**
+	 * Fetch the items for several bibs at once. Unless overridden, each bib is looked up individually.
+	 * Fails with {@link UnsupportedOperationException} when the system could not answer for this batch,
+	 * so that each bib can be looked up individually instead.
+	 *
+	 * @param bibRecords Bibs to fetch the items for, no more than {@link #getItemsBatchSize()}
+	 * @return Items keyed by the source record ID of each bib, with an empty list for bibs without items
+	 */
+	default Mono<Map<String, List<Item>>> getItems(Collection<BibRecord> bibRecords) {
+		return Flux.fromIterable(bibRecords)
+			.flatMap(bib -> getItems(bib)
+				.defaultIfEmpty(List.of())
+				.map(items -> Map.entry(bib.getSourceRecordId(), items)))
+			.collectMap(Map.Entry::getKey, Map.Entry::getValue);
+	}
+
 	Mono<Patron> findVirtualPatron(org.olf.dcb.core.model.Patron patron);
 
 	Mono<String> createPatron(Patron patron);
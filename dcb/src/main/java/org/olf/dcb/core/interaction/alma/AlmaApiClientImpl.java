@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.Optional;
 
 import static io.micronaut.http.MediaType.APPLICATION_JSON;
+import static org.olf.dcb.metrics.HostLmsHttpMetricsFilter.forHostLms;
 import static services.k_int.utils.ReactorUtils.raiseError;
 
 @Slf4j
@@ -35,6 +36,7 @@ public class AlmaApiClientImpl implements AlmaApiClient {
 	private final HttpClient httpClient;
 	private final AlmaClientConfig config;
 	private final ObjectMapper objectMapper;
+	private final String hostLmsCode;
 
 	public AlmaApiClientImpl() {
 		// No args constructor needed for Micronaut bean
@@ -52,6 +54,7 @@ public class AlmaApiClientImpl implements AlmaApiClient {
 
 		this.httpClient = httpClient;
 		this.objectMapper = objectMapper;
+		this.hostLmsCode = hostLms.getCode();
 		this.config = new AlmaClientConfig(hostLms);
 	}
 
@@ -150,7 +153,7 @@ public class AlmaApiClientImpl implements AlmaApiClient {
 		// So we can use the body in error messages
 		String finalBodyJson = bodyJson;
 
-		return Mono.from(httpClient.exchange(request, argumentType, Argument.of(HttpClientResponseException.class)))
+		return Mono.from(httpClient.exchange(forHostLms(request, hostLmsCode), argumentType, Argument.of(HttpClientResponseException.class)))
 			.flatMap(response -> {
 
 				if (response.getBody().isPresent()) {
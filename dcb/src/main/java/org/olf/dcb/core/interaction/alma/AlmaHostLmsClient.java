@@ -36,6 +36,7 @@ import org.olf.dcb.core.svc.LocationService;
 import org.olf.dcb.core.svc.LocationToAgencyMappingService;
 import org.olf.dcb.core.svc.ReferenceValueMappingService;
 import org.olf.dcb.interops.ConfigType;
+import org.olf.dcb.metrics.HostLmsClientMetrics;
 import org.zalando.problem.DefaultProblem;
 import org.zalando.problem.Problem;
 
@@ -73,6 +74,7 @@ import services.k_int.utils.UUIDUtils;
 
 @Slf4j
 @Prototype
+@HostLmsClientMetrics
 // @See https://openlibraryfoundation.atlassian.net/wiki/spaces/DCB/pages/3234496514/ALMA+Integration
 public class AlmaHostLmsClient implements HostLmsClient {
 	private final HostLms hostLms;
@@ -10,12 +10,14 @@ import static io.micronaut.http.HttpMethod.POST;
 import static io.micronaut.http.HttpMethod.PUT;
 import static io.micronaut.http.HttpStatus.BAD_REQUEST;
 import static io.micronaut.http.MediaType.APPLICATION_JSON;
+import static java.lang.Boolean.FALSE;
 import static java.lang.Boolean.TRUE;
 import static java.util.function.Function.identity;
 import static org.olf.dcb.core.interaction.HostLmsItem.ITEM_AVAILABLE;
 import static org.olf.dcb.core.interaction.HostLmsItem.ITEM_LOANED;
 import static org.olf.dcb.core.interaction.HostLmsItem.ITEM_ON_HOLDSHELF;
 import static org.olf.dcb.core.interaction.HostLmsItem.ITEM_TRANSIT;
+import static org.olf.dcb.core.interaction.HostLmsPropertyDefinition.integerPropertyDefinition;
 import static org.olf.dcb.core.interaction.HostLmsPropertyDefinition.stringPropertyDefinition;
 import static org.olf.dcb.core.interaction.HostLmsPropertyDefinition.urlPropertyDefinition;
 import static org.olf.dcb.core.interaction.HostLmsRequest.HOLD_CANCELLED;
@@ -65,6 +67,7 @@ import static org.olf.dcb.core.interaction.folio.TransactionStatus.OPEN;
 import static org.olf.dcb.core.interaction.folio.CqlQuery.exactEqualityQuery;
 import static org.olf.dcb.core.model.FunctionalSettingType.VIRTUAL_PATRON_NAMES_VISIBLE;
 import static org.olf.dcb.core.model.WorkflowConstants.EXPEDITED_WORKFLOW;
+import static org.olf.dcb.metrics.HostLmsHttpMetricsFilter.forHostLms;
 import static org.olf.dcb.core.model.WorkflowConstants.PICKUP_ANYWHERE_WORKFLOW;
 import static org.olf.dcb.utils.PropertyAccessUtils.getValue;
 import static org.olf.dcb.utils.PropertyAccessUtils.getValueOrNull;
@@ -76,13 +79,17 @@ import static services.k_int.utils.UUIDUtils.dnsUUID;
 import java.net.URI;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
 
 import org.olf.dcb.core.ConsortiumService;
 import org.olf.dcb.core.error.DcbError;
 import org.olf.dcb.core.interaction.*;
+import org.olf.dcb.core.interaction.HostLmsPropertyDefinition.IntegerHostLmsPropertyDefinition;
 import org.olf.dcb.core.interaction.shared.MissingParameterException;
 import org.olf.dcb.core.interaction.shared.NoItemTypeMappingFoundException;
 import org.olf.dcb.core.interaction.shared.NoPatronTypeMappingFoundException;
@@ -96,6 +103,7 @@ import org.olf.dcb.core.model.NoHomeBarcodeException;
 import org.olf.dcb.core.model.NoHomeIdentityException;
 import org.olf.dcb.core.model.ReferenceValueMapping;
 import org.olf.dcb.core.svc.ReferenceValueMappingService;
+import org.olf.dcb.metrics.HostLmsClientMetrics;
 import org.reactivestreams.Publisher;
 import org.zalando.problem.ThrowableProblem;
 
@@ -124,6 +132,7 @@ import reactor.core.publisher.Mono;
 
 @Slf4j
 @Prototype
+@HostLmsClientMetrics
 public class ConsortialFolioHostLmsClient implements HostLmsClient {
 	// These are the same config keys as from FolioOaiPmhIngestSource
 	// which was implemented prior to this client
@@ -131,6 +140,10 @@ public class ConsortialFolioHostLmsClient implements HostLmsClient {
 		= urlPropertyDefinition("base-url", "Base URL of the FOLIO system", TRUE);
 	private static final HostLmsPropertyDefinition API_KEY_SETTING
 		= stringPropertyDefinition("apikey", "API key for this FOLIO tenant", TRUE);
+	private static final IntegerHostLmsPropertyDefinition ITEMS_BATCH_SIZE_SETTING
+		= integerPropertyDefinition("items-batch-size", "Maximum number of instances to fetch items for in a single RTAC request", FALSE);
+
+	private static final int DEFAULT_ITEMS_BATCH_SIZE = 20;
 
 	private final HostLms hostLms;
 
@@ -173,7 +186,8 @@ public class ConsortialFolioHostLmsClient implements HostLmsClient {
 	public List<HostLmsPropertyDefinition> getSettings() {
 		return List.of(
 			BASE_URL_SETTING,
-			API_KEY_SETTING
+			API_KEY_SETTING,
+			ITEMS_BATCH_SIZE_SETTING
 		);
 	}
 
@@ -187,6 +201,68 @@ public class ConsortialFolioHostLmsClient implements HostLmsClient {
 			.collectList();
 	}
 
+	@Override
+	public int getItemsBatchSize() {
+		return Math.max(ITEMS_BATCH_SIZE_SETTING.getOptionalValueFrom(getConfig(), DEFAULT_ITEMS_BATCH_SIZE), 1);
+	}
+
+	/**
+	 * Fetch the items for several instances in a single RTAC request.
+	 * RTAC accepts a comma separated list of instance IDs and responds with an outer holding per instance.
+	 */
+	@Override
+	public Mono<Map<String, List<Item>>> getItems(Collection<BibRecord> bibs) {
+		final var instanceIds = bibs.stream()
+			.map(BibRecord::getSourceRecordId)
+			.distinct()
+			.toList();
+
+		return getHoldings(String.join(",", instanceIds))
+			.flatMap(outerHoldings -> checkBatchResponse(outerHoldings, instanceIds))
+			.flatMapIterable(outerHoldings -> getValue(outerHoldings, OuterHoldings::getHoldings, List.of()))
+			.flatMap(outerHolding -> mapHoldingsToItems(outerHolding)
+				.collectList()
+				.map(items -> Map.entry(outerHolding.getInstanceId(), items)))
+			.collectMap(Map.Entry::getKey, Map.Entry::getValue)
+			.map(found -> {
+				final Map<String, List<Item>> itemsByInstance = new HashMap<>();
+				instanceIds.forEach(id -> itemsByInstance.put(id, found.getOrDefault(id, List.of())));
+				return itemsByInstance;
+			});
+	}
+
+	private Mono<OuterHoldings> checkBatchResponse(OuterHoldings outerHoldings, List<String> instanceIds) {
+		final var joinedIds = String.join(",", instanceIds);
+
+		if (!hasNoErrors(outerHoldings) && !allErrorsAreHoldingsNotFound(outerHoldings)) {
+			log.error("Failed to get items for instance IDs: {} from Host LMS: {}, errors: {}",
+				joinedIds, getHostLmsCode(), outerHoldings.getErrors());
+
+			return Mono.error(new FailedToGetItemsException(joinedIds, getHostLmsCode()));
+		}
+
+		if (hasNoErrors(outerHoldings) && hasNoOuterHoldings(outerHoldings)) {
+			// RTAC returns no outer holdings (instances) when the API key is invalid
+			return Mono.error(new LikelyInvalidApiKeyException(joinedIds, getHostLmsCode()));
+		}
+
+		// Items can only be attributed to a bib using the instance ID of the outer holding
+		final boolean unexpectedInstance = getValue(outerHoldings, OuterHoldings::getHoldings, List.<OuterHolding>of())
+			.stream()
+			.anyMatch(outerHolding -> !instanceIds.contains(outerHolding.getInstanceId()));
+
+		if (unexpectedInstance) {
+			log.warn("Unexpected outer holdings (instances) received from RTAC for instance IDs: {} from Host LMS: {}, response: {}",
+				joinedIds, getHostLmsCode(), outerHoldings);
+
+			// Each instance is looked up on its own instead
+			return Mono.error(new UnsupportedOperationException(
+				"Unable to attribute RTAC holdings to instances: " + joinedIds));
+		}
+
+		return Mono.just(outerHoldings);
+	}
+
 	private Mono<OuterHoldings> getHoldings(String instanceId) {
 		final var request = authorisedRequest(GET, PATH_RTAC)
 			.uri(uriBuilder -> uriBuilder
@@ -1275,12 +1351,12 @@ public class ConsortialFolioHostLmsClient implements HostLmsClient {
 	private MutableHttpRequest<Object> authorisedRequest(HttpMethod method, String path) {
 		final var relativeUri = UriBuilder.of(path).build();
 
-		return HttpRequest.create(method, resolve(relativeUri).toString())
+		return forHostLms(HttpRequest.create(method, resolve(relativeUri).toString())
 			// Base 64 encoded API key
 			.header("Authorization", apiKey)
 			// MUST explicitly accept JSON for edge-rtac otherwise XML will be returned
 			// for other edge APIs it's only good form
-			.accept(APPLICATION_JSON);
+			.accept(APPLICATION_JSON), hostLms.getCode());
 	}
 
 	private URI resolve(URI relativeURI) {
@@ -26,6 +26,7 @@ import java.util.Optional;
 
 import static io.micronaut.http.MediaType.APPLICATION_JSON;
 import static io.micronaut.http.MediaType.APPLICATION_FORM_URLENCODED;
+import static org.olf.dcb.metrics.HostLmsHttpMetricsFilter.forHostLms;
 import static services.k_int.utils.ReactorUtils.raiseError;
 
 /** Koha Api Client Impl - based off Alma approach **/
@@ -37,6 +38,7 @@ public class KohaApiClientImpl implements KohaApiClient {
 	private final HttpClient httpClient;
 	private final KohaClientConfig config; // Assuming you create a Koha version of AlmaClientConfig
 	private final ObjectMapper objectMapper;
+	private final String hostLmsCode;
 
 	// Reactive cache for the OAuth2 token
 	private Mono<String> currentTokenMono;
@@ -51,6 +53,7 @@ public class KohaApiClientImpl implements KohaApiClient {
 													 ObjectMapper objectMapper) {
 		this.httpClient = httpClient;
 		this.objectMapper = objectMapper;
+		this.hostLmsCode = hostLms.getCode();
 		this.config = new KohaClientConfig(hostLms);
 	}
 
@@ -181,7 +184,7 @@ public class KohaApiClientImpl implements KohaApiClient {
 		log.debug("Starting Koha exchange for - Method: {}, URI: {}, argumentType: {}", request.getMethod(), request.getUri(), argumentType);
 		String finalBodyJson = bodyJson;
 
-		return Mono.from(httpClient.exchange(request, argumentType, Argument.of(HttpClientResponseException.class)))
+		return Mono.from(httpClient.exchange(forHostLms(request, hostLmsCode), argumentType, Argument.of(HttpClientResponseException.class)))
 			.flatMap(response -> {
 				if (response.getBody().isPresent() || argumentType.equalsType(Argument.of(Void.class))) {
 					return Mono.just(response);
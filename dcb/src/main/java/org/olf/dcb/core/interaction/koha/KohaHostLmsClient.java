@@ -1,6 +1,7 @@
 package org.olf.dcb.core.interaction.koha;
 
 import io.micronaut.context.annotation.Parameter;
+import io.micronaut.context.annotation.Prototype;
 import lombok.extern.slf4j.Slf4j;
 import org.olf.dcb.core.interaction.*;
 import org.olf.dcb.core.interaction.Patron;
@@ -12,6 +13,7 @@ import org.olf.dcb.core.model.*;
 
 import org.olf.dcb.core.svc.LocationToAgencyMappingService;
 import org.olf.dcb.core.svc.ReferenceValueMappingService;
+import org.olf.dcb.metrics.HostLmsClientMetrics;
 import org.zalando.problem.Problem;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -35,6 +37,8 @@ import static services.k_int.utils.ReactorUtils.raiseError;
  * */
 
 @Slf4j
+@Prototype
+@HostLmsClientMetrics
 public class KohaHostLmsClient implements HostLmsClient {
 
 	private final HostLms hostLms;
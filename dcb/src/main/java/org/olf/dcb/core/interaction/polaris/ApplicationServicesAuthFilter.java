@@ -20,18 +20,25 @@ import reactor.core.publisher.Mono;
 
 @Slf4j
 class ApplicationServicesAuthFilter {
+	static final String STAFF_TOKEN_KIND = "application-services";
+
 	private final PolarisLmsClient client;
 	private final PolarisConfig polarisConfig;
+	private final PolarisStaffTokenCache staffTokenCache;
 
 	private AuthToken currentToken;
 
-	public ApplicationServicesAuthFilter(PolarisLmsClient client, PolarisConfig polarisConfig) {
+	public ApplicationServicesAuthFilter(PolarisLmsClient client, PolarisConfig polarisConfig,
+		PolarisStaffTokenCache staffTokenCache) {
+
 		this.client = client;
 		this.polarisConfig = polarisConfig;
+		this.staffTokenCache = staffTokenCache;
 	}
 
 	Mono<MutableHttpRequest<?>> basicAuth(MutableHttpRequest<?> request) {
-		return staffAuthenticator()
+		return staffTokenCache.get(client.getHostLmsCode(), STAFF_TOKEN_KIND, polarisConfig.getStaffUsername(),
+				AuthToken.class, AuthToken::getAuthExpDate, this::staffAuthenticator)
 			.map(newToken -> currentToken = newToken)
 			.map(validToken -> {
 				final var token = validToken.getAccessToken();
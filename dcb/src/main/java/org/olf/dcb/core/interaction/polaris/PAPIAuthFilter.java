@@ -35,7 +35,10 @@ import reactor.core.publisher.Mono;
 
 @Slf4j
 class PAPIAuthFilter {
+	static final String STAFF_TOKEN_KIND = "papi";
+
 	private final PolarisConfig polarisConfig;
+	private final PolarisStaffTokenCache staffTokenCache;
 	private AuthToken currentToken;
 	private PatronAuthToken patronAuthToken;
 	private final PolarisLmsClient client;
@@ -44,9 +47,10 @@ class PAPIAuthFilter {
 	private final static DateTimeFormatter FORMATTER = DateTimeFormatter.RFC_1123_DATE_TIME
 			.withZone(ZoneId.of("UTC"));
 
-	PAPIAuthFilter(PolarisLmsClient client, PolarisConfig polarisConfig) {
+	PAPIAuthFilter(PolarisLmsClient client, PolarisConfig polarisConfig, PolarisStaffTokenCache staffTokenCache) {
 		this.client = client;
 		this.polarisConfig = polarisConfig;
+		this.staffTokenCache = staffTokenCache;
 		this.URI_PARAMETERS = polarisConfig.pAPIServiceUriParameters();
 	}
 
@@ -66,11 +70,16 @@ class PAPIAuthFilter {
 	}
 
 	private Mono<MutableHttpRequest<?>> staffAuthentication(MutableHttpRequest<?> request, Boolean isRequestPublicMethod) {
-		return staffAuthenticator().doOnSuccess(newToken -> currentToken = newToken)
+		return staffToken().doOnSuccess(newToken -> currentToken = newToken)
 			.map(validToken -> createStaffRequest(request, validToken, isRequestPublicMethod))
 			.map(this::authorization);
 	}
 
+	private Mono<AuthToken> staffToken() {
+		return staffTokenCache.get(client.getHostLmsCode(), STAFF_TOKEN_KIND, polarisConfig.getStaffUsername(),
+			AuthToken.class, AuthToken::getAuthExpDate, this::staffAuthenticator);
+	}
+
 	private Mono<AuthToken> staffAuthenticator() {
 		return Mono.defer(() -> {
 			String domain = polarisConfig.getDomainId();
@@ -12,6 +12,7 @@ import static org.olf.dcb.core.interaction.polaris.PolarisConstants.UUID5_PREFIX
 import static org.olf.dcb.core.interaction.polaris.PolarisItem.mapItemStatus;
 import static org.olf.dcb.core.model.WorkflowConstants.EXPEDITED_WORKFLOW;
 import static org.olf.dcb.core.model.WorkflowConstants.PICKUP_ANYWHERE_WORKFLOW;
+import static org.olf.dcb.metrics.HostLmsHttpMetricsFilter.forHostLms;
 import static org.olf.dcb.utils.PropertyAccessUtils.getValue;
 import static org.olf.dcb.utils.PropertyAccessUtils.getValueOrNull;
 import static reactor.function.TupleUtils.function;
@@ -58,6 +59,7 @@ import org.olf.dcb.core.interaction.HostLmsItem;
 import org.olf.dcb.core.interaction.HostLmsPropertyDefinition;
 import org.olf.dcb.core.interaction.HostLmsRenewal;
 import org.olf.dcb.core.interaction.HostLmsRequest;
+import org.olf.dcb.core.interaction.HttpResponsePredicates;
 import org.olf.dcb.core.interaction.LocalRequest;
 import org.olf.dcb.core.interaction.Patron;
 import org.olf.dcb.core.interaction.PatronNotFoundInHostLmsException;
@@ -90,6 +92,7 @@ import org.olf.dcb.dataimport.job.model.SourceRecord;
 import org.olf.dcb.ingest.marc.MarcIngestSource;
 import org.olf.dcb.ingest.model.IngestRecord;
 import org.olf.dcb.ingest.model.RawSource;
+import org.olf.dcb.metrics.HostLmsClientMetrics;
 import org.olf.dcb.rules.ObjectRulesService;
 import org.olf.dcb.rules.ObjectRuleset;
 import org.olf.dcb.storage.RawSourceRepository;
@@ -135,6 +138,7 @@ import services.k_int.utils.UUIDUtils;
 
 @Slf4j
 @Prototype
+@HostLmsClientMetrics
 public class PolarisLmsClient implements MarcIngestSource<PolarisLmsClient.BibsPagedRow>, HostLmsClient, SourceRecordDataSource {
 	private final URI defaultBaseUrl;
 	private final URI applicationServicesOverrideURL;
@@ -170,6 +174,7 @@ public class PolarisLmsClient implements MarcIngestSource<PolarisLmsClient.BibsP
 	private final ObjectRulesService objectRuleService;
 	private final RulesetCacheInvalidator cacheInvalidator;
 	private final HostLmsService hostLmsService;
+	private final PolarisStaffTokenCache staffTokenCache;
 
 	// ToDo align these URLs
   private static final URI ERR0211 = URI.create("https://openlibraryfoundation.atlassian.net/wiki/spaces/DCB/pages/0211/Polaris/UnableToCreateItem");
@@ -188,7 +193,7 @@ public class PolarisLmsClient implements MarcIngestSource<PolarisLmsClient.BibsP
 									 NumericPatronTypeMapper numericPatronTypeMapper, PolarisItemMapper itemMapper,
 									 R2dbcOperations r2dbcOperations, ObjectMapper objectMapper,
 									 ObjectRulesService objectRuleService, RulesetCacheInvalidator cacheInvalidator, HostLmsService hostLmsService,
-									 ConsortiumService consortiumService) {
+									 ConsortiumService consortiumService, PolarisStaffTokenCache staffTokenCache) {
 
 		log.debug("Creating Polaris HostLms client for HostLms {}", hostLms);
 
@@ -200,8 +205,9 @@ public class PolarisLmsClient implements MarcIngestSource<PolarisLmsClient.BibsP
 		this.polarisConfig = convertConfig(hostLms);
 		this.defaultBaseUrl = UriBuilder.of(polarisConfig.getBaseUrl()).build();
 		this.applicationServicesOverrideURL = applicationServicesOverrideURL();
-		this.ApplicationServices = new ApplicationServicesClient(this, polarisConfig);
-		this.PAPIService = new PAPIClient(this, polarisConfig, conversionService, lms, consortiumService);
+		this.staffTokenCache = staffTokenCache;
+		this.ApplicationServices = new ApplicationServicesClient(this, polarisConfig, staffTokenCache);
+		this.PAPIService = new PAPIClient(this, polarisConfig, conversionService, lms, consortiumService, staffTokenCache);
 		this.itemMapper = itemMapper;
 		this.ingestHelper = new IngestHelper(this, hostLms, processStateService);
 		this.processStateService = processStateService;
@@ -1445,6 +1451,7 @@ public class PolarisLmsClient implements MarcIngestSource<PolarisLmsClient.BibsP
 		Boolean useGenericHttpClientResponseExceptionHandler) {
 		return Mono.from(client.exchange(request, returnClass))
 			.doOnError(logRequestAndResponseDetails(request))
+			.doOnError(HttpResponsePredicates::isUnauthorised, _t -> clearStaffTokens(request))
 			.onErrorResume(error -> {
 
 				// we want to automatically handle HttpClientResponseExceptions
@@ -1488,6 +1495,7 @@ public class PolarisLmsClient implements MarcIngestSource<PolarisLmsClient.BibsP
 
 		return Mono.from(client.retrieve(request, responseBodyType))
 			.doOnError(logRequestAndResponseDetails(request))
+			.doOnError(HttpResponsePredicates::isUnauthorised, _t -> clearStaffTokens(request))
 			// Additional request specific error handling
 			.transform(errorHandlingTransformer)
 			// This has to go after more specific error handling
@@ -1504,6 +1512,18 @@ public class PolarisLmsClient implements MarcIngestSource<PolarisLmsClient.BibsP
 			});
 	}
 
+	/**
+	 * Discard the cached staff tokens when Polaris rejects a request, so that the next
+	 * request authenticates again. Rejected authentication requests are left alone.
+	 */
+	private void clearStaffTokens(MutableHttpRequest<?> request) {
+		final String path = request.getPath();
+		if (path.contains("/authenticator/") || path.contains("/authentication/")) return;
+
+		staffTokenCache.invalidate(getHostLmsCode(), PAPIAuthFilter.STAFF_TOKEN_KIND, polarisConfig.getStaffUsername());
+		staffTokenCache.invalidate(getHostLmsCode(), ApplicationServicesAuthFilter.STAFF_TOKEN_KIND, polarisConfig.getStaffUsername());
+	}
+
 	private static Consumer<Throwable> logRequestAndResponseDetails(MutableHttpRequest<?> request) {
 		return error -> {
 			try {
@@ -1541,7 +1561,7 @@ public class PolarisLmsClient implements MarcIngestSource<PolarisLmsClient.BibsP
 
 		return Mono.just(UriBuilder.of(path).build())
 			.map(this::defaultResolve)
-			.map(resolvedUri -> HttpRequest.<T>create(method, resolvedUri.toString()).accept(APPLICATION_JSON));
+			.map(resolvedUri -> forHostLms(HttpRequest.<T>create(method, resolvedUri.toString()).accept(APPLICATION_JSON), lms.getCode()));
 	}
 
 	<T> Mono<MutableHttpRequest<?>> createRequestWithOverrideURL(HttpMethod method, String path) {
@@ -1549,7 +1569,7 @@ public class PolarisLmsClient implements MarcIngestSource<PolarisLmsClient.BibsP
 
 		return Mono.just(UriBuilder.of(path).build())
 			.map(this::overrideResolve)
-			.map(resolvedUri -> HttpRequest.<T>create(method, resolvedUri.toString()).accept(APPLICATION_JSON));
+			.map(resolvedUri -> forHostLms(HttpRequest.<T>create(method, resolvedUri.toString()).accept(APPLICATION_JSON), lms.getCode()));
 	}
 
 	Boolean isApplicationServicesBaseUrlPresent() {
@@ -0,0 +1,248 @@
+package org.olf.dcb.core.interaction.polaris;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.serde.ObjectMapper;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Staff authentication tokens for Polaris systems, shared by every client created for a Host LMS.
+ *
+ * A token is reused until shortly before it expires, at which point a replacement is fetched in
+ * the background while requests carry on with the current one. Only one authentication is in
+ * flight per token at a time on a node. When distributed, tokens are also written to a hazelcast
+ * map so that a node can pick up a token another node has already fetched.
+ */
+@Slf4j
+@Singleton
+public class PolarisStaffTokenCache {
+
+	static final String METRIC_NAME = "dcb.polaris.staff-token";
+	private static final String SHARED_MAP_NAME = "dcb-polaris-staff-tokens";
+	private static final Duration REFRESH_RETRY_INTERVAL = Duration.ofSeconds(30);
+
+	// Microsoft JSON dates, e.g. /Date(1708419632890-0600)/. The millis are UTC regardless of offset.
+	private static final Pattern MS_DATE = Pattern.compile("/date\\((-?\\d+)([+-]\\d{4})?\\)/");
+
+	private final PolarisStaffTokenCacheConfig config;
+	private final MeterRegistry meterRegistry;
+	private final BeanProvider<HazelcastInstance> hazelcast;
+	private final ObjectMapper objectMapper;
+
+	private final Map<String, CachedToken<?>> tokens = new ConcurrentHashMap<>();
+	private final Map<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+	private volatile IMap<String, byte[]> shared;
+
+	public PolarisStaffTokenCache(PolarisStaffTokenCacheConfig config, MeterRegistry meterRegistry,
+			BeanProvider<HazelcastInstance> hazelcast, ObjectMapper objectMapper) {
+		this.config = config;
+		this.meterRegistry = meterRegistry;
+		this.hazelcast = hazelcast;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Find a usable staff token, authenticating only when there isn't one.
+	 *
+	 * @param hostLmsCode Host LMS the token is for
+	 * @param kind Which Polaris API the token is for
+	 * @param username Staff user the token is issued to
+	 * @param type Type of the token
+	 * @param expiryOf Accessor for the expiry date reported by Polaris
+	 * @param authenticate Supplier of a staff authentication request
+	 * @return The cached token, or the result of authenticating
+	 */
+	public <T> Mono<T> get(@NonNull String hostLmsCode, @NonNull String kind, @Nullable String username,
+			@NonNull Class<T> type, @NonNull Function<T, String> expiryOf, @NonNull Supplier<Mono<T>> authenticate) {
+
+		final String key = keyFor(hostLmsCode, kind, username);
+
+		return Mono.defer(() -> {
+			@SuppressWarnings("unchecked")
+			final CachedToken<T> cached = (CachedToken<T>) tokens.get(key);
+			final Instant now = Instant.now();
+
+			if (cached != null && cached.expires().isAfter(now)) {
+				if (cached.refreshAt().isBefore(now)) {
+					refresh(key, hostLmsCode, kind, type, expiryOf, authenticate)
+						.subscribe(
+							_token -> log.debug("Refreshed Polaris {} staff token for [{}]", kind, hostLmsCode),
+							error -> {
+								log.warn("Unable to refresh Polaris {} staff token for [{}]", kind, hostLmsCode, error);
+								postponeRefresh(key);
+							});
+				}
+
+				record("hit", hostLmsCode, kind);
+				return Mono.just(cached.token());
+			}
+
+			return refresh(key, hostLmsCode, kind, type, expiryOf, authenticate);
+		});
+	}
+
+	/**
+	 * Discard the token, for example when Polaris has rejected it, so the next request authenticates.
+	 */
+	public void invalidate(@NonNull String hostLmsCode, @NonNull String kind, @Nullable String username) {
+		final String key = keyFor(hostLmsCode, kind, username);
+
+		if (tokens.remove(key) != null) {
+			log.info("Discarded Polaris {} staff token for [{}]", kind, hostLmsCode);
+		}
+
+		final IMap<String, byte[]> map = sharedMap();
+		if (map != null) {
+			map.removeAsync(key);
+		}
+	}
+
+	// Joins the authentication already in flight for the key, if there is one.
+	@SuppressWarnings("unchecked")
+	private <T> Mono<T> refresh(String key, String hostLmsCode, String kind, Class<T> type,
+			Function<T, String> expiryOf, Supplier<Mono<T>> authenticate) {
+
+		return (Mono<T>) inFlight.computeIfAbsent(key, _k -> getShared(key, type, expiryOf)
+			.doOnNext(_cached -> record("shared", hostLmsCode, kind))
+			.switchIfEmpty(Mono.defer(authenticate)
+				.map(token -> {
+					record("authenticated", hostLmsCode, kind);
+					final CachedToken<T> cached = cache(token, expiryOf.apply(token));
+					putShared(key, cached);
+					return cached;
+				}))
+			.doOnNext(cached -> tokens.put(key, cached))
+			.map(CachedToken::token)
+			.doOnTerminate(() -> inFlight.remove(key))
+			.cache());
+	}
+
+	// Keep using the current token for a while, rather than retrying on every request.
+	private void postponeRefresh(String key) {
+		final Instant retryAt = Instant.now().plus(REFRESH_RETRY_INTERVAL);
+
+		tokens.computeIfPresent(key, (_k, cached) ->
+			new CachedToken<>(cached.token(), cached.expires(), retryAt));
+	}
+
+	private <T> CachedToken<T> cache(T token, String authExpDate) {
+		final Instant now = Instant.now();
+		final Instant expires = parseExpiry(authExpDate, now);
+
+		// Short lived tokens are refreshed no earlier than half way through their life.
+		final Instant halfLife = now.plus(Duration.between(now, expires).dividedBy(2));
+		final Instant ahead = expires.minus(config.getRefreshBeforeExpiry());
+
+		return new CachedToken<>(token, expires, ahead.isAfter(halfLife) ? ahead : halfLife);
+	}
+
+	Instant parseExpiry(@Nullable String authExpDate, Instant now) {
+		if (authExpDate != null) {
+			final Matcher matcher = MS_DATE.matcher(authExpDate.trim().toLowerCase());
+			if (matcher.matches()) {
+				return Instant.ofEpochMilli(Long.parseLong(matcher.group(1)));
+			}
+
+			try {
+				return OffsetDateTime.parse(authExpDate).toInstant();
+			} catch (DateTimeParseException e) {
+				// Try without an offset.
+			}
+
+			try {
+				return LocalDateTime.parse(authExpDate).toInstant(ZoneOffset.UTC);
+			} catch (DateTimeParseException e) {
+				log.warn("Unrecognised Polaris token expiry [{}], assuming [{}]", authExpDate, config.getDefaultLifetime());
+			}
+		}
+
+		return now.plus(config.getDefaultLifetime());
+	}
+
+	private void record(String result, String hostLmsCode, String kind) {
+		meterRegistry.counter(METRIC_NAME, "result", result, "lms", hostLmsCode, "kind", kind).increment();
+	}
+
+	private static String keyFor(String hostLmsCode, String kind, String username) {
+		return hostLmsCode + ":" + kind + ":" + username;
+	}
+
+	private IMap<String, byte[]> sharedMap() {
+		if (!config.isDistributed() || !hazelcast.isPresent()) return null;
+
+		if (shared == null) {
+			synchronized (this) {
+				if (shared == null) {
+					shared = hazelcast.get().getMap(SHARED_MAP_NAME);
+				}
+			}
+		}
+
+		return shared;
+	}
+
+	// A shared token due for refresh is ignored, so that the refresh actually happens.
+	private <T> Mono<CachedToken<T>> getShared(String key, Class<T> type, Function<T, String> expiryOf) {
+		final IMap<String, byte[]> map = sharedMap();
+		if (map == null) return Mono.empty();
+
+		return Mono.fromCompletionStage(() -> map.getAsync(key))
+			.mapNotNull(bytes -> read(bytes, type))
+			.map(token -> cache(token, expiryOf.apply(token)))
+			.filter(cached -> cached.refreshAt().isAfter(Instant.now()))
+			.onErrorResume(error -> {
+				log.warn("Unable to read Polaris staff token for [{}] from the shared cache", key, error);
+				return Mono.empty();
+			});
+	}
+
+	private void putShared(String key, CachedToken<?> cached) {
+		final IMap<String, byte[]> map = sharedMap();
+		if (map == null) return;
+
+		final long ttl = Duration.between(Instant.now(), cached.expires()).toMillis();
+		if (ttl <= 0) return;
+
+		try {
+			map.setAsync(key, objectMapper.writeValueAsBytes(cached.token()), ttl, MILLISECONDS);
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unable to write Polaris staff token for [{}] to the shared cache", key, e);
+		}
+	}
+
+	private <T> T read(byte[] bytes, Class<T> type) {
+		try {
+			return objectMapper.readValue(bytes, type);
+		} catch (IOException | RuntimeException e) {
+			log.debug("Discarding unreadable shared Polaris staff token", e);
+			return null;
+		}
+	}
+
+	static record CachedToken<T>(T token, Instant expires, Instant refreshAt) {
+	}
+}
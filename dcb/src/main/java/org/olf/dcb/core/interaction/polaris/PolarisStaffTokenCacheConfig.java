@@ -0,0 +1,31 @@
+package org.olf.dcb.core.interaction.polaris;
+
+import java.time.Duration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+
+@ConfigurationProperties(PolarisStaffTokenCacheConfig.PREFIX)
+public interface PolarisStaffTokenCacheConfig {
+	public static final String PREFIX = "dcb.polaris.staff-token-cache";
+
+	/**
+	 * How long before a token expires it is replaced in the background. Requests
+	 * continue to use the current token until the replacement arrives.
+	 */
+	@Bindable(defaultValue = "PT5M")
+	Duration getRefreshBeforeExpiry();
+
+	/**
+	 * Lifetime assumed for a token when the expiry date returned by Polaris can't be read.
+	 */
+	@Bindable(defaultValue = "PT1H")
+	Duration getDefaultLifetime();
+
+	/**
+	 * Share staff tokens between nodes via hazelcast, so that the cluster as a whole
+	 * authenticates once per token lifetime rather than each node doing so.
+	 */
+	@Bindable(defaultValue = "false")
+	boolean isDistributed();
+}
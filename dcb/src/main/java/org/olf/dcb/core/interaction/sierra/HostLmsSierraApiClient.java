@@ -6,6 +6,7 @@ import static io.micronaut.http.HttpMethod.POST;
 import static io.micronaut.http.HttpMethod.PUT;
 import static io.micronaut.http.MediaType.APPLICATION_JSON;
 import static org.olf.dcb.core.interaction.UnexpectedHttpResponseProblem.unexpectedResponseProblem;
+import static org.olf.dcb.metrics.HostLmsHttpMetricsFilter.forHostLms;
 import static org.olf.dcb.utils.DCBStringUtilities.toCsv;
 import static reactor.core.publisher.Mono.empty;
 import static services.k_int.utils.ReactorUtils.raiseError;
@@ -104,7 +105,7 @@ public class HostLmsSierraApiClient implements SierraApiClient {
 	@SingleResult
 	public Publisher<BibResultSet> bibs(Integer limit, Integer offset, String createdDate, String updatedDate,
 			Iterable<String> fields, Boolean deleted, String deletedDate, Boolean suppressed, Iterable<String> locations) {
-		return Mono.from(bibsRawResponse(limit, offset, createdDate, updatedDate, fields, deleted, deletedDate, suppressed, locations))
+		return Mono.from(bibsRawResponse(limit, offset, createdDate, updatedDate, fields, deleted, deletedDate, suppressed, locations, null))
 			.map( rawJson -> conversionService.convertRequired(rawJson, Argument.of(BibResultSet.class)));
 	}
 
@@ -114,13 +115,13 @@ public class HostLmsSierraApiClient implements SierraApiClient {
 	public Publisher<JsonNode> bibsRawResponse(@Nullable Integer limit, @Nullable Integer offset,
 			@Nullable String createdDate, @Nullable String updatedDate, @Nullable Iterable<String> fields,
 			@Nullable Boolean deleted, @Nullable String deletedDate, @Nullable Boolean suppressed,
-			@Nullable Iterable<String> locations) {
+			@Nullable Iterable<String> locations, @Nullable String id) {
 		
 		return get("bibs", Argument.of(JsonNode.class),
 				uri -> uri.queryParam("limit", limit).queryParam("offset", offset).queryParam("createdDate", createdDate)
 						.queryParam("updatedDate", updatedDate).queryParam("fields", toCsv(fields)).queryParam("deleted", deleted)
 						.queryParam("deletedDate", deletedDate).queryParam("suppressed", suppressed)
-						.queryParam("locations", CollectionUtils.iterableToArray(locations)));
+						.queryParam("locations", CollectionUtils.iterableToArray(locations)).queryParam("id", id));
 	}
 
 	@SingleResult
@@ -400,7 +401,8 @@ public class HostLmsSierraApiClient implements SierraApiClient {
 
 	private <T> Mono<MutableHttpRequest<T>> createRequest(HttpMethod method, String path) {
 		return Mono.just(UriBuilder.of(path).build()).map(this::resolve)
-				.map(resolvedUri -> HttpRequest.<T>create(method, resolvedUri.toString()).accept(APPLICATION_JSON));
+				.map(resolvedUri -> HttpRequest.<T>create(method, resolvedUri.toString()).accept(APPLICATION_JSON))
+				.map(request -> forHostLms(request, lms.getCode()));
 	}
 
 	private <T> Mono<HttpResponse<T>> doExchange(MutableHttpRequest<?> request, Class<T> type) {
@@ -0,0 +1,33 @@
+package org.olf.dcb.core.interaction.sierra;
+
+import java.time.Instant;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.serde.annotation.Serdeable;
+
+/**
+ * Checkpoint for harvesting Sierra bibs in id order. Each pass works up through the id range
+ * from the bottom, either fetching everything or only those updated since the previous pass
+ * started.
+ *
+ * @param nextId the lowest id still to be fetched in this pass
+ * @param updatedSince only fetch bibs updated since, or everything when absent
+ * @param passStarted when this pass started, the point the next pass fetches updates from
+ */
+@Serdeable
+public record SierraBibIdCursor(
+	long nextId,
+	@Nullable Instant updatedSince,
+	@NonNull Instant passStarted) {
+
+	public static final String PASS_STARTED = "passStarted";
+
+	SierraBibIdCursor next(long highestFetched) {
+		return new SierraBibIdCursor(highestFetched + 1, updatedSince, passStarted);
+	}
+
+	SierraBibIdCursor nextPass(long lowestId, Instant now) {
+		return new SierraBibIdCursor(lowestId, passStarted, now);
+	}
+}
@@ -31,6 +31,7 @@ import static services.k_int.interaction.sierra.QueryEntry.buildPatronQuery;
 import static services.k_int.interaction.sierra.items.SierraItem.SIERRA_ITEM_FIELDS;
 import static services.k_int.utils.MapUtils.getAsOptionalString;
 
+import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
 import java.time.Instant;
@@ -40,8 +41,10 @@ import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -49,6 +52,7 @@ import java.util.Optional;
 import java.util.TimeZone;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 import org.marc4j.marc.Record;
 import org.olf.dcb.configuration.BranchRecord;
@@ -79,6 +83,7 @@ import org.olf.dcb.ingest.marc.MarcIngestSource;
 import org.olf.dcb.ingest.model.IngestRecord;
 import org.olf.dcb.ingest.model.IngestRecord.IngestRecordBuilder;
 import org.olf.dcb.ingest.model.RawSource;
+import org.olf.dcb.metrics.HostLmsClientMetrics;
 import org.olf.dcb.rules.AnnotatedObject;
 import org.olf.dcb.rules.ObjectRulesService;
 import org.olf.dcb.rules.ObjectRuleset;
@@ -93,6 +98,7 @@ import org.zalando.problem.Problem;
 import io.micronaut.context.annotation.Parameter;
 import io.micronaut.context.annotation.Prototype;
 import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.convert.ConversionService;
 import io.micronaut.core.util.StringUtils;
 import io.micronaut.data.r2dbc.operations.R2dbcOperations;
@@ -131,6 +137,7 @@ import services.k_int.utils.UUIDUtils;
  * See: <a href="https://sandbox.iii.com/iii/sierra-api/swagger/index.html">Sierra API Documentation</a>
  */
 @Prototype
+@HostLmsClientMetrics
 @Slf4j
 public class SierraLmsClient implements HostLmsClient, MarcIngestSource<BibResult>, SourceRecordDataSource {
 	private static final IntegerHostLmsPropertyDefinition GET_HOLDS_RETRY_ATTEMPTS_PROPERTY = integerPropertyDefinition(
@@ -145,6 +152,32 @@ public class SierraLmsClient implements HostLmsClient, MarcIngestSource<BibResul
 	private static final IntegerHostLmsPropertyDefinition PAGE_SIZE_PROPERTY = integerPropertyDefinition(
 		"page-size", "How many items to retrieve in each page", FALSE);
 
+	private static final IntegerHostLmsPropertyDefinition ITEMS_BATCH_SIZE_PROPERTY = integerPropertyDefinition(
+		"items-batch-size", "Maximum number of bibs to fetch items for in a single request", FALSE);
+
+	private static final HostLmsPropertyDefinition HARVEST_MODE_PROPERTY = stringPropertyDefinition(
+		"harvest-mode", "How bibs are paged through when harvesting, offset (the default) or id-range", FALSE);
+
+	private static final IntegerHostLmsPropertyDefinition HARVEST_PARTITIONS_PROPERTY = integerPropertyDefinition(
+		"harvest-partitions", "Number of id ranges harvested side by side in id-range mode", FALSE);
+
+	private static final IntegerHostLmsPropertyDefinition HARVEST_HIGHEST_ID_PROPERTY = integerPropertyDefinition(
+		"harvest-highest-id", "Highest bib id expected, used to divide ids between harvest partitions", FALSE);
+
+	private static final String ID_RANGE_HARVEST = "id-range";
+
+	// Sierra record numbers start from here
+	private static final long LOWEST_BIB_ID = 1000000;
+
+	private static final int DEFAULT_ITEMS_BATCH_SIZE = 25;
+
+	// Largest page of items Sierra will return
+	static final int ITEMS_PAGE_LIMIT = 2000;
+
+	private static final List<String> GET_ITEMS_FIELDS = List.of("id", "updatedDate", "createdDate", "deletedDate",
+		"suppressed", "bibIds", "location", "status", "volumes", "barcode", "callNumber", "itemType", "transitInfo",
+		"copyNo", "holdCount", "fixedFields", "varFields");
+
 	private static final HostLmsPropertyDefinition VIRTUAL_PATRON_PIN = stringPropertyDefinition(
 		"virtual-patron-pin", "Virtual patrons pin to use", FALSE);
 
@@ -249,6 +282,10 @@ public class SierraLmsClient implements HostLmsClient, MarcIngestSource<BibResul
 			urlPropertyDefinition("base-url", "Base URL Of Sierra System", TRUE),
 			stringPropertyDefinition("key", "Key for this system", TRUE),
 			PAGE_SIZE_PROPERTY,
+			ITEMS_BATCH_SIZE_PROPERTY,
+			HARVEST_MODE_PROPERTY,
+			HARVEST_PARTITIONS_PROPERTY,
+			HARVEST_HIGHEST_ID_PROPERTY,
 			stringPropertyDefinition("secret", "Secret for this Sierra system", TRUE),
 			booleanPropertyDefinition("ingest", "Enable record harvesting for this source", TRUE),
 			GET_HOLDS_RETRY_ATTEMPTS_PROPERTY,
@@ -291,6 +328,10 @@ public class SierraLmsClient implements HostLmsClient, MarcIngestSource<BibResul
 	
 	@Override
   public Mono<SourceRecordImportChunk> getChunk( Optional<JsonNode> checkpoint ) {
+		
+		if (isIdRangeHarvest()) {
+			return getChunkInIdRange(checkpoint, 0, null);
+		}
   	
 		try {
 
@@ -335,29 +376,7 @@ public class SierraLmsClient implements HostLmsClient, MarcIngestSource<BibResul
 						// We return the current data with the Checkpoint that will return the next chunk.
 						final JsonNode newCheckpoint = objectMapper.writeValueToTree(paramsBuilder.build());
 						
-						final var builder = SourceRecordImportChunk.builder()
-								.lastChunk( lastChunk )
-								.checkpoint( newCheckpoint );
-						
-						jsonArr.values().forEach(rawJson -> {
-							
-							try {
-								builder.dataEntry( SourceRecord.builder()
-				  				.hostLmsId( lms.getId() )
-				  				.lastFetched( now )
-				  				.remoteId( rawJson.get("id").coerceStringValue() )
-				  				.sourceRecordData( rawJson )
-				  				.build());
-			  			} catch (Throwable t) {  				
-			  				if (log.isDebugEnabled()) {
-			    				log.error( "Error creating SourceRecord from JSON '{}' \ncause: {}", rawJson, t);
-			  				} else {
-			  					log.error( "Error creating SourceRecord from JSON", t );
-			  				}
-			  			}
-						});
-						
-						return Mono.just( builder.build() );
+						return Mono.just( buildImportChunk(jsonArr, lastChunk, newCheckpoint, now) );
 						
 					} catch (Exception e) {
 						return Mono.error( e );
@@ -369,6 +388,184 @@ public class SierraLmsClient implements HostLmsClient, MarcIngestSource<BibResul
   	
   }
 	
+	private SourceRecordImportChunk buildImportChunk( JsonNode entries, boolean lastChunk, JsonNode checkpoint, Instant now ) {
+		final var builder = SourceRecordImportChunk.builder()
+				.lastChunk( lastChunk )
+				.checkpoint( checkpoint );
+		
+		entries.values().forEach(rawJson -> {
+			
+			try {
+				builder.dataEntry( SourceRecord.builder()
+  				.hostLmsId( lms.getId() )
+  				.lastFetched( now )
+  				.remoteId( rawJson.get("id").coerceStringValue() )
+  				.sourceRecordData( rawJson )
+  				.build());
+			} catch (Throwable t) {  				
+				if (log.isDebugEnabled()) {
+  				log.error( "Error creating SourceRecord from JSON '{}' \ncause: {}", rawJson, t);
+				} else {
+					log.error( "Error creating SourceRecord from JSON", t );
+				}
+			}
+		});
+		
+		return builder.build();
+	}
+	
+	private boolean isIdRangeHarvest() {
+		return ID_RANGE_HARVEST.equalsIgnoreCase(
+			HARVEST_MODE_PROPERTY.getOptionalValueFrom(lms.getClientConfig(), null));
+	}
+	
+	/**
+	 * In id-range mode the ids can be divided into ranges that are harvested side by side, when
+	 * the highest id is configured. Changing the division starts each new range from scratch.
+	 */
+	@Override
+	public List<? extends SourceRecordDataSource> getPartitions( int maxPartitions ) {
+		final int partitions = Math.min(
+			HARVEST_PARTITIONS_PROPERTY.getOptionalValueFrom(lms.getClientConfig(), 1), maxPartitions);
+		
+		if (!isIdRangeHarvest() || partitions < 2) return List.of(this);
+		
+		final int highestId = HARVEST_HIGHEST_ID_PROPERTY.getOptionalValueFrom(lms.getClientConfig(), 0);
+		if (highestId <= LOWEST_BIB_ID) {
+			log.warn("Harvesting {} as a single id range, harvest-highest-id is needed to divide it", lms.getName());
+			return List.of(this);
+		}
+		
+		final long span = (highestId - LOWEST_BIB_ID) / partitions + 1;
+		
+		// The first range takes anything below the usual numbering and the last anything above the highest id
+		return IntStream.range(0, partitions)
+			.mapToObj(index -> new BibIdRangePartition(
+				index == 0 ? 0 : LOWEST_BIB_ID + index * span,
+				index == partitions - 1 ? null : LOWEST_BIB_ID + (index + 1) * span - 1))
+			.toList();
+	}
+	
+	/**
+	 * Harvest in id order, keeping the next id in the checkpoint rather than an offset. Deep offsets get slower
+	 * and skip or repeat bibs that change during the harvest, an id cursor does neither.
+	 */
+	Mono<SourceRecordImportChunk> getChunkInIdRange( Optional<JsonNode> checkpoint, long lowestId, @Nullable Long highestId ) {
+		
+		try {
+			final Instant now = Instant.now();
+			final SierraBibIdCursor cursor = readIdCursor(checkpoint, lowestId, now);
+			
+			final BibParamsBuilder paramsBuilder = mergeApiParameters(Optional.empty()).toBuilder()
+				.offset(null)
+				.id(idRange(cursor.nextId(), highestId));
+			
+			if (cursor.updatedSince() != null) {
+				paramsBuilder.updatedDate(DateTimeRange.builder()
+					.fromDate(toUtcDateTime(cursor.updatedSince()))
+					.to(toUtcDateTime(now))
+					.build());
+			}
+			
+			final BibParams apiParams = paramsBuilder.build();
+			
+			return Mono.from( client.bibsRawResponse(apiParams) )
+				.mapNotNull( page -> page.get("entries") )
+				.filter( JsonNode::isArray )
+				// Sierra answers with an error, rather than an empty page, when there is nothing left
+				.defaultIfEmpty( JsonNode.createArrayNode(List.of()) )
+				.flatMap( entries -> {
+					try {
+						final boolean lastChunk = entries.size() < apiParams.getLimit();
+						final SierraBibIdCursor next = lastChunk
+							? cursor.nextPass(lowestId, now)
+							: cursor.next(highestIdIn(entries));
+						
+						return Mono.just( buildImportChunk(entries, lastChunk, objectMapper.writeValueToTree(next), now) );
+					} catch (Exception e) {
+						return Mono.error( e );
+					}
+				});
+		} catch (Exception e) {
+			return Mono.error( e );
+		}
+	}
+	
+	private SierraBibIdCursor readIdCursor( Optional<JsonNode> checkpoint, long lowestId, Instant now ) throws IOException {
+		
+		if (checkpoint.isPresent() && checkpoint.get().get(SierraBibIdCursor.PASS_STARTED) != null) {
+			return objectMapper.readValueFromTree(checkpoint.get(), SierraBibIdCursor.class);
+		}
+		
+		// Nothing harvested yet, or harvested by offset. Carry on from any updated date it was using.
+		final Instant updatedSince = checkpoint.isPresent()
+			? Optional.ofNullable( objectMapper.readValueFromTree(checkpoint.get(), BibParams.class).getUpdatedDate() )
+				.map( range -> range.getFromDate().toInstant(ZoneOffset.UTC) )
+				.orElse(null)
+			: null;
+		
+		return new SierraBibIdCursor(lowestId, updatedSince, now);
+	}
+	
+	private static long highestIdIn( JsonNode entries ) {
+		long highest = 0;
+		for (JsonNode entry : entries.values()) {
+			highest = Math.max(highest, Long.parseLong(entry.get("id").coerceStringValue()));
+		}
+		return highest;
+	}
+	
+	static String idRange( long from, @Nullable Long to ) {
+		return "[%d,%s]".formatted(from, to != null ? to : "");
+	}
+	
+	private static LocalDateTime toUtcDateTime( Instant instant ) {
+		return instant.atZone(ZoneId.of("UTC")).toLocalDateTime();
+	}
+	
+	/**
+	 * One range of bib ids, harvested by its own job with its own checkpoint
+	 */
+	class BibIdRangePartition implements SourceRecordDataSource {
+		private final long lowestId;
+		@Nullable
+		private final Long highestId;
+		
+		BibIdRangePartition( long lowestId, @Nullable Long highestId ) {
+			this.lowestId = lowestId;
+			this.highestId = highestId;
+		}
+		
+		long getLowestId() {
+			return lowestId;
+		}
+		
+		@Nullable
+		Long getHighestId() {
+			return highestId;
+		}
+		
+		@Override
+		public String getName() {
+			return "%s bibs %s".formatted(lms.getName(), idRange(lowestId, highestId));
+		}
+		
+		@Override
+		public boolean isSourceImportEnabled() {
+			return SierraLmsClient.this.isSourceImportEnabled();
+		}
+		
+		@Override
+		public String getConcurrencyGroupKey() {
+			return SierraLmsClient.this.getConcurrencyGroupKey();
+		}
+		
+		@Override
+		public Mono<SourceRecordImportChunk> getChunk( Optional<JsonNode> checkpoint ) {
+			return getChunkInIdRange(checkpoint, lowestId, highestId);
+		}
+	}
+	
 	private Mono<BibResultSet> fetchPage(Instant since, int offset, int limit) {
 		log.trace("Creating subscribable batch;  since={} offset={} limit={}", since, offset, limit);
 		return Mono.from(client.bibs(params -> {
@@ -670,6 +867,14 @@ public class SierraLmsClient implements HostLmsClient, MarcIngestSource<BibResul
 		return resource.marc();
 	}
 
+	@Override
+	public BibResult withMarc(BibResult resource, Record marc) {
+		// Suppression rules and the ingest record builder read the MARC from the bib
+		return new BibResult(resource.id(), resource.updatedDate(), resource.createdDate(),
+			resource.deletedDate(), resource.deleted(), resource.suppressed(), marc,
+			resource.fixedFields(), resource.varFields());
+	}
+
 	@Override
 	public Mono<HostLmsItem> createItem(CreateItemCommand cic) {
 		// We start by working out what the right item type is for the target system.
@@ -757,15 +962,62 @@ public class SierraLmsClient implements HostLmsClient, MarcIngestSource<BibResul
 		return Mono.from(client.items(params -> params
 				.deleted(false)
 				.bibIds(List.of(localBibId))
-				.fields(List.of("id", "updatedDate", "createdDate", "deletedDate", "suppressed", "bibIds", "location",
-					"status", "volumes", "barcode", "callNumber", "itemType", "transitInfo", "copyNo", "holdCount",
-					"fixedFields", "varFields"))))
+				.fields(GET_ITEMS_FIELDS)))
 			.map(ResultSet::getItems)
 			.flatMapMany(Flux::fromIterable)
 			.flatMap(result -> mapItemWithRuleset(result, localBibId))
 			.collectList();
 	}
 
+	@Override
+	public int getItemsBatchSize() {
+		return Math.max(ITEMS_BATCH_SIZE_PROPERTY.getOptionalValueFrom(lms.getClientConfig(), DEFAULT_ITEMS_BATCH_SIZE), 1);
+	}
+
+	/**
+	 * Fetch the items for several bibs using a single query on bib ID, paging through the results.
+	 * An item attached to more than one of the bibs is included for each of them.
+	 */
+	@Override
+	public Mono<Map<String, List<Item>>> getItems(Collection<BibRecord> bibs) {
+		log.debug("getItems({} bibs)", bibs.size());
+
+		final var localBibIds = bibs.stream()
+			.map(BibRecord::getSourceRecordId)
+			.distinct()
+			.toList();
+
+		return itemsForBibs(localBibIds, 0)
+			.flatMap(item -> Flux.fromArray(getValue(item, SierraItem::getBibIds, new String[0]))
+				.filter(localBibIds::contains)
+				.flatMap(localBibId -> mapItemWithRuleset(item, localBibId)
+					.map(mapped -> Map.entry(localBibId, mapped))))
+			.collectMultimap(Map.Entry::getKey, Map.Entry::getValue)
+			.map(found -> {
+				final Map<String, List<Item>> itemsByBib = new HashMap<>();
+				localBibIds.forEach(id -> itemsByBib.put(id, new ArrayList<>(found.getOrDefault(id, List.of()))));
+				return itemsByBib;
+			});
+	}
+
+	private Flux<SierraItem> itemsForBibs(List<String> localBibIds, int offset) {
+		// Sierra expects multiple bib IDs as a single comma separated value
+		return Mono.from(client.items(params -> params
+				.deleted(false)
+				.bibIds(List.of(String.join(",", localBibIds)))
+				.limit(ITEMS_PAGE_LIMIT)
+				.offset(offset)
+				.fields(GET_ITEMS_FIELDS)))
+			.flatMapMany(resultSet -> {
+				final var items = resultSet.getItems();
+				final var page = Flux.fromIterable(items);
+
+				return items.size() < ITEMS_PAGE_LIMIT
+					? page
+					: page.concatWith(Flux.defer(() -> itemsForBibs(localBibIds, offset + items.size())));
+			});
+	}
+
 	public Mono<Patron> patronFind(String varFieldTag, String varFieldContent) {
 		log.debug("patronFind({}, {})", varFieldTag, varFieldContent);
 
@@ -1,5 +1,8 @@
 package org.olf.dcb.core.model;
 
+import static services.k_int.data.querying.QueryIndex.Type.BTREE;
+import static services.k_int.data.querying.QueryIndex.Type.TRIGRAM;
+
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
@@ -31,6 +34,7 @@ import lombok.Data;
 import lombok.Singular;
 import lombok.experimental.Accessors;
 import services.k_int.tests.ExcludeFromGeneratedCoverageReport;
+import services.k_int.data.querying.QueryIndex;
 
 
 @Builder(toBuilder = true)
@@ -55,6 +59,7 @@ public class BibRecord implements CoreBibliographicMetadata {
 
 	@Nullable
 	@DateCreated
+	@QueryIndex(BTREE)
 	private Instant dateCreated;
 
 	@Nullable
@@ -64,11 +69,13 @@ public class BibRecord implements CoreBibliographicMetadata {
 	@NotNull
 	@NonNull
 	@TypeDef(type = DataType.UUID)
+	@QueryIndex(BTREE)
 	private UUID sourceSystemId;
 
 	@NotNull
 	@NonNull
 	@Size(max = 256)
+	@QueryIndex({BTREE, TRIGRAM})
 	private String sourceRecordId;
 	
 	// might have to think about adding serialize = false to @Relation to prevent cycles
@@ -76,6 +83,7 @@ public class BibRecord implements CoreBibliographicMetadata {
 //	@NotNull
 	@Relation(value = Relation.Kind.MANY_TO_ONE)
 	@Column(name = "contributes_to")
+	@QueryIndex(BTREE)
 	private ClusterRecord contributesTo;
 
 	// A note about why we made the clustering decision we made
@@ -115,6 +123,11 @@ public class BibRecord implements CoreBibliographicMetadata {
 	@Nullable
   UUID sourceRecordUuid;
 
+	// Content hash of the source record this bib was last built from, so an unchanged record
+	// doesn't have to be processed again
+	@Nullable
+	String contentHash;
+
 //	@Override
 //	@Nullable
 //	public String getDerivedType() {
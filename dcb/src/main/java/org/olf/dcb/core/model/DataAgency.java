@@ -31,7 +31,7 @@ import services.k_int.tests.ExcludeFromGeneratedCoverageReport;
 @MappedEntity(value = "agency")
 @NoArgsConstructor(onConstructor_ = @Creator())
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Accessors(chain = true)
 @ToString
 public class DataAgency implements Agency, Auditable {
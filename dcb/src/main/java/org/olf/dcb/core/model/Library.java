@@ -25,7 +25,7 @@ import services.k_int.tests.ExcludeFromGeneratedCoverageReport;
 @ExcludeFromGeneratedCoverageReport
 @NoArgsConstructor(onConstructor_ = @Creator())
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @ToString(onlyExplicitlyIncluded = true)
 @MappedEntity
 public class Library implements Auditable {
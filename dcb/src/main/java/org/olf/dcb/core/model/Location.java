@@ -42,7 +42,7 @@ import services.k_int.tests.ExcludeFromGeneratedCoverageReport;
 @NoArgsConstructor(onConstructor_ = @Creator())
 @AllArgsConstructor
 @Accessors(chain=true)
-@Builder
+@Builder(toBuilder = true)
 public class Location implements Auditable {
 
 	@NotNull
@@ -10,6 +10,8 @@ import static org.olf.dcb.core.model.WorkflowConstants.LOCAL_WORKFLOW;
 import static org.olf.dcb.core.model.WorkflowConstants.PICKUP_ANYWHERE_WORKFLOW;
 import static org.olf.dcb.core.model.WorkflowConstants.STANDARD_WORKFLOW;
 import static org.olf.dcb.utils.PropertyAccessUtils.getValue;
+import static services.k_int.data.querying.QueryIndex.Type.BTREE;
+import static services.k_int.data.querying.QueryIndex.Type.TRIGRAM;
 
 import java.time.Instant;
 import java.util.List;
@@ -46,6 +48,7 @@ import lombok.ToString;
 import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import services.k_int.tests.ExcludeFromGeneratedCoverageReport;
+import services.k_int.data.querying.QueryIndex;
 
 
 @Slf4j
@@ -119,20 +122,24 @@ public Status getNextExpectedStatus(String activeWorkflow) {
 
 	@Nullable
 	@DateCreated
+	@QueryIndex(BTREE)
 	private Instant dateCreated;
 
 	@Nullable
 	@DateUpdated
+	@QueryIndex(BTREE)
 	private Instant dateUpdated;
 
 	// A shortcut for the patron's home identity host lms code
 	// should be aligned with PlacePatronRequestCommand.requestor.localSystemCode
 	@Nullable
 	@Size(max = 200)
+	@QueryIndex(BTREE)
 	private String patronHostlmsCode;
 
 	@Nullable
 	@Relation(value = Relation.Kind.MANY_TO_ONE)
+	@QueryIndex(BTREE)
 	private Patron patron;
 
 	@Nullable
@@ -141,6 +148,7 @@ public Status getNextExpectedStatus(String activeWorkflow) {
 
 	@Nullable
 	@TypeDef(type = DataType.UUID)
+	@QueryIndex(BTREE)
 	private UUID bibClusterId;
 
 	@Nullable
@@ -233,6 +241,7 @@ public Status getNextExpectedStatus(String activeWorkflow) {
 	@ToString.Include
 	@Nullable
 	@Column(name = "status_code") // Preserve the data mapping value from the old string type.
+	@QueryIndex(BTREE)
 	private Status status;
 
 	@Nullable
@@ -296,6 +305,7 @@ public Status getNextExpectedStatus(String activeWorkflow) {
 
 	@ToString.Include
 	@Nullable
+	@QueryIndex(TRIGRAM)
 	private String description;
 
 	@Nullable
@@ -13,6 +13,8 @@ import java.util.function.Predicate;
 
 import org.olf.dcb.core.clustering.RecordClusteringService;
 import org.olf.dcb.core.clustering.RecordClusteringService.MissingAvailabilityInfo;
+import org.olf.dcb.core.clustering.matching.MatchPointIndex;
+import org.olf.dcb.core.clustering.model.MatchPoint;
 import org.olf.dcb.core.clustering.model.ClusterRecord;
 import org.olf.dcb.core.model.BibIdentifier;
 import org.olf.dcb.core.model.BibRecord;
@@ -42,6 +44,7 @@ import jakarta.inject.Singleton;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.function.TupleUtils;
+import services.k_int.events.ReactiveTransactionalBehaviours;
 
 
 @Singleton
@@ -60,12 +63,15 @@ public class BibRecordService {
 
 	private final MatchPointRepository matchPointRepository;
 	private final BeanProvider<IngestJob> ingest;
+	private final Optional<MatchPointIndex> matchPointIndex;
+	private final ReactiveTransactionalBehaviours transactionalBehaviours;
 
 
 	public BibRecordService(
 	  BibRepository bibRepo,
 	  BibIdentifierRepository bibIdentifierRepository,
-		StatsService statsService, BeanProvider<RecordClusteringService> recordClusteringServiceProvider, MatchPointRepository matchPointRepository, BeanProvider<SourceRecordService> sourceRecordService, BeanProvider<IngestJob> ingest) {
+		StatsService statsService, BeanProvider<RecordClusteringService> recordClusteringServiceProvider, MatchPointRepository matchPointRepository, BeanProvider<SourceRecordService> sourceRecordService, BeanProvider<IngestJob> ingest,
+		Optional<MatchPointIndex> matchPointIndex, ReactiveTransactionalBehaviours transactionalBehaviours) {
 		this.bibRepo = bibRepo;
 		this.bibIdentifierRepo = bibIdentifierRepository;
 		this.recordClusteringServiceProvider = recordClusteringServiceProvider;
@@ -73,12 +79,15 @@ public class BibRecordService {
 		this.statsService = statsService;
 		this.matchPointRepository = matchPointRepository;
 		this.ingest = ingest;
+		this.matchPointIndex = matchPointIndex;
+		this.transactionalBehaviours = transactionalBehaviours;
 	}
 
 	private BibRecord step1(final BibRecord bib, final IngestRecord imported) {
 		// log.info("Executing step 1");
 
 		bib.setProcessVersion(IngestService.getProcessVersion());
+		bib.setContentHash(imported.getContentHash());
 
     // We need to pull forward any important changed properties from the ingest record here
     // Once created, fields will not be automatically updated when records are reprocessed unless
@@ -104,6 +113,7 @@ public class BibRecordService {
 				.canonicalMetadata(imported.getCanonicalMetadata())
         .metadataScore(imported.getMetadataScore())
         .sourceRecordUuid(imported.getSourceRecordUuid())
+        .contentHash(imported.getContentHash())
         .build();
 	}
 
@@ -157,6 +167,11 @@ public class BibRecordService {
 		return Flux.from(bibIdentifierRepo.findAllByOwner(owner));
 	}
 
+	@Transactional(propagation = Propagation.MANDATORY)
+	public Flux<BibIdentifier> findAllIdentifiersForBibs(Collection<UUID> ownerIds) {
+		return Flux.from(bibIdentifierRepo.findAllByOwnerIdIn(ownerIds));
+	}
+
 	@Transactional
 	protected Mono<BibRecord> saveIdentifiers(BibRecord savedBib, IngestRecord source) {
     // log.info("Saving identifiers for {}",savedBib != null ? savedBib.getId() : "null" );
@@ -243,7 +258,14 @@ public class BibRecordService {
 	@Transactional(propagation = Propagation.MANDATORY)
 	protected Mono<Long> deleteBibMatchPoints( BibRecord bib ) {
 		
-		return Mono.from( matchPointRepository.deleteAllByBibId(bib.getId()) );
+		if (matchPointIndex.isEmpty()) return Mono.from( matchPointRepository.deleteAllByBibId(bib.getId()) );
+		
+		// Read the values first so they can be evicted from the index once the delete commits.
+		return Flux.from( matchPointRepository.findAllByBibId(bib.getId()) )
+			.map( MatchPoint::getValue )
+			.collectList()
+			.flatMap( values -> Mono.from( matchPointRepository.deleteAllByBibId(bib.getId()) )
+				.transform( transactionalBehaviours.doOnCommittal(() -> matchPointIndex.get().remove(bib.getId(), values)) ));
 	}
 	
 	@Transactional(propagation = Propagation.MANDATORY)
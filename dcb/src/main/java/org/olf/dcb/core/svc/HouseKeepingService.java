@@ -23,6 +23,7 @@ import reactor.util.function.Tuple3;
 
 import org.olf.dcb.storage.HostLmsRepository;
 import org.olf.dcb.core.HostLmsService;
+import org.olf.dcb.core.clustering.matching.MatchPointIndex;
 
 import io.micrometer.core.annotation.Timed;
 import services.k_int.federation.reactor.ReactorFederatedLockService;
@@ -41,19 +42,22 @@ public class HouseKeepingService {
 	private final R2dbcOperations dbops;
   private final AlarmsService alarmsService;
   private final SyslogService syslogService;
+  private final Optional<MatchPointIndex> matchPointIndex;
 
 	public HouseKeepingService(
 		R2dbcOperations dbops,
 		HostLmsService hostLmsService,
 		HostLmsRepository hostLmsRepository,
 		AlarmsService alarmsService,
-		SyslogService syslogService) {
+		SyslogService syslogService,
+		Optional<MatchPointIndex> matchPointIndex) {
 
 		this.dbops = dbops;
 		this.hostLmsService = hostLmsService;
 		this.hostLmsRepository = hostLmsRepository;
     this.alarmsService = alarmsService;
     this.syslogService = syslogService;
+    this.matchPointIndex = matchPointIndex;
 	}
 	
 	private static final String QUERY_POSTGRES_DEDUPE_MATCHPOINTS = "DELETE FROM match_point m WHERE EXISTS (\n"
@@ -194,6 +198,7 @@ public class HouseKeepingService {
 							.then()
 							.doOnTerminate(() -> {
 								dedupe = null;
+								invalidateMatchPointIndex();
 								log.info("Finished MatchPoint Dedupe");
 							})
 							.doOnSubscribe(_s -> {
@@ -228,6 +233,7 @@ public class HouseKeepingService {
             deleteDuplicatesBatch()
               .doOnTerminate(() -> {
                 dedupe = null;
+                invalidateMatchPointIndex();
                 log.info("Finished MatchPoint deduplication");
               })
               .subscribe();
@@ -241,6 +247,11 @@ public class HouseKeepingService {
     return dedupe;
   }
 
+  // Match points were deleted without going through the index, so it has to be rebuilt
+  private void invalidateMatchPointIndex() {
+    matchPointIndex.ifPresent(MatchPointIndex::invalidate);
+  }
+
   private Mono<Void> deleteDuplicatesBatch() {
     return Mono.from(
       dbops.withConnection(conn -> 
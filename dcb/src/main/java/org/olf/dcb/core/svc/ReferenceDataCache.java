@@ -0,0 +1,217 @@
+package org.olf.dcb.core.svc;
+
+import java.lang.annotation.Annotation;
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+import org.olf.dcb.core.model.DataAgency;
+import org.olf.dcb.core.model.Library;
+import org.olf.dcb.core.model.Location;
+import org.olf.dcb.storage.AgencyRepository;
+import org.olf.dcb.storage.DataChangeLogRepository;
+import org.olf.dcb.storage.LibraryRepository;
+import org.olf.dcb.storage.LocationRepository;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.event.EntityEventContext;
+import io.micronaut.data.event.EntityEventListener;
+import io.micronaut.data.model.runtime.RuntimePersistentEntity;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Node local snapshot of the reference data consulted while building a request workflow
+ * context: agencies, locations and libraries. These change rarely, so entries are
+ * held until something changes them. Host LMS are not held, as changes to them are not
+ * recorded in the data change log.
+ *
+ * Changes made through this node are seen via entity events. Changes made by other nodes, or
+ * directly in the database, are picked up by watching the data change log, which the triggers
+ * on these tables write to. Either way the whole snapshot is dropped, as the entities refer to
+ * one another.
+ *
+ * Each caller is given its own copy of a cached entity, so changes made by one caller
+ * aren't seen by others. Entities referred to by a copy are shared and must be treated as read only.
+ */
+@Slf4j
+@Singleton
+public class ReferenceDataCache implements EntityEventListener<Object> {
+
+	static final String METRIC_NAME = "dcb.reference-data.cache";
+
+	// Table names, as recorded in data_change_log.entity_type by the audit triggers
+	static final Set<String> ENTITY_TYPES = Set.of("agency", "location", "library");
+
+	private final ReferenceDataCacheConfig config;
+	private final AgencyRepository agencyRepository;
+	private final LocationRepository locationRepository;
+	private final LibraryRepository libraryRepository;
+	private final DataChangeLogRepository dataChangeLogRepository;
+
+	private final AsyncCache<UUID, DataAgency> agenciesById;
+	private final AsyncCache<String, DataAgency> agenciesByCode;
+	private final AsyncCache<UUID, Location> locationsById;
+	private final AsyncCache<String, Library> librariesByAgencyCode;
+
+	private final AtomicReference<Instant> lastChangeLogged = new AtomicReference<>();
+
+	public ReferenceDataCache(ReferenceDataCacheConfig config, AgencyRepository agencyRepository,
+			LocationRepository locationRepository,
+			LibraryRepository libraryRepository, DataChangeLogRepository dataChangeLogRepository,
+			MeterRegistry meterRegistry) {
+
+		this.config = config;
+		this.agencyRepository = agencyRepository;
+		this.locationRepository = locationRepository;
+		this.libraryRepository = libraryRepository;
+		this.dataChangeLogRepository = dataChangeLogRepository;
+
+		this.agenciesById = build(meterRegistry, "agency-by-id");
+		this.agenciesByCode = build(meterRegistry, "agency-by-code");
+		this.locationsById = build(meterRegistry, "location-by-id");
+		this.librariesByAgencyCode = build(meterRegistry, "library-by-agency-code");
+	}
+
+	private <K, V> AsyncCache<K, V> build(MeterRegistry meterRegistry, String name) {
+		final AsyncCache<K, V> cache = Caffeine.newBuilder()
+			.maximumSize(config.getMaxEntries())
+			.expireAfterWrite(config.getMaxAge())
+			.recordStats()
+			.buildAsync();
+
+		return CaffeineCacheMetrics.monitor(meterRegistry, cache, METRIC_NAME, "kind", name);
+	}
+
+	public Mono<DataAgency> findAgencyById(@Nullable UUID id) {
+		return lookup(agenciesById, id, key -> Mono.from(agencyRepository.findById(key)), ReferenceDataCache::copyOf);
+	}
+
+	public Mono<DataAgency> findAgencyByCode(@Nullable String code) {
+		return lookup(agenciesByCode, code, key -> Mono.from(agencyRepository.findOneByCode(key)), ReferenceDataCache::copyOf);
+	}
+
+	public Mono<Location> findLocationById(@Nullable UUID id) {
+		return lookup(locationsById, id, key -> Mono.from(locationRepository.findById(key)), ReferenceDataCache::copyOf);
+	}
+
+	/**
+	 * Location ids are often carried as strings, anything that isn't a UUID finds nothing
+	 */
+	public Mono<Location> findLocationById(@Nullable String id) {
+		if (id == null || id.isBlank()) return Mono.empty();
+
+		final UUID parsed;
+		try {
+			parsed = UUID.fromString(id);
+		}
+		catch (IllegalArgumentException e) {
+			log.warn("Location ID: \"{}\" is not a valid UUID", id);
+			return Mono.empty();
+		}
+
+		return findLocationById(parsed);
+	}
+
+	public Mono<Library> findLibraryByAgencyCode(@Nullable String agencyCode) {
+		return lookup(librariesByAgencyCode, agencyCode, key -> Mono.from(libraryRepository.findOneByAgencyCode(key)),
+			ReferenceDataCache::copyOf);
+	}
+
+	// Concurrent lookups of the same key share one query. Nothing is held for keys that
+	// aren't found or fail to load, so those are tried again next time.
+	private <K, V> Mono<V> lookup(AsyncCache<K, V> cache, @Nullable K key, Function<K, Mono<V>> loader,
+			UnaryOperator<V> copier) {
+
+		if (key == null) return Mono.empty();
+
+		if (!config.isEnabled()) return loader.apply(key);
+
+		// Suppress cancellation, other callers may be waiting on the same load
+		return Mono.fromFuture(() -> cache.get(key, (k, _executor) -> loader.apply(k).toFuture()), true)
+			.map(copier);
+	}
+
+	static DataAgency copyOf(DataAgency agency) {
+		return agency.toBuilder().build();
+	}
+
+	static Location copyOf(Location location) {
+		final Location copy = location.toBuilder().build();
+
+		if (location.getAgency() != null) {
+			copy.setAgency(copyOf(location.getAgency()));
+		}
+
+		return copy;
+	}
+
+	static Library copyOf(Library library) {
+		final Library copy = library.toBuilder().build();
+
+		if (library.getAgency() != null) {
+			copy.setAgency(copyOf(library.getAgency()));
+		}
+
+		return copy;
+	}
+
+	public void invalidateAll() {
+		agenciesById.synchronous().invalidateAll();
+		agenciesByCode.synchronous().invalidateAll();
+		locationsById.synchronous().invalidateAll();
+		librariesByAgencyCode.synchronous().invalidateAll();
+	}
+
+	@Scheduled(initialDelay = "10s", fixedDelay = "${dcb.reference-data.cache.poll-interval:30s}")
+	void checkForChanges() {
+		if (!config.isEnabled()) return;
+
+		Mono.from(dataChangeLogRepository.findLatestTimestampLogged(ENTITY_TYPES))
+			.doOnNext(this::onLatestChange)
+			.doOnError(error -> log.warn("Unable to check the data change log for reference data changes", error))
+			.onErrorResume(error -> Mono.empty())
+			.subscribe();
+	}
+
+	void onLatestChange(Instant latest) {
+		final Instant previous = lastChangeLogged.getAndSet(latest);
+
+		// The first check drops anything loaded before the watermark was known
+		if (!latest.equals(previous)) {
+			log.info("Reference data changed at {}, dropping cached entries", latest);
+			invalidateAll();
+		}
+	}
+
+	@Override
+	public boolean supports(RuntimePersistentEntity<Object> entity, Class<? extends Annotation> eventType) {
+		return ENTITY_TYPES.contains(entity.getPersistedName());
+	}
+
+	@Override
+	public void postPersist(@NonNull EntityEventContext<Object> context) {
+		invalidateAll();
+	}
+
+	@Override
+	public void postUpdate(@NonNull EntityEventContext<Object> context) {
+		invalidateAll();
+	}
+
+	@Override
+	public void postRemove(@NonNull EntityEventContext<Object> context) {
+		invalidateAll();
+	}
+}
@@ -0,0 +1,31 @@
+package org.olf.dcb.core.svc;
+
+import java.time.Duration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+
+@ConfigurationProperties(ReferenceDataCacheConfig.PREFIX)
+public interface ReferenceDataCacheConfig {
+	public static final String PREFIX = "dcb.reference-data.cache";
+
+	/**
+	 * Serve agencies, Host LMS, locations and libraries from memory. When disabled every
+	 * lookup goes to the database.
+	 */
+	@Bindable(defaultValue = "true")
+	boolean isEnabled();
+
+	/**
+	 * Upper bound on the number of entries held for each kind of reference data.
+	 */
+	@Bindable(defaultValue = "10000")
+	long getMaxEntries();
+
+	/**
+	 * Backstop on how long an entry is held, in case a change is made without passing
+	 * through the data change log.
+	 */
+	@Bindable(defaultValue = "PT15M")
+	Duration getMaxAge();
+}
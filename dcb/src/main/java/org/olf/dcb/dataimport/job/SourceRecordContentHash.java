@@ -0,0 +1,76 @@
+package org.olf.dcb.dataimport.job;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.json.tree.JsonNode;
+
+/**
+ * Hash of a source record payload that only changes when its content does. Object keys are
+ * visited in sorted order, so the same record sent with its properties in a different order
+ * hashes the same.
+ */
+public final class SourceRecordContentHash {
+
+	private SourceRecordContentHash() {}
+
+	/**
+	 * @return the SHA-256 of the canonical form of the payload, as hex
+	 */
+	public static String of(@NonNull JsonNode payload) {
+		final MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+
+		update(digest, payload);
+
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static void update(MessageDigest digest, JsonNode node) {
+		if (node.isObject()) {
+			final List<Map.Entry<String, JsonNode>> entries = new ArrayList<>();
+			node.entries().forEach(entries::add);
+			entries.sort(Map.Entry.comparingByKey());
+
+			digest.update((byte) '{');
+			for (Map.Entry<String, JsonNode> entry : entries) {
+				update(digest, entry.getKey());
+				update(digest, entry.getValue());
+			}
+			digest.update((byte) '}');
+		} else if (node.isArray()) {
+			digest.update((byte) '[');
+			node.values().forEach(value -> update(digest, value));
+			digest.update((byte) ']');
+		} else if (node.isString()) {
+			digest.update((byte) 's');
+			update(digest, node.getStringValue());
+		} else if (node.isNumber()) {
+			digest.update((byte) 'd');
+			update(digest, node.getNumberValue().toString());
+		} else if (node.isBoolean()) {
+			digest.update((byte) (node.getBooleanValue() ? 't' : 'f'));
+		} else {
+			digest.update((byte) 'n');
+		}
+	}
+
+	// Length prefixed, so that neighbouring values can't run into each other
+	private static void update(MessageDigest digest, String value) {
+		final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+		digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+		digest.update(bytes);
+	}
+}
@@ -1,5 +1,6 @@
 package org.olf.dcb.dataimport.job;
 
+import java.util.List;
 import java.util.Optional;
 
 import io.micronaut.core.naming.Named;
@@ -12,4 +13,15 @@ public interface SourceRecordDataSource extends Named, ConcurrencyGroupAware {
 	boolean isSourceImportEnabled();
 	
 	Mono<SourceRecordImportChunk> getChunk( Optional<JsonNode> parameters );
+	
+	/**
+	 * Split this source into parts that can be imported side by side, each part being imported
+	 * by its own job with its own checkpoint, so each must have a distinct, stable name.
+	 * 
+	 * @param maxPartitions The most parts that will be imported at once
+	 * @return The parts, or just this source if it can't be split
+	 */
+	default List<? extends SourceRecordDataSource> getPartitions( int maxPartitions ) {
+		return List.of(this);
+	}
 }
@@ -43,4 +43,10 @@ public class SourceRecordImportJob implements Job<SourceRecord> {
 		log.info("Resume job [{}] using checkpoint: [{}]", getName(), lastCheckpoint.getValue());
 		return getChunkForCheckpoint(Optional.of(lastCheckpoint));
 	}
+	
+	// The data source pages through the remote system using nothing but the checkpoint
+	@Override
+	public boolean isPrefetchable() {
+		return true;
+	}
 }
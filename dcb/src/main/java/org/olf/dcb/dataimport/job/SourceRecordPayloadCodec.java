@@ -0,0 +1,232 @@
+package org.olf.dcb.dataimport.job;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.marc4j.MarcStreamReader;
+import org.marc4j.MarcStreamWriter;
+import org.marc4j.marc.MarcFactory;
+import org.marc4j.marc.Record;
+import org.marc4j.marc.impl.MarcFactoryImpl;
+import org.olf.dcb.dataimport.job.model.SourceRecord;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.json.tree.JsonNode;
+import io.micronaut.serde.ObjectMapper;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compact form of source record payloads, held in place of the JSON when
+ * {@link SourceRecordPayloadConfig#isEnabled()} is set.
+ *
+ * A compact payload is a format byte followed by a deflate stream. When the payload carries MARC
+ * that survives a trip through ISO 2709 unchanged, the stream holds the rest of the payload as JSON
+ * followed by the binary MARC, so ingest can read the MARC straight into a {@link Record}. Anything
+ * else is held as compressed JSON.
+ */
+@Slf4j
+@Singleton
+public class SourceRecordPayloadCodec {
+
+	static final byte FORMAT_JSON = 1;
+	static final byte FORMAT_JSON_AND_MARC = 2;
+
+	static final String MARC_KEY = "marc";
+
+	private static final String MARC_ENCODING = "UTF-8";
+
+	private static final MarcFactory factory = new MarcFactoryImpl();
+
+	private final SourceRecordPayloadConfig config;
+	private final ObjectMapper objectMapper;
+
+	public SourceRecordPayloadCodec(SourceRecordPayloadConfig config, ObjectMapper objectMapper) {
+		this.config = config;
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * The record as it should be stored, with the payload in compact form when that is enabled
+	 */
+	public SourceRecord compact(@NonNull SourceRecord record) {
+		if (!config.isEnabled() || record.getSourceRecordData() == null) return record;
+
+		try {
+			return record.toBuilder()
+				.sourceRecordData(null)
+				.sourceRecordDataCompact(encode(record.getSourceRecordData()))
+				.build();
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unable to compact payload of source record [{}], storing as JSON", record.getId(), e);
+			return record;
+		}
+	}
+
+	/**
+	 * The record with its full JSON payload, whichever form it was stored in
+	 */
+	public SourceRecord expand(@NonNull SourceRecord record) {
+		final byte[] compact = record.getSourceRecordDataCompact();
+		if (compact == null) return record;
+
+		try {
+			return record.toBuilder()
+				.sourceRecordData(decode(compact))
+				.build();
+		} catch (IOException | RuntimeException e) {
+			log.error("Unable to read compact payload of source record [{}]", record.getId(), e);
+			return record;
+		}
+	}
+
+	/**
+	 * The record with the JSON payload needed for ingest. MARC held in binary is left out of the JSON,
+	 * to be read with {@link #readMarc(byte[])} rather than being turned into JSON only to be parsed again.
+	 * Sources put it back into their own record of the resource with MarcIngestSource.withMarc.
+	 */
+	public SourceRecord expandForIngest(@NonNull SourceRecord record) {
+		final byte[] compact = record.getSourceRecordDataCompact();
+		if (compact == null) return record;
+
+		try (DataInputStream in = open(compact)) {
+			return record.toBuilder()
+				.sourceRecordData(compact[0] == FORMAT_JSON_AND_MARC
+					? readJson(in, in.readInt())
+					: objectMapper.readValue(in, JsonNode.class))
+				.build();
+		} catch (IOException | RuntimeException e) {
+			log.error("Unable to read compact payload of source record [{}]", record.getId(), e);
+			return record;
+		}
+	}
+
+	/**
+	 * Read the MARC held in a compact payload straight into a record
+	 *
+	 * @return the MARC, or empty if the payload doesn't hold it in binary
+	 */
+	public static Optional<Record> readMarc(@Nullable byte[] compact) {
+		if (compact == null || compact.length == 0 || compact[0] != FORMAT_JSON_AND_MARC) return Optional.empty();
+
+		try (DataInputStream in = open(compact)) {
+			in.skipNBytes(in.readInt());
+			return Optional.of(readMarc(in));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to read MARC from compact payload", e);
+		}
+	}
+
+	byte[] encode(@NonNull JsonNode payload) throws IOException {
+		final byte[] marc = binaryMarcOf(payload);
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		bytes.write(marc == null ? FORMAT_JSON : FORMAT_JSON_AND_MARC);
+
+		final Deflater deflater = new Deflater(config.getCompressionLevel());
+		try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+			if (marc == null) {
+				out.write(objectMapper.writeValueAsBytes(payload));
+			} else {
+				final byte[] rest = objectMapper.writeValueAsBytes(withoutMarc(payload));
+				out.writeInt(rest.length);
+				out.write(rest);
+				out.write(marc);
+			}
+		} finally {
+			// Not released by the stream as we supplied it
+			deflater.end();
+		}
+
+		return bytes.toByteArray();
+	}
+
+	JsonNode decode(@NonNull byte[] compact) throws IOException {
+		try (DataInputStream in = open(compact)) {
+			if (compact[0] != FORMAT_JSON_AND_MARC) return objectMapper.readValue(in, JsonNode.class);
+
+			final JsonNode rest = readJson(in, in.readInt());
+			final Record marc = readMarc(in);
+
+			final Map<String, JsonNode> values = new LinkedHashMap<>();
+			rest.entries().forEach(entry -> values.put(entry.getKey(), entry.getValue()));
+			values.put(MARC_KEY, objectMapper.writeValueToTree(marc));
+
+			return JsonNode.createObjectNode(values);
+		}
+	}
+
+	/**
+	 * The payload's MARC as the leader followed by the ISO 2709 record, or null if it has none or it
+	 * would not read back exactly as it was, e.g. an empty field or a record over the ISO 2709 size limit.
+	 */
+	private byte[] binaryMarcOf(JsonNode payload) {
+		final JsonNode marcJson = payload.isObject() ? payload.get(MARC_KEY) : null;
+		if (marcJson == null || !marcJson.isObject()) return null;
+
+		try {
+			final Record marc = objectMapper.readValueFromTree(marcJson, Record.class);
+			// Writing recalculates the lengths held in the leader, so keep the one we were given
+			final String leader = marc.getLeader().marshal();
+
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			final DataOutputStream out = new DataOutputStream(bytes);
+			out.writeUTF(leader);
+
+			final MarcStreamWriter writer = new MarcStreamWriter(out, MARC_ENCODING);
+			writer.write(marc);
+			writer.close();
+
+			final byte[] binary = bytes.toByteArray();
+
+			final Record readBack = readMarc(new DataInputStream(new ByteArrayInputStream(binary)));
+			if (!marcJson.equals(objectMapper.writeValueToTree(readBack))) {
+				log.debug("MARC would not read back unchanged, holding as JSON");
+				return null;
+			}
+
+			return binary;
+		} catch (IOException | RuntimeException e) {
+			log.debug("Unable to hold MARC in binary, holding as JSON", e);
+			return null;
+		}
+	}
+
+	private static Record readMarc(DataInputStream in) throws IOException {
+		final String leader = in.readUTF();
+
+		final Record marc = new MarcStreamReader(in, MARC_ENCODING).next();
+		marc.setLeader(factory.newLeader(leader));
+
+		return marc;
+	}
+
+	private JsonNode readJson(DataInputStream in, int length) throws IOException {
+		return objectMapper.readValue(in.readNBytes(length), JsonNode.class);
+	}
+
+	private static JsonNode withoutMarc(JsonNode payload) {
+		final Map<String, JsonNode> values = new LinkedHashMap<>();
+		payload.entries().forEach(entry -> {
+			if (!MARC_KEY.equals(entry.getKey())) values.put(entry.getKey(), entry.getValue());
+		});
+
+		return JsonNode.createObjectNode(values);
+	}
+
+	private static DataInputStream open(byte[] compact) {
+		return new DataInputStream(new InflaterInputStream(
+			new ByteArrayInputStream(compact, 1, compact.length - 1)));
+	}
+}
@@ -0,0 +1,29 @@
+package org.olf.dcb.dataimport.job;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+
+@ConfigurationProperties(SourceRecordPayloadConfig.PREFIX)
+public interface SourceRecordPayloadConfig {
+	public static final String PREFIX = "dcb.source-records.compact-payload";
+
+	/**
+	 * Store source record payloads compressed, with any MARC held as ISO 2709, instead of as JSON.
+	 * Also moves existing JSON payloads over in the background. Compact payloads are always read,
+	 * whether or not this is enabled.
+	 */
+	@Bindable(defaultValue = "false")
+	boolean isEnabled();
+
+	/**
+	 * Deflate level used for compact payloads, from 1 (fastest) to 9 (smallest).
+	 */
+	@Bindable(defaultValue = "6")
+	int getCompressionLevel();
+
+	/**
+	 * Number of existing records moved to the compact form in each transaction.
+	 */
+	@Bindable(defaultValue = "500")
+	int getMigrationBatchSize();
+}
@@ -0,0 +1,154 @@
+package org.olf.dcb.dataimport.job;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.data.r2dbc.operations.R2dbcOperations;
+import io.micronaut.json.tree.JsonNode;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
+import io.micronaut.scheduling.annotation.Scheduled;
+import io.micronaut.serde.ObjectMapper;
+import io.r2dbc.spi.Connection;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import services.k_int.micronaut.scheduling.processor.AppTask;
+
+/**
+ * Moves source records still holding their payload as JSON over to the compact form, once
+ * compact payloads are enabled. Works through the table in id order a batch at a time, and stops
+ * once a pass finds nothing left to move.
+ */
+@Slf4j
+@Singleton
+public class SourceRecordPayloadMigration {
+
+	static final String METRIC_NAME = "dcb.source-records.compact-payload";
+
+	private static final String NEXT_BATCH = """
+		select id, xmin::text as version, source_record_data::text as data
+		from source_record
+		where id > $1 and source_record_data is not null and source_record_data_compact is null
+		order by id
+		limit $2
+		""";
+
+	// Leaves the record alone if it has been written since it was read
+	private static final String COMPACT = """
+		update source_record
+		set source_record_data_compact = $3, source_record_data = null
+		where id = $1 and xmin::text = $2
+		""";
+
+	private final SourceRecordPayloadConfig config;
+	private final SourceRecordPayloadCodec codec;
+	private final R2dbcOperations operations;
+	private final ObjectMapper objectMapper;
+	private final MeterRegistry meterRegistry;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+	private volatile boolean completed = false;
+
+	public SourceRecordPayloadMigration(SourceRecordPayloadConfig config, SourceRecordPayloadCodec codec,
+			R2dbcOperations operations, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+
+		this.config = config;
+		this.codec = codec;
+		this.operations = operations;
+		this.objectMapper = objectMapper;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@AppTask
+	@ExecuteOn(TaskExecutors.BLOCKING)
+	@Scheduled(initialDelay = "5m", fixedDelay = "10m")
+	public void migrate() {
+		if (!config.isEnabled() || completed || !running.compareAndSet(false, true)) return;
+
+		log.info("Moving source record payloads to compact form");
+
+		migrateAll()
+			.doFinally(_signal -> running.set(false))
+			.subscribe(count -> {
+				log.info("Moved {} source record payloads to compact form", count);
+
+				// Records written from now on are compact, so nothing more to do until the next restart
+				completed = true;
+			}, error -> log.error("Unable to move source record payloads to compact form", error));
+	}
+
+	/**
+	 * Move every record still holding a JSON payload
+	 *
+	 * @return the number of records moved
+	 */
+	Mono<Long> migrateAll() {
+		final AtomicReference<UUID> after = new AtomicReference<>(new UUID(0, 0));
+
+		return Mono.defer(() -> migrateBatch(after))
+			.repeat(() -> after.get() != null)
+			.reduce(0L, Long::sum);
+	}
+
+	/**
+	 * Move the next batch of records after the given id, then move the id on past them. The id is
+	 * cleared once there are no more to move.
+	 */
+	private Mono<Long> migrateBatch(AtomicReference<UUID> after) {
+		return Flux.from(operations.withTransaction(status ->
+				nextBatch(status.getConnection(), after.get())
+					.flatMapMany(batch -> {
+						after.set(batch.size() < config.getMigrationBatchSize() ? null : batch.get(batch.size() - 1).id());
+
+						return compactAll(status.getConnection(), batch);
+					})))
+			.reduce(0L, Long::sum);
+	}
+
+	Mono<List<Pending>> nextBatch(Connection connection, UUID after) {
+		return Flux.from(connection.createStatement(NEXT_BATCH)
+				.bind("$1", after)
+				.bind("$2", config.getMigrationBatchSize())
+				.execute())
+			.flatMap(result -> result.map((row, _meta) -> new Pending(
+				row.get("id", UUID.class),
+				row.get("version", String.class),
+				row.get("data", String.class))))
+			.collectList();
+	}
+
+	Flux<Long> compactAll(Connection connection, List<Pending> batch) {
+		return Flux.fromIterable(batch)
+			.concatMap(pending -> {
+				final byte[] json = pending.data().getBytes(StandardCharsets.UTF_8);
+				final byte[] compact;
+				try {
+					compact = codec.encode(objectMapper.readValue(json, JsonNode.class));
+				} catch (IOException | RuntimeException e) {
+					log.warn("Unable to compact payload of source record [{}], leaving as JSON", pending.id(), e);
+					return Mono.empty();
+				}
+
+				meterRegistry.counter(METRIC_NAME + ".bytes", "form", "json").increment(json.length);
+				meterRegistry.counter(METRIC_NAME + ".bytes", "form", "compact").increment(compact.length);
+
+				return Flux.from(connection.createStatement(COMPACT)
+						.bind("$1", pending.id())
+						.bind("$2", pending.version())
+						.bind("$3", compact)
+						.execute())
+					.flatMap(result -> Mono.from(result.getRowsUpdated()))
+					.reduce(0L, Long::sum);
+			})
+			.doOnNext(moved -> meterRegistry.counter(METRIC_NAME + ".migrated").increment(moved));
+	}
+
+	static record Pending(UUID id, String version, String data) {}
+}
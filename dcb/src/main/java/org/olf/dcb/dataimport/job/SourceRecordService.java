@@ -7,17 +7,24 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import org.olf.dcb.core.HostLmsService;
 import org.olf.dcb.core.model.DataHostLms;
 import org.olf.dcb.dataimport.job.model.SourceRecord;
 import org.olf.dcb.dataimport.job.model.SourceRecord.ProcessingStatus;
+import org.olf.dcb.ingest.IngestService;
 import org.olf.dcb.ingest.IngestSource;
 import org.olf.dcb.storage.SourceRecordRepository;
+import org.olf.dcb.storage.SourceRecordRepository.ProcessedContent;
 import org.slf4j.event.Level;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Value;
 import io.micronaut.context.event.ApplicationEventListener;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
@@ -51,24 +58,35 @@ import services.k_int.micronaut.scheduling.processor.AppTask;
 @ApplicableChunkTypes( SourceRecordImportChunk.class )
 public class SourceRecordService implements JobChunkProcessor, ApplicationEventListener<RefreshEvent>, EntityEventListener<DataHostLms> {
 
+	static final String METRIC_NAME = "dcb.source-records.harvested";
+
 	private final HostLmsService lmsService;
 	private final SourceRecordRepository sourceRecords;
 	private final ReactiveJobRunnerService jobService;
   private final ConcurrencyGroupService concurrency;
   private final ReactorFederatedLockService lockService;
+  private final SourceRecordPayloadCodec payloadCodec;
+  private final MeterRegistry meterRegistry;
+  private final boolean skipUnchanged;
 
-	public SourceRecordService(HostLmsService lmsService, SourceRecordRepository sourceRecords, ReactiveJobRunnerService jobService, ConcurrencyGroupService concurrency, ReactorFederatedLockService lockService) {
+	public SourceRecordService(HostLmsService lmsService, SourceRecordRepository sourceRecords, ReactiveJobRunnerService jobService, ConcurrencyGroupService concurrency, ReactorFederatedLockService lockService, SourceRecordPayloadCodec payloadCodec,
+		MeterRegistry meterRegistry,
+		@Value("${dcb.source-records.skip-unchanged:true}") boolean skipUnchanged) {
 		log.info("SourceRecordService::init");
 		this.lmsService = lmsService;
 		this.sourceRecords = sourceRecords;
 		this.jobService = jobService;
 		this.concurrency = concurrency;
 		this.lockService = lockService;
+		this.payloadCodec = payloadCodec;
+		this.meterRegistry = meterRegistry;
+		this.skipUnchanged = skipUnchanged;
 	}
 	
 	@Transactional(propagation = Propagation.MANDATORY)
 	public Mono<SourceRecord> getByLocalId(UUID id) {
-		return Mono.from( sourceRecords.getById(id) );
+		return Mono.from( sourceRecords.getById(id) )
+			.map( payloadCodec::expand );
 	}
 	
 	public Mono<SourceRecordImportJob> createJobInstanceForSource( IngestSource ingestSource ) {
@@ -98,6 +116,21 @@ public class SourceRecordService implements JobChunkProcessor, ApplicationEventL
 			.map(SourceRecordImportJob::new);
 	}
 	
+	/**
+	 * One job for each partition of the source, see {@link SourceRecordDataSource#getPartitions(int)}. A source is
+	 * not split into more partitions than its concurrency group allows to run at once.
+	 */
+	public Flux<SourceRecordImportJob> createJobInstancesForSource( IngestSource ingestSource ) {
+		return createJobInstanceForSource(ingestSource)
+			.flatMapIterable( job -> {
+				final int limit = concurrency.getLimit(job.datasource.getConcurrencyGroupKey(), 0);
+				
+				return job.datasource.getPartitions( limit < 1 ? Integer.MAX_VALUE : limit ).stream()
+					.map( SourceRecordImportJob::new )
+					.toList();
+			});
+	}
+	
 	@Transactional(readOnly = true)
 	protected Flux<SourceRecordImportJob> getSourceRecordDataSources() {
 		return Flux.from(lmsService.getIngestSources())
@@ -108,7 +141,7 @@ public class SourceRecordService implements JobChunkProcessor, ApplicationEventL
 					.map( name2 -> name1.compareTo(name2) ))
 				.orElse( s1 != null ? 1 : -1 ))
 				.transform(
-						concurrency.toGroupedSubscription(this::createJobInstanceForSource));
+						concurrency.toGroupedSubscription(this::createJobInstancesForSource));
 	}
 
 	@Override
@@ -127,8 +160,19 @@ public class SourceRecordService implements JobChunkProcessor, ApplicationEventL
 	protected Mono<SourceRecordImportChunk> processSourceRecordImportChunk(final SourceRecordImportChunk chunk) {
 
 		try {
-			return Flux.fromIterable(chunk.getData())
-					.flatMap(this::save)
+			final List<SourceRecord> records = chunk.getData().stream()
+				.map( this::withContentHash )
+				.toList();
+			
+			return findUnchanged(records)
+					.flatMap( unchanged -> Flux.fromIterable(records)
+						.filter( srcRec -> !unchanged.contains(srcRec.getId()) )
+						.flatMap(this::save)
+						.then( touchUnchanged(unchanged) )
+						.doOnSuccess( _done -> {
+							meterRegistry.counter(METRIC_NAME, "result", "skipped").increment(unchanged.size());
+							meterRegistry.counter(METRIC_NAME, "result", "processed").increment(records.size() - unchanged.size());
+						}))
 					.then(Mono.just(chunk))
 					.transform( withMonoLogging(log, l -> 
 						l.doOnSuccess(Level.TRACE, processedChunk -> log.info("Processed chunk of [{}] items", processedChunk.getSize()))));
@@ -137,11 +181,49 @@ public class SourceRecordService implements JobChunkProcessor, ApplicationEventL
 		}
 	}
 	
+	private SourceRecord withContentHash( SourceRecord srcRec ) {
+		if (srcRec.getSourceRecordData() == null) return srcRec;
+		
+		return srcRec.toBuilder()
+			.contentHash( SourceRecordContentHash.of(srcRec.getSourceRecordData()) )
+			.build();
+	}
+	
+	/**
+	 * Ids of the records that are unchanged since they were last successfully processed into a clustered bib, by
+	 * the current version of processing. There's nothing to gain by processing these again.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	protected Mono<Set<UUID>> findUnchanged( List<SourceRecord> records ) {
+		final Map<UUID, String> hashes = records.stream()
+			.filter( srcRec -> srcRec.getContentHash() != null )
+			.collect(Collectors.toMap( SourceRecord::getId, SourceRecord::getContentHash, (first, _second) -> first ));
+		
+		if (!skipUnchanged || hashes.isEmpty()) return Mono.just(Set.of());
+		
+		return Flux.from(sourceRecords.findProcessedContentByIdIn(hashes.keySet(), IngestService.getProcessVersion()))
+			.filter( processed -> processed.contenthash().equals(hashes.get(processed.id())) )
+			.map( ProcessedContent::id )
+			.collect(Collectors.toSet());
+	}
+	
+	// Unchanged records are left as they are, other than noting we've seen them.
+	@Transactional(propagation = Propagation.MANDATORY)
+	protected Mono<Void> touchUnchanged( Set<UUID> unchanged ) {
+		if (unchanged.isEmpty()) return Mono.empty();
+		
+		return Mono.from(sourceRecords.updateLastFetchedByIdIn(unchanged, Instant.now()))
+			.transform( withMonoLogging(log, l -> 
+				l.doOnSuccess(Level.DEBUG, count -> log.debug("Skipped [{}] unchanged source records", count))))
+			.then();
+	}
+	
 	@Transactional(propagation = Propagation.MANDATORY)
 	public Mono<SourceRecord> save ( SourceRecord srcRec ) {
-		return Mono.from(sourceRecords.saveOrUpdate(srcRec))
+		return Mono.from(sourceRecords.saveOrUpdate(payloadCodec.compact(srcRec)))
+				.map( payloadCodec::expand )
 				.transform( withMonoLogging(log, l -> 
-					l.doOnSuccess(Level.TRACE, savedRecord -> log.trace("Save source record [{}]", srcRec))));
+					l.doOnSuccess(Level.TRACE, savedRecord -> log.trace("Save source record [{}]", savedRecord))));
 	}
 
   // II: I'm trying to work out why in my clone of Mob live I see the number of records requiring processing
@@ -152,6 +234,7 @@ public class SourceRecordService implements JobChunkProcessor, ApplicationEventL
 	public Mono<List<SourceRecord>> getUnprocessedRecords (@NonNull Pageable page) {
 		
 		return Flux.from(sourceRecords.findAllByProcessingState(ProcessingStatus.PROCESSING_REQUIRED, page))
+				.map( payloadCodec::expandForIngest )
 				.transform(	withFluxLogging(log, l -> 
 					l.doOnSubscribe(Level.DEBUG, _s -> log.debug("Fetching page of SourceRecord data [{}]", page))))
 				.collectList();
@@ -172,7 +255,8 @@ public class SourceRecordService implements JobChunkProcessor, ApplicationEventL
 	// Technically because we are using LIKE here we "could" find more than one. Handle that outside of this method if
 	// we want to fail when that is the case
 	public @NonNull Flux<SourceRecord> findByHostLmsIdAndRemoteIdLike(@NotNull UUID sourceSystemId, @NonNull String sourceRecordId) {
-		return Flux.from( sourceRecords.findByHostLmsIdAndRemoteIdLike(sourceSystemId, "%" + sourceRecordId) );
+		return Flux.from( sourceRecords.findByHostLmsIdAndRemoteIdLike(sourceSystemId, "%" + sourceRecordId) )
+			.map( payloadCodec::expand );
 	}
 	
 	@Transactional(propagation = Propagation.MANDATORY)
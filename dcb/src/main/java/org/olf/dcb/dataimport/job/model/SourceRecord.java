@@ -3,6 +3,8 @@ package org.olf.dcb.dataimport.job.model;
 import java.time.Instant;
 import java.util.UUID;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import io.micronaut.data.annotation.DateCreated;
 import io.micronaut.data.annotation.DateUpdated;
 import io.micronaut.core.annotation.NonNull;
@@ -85,10 +87,20 @@ public class SourceRecord {
 
 	@Nullable
 	private final String processingInformation;
+
+	// Changes only when the payload does, see SourceRecordContentHash
+	@Nullable
+	private final String contentHash;
 	
 	@Nullable
 	@TypeDef(type = DataType.JSON)
 	@ToString.Exclude
 	private final JsonNode sourceRecordData;
+
+	// Held instead of sourceRecordData when compact payloads are enabled, see SourceRecordPayloadCodec
+	@Nullable
+	@JsonIgnore
+	@ToString.Exclude
+	private final byte[] sourceRecordDataCompact;
 	
 }
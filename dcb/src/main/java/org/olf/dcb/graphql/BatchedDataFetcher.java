@@ -0,0 +1,12 @@
+package org.olf.dcb.graphql;
+
+import graphql.schema.DataFetcher;
+
+/**
+ * Marks a data fetcher that resolves through a {@link org.dataloader.DataLoader} rather
+ * than querying directly, so {@link GraphQLQueryMetrics} counts the batch dispatch
+ * instead of each individual fetch.
+ */
+@FunctionalInterface
+interface BatchedDataFetcher<T> extends DataFetcher<T> {
+}
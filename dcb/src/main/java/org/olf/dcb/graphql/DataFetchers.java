@@ -13,6 +13,7 @@ import org.olf.dcb.core.api.serde.DailyPatronRequestStat;
 import org.olf.dcb.core.clustering.model.MatchPoint;
 import org.olf.dcb.core.model.*;
 import org.olf.dcb.core.clustering.model.*;
+import org.olf.dcb.dataimport.job.SourceRecordPayloadCodec;
 import org.olf.dcb.dataimport.job.model.SourceRecord;
 import org.olf.dcb.storage.AgencyGroupMemberRepository;
 import org.olf.dcb.storage.HostLmsRepository;
@@ -24,6 +25,7 @@ import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.data.model.Sort;
 
+import graphql.execution.DataFetcherResult;
 import graphql.schema.DataFetcher;
 import io.micronaut.core.annotation.TypeHint;
 import io.micronaut.core.annotation.TypeHint.AccessType;
@@ -40,6 +42,10 @@ public class DataFetchers {
 
 	private static Logger log = LoggerFactory.getLogger(DataFetchers.class);
 
+	static final String PATRON_REQUEST_DEFAULT_ORDER = "dateCreated";
+	static final String AUDIT_DEFAULT_ORDER = "auditDate";
+	static final String DATA_CHANGE_LOG_DEFAULT_ORDER = "timestampLogged";
+
 	private final PostgresAgencyRepository postgresAgencyRepository;
 	private final PostgresPatronRequestRepository postgresPatronRequestRepository;
 	private final PostgresSupplierRequestRepository postgresSupplierRequestRepository;
@@ -80,6 +86,7 @@ public class DataFetchers {
 
 	private final PostgresSourceRecordRepository postgresSourceRecordRepository;
 	private final PostgresAlarmRepository postgresAlarmRepository;
+	private final SourceRecordPayloadCodec sourceRecordPayloadCodec;
 	private final QueryService qs;
 
 	public DataFetchers(PostgresAgencyRepository postgresAgencyRepository,
@@ -109,6 +116,7 @@ public class DataFetchers {
 											PostgresRoleRepository postgresRoleRepository,
 											PostgresSourceRecordRepository postgresSourceRecordRepository,
 											PostgresAlarmRepository postgresAlarmRepository,
+											SourceRecordPayloadCodec sourceRecordPayloadCodec,
 											QueryService qs) {
 		this.qs = qs;
 		this.postgresAgencyRepository = postgresAgencyRepository;
@@ -141,6 +149,7 @@ public class DataFetchers {
 		this.postgresRoleRepository = postgresRoleRepository;
 		this.postgresSourceRecordRepository = postgresSourceRecordRepository;
 		this.postgresAlarmRepository = postgresAlarmRepository;
+		this.sourceRecordPayloadCodec = sourceRecordPayloadCodec;
 	}
 
 
@@ -192,7 +201,7 @@ public class DataFetchers {
 		};
 	}
 
-	public DataFetcher<CompletableFuture<Page<PatronRequest>>> getPatronRequestsDataFetcher() {
+	public DataFetcher<CompletableFuture<DataFetcherResult<Page<PatronRequest>>>> getPatronRequestsDataFetcher() {
 		return env -> {
 			Integer pageno = env.getArgument("pageno");
 			Integer pagesize = env.getArgument("pagesize");
@@ -202,25 +211,53 @@ public class DataFetchers {
 
 			if ( pageno == null ) pageno = Integer.valueOf(0);
 			if ( pagesize == null ) pagesize = Integer.valueOf(10);
-			if ( order == null ) order = "dateCreated";
+			String after = env.getArgument(KeysetPagination.AFTER_ARGUMENT);
+			// Unindexed searches are limited per user
+			final String principal = env.getGraphQlContext().get("currentUser");
+
+			if ( order == null ) order = PATRON_REQUEST_DEFAULT_ORDER;
 			if ( direction == null ) direction = "ASC";
 
 			Sort.Order.Direction orderBy =  Sort.Order.Direction.valueOf(direction);
 
+			if (after != null) {
+				final String keysetOrder = order;
+				final Pageable keysetPage = KeysetPagination.firstPage(pagesize.intValue(), order, orderBy);
+				final var toPage = KeysetPagination.toPage(pagesize.intValue(), PatronRequest.class, order, orderBy,
+					PatronRequest::getId);
+
+				if ((query != null) && (query.length() > 0)) {
+					return qs.plan(query, PatronRequest.class, principal)
+						.execute(spec -> postgresPatronRequestRepository.findAll(
+							KeysetPagination.after(spec, PatronRequest.class, keysetOrder, orderBy, after), keysetPage))
+						.map(toPage)
+						.toFuture();
+				}
+
+				return Mono.from(postgresPatronRequestRepository.findAll(
+						KeysetPagination.after(null, PatronRequest.class, order, orderBy, after), keysetPage))
+					.map(toPage)
+					.toFuture();
+			}
+
 			Pageable pageable = Pageable
 				.from(pageno.intValue(), pagesize.intValue())
 				.order(order, orderBy);
                 
 			if ((query != null) && (query.length() > 0)) {
-				var spec = qs.evaluate(query, PatronRequest.class);
-				return Mono.from(postgresPatronRequestRepository.findAll(spec, pageable)).toFuture();
+				return qs.plan(query, PatronRequest.class, principal)
+					.execute(spec -> postgresPatronRequestRepository.findAll(spec, pageable))
+					.map(KeysetPagination::withoutCursor)
+					.toFuture();
 			}
                         
-			return Mono.from(postgresPatronRequestRepository.findAll(pageable)).toFuture();
+			return Mono.from(postgresPatronRequestRepository.findAll(pageable))
+				.map(KeysetPagination::withoutCursor)
+				.toFuture();
 		};
 	}
 
-	public DataFetcher<CompletableFuture<Page<PatronRequestAudit>>> getAuditsDataFetcher() {
+	public DataFetcher<CompletableFuture<DataFetcherResult<Page<PatronRequestAudit>>>> getAuditsDataFetcher() {
 		return env -> {
 			log.debug("getAuditsDataFetcher {}",env);
 			Integer pageno = env.getArgument("pageno");
@@ -231,25 +268,41 @@ public class DataFetchers {
 
 			if ( pageno == null ) pageno = Integer.valueOf(0);
 			if ( pagesize == null ) pagesize = Integer.valueOf(10);
-			if ( order == null ) order = "auditDate";
+			String after = env.getArgument(KeysetPagination.AFTER_ARGUMENT);
+
+			if ( order == null ) order = AUDIT_DEFAULT_ORDER;
 			if ( direction == null ) direction = "ASC";
 
 			Sort.Order.Direction orderBy =  Sort.Order.Direction.valueOf(direction);
 
+			if (after != null) {
+				var spec = (query != null) && (query.length() > 0) ? qs.evaluate(query, PatronRequestAudit.class) : null;
+				return Mono.from(postgresPatronRequestAuditRepository.findAll(
+						KeysetPagination.after(spec, PatronRequestAudit.class, order, orderBy, after),
+						KeysetPagination.firstPage(pagesize.intValue(), order, orderBy)))
+					.map(KeysetPagination.toPage(pagesize.intValue(), PatronRequestAudit.class, order, orderBy,
+						PatronRequestAudit::getId))
+					.toFuture();
+			}
+
 			Pageable pageable = Pageable
 				.from(pageno.intValue(), pagesize.intValue())
 				.order(order, orderBy);
 
 			if ((query != null) && (query.length() > 0)) {
 				var spec = qs.evaluate(query, PatronRequestAudit.class);
-				return Mono.from(postgresPatronRequestAuditRepository.findAll(spec, pageable)).toFuture();
+				return Mono.from(postgresPatronRequestAuditRepository.findAll(spec, pageable))
+					.map(KeysetPagination::withoutCursor)
+					.toFuture();
 			}
 
-			return Mono.from(postgresPatronRequestAuditRepository.findAll(pageable)).toFuture();
+			return Mono.from(postgresPatronRequestAuditRepository.findAll(pageable))
+				.map(KeysetPagination::withoutCursor)
+				.toFuture();
 		};
 	}
 
-	public DataFetcher<CompletableFuture<Page<DataChangeLog>>> getDataChangeLogDataFetcher() {
+	public DataFetcher<CompletableFuture<DataFetcherResult<Page<DataChangeLog>>>> getDataChangeLogDataFetcher() {
 		return env -> {
 			log.debug("getDataChangeLogDataFetcher {}",env);
 			Integer pageno = env.getArgument("pageno");
@@ -260,14 +313,16 @@ public class DataFetchers {
 
 			if ( pageno == null ) pageno = Integer.valueOf(0);
 			if ( pagesize == null ) pagesize = Integer.valueOf(10);
-			if ( order == null ) order = "timestampLogged";
+			String after = env.getArgument(KeysetPagination.AFTER_ARGUMENT);
+
+			if ( order == null ) order = DATA_CHANGE_LOG_DEFAULT_ORDER;
 			if ( direction == null ) direction = "ASC";
 
 			Sort.Order.Direction orderBy =  Sort.Order.Direction.valueOf(direction);
 
-			Pageable pageable = Pageable
-				.from(pageno.intValue(), pagesize.intValue())
-				.order(order, orderBy);
+			Pageable pageable = after != null
+				? KeysetPagination.firstPage(pagesize.intValue(), order, orderBy)
+				: Pageable.from(pageno.intValue(), pagesize.intValue()).order(order, orderBy);
 
 			String userString = Optional.ofNullable(env.getGraphQlContext().get("userName"))
 				.map(Object::toString)
@@ -281,12 +336,25 @@ public class DataFetchers {
 				throw new HttpStatusException(HttpStatus.UNAUTHORIZED, "Access denied: you do not have the required role to perform this action.");
 			}
 
+			if (after != null) {
+				var spec = (query != null) && (query.length() > 0) ? qs.evaluate(query, DataChangeLog.class) : null;
+				return Mono.from(postgresDataChangeLogRepository.findAll(
+						KeysetPagination.after(spec, DataChangeLog.class, order, orderBy, after), pageable))
+					.map(KeysetPagination.toPage(pagesize.intValue(), DataChangeLog.class, order, orderBy,
+						DataChangeLog::getId))
+					.toFuture();
+			}
+
 			if ((query != null) && (query.length() > 0)) {
 				var spec = qs.evaluate(query, DataChangeLog.class);
-				return Mono.from(postgresDataChangeLogRepository.findAll(spec, pageable)).toFuture();
+				return Mono.from(postgresDataChangeLogRepository.findAll(spec, pageable))
+					.map(KeysetPagination::withoutCursor)
+					.toFuture();
 			}
 
-			return Mono.from(postgresDataChangeLogRepository.findAll(pageable)).toFuture();
+			return Mono.from(postgresDataChangeLogRepository.findAll(pageable))
+				.map(KeysetPagination::withoutCursor)
+				.toFuture();
 		};
 	}
 
@@ -417,6 +485,7 @@ public class DataFetchers {
 						log.debug("Find raw source with ID {} from {}",sourceRecordId,sourceSystemUUID);
 						return Flux.from(postgresSourceRecordRepository.findByHostLmsIdAndRemoteIdLike(sourceSystemUUID,sourceRecordId))
 								.next()
+								.map(sourceRecordPayloadCodec::expand)
 								.toFuture();
 					};
 				}
@@ -506,15 +575,13 @@ public class DataFetchers {
                 };
 	}
 
-        public DataFetcher<CompletableFuture<List<SupplierRequest>>> getSupplierRequestsForPR() {
-                return env -> {
+	public BatchedDataFetcher<CompletableFuture<List<SupplierRequest>>> getSupplierRequestsForPR() {
+		return env -> {
 			PatronRequest parent = env.getSource();
-                        log.debug("getSupplierRequestsForPR {}",parent);
-                        return Flux.from(postgresSupplierRequestRepository.findAllByPatronRequest(parent))
-				.collectList()
-				.toFuture();
-                };
-        }
+			log.debug("getSupplierRequestsForPR {}",parent);
+			return DataLoaders.load(env, DataLoaders.SUPPLIER_REQUESTS_BY_PATRON_REQUEST_ID, parent.getId());
+		};
+	}
 
         public DataFetcher<CompletableFuture<List<PatronRequestAudit>>> getAuditMessagesForPR() {
                 return env -> {
@@ -527,11 +594,11 @@ public class DataFetchers {
         }
 
 
-	public DataFetcher<CompletableFuture<ClusterRecord>> getClusterRecordForPR(){
+	public BatchedDataFetcher<CompletableFuture<ClusterRecord>> getClusterRecordForPR(){
 		return env -> {
 			PatronRequest parent = (PatronRequest) env.getSource();
 			log.debug("Get the Bib Cluster Record for {}", parent);
-			return Mono.from(postgresClusterRecordRepository.findById(parent.getBibClusterId())).toFuture();
+			return DataLoaders.load(env, DataLoaders.CLUSTER_RECORD_BY_ID, parent.getBibClusterId());
 		};
 	}
 
@@ -577,51 +644,29 @@ public class DataFetchers {
 		};
 	}
 
-	public DataFetcher<CompletableFuture<DataAgency>> getAgencyForLocation() {
-                // ToDo: FillOut
-                return env -> {
-                        Location l = (Location) env.getSource();
-			if ( l.getAgency() != null ) {
-                        	UUID agencyUUID = l.getAgency().getId();
-                        	return Mono.from(postgresAgencyRepository.findById(agencyUUID)).toFuture();
-			}
-			else {
-				Mono<DataAgency> r = Mono.empty();
-				return r.toFuture();
-			}
-                };
+	public BatchedDataFetcher<CompletableFuture<DataAgency>> getAgencyForLocation() {
+		return env -> {
+			Location l = (Location) env.getSource();
+			UUID agencyUUID = l.getAgency() != null ? l.getAgency().getId() : null;
+			return DataLoaders.load(env, DataLoaders.AGENCY_BY_ID, agencyUUID);
+		};
 	}
 
-        public DataFetcher<CompletableFuture<DataHostLms>> getHostSystemForLocation() {
-                // ToDo: FillOut
-                return env -> {
-                        Location l = (Location) env.getSource();
-			if ( l.getHostSystem() != null ) {
-                        	UUID hostSystemUUID = l.getHostSystem().getId();
-                        	return Mono.from(hostLmsRepository.findById(hostSystemUUID)).toFuture();
-			}
-			else {
-				Mono<DataHostLms> r = Mono.empty();
-				return r.toFuture();
-			}
-                };
-        }
+	public BatchedDataFetcher<CompletableFuture<DataHostLms>> getHostSystemForLocation() {
+		return env -> {
+			Location l = (Location) env.getSource();
+			UUID hostSystemUUID = l.getHostSystem() != null ? l.getHostSystem().getId() : null;
+			return DataLoaders.load(env, DataLoaders.HOST_LMS_BY_ID, hostSystemUUID);
+		};
+	}
 
-        
-        public DataFetcher<CompletableFuture<Location>> getParentForLocation() {
-                // ToDo: FillOut
-                return env -> {
-                        Location l = (Location) env.getSource();
-			if ( l.getParentLocation() != null ) {
-	                        UUID parentLocationUUID = l.getParentLocation().getId();
-        	                return Mono.from(postgresLocationRepository.findById(parentLocationUUID)).toFuture();
-			}
-			else {
-				Mono<Location> r = Mono.empty();
-				return r.toFuture();
-			}
-                };
-        }
+	public BatchedDataFetcher<CompletableFuture<Location>> getParentForLocation() {
+		return env -> {
+			Location l = (Location) env.getSource();
+			UUID parentLocationUUID = l.getParentLocation() != null ? l.getParentLocation().getId() : null;
+			return DataLoaders.load(env, DataLoaders.LOCATION_BY_ID, parentLocationUUID);
+		};
+	}
 
         public DataFetcher<CompletableFuture<Page<NumericRangeMapping>>> getNumericRangeMappingsDataFetcher() {
                 return env -> {
@@ -787,16 +832,11 @@ public class DataFetchers {
 		};
 	}
 
-	public DataFetcher<CompletableFuture<DataHostLms>> getHostLmsForAgencyDataFetcher() {
+	public BatchedDataFetcher<CompletableFuture<DataHostLms>> getHostLmsForAgencyDataFetcher() {
 		return env -> {
 			Agency a = (Agency) env.getSource();
-			if (a.getHostLms() != null) {
-				UUID hostSystemUUID = a.getHostLms().getId();
-				return Mono.from(hostLmsRepository.findById(hostSystemUUID)).toFuture();
-			} else {
-				Mono<DataHostLms> r = Mono.empty();
-				return r.toFuture();
-			}
+			UUID hostSystemUUID = a.getHostLms() != null ? a.getHostLms().getId() : null;
+			return DataLoaders.load(env, DataLoaders.HOST_LMS_BY_ID, hostSystemUUID);
 		};
 	}
 
@@ -0,0 +1,117 @@
+package org.olf.dcb.graphql;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
+import org.olf.dcb.core.clustering.model.ClusterRecord;
+import org.olf.dcb.core.model.DataAgency;
+import org.olf.dcb.core.model.DataHostLms;
+import org.olf.dcb.core.model.Location;
+import org.olf.dcb.core.model.SupplierRequest;
+import org.olf.dcb.graphql.GraphQLQueryMetrics.QueryCounter;
+import org.olf.dcb.storage.HostLmsRepository;
+import org.olf.dcb.storage.postgres.PostgresAgencyRepository;
+import org.olf.dcb.storage.postgres.PostgresClusterRecordRepository;
+import org.olf.dcb.storage.postgres.PostgresLocationRepository;
+import org.olf.dcb.storage.postgres.PostgresSupplierRequestRepository;
+import org.reactivestreams.Publisher;
+
+import graphql.schema.DataFetchingEnvironment;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Flux;
+
+/**
+ * Batch loaders for the nested fields of the GraphQL schema.
+ *
+ * A fresh registry is created for each execution, so values are only cached for the
+ * lifetime of a single request. Each loader collects the keys requested for one level
+ * of the result and resolves them with a single query.
+ */
+@Singleton
+public class DataLoaders {
+
+	public static final String AGENCY_BY_ID = "agencyById";
+	public static final String HOST_LMS_BY_ID = "hostLmsById";
+	public static final String LOCATION_BY_ID = "locationById";
+	public static final String CLUSTER_RECORD_BY_ID = "clusterRecordById";
+	public static final String SUPPLIER_REQUESTS_BY_PATRON_REQUEST_ID = "supplierRequestsByPatronRequestId";
+
+	private final PostgresAgencyRepository agencyRepository;
+	private final HostLmsRepository hostLmsRepository;
+	private final PostgresLocationRepository locationRepository;
+	private final PostgresClusterRecordRepository clusterRecordRepository;
+	private final PostgresSupplierRequestRepository supplierRequestRepository;
+
+	public DataLoaders(PostgresAgencyRepository agencyRepository, HostLmsRepository hostLmsRepository,
+		PostgresLocationRepository locationRepository, PostgresClusterRecordRepository clusterRecordRepository,
+		PostgresSupplierRequestRepository supplierRequestRepository) {
+
+		this.agencyRepository = agencyRepository;
+		this.hostLmsRepository = hostLmsRepository;
+		this.locationRepository = locationRepository;
+		this.clusterRecordRepository = clusterRecordRepository;
+		this.supplierRequestRepository = supplierRequestRepository;
+	}
+
+	public DataLoaderRegistry newRegistry(QueryCounter counter) {
+		return DataLoaderRegistry.newRegistry()
+			.register(AGENCY_BY_ID, byId(counter, agencyRepository::findByIds, DataAgency::getId))
+			.register(HOST_LMS_BY_ID, byId(counter, hostLmsRepository::findByIds, DataHostLms::getId))
+			.register(LOCATION_BY_ID, byId(counter, locationRepository::findByIds, Location::getId))
+			.register(CLUSTER_RECORD_BY_ID, byId(counter, clusterRecordRepository::findAllByIdInList, ClusterRecord::getId))
+			.register(SUPPLIER_REQUESTS_BY_PATRON_REQUEST_ID, supplierRequestsByPatronRequestId(counter))
+			.build();
+	}
+
+	/**
+	 * Load a single value through the named loader, completing with null when there is no key
+	 */
+	public static <V> CompletableFuture<V> load(DataFetchingEnvironment env, String loaderName, UUID key) {
+		if (key == null) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		final DataLoader<UUID, V> loader = env.getDataLoader(loaderName);
+		return loader.load(key);
+	}
+
+	private static <V> DataLoader<UUID, V> byId(QueryCounter counter,
+		Function<Collection<UUID>, Publisher<V>> finder, Function<V, UUID> idOf) {
+
+		return DataLoaderFactory.newMappedDataLoader((Set<UUID> ids) -> {
+			counter.increment();
+
+			return Flux.from(finder.apply(ids))
+				.collectMap(idOf)
+				.toFuture();
+		});
+	}
+
+	private DataLoader<UUID, List<SupplierRequest>> supplierRequestsByPatronRequestId(QueryCounter counter) {
+		return DataLoaderFactory.newMappedDataLoader((Set<UUID> patronRequestIds) -> {
+			counter.increment();
+
+			return Flux.from(supplierRequestRepository.findAllByPatronRequestIds(patronRequestIds))
+				.collectList()
+				.map(supplierRequests -> {
+					final Map<UUID, List<SupplierRequest>> byPatronRequest = supplierRequests.stream()
+						.collect(Collectors.groupingBy(sr -> sr.getPatronRequest().getId()));
+
+					// Patron requests without any supplier requests should resolve to an empty list
+					patronRequestIds.forEach(id -> byPatronRequest.putIfAbsent(id, List.of()));
+
+					return byPatronRequest;
+				})
+				.toFuture();
+		});
+	}
+}
@@ -1,6 +1,10 @@
 package org.olf.dcb.graphql;
 
 import graphql.GraphQL;
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import graphql.execution.instrumentation.ChainedInstrumentation;
+import graphql.execution.instrumentation.Instrumentation;
 import graphql.schema.GraphQLSchema;
 import graphql.schema.idl.RuntimeWiring;
 import graphql.schema.idl.TypeRuntimeWiring;
@@ -16,6 +20,8 @@ import jakarta.inject.Singleton;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,7 +69,9 @@ public class GraphQLFactory {
 			UpdateAgencyDataFetcher updateAgencyDataFetcher,
 			CreateHostLmsDataFetcher createHostLmsDataFetcher,
 			UpdateHostLmsDataFetcher updateHostLmsDataFetcher,
-			DataFetchers dataFetchers) {
+			DataFetchers dataFetchers,
+			GraphQLQueryMetrics graphQLQueryMetrics,
+			GraphQLLimitsConfig graphQLLimitsConfig) {
 
 		log.debug("GraphQLFactory::graphQL");
 
@@ -176,6 +184,22 @@ public class GraphQLFactory {
 					.dataFetcher("audit", dataFetchers.getAuditMessagesForPR())
 					.dataFetcher("clusterRecord", dataFetchers.getClusterRecordForPR())
 					.dataFetcher("requestingIdentity", dataFetchers.getPatronIdentityForPatronRequestRequest()))
+			.type("PatronRequestPage",
+				typeWiring -> typeWiring
+					.dataFetcher("totalSize", KeysetPagination.totalSizeDataFetcher())
+					.dataFetcher("nextCursor", KeysetPagination.nextCursorDataFetcher()))
+			.type("PatronRequestAuditPage",
+				typeWiring -> typeWiring
+					.dataFetcher("totalSize", KeysetPagination.totalSizeDataFetcher())
+					.dataFetcher("nextCursor", KeysetPagination.nextCursorDataFetcher()))
+			.type("DataChangeLogPage",
+				typeWiring -> typeWiring
+					.dataFetcher("totalSize", KeysetPagination.totalSizeDataFetcher())
+					.dataFetcher("nextCursor", KeysetPagination.nextCursorDataFetcher()))
+			.type("BibRecordPage",
+				typeWiring -> typeWiring
+					.dataFetcher("totalSize", KeysetPagination.totalSizeDataFetcher())
+					.dataFetcher("nextCursor", KeysetPagination.nextCursorDataFetcher()))
 			.type("Location",
 				typeWiring -> typeWiring
 					.dataFetcher("agency", dataFetchers.getAgencyForLocation())
@@ -208,7 +232,30 @@ public class GraphQLFactory {
 
 		log.debug("returning {}", graphQLSchema.toString());
 
-		// Return the GraphQL bean.
-		return GraphQL.newGraphQL(graphQLSchema).build();
+		// Return the GraphQL bean. Nested fields are batched via the per request
+		// data loaders registered in GraphQLSecurityContextCustomizer
+		return GraphQL.newGraphQL(graphQLSchema)
+			.instrumentation(instrumentation(graphQLQueryMetrics, graphQLLimitsConfig))
+			.build();
+	}
+
+	private static Instrumentation instrumentation(GraphQLQueryMetrics graphQLQueryMetrics,
+		GraphQLLimitsConfig limits) {
+
+		final List<Instrumentation> instrumentations = new ArrayList<>();
+
+		// Reject operations that exceed the budgets before any fetching starts
+		if (limits.getMaxDepth() > 0) {
+			instrumentations.add(new MaxQueryDepthInstrumentation(limits.getMaxDepth()));
+		}
+
+		if (limits.getMaxComplexity() > 0) {
+			instrumentations.add(new MaxQueryComplexityInstrumentation(limits.getMaxComplexity(),
+				new PageSizeComplexityCalculator(limits.getDefaultPageSize())));
+		}
+
+		instrumentations.add(graphQLQueryMetrics);
+
+		return new ChainedInstrumentation(instrumentations);
 	}
 }
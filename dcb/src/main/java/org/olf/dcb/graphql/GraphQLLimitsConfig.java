@@ -0,0 +1,28 @@
+package org.olf.dcb.graphql;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+
+@ConfigurationProperties(GraphQLLimitsConfig.PREFIX)
+public interface GraphQLLimitsConfig {
+	public static final String PREFIX = "dcb.graphql.limits";
+
+	/**
+	 * Deepest level of field nesting permitted in a single operation. Zero or less disables the check.
+	 */
+	@Bindable(defaultValue = "15")
+	int getMaxDepth();
+
+	/**
+	 * Budget for the estimated cost of an operation. Each field costs one, and the fields
+	 * beneath a paged list are multiplied by the page size requested. Zero or less disables the check.
+	 */
+	@Bindable(defaultValue = "100000")
+	int getMaxComplexity();
+
+	/**
+	 * Page size assumed when estimating the cost of a paged list that does not specify one
+	 */
+	@Bindable(defaultValue = "10")
+	int getDefaultPageSize();
+}
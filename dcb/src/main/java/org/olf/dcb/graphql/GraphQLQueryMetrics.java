@@ -0,0 +1,118 @@
+package org.olf.dcb.graphql;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import graphql.ExecutionResult;
+import graphql.GraphQLContext;
+import graphql.execution.instrumentation.InstrumentationContext;
+import graphql.execution.instrumentation.InstrumentationState;
+import graphql.execution.instrumentation.SimpleInstrumentationContext;
+import graphql.execution.instrumentation.SimplePerformantInstrumentation;
+import graphql.execution.instrumentation.parameters.InstrumentationExecutionParameters;
+import graphql.execution.instrumentation.parameters.InstrumentationFieldFetchParameters;
+import graphql.schema.DataFetcher;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.inject.Singleton;
+
+/**
+ * Records the duration of each GraphQL operation and the number of repository queries
+ * it needed to resolve.
+ *
+ * Every non trivial data fetcher is treated as a single query, except those that resolve
+ * through a {@link DataLoaders} loader, which count once per batch dispatched instead.
+ */
+@Singleton
+public class GraphQLQueryMetrics extends SimplePerformantInstrumentation {
+
+	static final String METRIC_NAME = "dcb.graphql.operation";
+
+	static final String CONTEXT_KEY = "dcb.graphql.queryCounter";
+
+	private static final String ANONYMOUS_OPERATION = "anonymous";
+
+	private final MeterRegistry meterRegistry;
+
+	public GraphQLQueryMetrics(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Number of queries issued while executing a single operation
+	 */
+	public static class QueryCounter {
+		private final AtomicInteger queries = new AtomicInteger();
+
+		public void increment() {
+			queries.incrementAndGet();
+		}
+
+		public int get() {
+			return queries.get();
+		}
+	}
+
+	public static QueryCounter startCounting(GraphQLContext context) {
+		final QueryCounter counter = new QueryCounter();
+		context.put(CONTEXT_KEY, counter);
+		return counter;
+	}
+
+	@Override
+	public InstrumentationContext<ExecutionResult> beginExecution(InstrumentationExecutionParameters parameters,
+		InstrumentationState state) {
+
+		final long start = System.nanoTime();
+		final String operation = parameters.getOperation() != null
+			? parameters.getOperation()
+			: ANONYMOUS_OPERATION;
+
+		return SimpleInstrumentationContext.whenCompleted((result, error) -> {
+			final boolean failed = error != null || (result != null && !result.getErrors().isEmpty());
+
+			Timer.builder(METRIC_NAME)
+				.description("Time taken to execute a GraphQL operation")
+				.tag("operation", operation)
+				.tag("outcome", failed ? "error" : "success")
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(meterRegistry)
+				.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+			final QueryCounter counter = counterFrom(parameters.getGraphQLContext());
+			if (counter != null) {
+				DistributionSummary.builder(METRIC_NAME + ".queries")
+					.description("Number of repository queries issued to resolve a GraphQL operation")
+					.tag("operation", operation)
+					.publishPercentiles(0.5, 0.95, 0.99)
+					.register(meterRegistry)
+					.record(counter.get());
+			}
+		});
+	}
+
+	@Override
+	public DataFetcher<?> instrumentDataFetcher(DataFetcher<?> dataFetcher,
+		InstrumentationFieldFetchParameters parameters, InstrumentationState state) {
+
+		if (parameters.isTrivialDataFetcher() || dataFetcher instanceof BatchedDataFetcher) {
+			return dataFetcher;
+		}
+
+		return env -> {
+			final QueryCounter counter = counterFrom(env.getGraphQlContext());
+			if (counter != null) {
+				counter.increment();
+			}
+
+			return dataFetcher.get(env);
+		};
+	}
+
+	@Nullable
+	private static QueryCounter counterFrom(@Nullable GraphQLContext context) {
+		return context != null ? context.get(CONTEXT_KEY) : null;
+	}
+}
@@ -9,6 +9,7 @@ import io.micronaut.http.HttpRequest;
 import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.security.utils.SecurityService;
 import jakarta.inject.Singleton;
+import org.olf.dcb.graphql.GraphQLQueryMetrics.QueryCounter;
 import org.reactivestreams.Publisher;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Logger;
@@ -24,6 +25,7 @@ import java.util.Set;
 @Primary
 public class GraphQLSecurityContextCustomizer implements GraphQLExecutionInputCustomizer {
 	private final SecurityService securityService;
+	private final DataLoaders dataLoaders;
 
 	private static Logger log = LoggerFactory.getLogger(GraphQLSecurityContextCustomizer.class);
 
@@ -32,8 +34,9 @@ public class GraphQLSecurityContextCustomizer implements GraphQLExecutionInputCu
 	// and then can access it from data fetchers where we previously could not.
 
 	public GraphQLSecurityContextCustomizer(
-		SecurityService securityService) {
+		SecurityService securityService, DataLoaders dataLoaders) {
 		this.securityService = securityService;
+		this.dataLoaders = dataLoaders;
 	}
 
 	@Override
@@ -68,7 +71,11 @@ public class GraphQLSecurityContextCustomizer implements GraphQLExecutionInputCu
 				putIfPresent(context, "userFullName", name);
 				context.put("roles", roles);
 			});
-			return executionInput;
+
+			// Data loaders cache values, so each execution needs its own registry
+			final QueryCounter queryCounter = GraphQLQueryMetrics.startCounting(context);
+			return executionInput.transform(builder -> builder
+				.dataLoaderRegistry(dataLoaders.newRegistry(queryCounter)));
 		});
 	}
 
@@ -0,0 +1,208 @@
+package org.olf.dcb.graphql;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import graphql.execution.DataFetcherResult;
+import graphql.schema.DataFetcher;
+import graphql.schema.DataFetchingEnvironment;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.core.beans.BeanProperty;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import io.micronaut.data.repository.jpa.criteria.QuerySpecification;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Cursor based paging for the large GraphQL lists.
+ *
+ * Instead of an OFFSET, each page after the first is selected with a predicate on the
+ * ordering property, with the id as a tie breaker, so deep pages cost the same as the first.
+ * The cursor is an opaque encoding of the ordering value and id of the last row returned,
+ * and an empty cursor starts from the beginning.
+ *
+ * Each query asks for one row more than the page size, and no total, so there is no COUNT over
+ * the whole result and whether there are more rows is known from the extra row. The cursor for
+ * the next page travels with the page as the GraphQL local context.
+ *
+ * Only properties of a type listed in {@link #parse(Class, String)} can be used for ordering
+ * in this mode, and rows with no value for the ordering property are never reached.
+ */
+public final class KeysetPagination {
+
+	public static final String AFTER_ARGUMENT = "after";
+
+	private static final String ID_PROPERTY = "id";
+	private static final char SEPARATOR = '|';
+
+	private KeysetPagination() {
+	}
+
+	/**
+	 * The rows for a page from the start of the result, ordered by the property and then the id,
+	 * plus one to tell whether there are more, without a total
+	 */
+	public static Pageable firstPage(int size, String order, Sort.Order.Direction direction) {
+		return pageable(size + 1, order, direction).withoutTotal();
+	}
+
+	/**
+	 * Restrict the query to the rows that follow the cursor in the page ordering
+	 */
+	public static <T> QuerySpecification<T> after(@Nullable QuerySpecification<T> spec, Class<T> entityClass,
+		String order, Sort.Order.Direction direction, String cursor) {
+
+		final Class<?> orderType = orderProperty(entityClass, order).getType();
+
+		if (cursor.isEmpty()) {
+			return spec != null ? spec : (root, query, criteriaBuilder) -> null;
+		}
+
+		final String decoded;
+		try {
+			decoded = new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor " + cursor);
+		}
+
+		final int separator = decoded.lastIndexOf(SEPARATOR);
+		if (separator < 0) {
+			throw new IllegalArgumentException("Invalid cursor " + cursor);
+		}
+
+		final Comparable<Object> lastValue = parse(orderType, decoded.substring(0, separator));
+		final UUID lastId = UUID.fromString(decoded.substring(separator + 1));
+		final boolean ascending = direction == Sort.Order.Direction.ASC;
+
+		final QuerySpecification<T> keyset = (root, query, criteriaBuilder) -> {
+			final Expression<Comparable<Object>> value = root.get(order);
+			final Expression<UUID> id = root.get(ID_PROPERTY);
+
+			final Predicate beyondValue = ascending
+				? criteriaBuilder.greaterThan(value, lastValue)
+				: criteriaBuilder.lessThan(value, lastValue);
+
+			final Predicate beyondId = ascending
+				? criteriaBuilder.greaterThan(id, lastId)
+				: criteriaBuilder.lessThan(id, lastId);
+
+			return criteriaBuilder.or(beyondValue,
+				criteriaBuilder.and(criteriaBuilder.equal(value, lastValue), beyondId));
+		};
+
+		if (spec == null) {
+			return keyset;
+		}
+
+		return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+			spec.toPredicate(root, query, criteriaBuilder),
+			keyset.toPredicate(root, query, criteriaBuilder));
+	}
+
+	/**
+	 * Trims the rows fetched for {@link #firstPage(int, String, Sort.Order.Direction)} to the page,
+	 * carrying the cursor for the page after it
+	 */
+	public static <T> Function<Page<T>, DataFetcherResult<Page<T>>> toPage(int size, Class<T> entityClass,
+		String order, Sort.Order.Direction direction, Function<T, UUID> idOf) {
+
+		return rows -> {
+			final List<T> content = rows.getContent();
+			final List<T> page = content.size() > size ? content.subList(0, size) : content;
+
+			return DataFetcherResult.<Page<T>>newResult()
+				.data(Page.of(page, pageable(size, order, direction), null))
+				.localContext(content.size() > size ? cursorFor(page, entityClass, order, idOf) : null)
+				.build();
+		};
+	}
+
+	/**
+	 * An offset page, which has no cursor
+	 */
+	public static <T> DataFetcherResult<Page<T>> withoutCursor(Page<T> page) {
+		return DataFetcherResult.<Page<T>>newResult()
+			.data(page)
+			.build();
+	}
+
+	/**
+	 * The cursor that continues from the last of the rows
+	 */
+	@Nullable
+	static <T> String cursorFor(List<T> content, Class<T> entityClass, String order, Function<T, UUID> idOf) {
+		if (content.isEmpty()) {
+			return null;
+		}
+
+		final T last = content.get(content.size() - 1);
+		final Object value = orderProperty(entityClass, order).get(last);
+		if (value == null) {
+			return null;
+		}
+
+		final String raw = value.toString() + SEPARATOR + idOf.apply(last);
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(UTF_8));
+	}
+
+	/**
+	 * Resolves the nextCursor field of a page, null for offset pages and the final cursor page
+	 */
+	public static DataFetcher<String> nextCursorDataFetcher() {
+		return DataFetchingEnvironment::getLocalContext;
+	}
+
+	/**
+	 * Resolves the totalSize field of a page, which cursor pages do not count
+	 */
+	public static DataFetcher<Long> totalSizeDataFetcher() {
+		return env -> {
+			final Page<?> page = env.getSource();
+
+			return page.hasTotalSize() ? page.getTotalSize() : null;
+		};
+	}
+
+	private static Pageable pageable(int size, String order, Sort.Order.Direction direction) {
+		final Pageable pageable = Pageable.from(0, size).order(order, direction);
+
+		// The id breaks ties in the ordering value, which the cursor relies on
+		return ID_PROPERTY.equals(order) ? pageable : pageable.order(ID_PROPERTY, direction);
+	}
+
+	private static <T> BeanProperty<T, Object> orderProperty(Class<T> entityClass, String order) {
+		return BeanIntrospection.getIntrospection(entityClass)
+			.getProperty(order)
+			.orElseThrow(() -> new IllegalArgumentException(
+				"Unknown property " + order + " for " + entityClass.getSimpleName()));
+	}
+
+	@SuppressWarnings("unchecked")
+	static Comparable<Object> parse(Class<?> type, String value) {
+		final Object parsed;
+
+		if (Instant.class.equals(type)) {
+			parsed = Instant.parse(value);
+		} else if (String.class.equals(type)) {
+			parsed = value;
+		} else if (UUID.class.equals(type)) {
+			parsed = UUID.fromString(value);
+		} else if (Long.class.equals(type) || long.class.equals(type)) {
+			parsed = Long.valueOf(value);
+		} else if (Integer.class.equals(type) || int.class.equals(type)) {
+			parsed = Integer.valueOf(value);
+		} else {
+			throw new IllegalArgumentException("Cursor paging is not supported when ordering by a " + type.getSimpleName());
+		}
+
+		return (Comparable<Object>) parsed;
+	}
+}
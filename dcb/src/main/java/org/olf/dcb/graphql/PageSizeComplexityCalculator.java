@@ -0,0 +1,39 @@
+package org.olf.dcb.graphql;
+
+import graphql.analysis.FieldComplexityCalculator;
+import graphql.analysis.FieldComplexityEnvironment;
+
+/**
+ * Estimates the cost of a field as one, plus the cost of its children repeated for
+ * each row of the page when the field takes a page size.
+ */
+class PageSizeComplexityCalculator implements FieldComplexityCalculator {
+
+	static final String PAGE_SIZE_ARGUMENT = "pagesize";
+
+	private final int defaultPageSize;
+
+	PageSizeComplexityCalculator(int defaultPageSize) {
+		this.defaultPageSize = defaultPageSize;
+	}
+
+	@Override
+	public int calculate(FieldComplexityEnvironment environment, int childComplexity) {
+		if (!environment.getFieldDefinition().getArguments().stream()
+				.anyMatch(argument -> PAGE_SIZE_ARGUMENT.equals(argument.getName()))) {
+
+			return saturatedAdd(1, childComplexity);
+		}
+
+		final Object requested = environment.getArguments().get(PAGE_SIZE_ARGUMENT);
+		final long pageSize = requested instanceof Number number
+			? Math.max(number.longValue(), 1L)
+			: defaultPageSize;
+
+		return saturatedAdd(1, pageSize * childComplexity);
+	}
+
+	private static int saturatedAdd(long a, long b) {
+		return (int) Math.min(a + b, Integer.MAX_VALUE);
+	}
+}
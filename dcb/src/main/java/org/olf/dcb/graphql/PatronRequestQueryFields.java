@@ -0,0 +1,35 @@
+package org.olf.dcb.graphql;
+
+import static services.k_int.data.querying.QueryIndex.Type.BTREE;
+import static services.k_int.data.querying.QueryIndex.Type.TRIGRAM;
+
+import java.util.Set;
+
+import org.olf.dcb.core.model.PatronRequest;
+
+import io.micronaut.context.annotation.Factory;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import services.k_int.data.querying.VirtualQueryField;
+
+/**
+ * Patron request fields that DCB Admin can search on which aren't properties of the request,
+ * see LuceneFieldQueryNodeBuilder for how they are matched.
+ */
+@Factory
+public class PatronRequestQueryFields {
+
+	// Matched anywhere in the barcode of the patron's identities
+	@Singleton
+	@Named("patronBarcode")
+	VirtualQueryField patronBarcode() {
+		return new VirtualQueryField(PatronRequest.class, "patronBarcode", Set.of(TRIGRAM), true);
+	}
+
+	// Matched against the local agency of the request's supplier requests
+	@Singleton
+	@Named("supplyingAgencyCode")
+	VirtualQueryField supplyingAgencyCode() {
+		return new VirtualQueryField(PatronRequest.class, "supplyingAgencyCode", Set.of(BTREE), false);
+	}
+}
@@ -5,6 +5,7 @@ import org.olf.dcb.storage.postgres.PostgresBibRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import graphql.execution.DataFetcherResult;
 import graphql.schema.DataFetcher;
 import graphql.schema.AsyncDataFetcher;
 import graphql.schema.DataFetchingEnvironment;
@@ -14,15 +15,20 @@ import reactor.core.publisher.Mono;
 import services.k_int.data.querying.QueryService;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
 import org.reactivestreams.Publisher;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 
 @Singleton
-public class SourceBibDataFetcher implements DataFetcher<CompletableFuture<Page<BibRecord>>> {
+public class SourceBibDataFetcher implements DataFetcher<CompletableFuture<DataFetcherResult<Page<BibRecord>>>> {
 
 	private static Logger log = LoggerFactory.getLogger(SourceBibDataFetcher.class);
 
+	// Offset pages are unordered, cursor pages need a stable order
+	static final String KEYSET_ORDER = "dateCreated";
+
 	private final PostgresBibRepository bibRepository;
 	private final QueryService qs;
 
@@ -31,7 +37,7 @@ public class SourceBibDataFetcher implements DataFetcher<CompletableFuture<Page<
 		this.qs = qs;
 	}
 
-	public CompletableFuture<Page<BibRecord>> get(DataFetchingEnvironment env) throws Exception {
+	public CompletableFuture<DataFetcherResult<Page<BibRecord>>> get(DataFetchingEnvironment env) throws Exception {
 
 		Integer pageno = env.getArgument("pageno");
 		Integer pagesize = env.getArgument("pagesize");
@@ -41,17 +47,48 @@ public class SourceBibDataFetcher implements DataFetcher<CompletableFuture<Page<
                 if ( pagesize == null ) pagesize = Integer.valueOf(10);
 
 		log.debug("SourceBibDataFetcher::get({},{},{})", pageno,pagesize,query);
+
+		// Unindexed searches are limited per user
+		final String principal = env.getGraphQlContext().get("currentUser");
+
+		String after = env.getArgument(KeysetPagination.AFTER_ARGUMENT);
+		if (after != null) {
+			String order = Optional.ofNullable(env.<String>getArgument("order")).orElse(KEYSET_ORDER);
+			Sort.Order.Direction direction = Sort.Order.Direction.valueOf(
+				Optional.ofNullable(env.<String>getArgument("orderBy")).orElse("ASC"));
+
+			Pageable keysetPage = KeysetPagination.firstPage(pagesize.intValue(), order, direction);
+			var toPage = KeysetPagination.toPage(pagesize.intValue(), BibRecord.class, order, direction, BibRecord::getId);
+
+			if ((query != null) && (query.length() > 0)) {
+				return qs.plan(query, BibRecord.class, principal)
+					.execute(spec -> bibRepository.findAll(
+						KeysetPagination.after(spec, BibRecord.class, order, direction, after), keysetPage))
+					.map(toPage)
+					.toFuture();
+			}
+
+			return Mono.from(bibRepository.findAll(
+					KeysetPagination.after(null, BibRecord.class, order, direction, after), keysetPage))
+				.map(toPage)
+				.toFuture();
+		}
+
 		Pageable pageable = Pageable.from(pageno.intValue(), pagesize.intValue());
 
 		if ((query != null) && (query.length() > 0)) {
 			log.debug("Returning query version of BibRecord");
-                        var spec = qs.evaluate(query, BibRecord.class);
-                        return Mono.from(bibRepository.findAll(spec, pageable)).toFuture();
+			return qs.plan(query, BibRecord.class, principal)
+				.execute(spec -> bibRepository.findAll(spec, pageable))
+				.map(KeysetPagination::withoutCursor)
+				.toFuture();
 		}
 
 		log.debug("Returning simple bibRecord list");
 
-		return Mono.from(bibRepository.findAll(pageable)).toFuture();
+		return Mono.from(bibRepository.findAll(pageable))
+			.map(KeysetPagination::withoutCursor)
+			.toFuture();
 	}
 
 }
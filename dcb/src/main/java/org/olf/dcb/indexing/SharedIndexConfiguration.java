@@ -17,7 +17,14 @@ public record SharedIndexConfiguration (
 	Optional<Integer> numberOfReplicas,
 	
 	Optional<Integer> maxResourceListSize,
-	Optional<Duration> minUpdateFrequency
+	Optional<Duration> minUpdateFrequency,
+	
+	Optional<Integer> maxBulkRequests,
+	Optional<Long> bulkTargetBytes,
+	Optional<Integer> bulkItemRetries,
+	
+	// Number of cluster id ranges a full index synch is split into, so that several nodes can work on it.
+	Optional<Integer> synchPartitions
 		) {
 	public static final String PREFIX = "dcb.index";
 	public static final int DEFAULT_NUMBER_OF_REPLICAS = 1;
@@ -0,0 +1,56 @@
+package org.olf.dcb.indexing.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Result of a bulk request, split by what happened to each operation.
+ *
+ * @param completed Operations applied by the index
+ * @param retryable Operations rejected for a transient reason, such as back pressure (429) or a server error
+ * @param failed Operations rejected for any other reason, which will not succeed if sent again
+ */
+public record BulkOutcome<T> (
+		List<T> completed,
+		List<T> retryable,
+		List<T> failed
+		) {
+	
+	public static <T> BulkOutcome<T> allCompleted( List<T> ops ) {
+		return new BulkOutcome<>(ops, List.of(), List.of());
+	}
+	
+	/**
+	 * Classify the operations using the per item results of a bulk response, which are in the same order as the request.
+	 */
+	public static <T> BulkOutcome<T> fromItemStatuses( List<T> ops, List<Integer> statuses, IntPredicate errorAt ) {
+		final List<T> completed = new ArrayList<>();
+		final List<T> retryable = new ArrayList<>();
+		final List<T> failed = new ArrayList<>();
+		
+		for (int i = 0; i < ops.size(); i++) {
+			final T op = ops.get(i);
+			
+			// No result for this item, so there is nothing to say it was applied.
+			if (i >= statuses.size()) {
+				retryable.add(op);
+				continue;
+			}
+			
+			if (!errorAt.test(i)) {
+				completed.add(op);
+			} else if (isRetryable(statuses.get(i))) {
+				retryable.add(op);
+			} else {
+				failed.add(op);
+			}
+		}
+		
+		return new BulkOutcome<>(completed, retryable, failed);
+	}
+	
+	static boolean isRetryable( int status ) {
+		return status == 429 || status >= 500;
+	}
+}
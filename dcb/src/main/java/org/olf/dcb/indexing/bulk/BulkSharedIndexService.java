@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
 
 import org.olf.dcb.core.clustering.RecordClusteringService;
 import org.olf.dcb.core.clustering.model.ClusterRecord;
@@ -34,7 +35,7 @@ import services.k_int.micronaut.PublisherTransformationService;
 import services.k_int.utils.ReactorUtils;
 
 @Transactional(propagation = Propagation.NOT_SUPPORTED)
-public abstract class BulkSharedIndexService implements SharedIndexService {
+public abstract class BulkSharedIndexService<P> implements SharedIndexService {
 	
 	protected static final String RESOURCE_SHARED_INDEX_SETTING_PREFIX = "sharedIndex/settings-";
 	protected static final String RESOURCE_SHARED_INDEX_MAPPING_PREFIX = "sharedIndex/mappings-";
@@ -55,6 +56,15 @@ public abstract class BulkSharedIndexService implements SharedIndexService {
 	final int maxSize;
 	
 	final Duration throttleTimeout;
+	
+	// Number of bulk requests that may be awaiting a response at once.
+	final int maxBulkRequests;
+	
+	// Approximate payload size to aim for in each bulk request.
+	final long bulkTargetBytes;
+	
+	// Number of times an item rejected for a transient reason is resent.
+	final int bulkItemRetries;
 
 	private final PublisherTransformationService publisherTransformer;
 	
@@ -67,6 +77,9 @@ public abstract class BulkSharedIndexService implements SharedIndexService {
 		this.clusters = clusters;
 		this.maxSize = conf.maxResourceListSize().orElse(1500); // Default to 1500
 		this.throttleTimeout = conf.minUpdateFrequency().orElse(Duration.ofSeconds(5)); // Default 5 seconds.
+		this.maxBulkRequests = conf.maxBulkRequests().orElse(4);
+		this.bulkTargetBytes = conf.bulkTargetBytes().orElse(5L * 1024 * 1024); // Default 5MB.
+		this.bulkItemRetries = conf.bulkItemRetries().orElse(3);
 		this.publisherTransformer = publisherTransformationService;
 		initializeQueue();
 	}
@@ -161,10 +174,16 @@ public abstract class BulkSharedIndexService implements SharedIndexService {
 		final Instant now = Instant.now(); 
 		
 		return idFlux
-			.parallel()
-			.runOn(Schedulers.parallel())
-			.concatMap( ids -> manifestCluster(ids, now) )
+			.flatMap( ids -> manifestCluster(ids, now), maxBulkRequests )
 			.filter( Predicates.not( List::isEmpty ) )
+			
+			// Preparing serializes each document, keep that off the database threads.
+			.publishOn(Schedulers.boundedElastic())
+			.map( this::prepareAll )
+			
+			// Split into requests of roughly the target size, and keep several in flight so a large
+			// reindex isn't limited to one round trip at a time.
+			.flatMapIterable( ops -> partitionByPayloadSize(ops, PreparedOperation::size, bulkTargetBytes, maxSize) )
 			.flatMap(ops -> this.offloadToImplementation(ops)
 				.flatMap( completedOps -> updateLastIndexedStamp(completedOps, now) )
 				.onErrorResume(e -> {
@@ -179,7 +198,48 @@ public abstract class BulkSharedIndexService implements SharedIndexService {
 					}
 				
 					return Mono.empty();
-			}));
+			}), maxBulkRequests);
+	}
+	
+	private List<PreparedOperation<P>> prepareAll( final List<IndexOperation<UUID, ClusterRecord>> ops ) {
+		final List<PreparedOperation<P>> prepared = new ArrayList<>(ops.size());
+		for (IndexOperation<UUID, ClusterRecord> op : ops) {
+			try {
+				prepared.add(prepare(op));
+			} catch (Exception e) {
+				// Left unstamped, so it will be attempted again on the next index run.
+				log.error("Unable to prepare index operation for [{}]. Skipping", op.id(), e);
+			}
+		}
+		
+		return prepared;
+	}
+	
+	/**
+	 * Split the operations into consecutive groups, closing each group once it reaches the target
+	 * payload size or maximum count. An operation larger than the target is sent on its own.
+	 */
+	public static <T> List<List<T>> partitionByPayloadSize( List<T> ops, ToLongFunction<T> sizeOf, long targetBytes, int maxCount ) {
+		final List<List<T>> partitions = new ArrayList<>();
+		
+		List<T> current = new ArrayList<>();
+		long currentBytes = 0;
+		for (T op : ops) {
+			final long size = sizeOf.applyAsLong(op);
+			
+			if (!current.isEmpty() && (currentBytes + size > targetBytes || current.size() >= maxCount)) {
+				partitions.add(current);
+				current = new ArrayList<>();
+				currentBytes = 0;
+			}
+			
+			current.add(op);
+			currentBytes += size;
+		}
+		
+		if (!current.isEmpty()) partitions.add(current);
+		
+		return partitions;
 	}
 	
 	@Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -196,12 +256,47 @@ public abstract class BulkSharedIndexService implements SharedIndexService {
 
 	@NonNull
 	@CircuitBreaker(reset = "2m", attempts = "3", maxDelay = "5s", throwWrappedException = true )
-	protected Flux<List<IndexOperation<UUID, ClusterRecord>>> offloadToImplementation( final List<IndexOperation<UUID, ClusterRecord>> ops ) {
+	protected Flux<List<IndexOperation<UUID, ClusterRecord>>> offloadToImplementation( final List<PreparedOperation<P>> ops ) {
 		return Flux.just(ops)
-			.flatMap( data -> Flux.from( doOnNext(data) ))
+			.flatMap( data -> sendWithItemRetries(data, 0) )
+			.map( completed -> completed.stream()
+				.map( PreparedOperation::op )
+				.toList())
 			.doOnNext(_item -> this.flagCircuitClosed());
 	}
 	
+	/**
+	 * Send the operations, resending only the items the index rejected for a transient reason.
+	 * 
+	 * @return The operations that were applied
+	 */
+	private Mono<List<PreparedOperation<P>>> sendWithItemRetries( final List<PreparedOperation<P>> ops, final int attempt ) {
+		return bulk(ops)
+			.flatMap( outcome -> {
+				if (!outcome.failed().isEmpty()) {
+					log.warn("[{}] index operations were rejected and will not be retried", outcome.failed().size());
+				}
+				
+				if (outcome.retryable().isEmpty()) return Mono.just(outcome.completed());
+				
+				if (attempt >= bulkItemRetries) {
+					log.warn("[{}] index operations still rejected after {} retries. Leaving for the next index run", outcome.retryable().size(), attempt);
+					return Mono.just(outcome.completed());
+				}
+				
+				final Duration backoff = Duration.ofMillis(500L << attempt);
+				log.info("Retrying [{}] index operations rejected by the index in {}", outcome.retryable().size(), backoff);
+				
+				return Mono.delay(backoff)
+					.then(Mono.defer(() -> sendWithItemRetries(outcome.retryable(), attempt + 1)))
+					.map( retried -> {
+						final List<PreparedOperation<P>> all = new ArrayList<>(outcome.completed());
+						all.addAll(retried);
+						return all;
+					});
+			});
+	}
+	
 	private void flagCircuitOpen() {
 		if (circuitOpen.compareAndSet(false, true)) {
 			// Value was changed to open. Lets log an info level message.
@@ -253,8 +348,17 @@ public abstract class BulkSharedIndexService implements SharedIndexService {
 		return IndexOperation.update(cr.getId(), cr);
 	}
 
+	/**
+	 * Convert the operation into the form sent to the index. Called once per operation, off the event loop.
+	 */
+	@NonNull
+	protected abstract PreparedOperation<P> prepare ( final IndexOperation<UUID, ClusterRecord> op );
+	
+	/**
+	 * Send the operations to the index as a single bulk request.
+	 */
 	@NonNull
-	protected abstract Publisher<List<IndexOperation<UUID, ClusterRecord>>> doOnNext ( final List<IndexOperation<UUID, ClusterRecord>> item);
+	protected abstract Mono<BulkOutcome<PreparedOperation<P>>> bulk ( final List<PreparedOperation<P>> ops );
 	
 	private void setSink(FluxSink<String> sink) {
 		this.theSink = sink;
@@ -0,0 +1,20 @@
+package org.olf.dcb.indexing.bulk;
+
+import java.util.UUID;
+
+import org.olf.dcb.core.clustering.model.ClusterRecord;
+
+/**
+ * An index operation along with the payload the backend will send for it, so that the
+ * document is only converted once however many times it's sent.
+ *
+ * @param op The operation
+ * @param payload Backend specific form of the operation
+ * @param size Approximate number of bytes the operation adds to a bulk request
+ */
+public record PreparedOperation<P> (
+		IndexOperation<UUID, ClusterRecord> op,
+		P payload,
+		long size
+		) {
+}
@@ -0,0 +1,249 @@
+package org.olf.dcb.indexing.conversion;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.olf.dcb.availability.job.BibAvailabilityCount;
+import org.olf.dcb.core.clustering.model.ClusterRecord;
+import org.olf.dcb.core.model.BibRecord;
+import org.olf.dcb.indexing.bulk.IndexOperation;
+import org.olf.dcb.indexing.model.ClusterRecordIndexDoc;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+import jakarta.json.spi.JsonProvider;
+import jakarta.json.stream.JsonGenerator;
+
+/**
+ * Writes index operations straight to the newline delimited JSON of a bulk request body.
+ *
+ * This produces the same document as serializing a {@link ClusterRecordIndexDoc}, but writes
+ * the member bibs and their availability directly from the cluster rather than building the
+ * intermediate document objects and having the client serialize them. Each operation is encoded
+ * into a buffer reused by the calling thread, and only the finished bytes are copied out.
+ */
+public class ClusterRecordBulkWriter {
+	
+	// Buffers that grow beyond this are not kept for reuse.
+	private static final int MAX_POOLED_BUFFER = 1024 * 1024;
+	
+	private static final ThreadLocal<ExposedByteArrayOutputStream> BUFFERS =
+		ThreadLocal.withInitial(() -> new ExposedByteArrayOutputStream(16 * 1024));
+	
+	private final JsonProvider jsonProvider;
+	private final Function<UUID, String> hostLmsIdToCodeResolver;
+	private final Function<UUID, Map<String, Collection<BibAvailabilityCount>>> availabilityResolver;
+	
+	public ClusterRecordBulkWriter( @NonNull JsonProvider jsonProvider, @NonNull Function<UUID, String> hostLmsIdToCodeResolver,
+			@NonNull Function<UUID, Map<String, Collection<BibAvailabilityCount>>> availabilityResolver ) {
+		this.jsonProvider = jsonProvider;
+		this.hostLmsIdToCodeResolver = hostLmsIdToCodeResolver;
+		this.availabilityResolver = availabilityResolver;
+	}
+	
+	/**
+	 * Encode the operation as the action line, and document line where required, of a bulk request.
+	 */
+	public byte[] encode( @NonNull String indexName, @NonNull IndexOperation<UUID, ClusterRecord> op ) {
+		return encode(out -> write(indexName, op, out));
+	}
+	
+	/**
+	 * Encode the document alone, without the action line or trailing newline, for clients that
+	 * build the bulk request themselves but can pass on a document that's already been written.
+	 */
+	public byte[] encodeDocument( @NonNull ClusterRecord cluster ) {
+		return encode(out -> json(out, json -> writeDocument(json, cluster)));
+	}
+	
+	private byte[] encode( Consumer<OutputStream> content ) {
+		final ExposedByteArrayOutputStream buffer = BUFFERS.get();
+		buffer.reset();
+		
+		try {
+			content.accept(buffer);
+			return buffer.toByteArray();
+		} finally {
+			if (buffer.capacity() > MAX_POOLED_BUFFER) {
+				BUFFERS.remove();
+			}
+		}
+	}
+	
+	public void write( @NonNull String indexName, @NonNull IndexOperation<UUID, ClusterRecord> op, @NonNull OutputStream out ) {
+		switch (op.type()) {
+			case CREATE, UPDATE -> {
+				writeAction(out, "index", indexName, op.doc().getId());
+				writeDocument(out, op.doc());
+			}
+			case DELETE -> writeAction(out, "delete", indexName, op.id());
+		}
+	}
+	
+	private void writeAction( OutputStream out, String action, String indexName, UUID id ) {
+		line(out, json -> json
+			.writeStartObject()
+			.writeStartObject(action)
+			.write("_index", indexName)
+			.write("_id", id.toString())
+			.writeEnd()
+			.writeEnd());
+	}
+	
+	private void writeDocument( OutputStream out, ClusterRecord cluster ) {
+		line(out, json -> writeDocument(json, cluster));
+	}
+	
+	private void writeDocument( JsonGenerator json, ClusterRecord cluster ) {
+		final var availability = availabilityResolver.apply(cluster.getId());
+		final var doc = new ClusterRecordIndexDoc(cluster, hostLmsIdToCodeResolver, availability);
+		
+		json.writeStartObject();
+		
+		writeString(json, "title", doc.getTitle());
+		writeString(json, "placeOfPublication", doc.getPlaceOfPublication());
+		writeString(json, "publisher", doc.getPublisher());
+		writeString(json, "dateOfPublication", doc.getDateOfPublication());
+		writeString(json, "derivedType", doc.getDerivedType());
+		writeString(json, "primaryAuthor", doc.getPrimaryAuthor());
+		
+		final Integer year = doc.getYearOfPublication();
+		if (year != null) json.write("yearOfPublication", year);
+		
+		writeString(json, "bibClusterId", doc.getBibClusterId().toString());
+		writeString(json, "isbn", doc.getIsbn());
+		writeString(json, "issn", doc.getIssn());
+		writeString(json, "lastIndexed", doc.getLastIndexed());
+		
+		json.writeStartArray("members");
+		Stream.ofNullable(cluster.getBibs())
+			.flatMap( Set::stream )
+			.forEach( bib -> writeMember(json, bib, availability) );
+		json.writeEnd();
+		
+		final Map<String, ?> metadata = doc.getMetadata();
+		if (metadata != null) {
+			json.writeKey("metadata");
+			writeValue(json, metadata);
+		}
+		
+		json.writeEnd();
+	}
+	
+	private void writeMember( JsonGenerator json, BibRecord bib, @Nullable Map<String, Collection<BibAvailabilityCount>> availability ) {
+		json.writeStartObject();
+		writeString(json, "bibId", bib.getId().toString());
+		writeString(json, "title", bib.getTitle());
+		writeString(json, "sourceSystem", bib.getSourceSystemId() != null ? bib.getSourceSystemId().toString() : null);
+		writeString(json, "sourceRecordId", bib.getSourceRecordId());
+		json.write("primary", false);
+		writeString(json, "sourceSystemCode", bib.getSourceSystemId() != null ? hostLmsIdToCodeResolver.apply(bib.getSourceSystemId()) : null);
+		
+		json.writeStartArray("availability");
+		final Collection<BibAvailabilityCount> counts = availability != null ? availability.get(bib.getId().toString()) : null;
+		if (counts != null) {
+			for (BibAvailabilityCount count : counts) {
+				final String code = count.getInternalLocationCode();
+				final String location = count.getRemoteLocationCode();
+				
+				json.writeStartObject();
+				writeString(json, "library", code);
+				writeString(json, "location", location);
+				json.write("combined", code + "." + location);
+				json.write("count", count.getCount());
+				json.writeEnd();
+			}
+		}
+		json.writeEnd();
+		
+		json.writeEnd();
+	}
+	
+	private static void writeString( JsonGenerator json, String name, @Nullable String value ) {
+		if (value != null) json.write(name, value);
+	}
+	
+	// Metadata is held as parsed JSON, so only JSON types need handling.
+	private static void writeValue( JsonGenerator json, @Nullable Object value ) {
+		if (value == null) {
+			json.writeNull();
+		} else if (value instanceof Map<?, ?> map) {
+			json.writeStartObject();
+			map.forEach((key, entry) -> {
+				json.writeKey(String.valueOf(key));
+				writeValue(json, entry);
+			});
+			json.writeEnd();
+		} else if (value instanceof Collection<?> collection) {
+			json.writeStartArray();
+			collection.forEach(entry -> writeValue(json, entry));
+			json.writeEnd();
+		} else if (value instanceof Boolean bool) {
+			json.write(bool);
+		} else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+			json.write(((Number) value).longValue());
+		} else if (value instanceof BigDecimal decimal) {
+			json.write(decimal);
+		} else if (value instanceof BigInteger integer) {
+			json.write(integer);
+		} else if (value instanceof Number number) {
+			json.write(number.doubleValue());
+		} else {
+			json.write(value.toString());
+		}
+	}
+	
+	private void line( OutputStream out, Consumer<JsonGenerator> content ) {
+		json(out, content);
+		try {
+			out.write('\n');
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private void json( OutputStream out, Consumer<JsonGenerator> content ) {
+		final JsonGenerator json = jsonProvider.createGenerator(new NonClosingOutputStream(out));
+		content.accept(json);
+		json.close();
+	}
+	
+	private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+		ExposedByteArrayOutputStream( int size ) {
+			super(size);
+		}
+		
+		int capacity() {
+			return buf.length;
+		}
+	}
+	
+	// Closing the generator must flush it without closing the shared buffer.
+	private static class NonClosingOutputStream extends FilterOutputStream {
+		NonClosingOutputStream( OutputStream out ) {
+			super(out);
+		}
+		
+		@Override
+		public void write( byte[] b, int off, int len ) throws IOException {
+			out.write(b, off, len);
+		}
+		
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+	}
+}
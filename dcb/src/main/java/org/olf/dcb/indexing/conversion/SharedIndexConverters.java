@@ -18,6 +18,7 @@ import io.micronaut.context.annotation.Requires;
 import io.micronaut.core.annotation.Blocking;
 import io.micronaut.core.convert.ConversionContext;
 import io.micronaut.core.convert.TypeConverter;
+import jakarta.json.spi.JsonProvider;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 
@@ -61,5 +62,11 @@ public class SharedIndexConverters {
 		 Optional.ofNullable(object)
 				.map( cr -> new ClusterRecordIndexDoc(cr, this::idToCodeResolver, readAvailabilityCache( cr.getId() )));
 	
-		
+	/**
+	 * Writer that encodes documents directly to bulk request bodies, resolving codes and
+	 * availability in the same way as the converter above.
+	 */
+	public ClusterRecordBulkWriter bulkWriter( JsonProvider jsonProvider ) {
+		return new ClusterRecordBulkWriter(jsonProvider, this::idToCodeResolver, this::readAvailabilityCache);
+	}
 }
@@ -15,9 +15,11 @@ import org.olf.dcb.core.error.DcbError;
 import org.olf.dcb.core.error.DcbException;
 import org.olf.dcb.indexing.SharedIndexBackendInfo;
 import org.olf.dcb.indexing.SharedIndexConfiguration;
+import org.olf.dcb.indexing.bulk.BulkOutcome;
 import org.olf.dcb.indexing.bulk.BulkSharedIndexService;
-import org.olf.dcb.indexing.model.ClusterRecordIndexDoc;
-import org.reactivestreams.Publisher;
+import org.olf.dcb.indexing.bulk.PreparedOperation;
+import org.olf.dcb.indexing.conversion.ClusterRecordBulkWriter;
+import org.olf.dcb.indexing.conversion.SharedIndexConverters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,28 +40,28 @@ import co.elastic.clients.elasticsearch.indices.PutMappingResponse;
 import co.elastic.clients.json.JsonData;
 import co.elastic.clients.json.JsonpMapper;
 import co.elastic.clients.transport.endpoints.BooleanResponse;
+import co.elastic.clients.util.BinaryData;
+import co.elastic.clients.util.ContentType;
 import co.elastic.clients.util.ObjectBuilder;
 import io.micronaut.context.annotation.Requires;
-import io.micronaut.core.convert.ConversionService;
 import jakarta.annotation.PostConstruct;
 import jakarta.inject.Singleton;
 import jakarta.json.stream.JsonParser;
 import lombok.Setter;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 import services.k_int.micronaut.PublisherTransformationService;
 
 @Setter
 @Requires(bean = ElasticsearchAsyncClient.class)
 @Requires(bean = SharedIndexConfiguration.class)
 @Singleton
-public class ElasticsearchSharedIndexService extends BulkSharedIndexService {
+public class ElasticsearchSharedIndexService extends BulkSharedIndexService<BinaryData> {
 
 	private final Logger log = LoggerFactory.getLogger(ElasticsearchSharedIndexService.class);
 	
 	private final ElasticsearchAsyncClient client;
-	private final ConversionService conversionService;
+	private final ClusterRecordBulkWriter bulkWriter;
 	
 	private final String indexName; 
 	private final int indexVersion; 
@@ -67,10 +69,10 @@ public class ElasticsearchSharedIndexService extends BulkSharedIndexService {
 	
 	private final SharedIndexBackendInfo backendInfo;
 
-	public ElasticsearchSharedIndexService(SharedIndexConfiguration conf, ElasticsearchAsyncClient client, ConversionService conversionService, RecordClusteringService recordClusteringService, PublisherTransformationService pubs, SharedIndexBackendInfo backendInfo) {
+	public ElasticsearchSharedIndexService(SharedIndexConfiguration conf, ElasticsearchAsyncClient client, SharedIndexConverters converters, RecordClusteringService recordClusteringService, PublisherTransformationService pubs, SharedIndexBackendInfo backendInfo) {
 		super(recordClusteringService, pubs, conf);
 		this.client = client;
-		this.conversionService = conversionService;
+		this.bulkWriter = converters.bulkWriter(client._transport().jsonpMapper().jsonProvider());
 		this.backendInfo = backendInfo;
 		this.indexName = conf.name();
 		this.numberOfReplicas = conf.effectiveNumberOfReplicas();
@@ -263,21 +265,36 @@ public class ElasticsearchSharedIndexService extends BulkSharedIndexService {
 	}
 	
 	@Override
-	protected Publisher<List<org.olf.dcb.indexing.bulk.IndexOperation<UUID, ClusterRecord>>> doOnNext(List<org.olf.dcb.indexing.bulk.IndexOperation<UUID, ClusterRecord>> item) {
-		return bulkOperations(item)
-				.thenReturn(item);
+	protected Mono<BulkOutcome<PreparedOperation<BinaryData>>> bulk(List<PreparedOperation<BinaryData>> ops) {
+		return bulkOperations(ops)
+			.map( resp -> {
+				if (!resp.errors()) return BulkOutcome.allCompleted(ops);
+				
+				final List<BulkResponseItem> items = resp.items();
+				return BulkOutcome.fromItemStatuses(ops,
+					items.stream().map(BulkResponseItem::status).toList(),
+					i -> items.get(i).error() != null);
+			});
 	}
 	
-	private BulkRequest.Builder addBulkOperation (BulkRequest.Builder bulk, org.olf.dcb.indexing.bulk.IndexOperation<UUID, ClusterRecord> op) {
+	@Override
+	protected PreparedOperation<BinaryData> prepare(org.olf.dcb.indexing.bulk.IndexOperation<UUID, ClusterRecord> op) {
+		// Action line only.
+		if (op.doc() == null) return new PreparedOperation<>(op, null, 128);
+		
+		// The document is written once, here, and the client sends the bytes on as they are.
+		final byte[] document = bulkWriter.encodeDocument(op.doc());
+		
+		return new PreparedOperation<>(op, BinaryData.of(document, ContentType.APPLICATION_JSON), document.length + 128);
+	}
+	
+	private BulkRequest.Builder addBulkOperation (BulkRequest.Builder bulk, PreparedOperation<BinaryData> prepared) {
+		final var op = prepared.op();
 		return (BulkRequest.Builder)switch (op.type()) {
-			case CREATE, UPDATE -> {
-				ClusterRecordIndexDoc indexDoc = conversionService.convertRequired(op.doc(), ClusterRecordIndexDoc.class);
-				
-				yield bulk.operations( b -> b.index(index -> index
-					.index(indexName)
-					.id(indexDoc.getBibClusterId().toString())
-					.document(indexDoc)));
-			}
+			case CREATE, UPDATE -> bulk.operations( b -> b.index(index -> index
+				.index(indexName)
+				.id(op.doc().getId().toString())
+				.document(prepared.payload())));
 			
 			case DELETE -> bulk.operations( b -> b.delete(index -> index
 				.index(indexName)
@@ -287,10 +304,9 @@ public class ElasticsearchSharedIndexService extends BulkSharedIndexService {
 	
 	private Mono<BulkResponse> bulkOperations(
 
-		Collection<org.olf.dcb.indexing.bulk.IndexOperation<UUID, ClusterRecord>> cr) {
+		Collection<PreparedOperation<BinaryData>> cr) {
 		
 		return Flux.fromIterable(cr)
-			.publishOn(Schedulers.boundedElastic())
 			.reduce( new BulkRequest.Builder(), this::addBulkOperation )
 			.flatMap( bops -> Mono.<BulkResponse>create(sink -> {
 					try {
@@ -1,6 +1,7 @@
 package org.olf.dcb.indexing.job;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -12,7 +13,9 @@ import java.util.UUID;
 import org.olf.dcb.core.clustering.RecordClusteringService;
 import org.olf.dcb.core.error.DcbError;
 import org.olf.dcb.operations.OperationsService;
+import org.olf.dcb.indexing.SharedIndexConfiguration;
 import org.olf.dcb.indexing.SharedIndexService;
+import org.olf.dcb.storage.JobCheckpointRepository;
 import org.reactivestreams.Publisher;
 
 import io.micronaut.context.annotation.Requires;
@@ -47,6 +50,7 @@ import services.k_int.jobs.JobChunkProcessor;
 import services.k_int.jobs.JobChunkProcessor.ApplicableChunkTypes;
 import services.k_int.jobs.ReactiveJobRunnerService;
 import services.k_int.micronaut.scheduling.processor.AppTask;
+import services.k_int.utils.UUIDUtils;
 
 @Slf4j
 @Singleton
@@ -55,7 +59,7 @@ import services.k_int.micronaut.scheduling.processor.AppTask;
 @ApplicableChunkTypes( IndexJobChunk.class )
 public class IndexSynch implements Job<UUID>, JobChunkProcessor {
 
-	private final static String JOB_ID = "indexing-job";
+	final static String JOB_ID = "indexing-job";
 	private final static String JOB_NAME = "Indexing Job";
 	private final ReactiveJobRunnerService jobRunnerService;
   private final ReactorFederatedLockService lockService;
@@ -63,9 +67,14 @@ public class IndexSynch implements Job<UUID>, JobChunkProcessor {
 	private final SharedIndexService indexer;
 	private final OperationsService operationsService;
   private final ObjectMapper mapper;
+  private final JobCheckpointRepository checkpoints;
+  private final SharedIndexConfiguration config;
+  
+  // Time allowed for the last documents written to become visible before those not seen are deleted
+  Duration deleteDelay = Duration.ofSeconds(30);
   
   @Data
-  @Builder
+  @Builder(toBuilder = true)
   @Serdeable
   protected static class JobParameters {
   	
@@ -75,6 +84,31 @@ public class IndexSynch implements Job<UUID>, JobChunkProcessor {
   	
   	@Builder.Default
   	private int maxPageSize = 1000;
+  	
+  	// Only used by partitions. The exclusive cursor within, and inclusive end of, the id range.
+  	@Nullable
+  	private UUID after;
+  	
+  	@Nullable
+  	private UUID upTo;
+  	
+  	private boolean complete;
+  }
+  
+  /**
+   * A full synch split into contiguous ranges of cluster id, each of which is run as its own job
+   * with its own checkpoint so that any node can claim it.
+   */
+  @Data
+  @Builder
+  @Serdeable
+  protected static class PartitionPlan {
+  	
+  	@NotNull
+  	@NonNull
+  	private Instant cutoff;
+  	
+  	private int partitions;
   }
 
 	@NonNull
@@ -166,6 +200,11 @@ public class IndexSynch implements Job<UUID>, JobChunkProcessor {
 	@ExecuteOn(TaskExecutors.BLOCKING)
 	@Scheduled(initialDelay = "20s", fixedDelay = "24h")
 	public void scheduleJob() {
+		if (isPartitioned()) {
+			runPartitions(true);
+			return;
+		}
+		
 		buildIndexingStream()
     	// Lock operator returns empty if not acquired
 		  .transformDeferred(lockService.withLockOrEmpty(JOB_ID))
@@ -185,6 +224,235 @@ public class IndexSynch implements Job<UUID>, JobChunkProcessor {
 				TupleUtils.consumer(this::jobSubscriber), this::errorSubscriber);
 	}
 	
+	private boolean isPartitioned() {
+		return config.synchPartitions().orElse(1) > 1;
+	}
+	
+	/**
+	 * Let this node help with a partitioned synch started elsewhere. Partitions that are
+	 * complete or claimed by another node are skipped.
+	 */
+	@AppTask
+	@ExecuteOn(TaskExecutors.BLOCKING)
+	@Scheduled(initialDelay = "2m", fixedDelay = "${dcb.index.synch-partition-poll:5m}")
+	public void joinPartitions() {
+		if (isPartitioned()) runPartitions(false);
+	}
+	
+	private void runPartitions(boolean startIfIdle) {
+		buildPartitionedIndexingStream(startIfIdle)
+			.transformDeferred( operationsService::subscribeOnlyOutsideOfficeHours )
+			.subscribeOn( Schedulers.boundedElastic() )
+			.subscribe(
+				TupleUtils.consumer(this::jobSubscriber), this::errorSubscriber);
+	}
+	
+	Mono<Tuple2<Long, Long>> buildPartitionedIndexingStream(boolean startIfIdle) {
+		return processPartitions(startIfIdle ? readOrCreatePartitionPlan() : readPartitionPlan());
+	}
+	
+	/**
+	 * Abandon any partitioned run in progress and work through a freshly planned one. Empty if the
+	 * plan is being changed by another node.
+	 */
+	Mono<Tuple2<Long, Long>> buildRestartedPartitionedIndexingStream() {
+		return processPartitions(replacePartitionPlan());
+	}
+	
+	private Mono<Tuple2<Long, Long>> processPartitions(Mono<PartitionPlan> planned) {
+		return planned
+			.flatMapMany( plan -> Flux.range(0, plan.getPartitions())
+				.map( index -> new PartitionJob(plan, index) )
+				
+				// Each node works through one partition at a time. Any held elsewhere are skipped.
+				.concatMap( partition -> Flux.from(jobRunnerService.processJobInstance(partition))
+					.transformDeferred(lockService.withLockOrEmpty(partition.getName())))
+				.concatWith(Mono.defer(() -> completePartitionPlan(plan)).then(Mono.<JobChunk<UUID>>empty())))
+			.map( chunk -> (long) chunk.getData().size() )
+			.reduce(Long::sum)
+			.elapsed();
+	}
+	
+	static UUID boundaryFor(int index, int partitions) {
+		if (index >= partitions) return new UUID(-1L, -1L);
+		
+		// Split the unsigned range of the most significant bits evenly.
+		final BigInteger msb = BigInteger.ONE.shiftLeft(64)
+			.multiply(BigInteger.valueOf(index))
+			.divide(BigInteger.valueOf(partitions));
+		
+		return new UUID(msb.longValue(), 0L);
+	}
+	
+	private UUID getPartitionPlanId() {
+		return UUIDUtils.nameUUIDFromNamespaceAndString(NS, JOB_NAME + " partitions");
+	}
+	
+	private Mono<PartitionPlan> readPartitionPlan() {
+		return Mono.from(readCheckpoint(getPartitionPlanId()))
+			.mapNotNull( json -> {
+				try {
+					return mapper.readValueFromTree(json, PartitionPlan.class);
+				} catch (IOException e) {
+					log.warn("Error parsing partition plan, ignoring.");
+					return null;
+				}
+			});
+	}
+	
+	private Mono<PartitionPlan> readOrCreatePartitionPlan() {
+		return readPartitionPlan()
+			.switchIfEmpty(Mono.defer(() -> readPartitionPlan()
+				.switchIfEmpty(Mono.defer(this::createPartitionPlan))
+				.transformDeferred(lockService.withLockOrEmpty(JOB_ID))));
+	}
+	
+	private Mono<PartitionPlan> createPartitionPlan() {
+		final PartitionPlan plan = PartitionPlan.builder()
+			.cutoff(Instant.now())
+			.partitions(config.synchPartitions().orElse(1))
+			.build();
+		
+		log.info("Starting partitioned index synch of [{}] partitions for clusters indexed before [{}]",
+			plan.getPartitions(), plan.getCutoff());
+		
+		return Flux.range(0, plan.getPartitions())
+			.map( index -> new PartitionJob(plan, index) )
+			.concatMap( jobRunnerService::resetJob )
+			.then(Mono.defer(() -> Mono.from(writeCheckpoint(getPartitionPlanId(), planToJson(plan)))))
+			.thenReturn(plan);
+	}
+	
+	private JsonNode planToJson( PartitionPlan plan ) {
+		try {
+			return mapper.writeValueToTree(plan);
+		} catch (IOException e) {
+			throw new DcbError("Error writing partition plan to json", e);
+		}
+	}
+	
+	// The old plan is cleared and the new one written under the job lock, so no other node plans in between
+	private Mono<PartitionPlan> replacePartitionPlan() {
+		return resetPartitionPlan()
+			.then(Mono.defer(this::createPartitionPlan))
+			.transformDeferred(lockService.withLockOrEmpty(JOB_ID));
+	}
+	
+	private Mono<Void> resetPartitionPlan() {
+		return readPartitionPlan()
+			.flatMapMany( plan -> Flux.range(0, plan.getPartitions())
+				.map( index -> new PartitionJob(plan, index) ))
+			.concatMap( jobRunnerService::resetJob )
+			.then(jobRunnerService.resetJob(getPartitionPlanId()));
+	}
+	
+	/**
+	 * Once every partition has finished, remove documents for clusters not seen during the run and
+	 * clear the plan. Held under the job lock so that only one node does this.
+	 */
+	private Mono<Void> completePartitionPlan(PartitionPlan plan) {
+		return readPartitionPlan()
+			.filter( current -> current.getCutoff().equals(plan.getCutoff()) )
+			.filterWhen( current -> Flux.range(0, current.getPartitions())
+				.map( index -> new PartitionJob(current, index) )
+				.concatMap( partition -> Mono.from(readCheckpoint(partition.getId()))
+					.map( this::parseParams )
+					.map( params -> params.isComplete() && params.getCutoff().equals(current.getCutoff()) )
+					.defaultIfEmpty(false))
+				.all(Boolean::booleanValue))
+			.flatMap( current -> Mono.just(current.getCutoff())
+				.delayElement(deleteDelay)
+				.doOnNext( c -> log.info("All index partitions complete. Attempting to delete unseen documents from index") )
+				.flatMap( indexer::deleteDocsIndexedBefore )
+				.doOnError( t -> log.warn("Error attempting to delete documents from Index.", t) )
+				.retry(10)
+				.then(resetPartitionPlan()))
+			.transformDeferred(lockService.withLockOrEmpty(JOB_ID))
+			.then();
+	}
+	
+	@Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+	protected Publisher<JsonNode> readCheckpoint(@NonNull UUID id) {
+		return checkpoints.findCheckpointByJobId(id);
+	}
+	
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	protected Publisher<JsonNode> writeCheckpoint(@NonNull UUID id, @NonNull JsonNode value) {
+		return checkpoints.saveCheckpointForJobId(id, value);
+	}
+	
+	@Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+	protected Mono<List<UUID>> getNextIdsInRange(@NonNull JobParameters params) {
+		return clusters.findNextIdsInRangeIndexedBefore(params.getAfter(), params.getUpTo(), params.getCutoff(), params.getMaxPageSize());
+	}
+	
+	/**
+	 * One range of the cluster id space. Chunks are produced in id order, with the checkpoint
+	 * recording the last id handled, so a partition resumed by another node carries on from there.
+	 */
+	protected class PartitionJob implements Job<UUID> {
+		
+		private final PartitionPlan plan;
+		private final int index;
+		
+		PartitionJob(PartitionPlan plan, int index) {
+			this.plan = plan;
+			this.index = index;
+		}
+		
+		@NonNull
+		@Override
+		public String getName() {
+			return "%s partition %d of %d".formatted(JOB_NAME, index + 1, plan.getPartitions());
+		}
+		
+		@NonNull
+		@Override
+		public Publisher<JobChunk<UUID>> start() {
+			return getChunk(JobParameters.builder()
+				.cutoff(plan.getCutoff())
+				.after(boundaryFor(index, plan.getPartitions()))
+				.upTo(boundaryFor(index + 1, plan.getPartitions()))
+				.build());
+		}
+		
+		@NonNull
+		@Override
+		public Publisher<JobChunk<UUID>> resume(JsonNode lastCheckpoint) {
+			final JobParameters params = parseParams(lastCheckpoint);
+			
+			// A checkpoint left over from an earlier plan is ignored.
+			if (params.getAfter() == null || !plan.getCutoff().equals(params.getCutoff())) return start();
+			if (params.isComplete()) return Mono.empty();
+			
+			return getChunk(params);
+		}
+		
+		// Ids are taken from the range in order, so the next page only depends on the checkpoint
+		@Override
+		public boolean isPrefetchable() {
+			return true;
+		}
+		
+		private Mono<JobChunk<UUID>> getChunk(JobParameters params) {
+			return getNextIdsInRange(params)
+				.map( ids -> {
+					final boolean last = ids.size() < params.getMaxPageSize();
+					final JobParameters next = params.toBuilder()
+						.after(ids.isEmpty() ? params.getAfter() : ids.get(ids.size() - 1))
+						.complete(last)
+						.build();
+					
+					return IndexJobChunk.builder()
+						.jobId( getId() )
+						.lastChunk( last )
+						.checkpoint( paramsToJson(next) )
+						.data( ids )
+						.build();
+				});
+		}
+	}
+
 	private Mono<JobChunk<UUID>> deleteOnLastChunk(JobChunk<UUID> chunk) {
 		return Mono.justOrEmpty(chunk)
 			.filter( JobChunk::isLastChunk )
@@ -220,6 +488,20 @@ public class IndexSynch implements Job<UUID>, JobChunkProcessor {
 
 	@ExecuteOn(TaskExecutors.BLOCKING)
 	public void tryStartJob() {
+		if (isPartitioned()) {
+			// Started by hand, so not held back to outside office hours
+			buildRestartedPartitionedIndexingStream()
+				.subscribeOn(Schedulers.boundedElastic())
+				.doOnSuccess( res -> {
+					if (res == null) {
+						log.info("{} cannot be manually started while another node holds the job lock (NOOP)", getName());
+					}
+				})
+				.subscribe(
+					TupleUtils.consumer(this::jobSubscriber), this::errorSubscriber);
+			return;
+		}
+		
 		jobRunnerService.resetJob(this)
 			.then(buildIndexingStream())
 			.transformDeferred(lockService.withLockOrEmpty(JOB_ID))
@@ -9,20 +9,29 @@ import java.util.UUID;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
 import org.olf.dcb.core.clustering.RecordClusteringService;
 import org.olf.dcb.core.clustering.model.ClusterRecord;
 import org.olf.dcb.core.error.DcbError;
 import org.olf.dcb.core.error.DcbException;
 import org.olf.dcb.indexing.SharedIndexBackendInfo;
 import org.olf.dcb.indexing.SharedIndexConfiguration;
+import org.olf.dcb.indexing.bulk.BulkOutcome;
 import org.olf.dcb.indexing.bulk.BulkSharedIndexService;
-import org.olf.dcb.indexing.model.ClusterRecordIndexDoc;
+import org.olf.dcb.indexing.bulk.PreparedOperation;
+import org.olf.dcb.indexing.conversion.ClusterRecordBulkWriter;
+import org.olf.dcb.indexing.conversion.SharedIndexConverters;
+import org.opensearch.client.Cancellable;
+import org.opensearch.client.Request;
+import org.opensearch.client.Response;
+import org.opensearch.client.ResponseListener;
+import org.opensearch.client.RestClient;
 import org.opensearch.client.json.JsonpMapper;
 import org.opensearch.client.opensearch.OpenSearchAsyncClient;
 import org.opensearch.client.opensearch._types.AcknowledgedResponseBase;
 import org.opensearch.client.opensearch._types.Time;
 import org.opensearch.client.opensearch._types.mapping.TypeMapping;
-import org.opensearch.client.opensearch.core.BulkRequest;
 import org.opensearch.client.opensearch.core.BulkResponse;
 import org.opensearch.client.opensearch.core.bulk.BulkResponseItem;
 import org.opensearch.client.opensearch.indices.CreateIndexResponse;
@@ -34,36 +43,36 @@ import org.opensearch.client.opensearch.indices.PutMappingRequest;
 import org.opensearch.client.opensearch.indices.PutMappingResponse;
 import org.opensearch.client.transport.endpoints.BooleanResponse;
 import org.opensearch.client.util.ObjectBuilder;
-import org.reactivestreams.Publisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.opensearch.client.json.JsonData;
 import io.micronaut.context.annotation.Requires;
 import io.micronaut.core.annotation.Order;
-import io.micronaut.core.convert.ConversionService;
 import jakarta.annotation.PostConstruct;
 import jakarta.inject.Singleton;
 import jakarta.json.stream.JsonParser;
 import lombok.Setter;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 import services.k_int.micronaut.PublisherTransformationService;
 
 @Order(OpenSearchSharedIndexService.OS_INDEXER_PRIORITY)
 @Setter
 @Requires(bean = OpenSearchAsyncClient.class)
+@Requires(bean = RestClient.class)
 @Requires(bean = SharedIndexConfiguration.class)
 @Singleton
-public class OpenSearchSharedIndexService extends BulkSharedIndexService {
+public class OpenSearchSharedIndexService extends BulkSharedIndexService<byte[]> {
 	
 	static final int OS_INDEXER_PRIORITY = 1;
+	
+	private static final ContentType NDJSON = ContentType.create("application/x-ndjson");
 
 	private final Logger log = LoggerFactory.getLogger(OpenSearchSharedIndexService.class);
 	
 	private final OpenSearchAsyncClient client;
-	private final ConversionService conversionService;
+	private final RestClient restClient;
+	private final ClusterRecordBulkWriter bulkWriter;
 	
 	private final String indexName;
 	private final int indexVersion; 
@@ -71,10 +80,11 @@ public class OpenSearchSharedIndexService extends BulkSharedIndexService {
 	
 	private final SharedIndexBackendInfo backendInfo;
 
-	public OpenSearchSharedIndexService(SharedIndexConfiguration conf, OpenSearchAsyncClient client, ConversionService conversionService, RecordClusteringService recordClusteringService, PublisherTransformationService pubs, SharedIndexBackendInfo backendInfo) {
+	public OpenSearchSharedIndexService(SharedIndexConfiguration conf, OpenSearchAsyncClient client, RestClient restClient, SharedIndexConverters converters, RecordClusteringService recordClusteringService, PublisherTransformationService pubs, SharedIndexBackendInfo backendInfo) {
 		super(recordClusteringService, pubs, conf);
 		this.client = client;
-		this.conversionService = conversionService;
+		this.restClient = restClient;
+		this.bulkWriter = converters.bulkWriter(client._transport().jsonpMapper().jsonProvider());
 		this.backendInfo = backendInfo;
 		this.indexName = conf.name();
 		this.numberOfReplicas = conf.effectiveNumberOfReplicas();
@@ -276,63 +286,72 @@ public class OpenSearchSharedIndexService extends BulkSharedIndexService {
 	}
 	
 	@Override
-	protected Publisher<List<org.olf.dcb.indexing.bulk.IndexOperation<UUID, ClusterRecord>>> doOnNext(List<org.olf.dcb.indexing.bulk.IndexOperation<UUID, ClusterRecord>> item) {
-		return bulkOperations(item)
-				.thenReturn(item);
+	protected PreparedOperation<byte[]> prepare(org.olf.dcb.indexing.bulk.IndexOperation<UUID, ClusterRecord> op) {
+		final byte[] payload = bulkWriter.encode(indexName, op);
+		return new PreparedOperation<>(op, payload, payload.length);
 	}
 	
-	private BulkRequest.Builder addBulkOperation (BulkRequest.Builder bulk, org.olf.dcb.indexing.bulk.IndexOperation<UUID, ClusterRecord> op) {
-		return (BulkRequest.Builder)switch (op.type()) {
-			case CREATE, UPDATE -> {
-				ClusterRecordIndexDoc indexDoc = conversionService.convertRequired(op.doc(), ClusterRecordIndexDoc.class);
+	@Override
+	protected Mono<BulkOutcome<PreparedOperation<byte[]>>> bulk(List<PreparedOperation<byte[]>> ops) {
+		return bulkOperations(ops)
+			.map( resp -> {
+				if (!resp.errors()) return BulkOutcome.allCompleted(ops);
 				
-				yield bulk.operations( b -> b.index(index -> index
-					.index(indexName)
-					.id(indexDoc.getBibClusterId().toString())
-					.document(indexDoc)));
-			}
-			
-			case DELETE -> bulk.operations( b -> b.delete(index -> index
-				.index(indexName)
-				.id(op.id().toString())));
-		};
+				final List<BulkResponseItem> items = resp.items();
+				return BulkOutcome.fromItemStatuses(ops,
+					items.stream().map(BulkResponseItem::status).toList(),
+					i -> items.get(i).error() != null);
+			});
 	}
 	
-	private Mono<BulkResponse> bulkOperations(
-			Collection<org.olf.dcb.indexing.bulk.IndexOperation<UUID, ClusterRecord>> cr) {
+	private static byte[] bulkBody(Collection<PreparedOperation<byte[]>> ops) {
+		int length = 0;
+		for (PreparedOperation<byte[]> op : ops) {
+			length += op.payload().length;
+		}
 		
-		return Flux.fromIterable(cr)
-			.publishOn(Schedulers.boundedElastic())
-			.reduce( new BulkRequest.Builder(), this::addBulkOperation )
-			.flatMap( bops -> Mono.<BulkResponse>create(sink -> {
-				try {
-					
-					BulkRequest breq = null;
-					try {
-					
-						breq = bops.index(indexName).build();
-						} catch (Exception e) {
-							log.error("Invalid bulk request. Skipping", e);
-						}
+		final byte[] body = new byte[length];
+		int pos = 0;
+		for (PreparedOperation<byte[]> op : ops) {
+			final byte[] payload = op.payload();
+			System.arraycopy(payload, 0, body, pos, payload.length);
+			pos += payload.length;
+		}
+		
+		return body;
+	}
 	
-						if ( breq != null ) {
-              log.info("attempt index bulk operation {} items",breq.operations().size());
-							client.bulk( breq ).handle((br, ex) -> {
-								if ( ex != null) {
-									sink.error(ex);
-									return ex;
-								}
-								
-								sink.success(br);
-								return br;
-							});
+	// The operations are already encoded, so the body is sent as is via the low level client
+	// rather than rebuilt as a typed request and serialized again.
+	private Mono<BulkResponse> bulkOperations(Collection<PreparedOperation<byte[]>> ops) {
+		
+		return Mono.<BulkResponse>create(sink -> {
+				final Request request = new Request("POST", "/" + indexName + "/_bulk");
+				request.setEntity(new ByteArrayEntity(bulkBody(ops), NDJSON));
+				
+				log.info("attempt index bulk operation {} items", ops.size());
+				final Cancellable call = restClient.performRequestAsync(request, new ResponseListener() {
+					@Override
+					public void onSuccess(Response response) {
+						final JsonpMapper mapper = client._transport().jsonpMapper();
+						try (InputStream content = response.getEntity().getContent();
+								JsonParser parser = mapper.jsonProvider().createParser(content)) {
+							
+							sink.success(BulkResponse._DESERIALIZER.deserialize(parser, mapper));
+						} catch (Exception e) {
+							sink.error(e);
 						}
-					} catch (Exception e) {
-						sink.error(e);
 					}
-				})
-				.onErrorMap(e -> new DcbError("Error communicating with OpenSearch", e))
-			)
+					
+					@Override
+					public void onFailure(Exception exception) {
+						sink.error(exception);
+					}
+				});
+				
+				sink.onCancel(call::cancel);
+			})
+			.onErrorMap(e -> new DcbError("Error communicating with OpenSearch", e))
 			.doOnNext( resp -> {
 				if (log.isDebugEnabled()) {
 					log.info("Sent {} documents to be indexed in {} seconds", resp.items().size(),  (resp.took() / 1000.00D));
@@ -9,6 +9,7 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import org.olf.dcb.core.HostLmsService;
 import org.olf.dcb.core.audit.ProcessAuditService;
@@ -28,6 +29,7 @@ import org.olf.dcb.ingest.model.IngestRecord;
 import org.reactivestreams.Publisher;
 
 import io.micronaut.context.annotation.Replaces;
+import io.micronaut.context.annotation.Value;
 import io.micronaut.context.event.ApplicationEventPublisher;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
@@ -48,6 +50,7 @@ import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.function.TupleUtils;
 import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 import services.k_int.federation.reactor.ReactorFederatedLockService;
 import services.k_int.jobs.Job;
 import services.k_int.jobs.JobChunk;
@@ -76,9 +79,13 @@ public class IngestJob implements Job<IngestOperation>, JobChunkProcessor {
 	private final RecordClusteringService recordClusteringService;
   private final ReactorFederatedLockService lockService;
 	private final ApplicationEventPublisher<IngestEvent> ingestEventPublisher;
+	private final int clusterBatchSize;
+	private final int clusterBatchConcurrency;
 	
 	public IngestJob(SourceRecordService sourceRecordService, ConversionService conversionService, ReactiveJobRunnerService jobRunnerService, HostLmsService hostLmsService, RecordClusteringService recordClusteringService, BibRecordService bibRecordService, ReactorFederatedLockService lockService,
-		ApplicationEventPublisher<IngestEvent> ingestEventPublisher) {
+		ApplicationEventPublisher<IngestEvent> ingestEventPublisher,
+		@Value("${dcb.ingest.cluster-batch.size:1}") int clusterBatchSize,
+		@Value("${dcb.ingest.cluster-batch.concurrency:4}") int clusterBatchConcurrency) {
 		this.conversionService = conversionService;
 		this.sourceRecordService = sourceRecordService;
 		this.jobRunnerService = jobRunnerService;
@@ -87,6 +94,8 @@ public class IngestJob implements Job<IngestOperation>, JobChunkProcessor {
 		this.recordClusteringService = recordClusteringService;
 		this.lockService = lockService;
 		this.ingestEventPublisher = ingestEventPublisher;
+		this.clusterBatchSize = clusterBatchSize;
+		this.clusterBatchConcurrency = clusterBatchConcurrency;
 		
 		log.info("Ingest job construction complete");
 	}
@@ -258,6 +267,16 @@ public class IngestJob implements Job<IngestOperation>, JobChunkProcessor {
 		final int chunkSize = Optional.ofNullable(ijc.getData()).map(Collection::size).orElse(0);
 		final Instant chunkStart = Instant.now();
 //		final AtomicInteger inFlight = new AtomicInteger();
+		
+		if (clusterBatchSize > 1) {
+			return processChunkInBatches(ijc.getData(), processedTime)
+				.then( Mono.fromCallable(() -> {
+					long elapsedMs = Duration.between(chunkStart, Instant.now()).toMillis();
+					log.info("Processed ingest chunk size={} in batches of {} in {} ms", chunkSize, clusterBatchSize, elapsedMs);
+					return chunk;
+				}) );
+		}
+		
 		log.info("Processing ingest chunk size={} maxConcurrency={}", chunkSize, MAX_CONCURRENCY);
 		return Flux.fromIterable( ijc.getData() )
 //			.doOnRequest(req -> log.debug("processChunk demand={} currentInFlight={}", req, inFlight.get()))
@@ -293,6 +312,73 @@ public class IngestJob implements Job<IngestOperation>, JobChunkProcessor {
 //		return Mono.just( chunk );
 	}
 
+	@Transactional(propagation = Propagation.MANDATORY)
+	protected Flux<BibRecord> processChunkInBatches( List<IngestOperation> ops, Instant processedTime ) {
+		return Flux.fromIterable( ops )
+			.buffer( clusterBatchSize )
+			.flatMap( batch -> processOperationBatch( batch, processedTime )
+				.onErrorResume( err -> {
+					if ( err instanceof IllegalStateException && err.getMessage().contains("connection is closed"))
+						return Mono.error(err);
+					
+					// Something in the batch failed, and the whole batch was rolled back.
+					// Process the operations individually so the good records still succeed.
+					log.warn("Failed to process batch of [{}] ingest operations, falling back to individual processing", batch.size(), err);
+					return Flux.fromIterable( batch )
+						.concatMap( op -> processSingleOperation(op, processedTime)
+							.onErrorResume(opErr -> {
+								if ( opErr instanceof IllegalStateException && opErr.getMessage().contains("connection is closed"))
+									return Mono.error(opErr);
+								return opFail(op, processedTime, "Failed to process bib: %s", opErr);
+							}))
+						.collectList();
+				}), clusterBatchConcurrency)
+			.flatMapIterable( Function.identity() );
+	}
+	
+	/**
+	 * Process a batch of operations in a single transaction, clustering all the resulting
+	 * bibs together.
+	 */
+	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	protected Mono<List<BibRecord>> processOperationBatch( List<IngestOperation> batch, Instant processedTime ) {
+		final Instant batchStart = Instant.now();
+		
+		return Flux.fromIterable( batch )
+			.concatMap( op -> {
+				IngestRecord ir = op.getIngest();
+				var error = op.getException();
+				
+				if (error != null) {
+					log.error("Error getting ingest record "+error);
+					return this.<Tuple2<IngestOperation, BibRecord>>opFail(op, processedTime, "Failed to create IngestRecord from source: %s".formatted(error.getMessage()));
+				}
+				
+				if (ir == null) {
+					log.error("Failed to create Ingest Record from source record "+op.getSourceId());
+					return this.<Tuple2<IngestOperation, BibRecord>>opFail(op, processedTime, "Failed to create IngestRecord from source: Unknown error");
+				}
+				
+				return bibRecordService.process( ir )
+					.map( bib -> Tuples.of(op, bib) )
+					.switchIfEmpty( opSuccess(op, processedTime, "No returned Bib. Assumed redacted or without sufficient title info") );
+			})
+			.collectList()
+			.flatMap( processed -> recordClusteringService.clusterBibs( processed.stream()
+					.map( Tuple2::getT2 )
+					.toList() )
+				.collectList()
+				.flatMap( clustered -> Flux.fromIterable( processed )
+					.concatMap( TupleUtils.function( (op, bib) -> opSuccess(op, processedTime, "Bib [%s] created/updated".formatted(bib.getId())) ))
+					.then( Mono.just(clustered) )))
+			.doFinally( signal -> {
+				long elapsedMs = Duration.between(batchStart, Instant.now()).toMillis();
+				if (elapsedMs > SLOW_OP_MS * batch.size()) {
+					log.warn("Slow ingest batch {} ms for {} operations", elapsedMs, batch.size());
+				}
+			});
+	}
+
 	@Retryable
 	@Transactional(propagation = Propagation.REQUIRES_NEW)
 	protected Mono<BibRecord> processSingleOperation( IngestOperation op, Instant processedTime ) {
@@ -0,0 +1,111 @@
+package org.olf.dcb.ingest.marc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.marc4j.marc.ControlField;
+import org.marc4j.marc.DataField;
+import org.marc4j.marc.Record;
+import org.marc4j.marc.Subfield;
+import org.marc4j.marc.VariableField;
+
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
+
+/**
+ * The fields of a MARC record grouped by tag, built in a single walk over the record so that
+ * enrichment can look fields up by tag without scanning the whole record each time. Holds a
+ * buffer that is reused for joining subfields, so an index should only be used by one thread.
+ */
+public final class MarcFieldIndex {
+
+	private final Record record;
+	private final Map<String, List<VariableField>> fieldsByTag = new HashMap<>();
+	private final StringBuilder buffer = new StringBuilder(128);
+
+	private MarcFieldIndex(Record record) {
+		this.record = record;
+
+		for (ControlField field : record.getControlFields()) {
+			add(field);
+		}
+		for (DataField field : record.getDataFields()) {
+			add(field);
+		}
+	}
+
+	public static MarcFieldIndex of(@NonNull Record record) {
+		return new MarcFieldIndex(record);
+	}
+
+	private void add(VariableField field) {
+		fieldsByTag.computeIfAbsent(field.getTag(), tag -> new ArrayList<>(2)).add(field);
+	}
+
+	@NonNull
+	public Record getRecord() {
+		return record;
+	}
+
+	/**
+	 * @return the fields with the given tag, in record order
+	 */
+	@NonNull
+	public List<VariableField> get(String tag) {
+		return fieldsByTag.getOrDefault(tag, List.of());
+	}
+
+	/**
+	 * @return the first field with the given tag, as {@link Record#getVariableField(String)}
+	 */
+	@Nullable
+	public VariableField first(String tag) {
+		final List<VariableField> fields = fieldsByTag.get(tag);
+
+		return fields == null ? null : fields.get(0);
+	}
+
+	/**
+	 * @return the data of the first subfield of the first field with the given tag that has any
+	 */
+	@Nullable
+	public String firstSubfieldData(String tag, char code) {
+		final DataField field = (DataField) first(tag);
+		if (field == null) return null;
+
+		for (Subfield subfield : field.getSubfields()) {
+			if (subfield.getCode() == code && subfield.getData() != null) {
+				return subfield.getData();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Join the data of the subfields of a field, taking every subfield with the first code in the
+	 * spec, then every one with the next code and so on, as
+	 * {@link services.k_int.integration.marc4j.Marc4jRecordUtils#concatSubfieldData(Record, String, String)}
+	 * does.
+	 */
+	@NonNull
+	public String join(DataField field, String orderedSpec) {
+		final List<Subfield> subfields = field.getSubfields();
+
+		buffer.setLength(0);
+		boolean first = true;
+		for (int i = 0; i < orderedSpec.length(); i++) {
+			final char code = orderedSpec.charAt(i);
+
+			for (Subfield subfield : subfields) {
+				if (subfield.getCode() == code) {
+					if (!first) buffer.append(' ');
+					first = false;
+					buffer.append(subfield.getData());
+				}
+			}
+		}
+		return buffer.toString();
+	}
+}
@@ -1,6 +1,5 @@
 package org.olf.dcb.ingest.marc;
 
-import static services.k_int.integration.marc4j.Marc4jRecordUtils.concatSubfieldData;
 import static services.k_int.integration.marc4j.Marc4jRecordUtils.extractOrderedSubfields;
 import static services.k_int.integration.marc4j.Marc4jRecordUtils.interpretLanguages;
 import static services.k_int.integration.marc4j.Marc4jRecordUtils.typeFromLeader;
@@ -9,6 +8,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -25,6 +25,7 @@ import org.marc4j.marc.Record;
 import org.marc4j.marc.Subfield;
 import org.marc4j.marc.VariableField;
 import org.olf.dcb.core.error.DcbError;
+import org.olf.dcb.dataimport.job.SourceRecordPayloadCodec;
 import org.olf.dcb.dataimport.job.model.SourceRecord;
 import org.olf.dcb.ingest.IngestSource;
 import org.olf.dcb.ingest.conversion.SourceToIngestRecordConverter;
@@ -50,7 +51,6 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import reactor.function.TupleUtils;
-import services.k_int.integration.marc4j.Marc4jRecordUtils;
 
 public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordConverter {
 
@@ -62,6 +62,7 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 
   // \b((?:\d[\-\s]?){9}[\dXx]|(?:\d[\-\s]?){13}|\d{4}-\d{3}[\dXx])\b(?:\s+(.*))?
   final static Pattern REGEX_ISXN_VALUE = Pattern.compile("\\b((?:\\d[\\-\\s]?){9}[\\dXx]|(?:\\d[\\-\\s]?){13}|\\d{4}-\\d{3}[\\dXx])\\b(?:\\s+(.*))?");
+  final static Pattern REGEX_NON_ISXN_CHARACTERS = Pattern.compile("[^\\dXx]");
   final static Pattern REGEX_ISBN_FALLBACK = Pattern.compile(
     "(?<!\\d)" +                                  // don't start in the middle of a number
     "(" +
@@ -72,6 +73,11 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
     "(?!\\d)"                                     // don't end in the middle of a number
   );
 
+	static final List<String> TITLE_TAGS = List.of("245", "243", "240", "246", "222", "210", "240", "247", "130");
+	static final List<String> WORK_TITLE_TAGS = List.of("240", "130", "245", "243", "246", "222", "210", "240", "247");
+	static final String TITLE_SUBFIELDS = "abcdefghijklmnopqrstuvwxyz";
+	static final String BLOCKING_TITLE_SUBFIELDS = "abhknp";
+
 	static Logger log = LoggerFactory.getLogger(MarcIngestSource.class);
 
 //	protected ConversionService getConversionService();
@@ -79,23 +85,35 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 	default IngestRecordBuilder populateRecordFromMarc(final IngestRecordBuilder ingestRecord, final Record marcRecord) {
 
     if ( marcRecord != null ) {
+			// Walk the fields once, every enricher below then looks its fields up by tag
+			final MarcFieldIndex fields = MarcFieldIndex.of(marcRecord);
+
+			// None of the enrichers before the canonical record change what is read from this
+			final IngestRecord initial = ingestRecord.build();
+
   		// Leader fields
 	  	enrichWithLeaderInformation(ingestRecord, marcRecord);
-  		enrichWithFormOfItemInformation(ingestRecord, marcRecord);
+  		enrichWithFormOfItemInformation(ingestRecord, fields);
 	  	// Title(s)
-		  enrichWithTitleInformation(ingestRecord, marcRecord);
-			enrichWithBlockingTitle(ingestRecord, marcRecord);
+		  enrichWithTitleInformation(ingestRecord, fields, initial.getTitle());
+			enrichWithBlockingTitle(ingestRecord, fields);
 			
 //			if (!featureIsEnabled( ImprovedRecordClusteringService.FEATURE_IMPROVED_CLUSTERING)) {
-				enrichWithBlockingWorkTitle(ingestRecord, marcRecord);
+				enrichWithBlockingWorkTitle(ingestRecord, fields, initial.getIdentifier("BLOCKING_WORK_TITLE"));
 //			}
   		// Identifiers
-	  	enrichWithIdentifiers(ingestRecord, marcRecord);
+	  	enrichWithIdentifiers(ingestRecord, fields);
   		// Author(s)
 	  	enrichWithAuthorInformation(ingestRecord, marcRecord);
-		  enrichWithGoldrush(ingestRecord, marcRecord);
-  		enrichWithCanonicalRecord(ingestRecord, marcRecord);
-	  	enrichWithMetadataScore(ingestRecord, marcRecord);
+		  enrichWithGoldrush(ingestRecord, fields);
+
+			// The canonical record replaces the metadata but leaves the identifiers, so the score can be
+			// worked out from the same view
+			final IngestRecord current = ingestRecord.build();
+			final Map<String, Object> canonicalMetadata = canonicalMetadata(current, fields);
+			ingestRecord
+				.canonicalMetadata(canonicalMetadata)
+				.metadataScore(metadataScore(canonicalMetadata, current.getIdentifiers()));
     }
     else {
       log.warn("NULL MARC RECORD");
@@ -126,8 +144,12 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 	}
 
 	default IngestRecordBuilder enrichWithFormOfItemInformation(final IngestRecordBuilder ir, final Record record) {
+		return enrichWithFormOfItemInformation(ir, MarcFieldIndex.of(record));
+	}
 
-		ControlField field008 = (ControlField) record.getVariableField("008");
+	private IngestRecordBuilder enrichWithFormOfItemInformation(final IngestRecordBuilder ir, final MarcFieldIndex fields) {
+
+		ControlField field008 = (ControlField) fields.first("008");
 		if ( field008 != null ) {
 			String data008 = field008.getData();
 			if ( ( data008 != null ) && ( data008.length() >= 23 ) ) {
@@ -209,73 +231,79 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 
 	default IngestRecordBuilder enrichWithTitleInformation(final IngestRecordBuilder ingestRecord,
 			final Record marcRecord) {
-		// Initial title.
-//		final String title = Stream.of("245", "243", "240", "246", "222", "210", "240", "247", "130")
+		return enrichWithTitleInformation(ingestRecord, MarcFieldIndex.of(marcRecord), ingestRecord.build().getTitle());
+	}
+
+	private IngestRecordBuilder enrichWithTitleInformation(final IngestRecordBuilder ingestRecord,
+			final MarcFieldIndex fields, final String initialTitle) {
+
+		String current = initialTitle;
+		for (String tag : TITLE_TAGS) {
+			for (VariableField field : fields.get(tag)) {
+				final String item = fields.join((DataField) field, TITLE_SUBFIELDS);
+				if (StringUtils.isEmpty(item)) continue;
 
-		Stream.of("245", "243", "240", "246", "222", "210", "240", "247", "130")
-			.filter(Objects::nonNull)
-			.flatMap(tag -> concatSubfieldData(marcRecord, tag, "abcdefghijklmnopqrstuvwxyz"))
-			.filter(StringUtils::isNotEmpty)
-			.reduce(ingestRecord.build().getTitle(), (current, item) -> {
 				if (StringUtils.isEmpty(current)) {
 					ingestRecord.title(item);
-					return item;
+					current = item;
+				} else {
+					// Keep the first title that was set.
+					ingestRecord.otherTitle(item);
 				}
-				ingestRecord.otherTitle(item);
-
-				// Keep returning the first title that was set.
-				return current;
-			});
+			}
+		}
 
-		// log.trace("Title used: {}", title);
+		// log.trace("Title used: {}", current);
 
 		return ingestRecord;
 	}
 	
 	public default GoldrushKey getGoldrushKey(final Record marcRecord) {
+		return getGoldrushKey(MarcFieldIndex.of(marcRecord));
+	}
+
+	private GoldrushKey getGoldrushKey(final MarcFieldIndex fields) {
 		GoldrushKey grk = new GoldrushKey();
 
 		// Start with 245. If there is a linkage to a 880, then swap to that instead.
-		final DataField field245 = (DataField) marcRecord.getVariableField("245");
-		final DataField fieldForTitle = extractOrderedSubfields(field245, "6")
-			.map( REGEX_LINKAGE_245_880::matcher )
-			.filter( Matcher::matches )
-			.findFirst()
-			.map( match -> match.group(1) )
-			.flatMap( occNum -> {
-				final Pattern linked880 = Pattern.compile("^245-" + occNum);
-				return marcRecord.getVariableFields("880")
-						.stream()
-						.map( DataField.class::cast )
-						.filter(field880 ->
-							extractOrderedSubfields(field880, "6")
-								.anyMatch(linked880.asMatchPredicate()))
-						.findFirst();
-			})
-			.orElseGet(() -> field245);
+		final DataField field245 = (DataField) fields.first("245");
+		final DataField fieldForTitle = Optional.ofNullable(field245)
+			.flatMap(field -> field.getSubfields('6').stream()
+				.map( Subfield::getData )
+				.map( REGEX_LINKAGE_245_880::matcher )
+				.filter( Matcher::matches )
+				.findFirst())
+			.map( match -> "245-" + match.group(1) )
+			.flatMap( linkage -> fields.get("880")
+				.stream()
+				.map( DataField.class::cast )
+				.filter(field880 -> field880.getSubfields('6').stream()
+					.anyMatch(subfield -> linkage.equals(subfield.getData())))
+				.findFirst())
+			.orElse(field245);
 		
 		// Goldrush does not normally include $c but that seems to create very odd clusters for things like 
 		// "Greatest Hits". It seems that $c can be a bit of a dumping ground - so whilst
 		// "$a Greatest Hits - $c Some Artist" is useful, "$a Greatest Hits - $s Some Artist, with a foreward by X and some other stuff by Y"
 		// is likely less helpful. It may be that taking the first 2 words of $c will yeild better results.
-		List<String> fields = extractOrderedSubfields(fieldForTitle, "abc").limit(3) 
+		List<String> titleParts = extractOrderedSubfields(fieldForTitle, "abc").limit(3) 
 				.toList();
 
-		if (fields.size() > 0) {
-			grk.parseTitle(fields.get(0), 
-				fields.size() > 1 ? fields.get(1) : null,
-				fields.size() > 2 ? fields.get(2) : null);
+		if (titleParts.size() > 0) {
+			grk.parseTitle(titleParts.get(0), 
+				titleParts.size() > 1 ? titleParts.get(1) : null,
+				titleParts.size() > 2 ? titleParts.get(2) : null);
 		}
 
-		parseFromSingleSubfield(marcRecord, "245", 'h', grk::parseMediaDesignation);
-		parseFromSingleSubfield(marcRecord, "260", 'c', grk::parsePubYear);
-		parseFromSingleSubfield(marcRecord, "300", 'a', grk::parsePagination);
-		parseFromSingleSubfield(marcRecord, "250", 'a', grk::parseEdition);
-		parseFromSingleSubfield(marcRecord, "260", 'b', grk::parsePublisher);
-		parseFromSingleSubfield(marcRecord, "245", 'p', grk::parseTitlePart);
-		parseFromSingleSubfield(marcRecord, "245", 'n', grk::parseTitleNumber);
+		parseFromSingleSubfield(fields, "245", 'h', grk::parseMediaDesignation);
+		parseFromSingleSubfield(fields, "260", 'c', grk::parsePubYear);
+		parseFromSingleSubfield(fields, "300", 'a', grk::parsePagination);
+		parseFromSingleSubfield(fields, "250", 'a', grk::parseEdition);
+		parseFromSingleSubfield(fields, "260", 'b', grk::parsePublisher);
+		parseFromSingleSubfield(fields, "245", 'p', grk::parseTitlePart);
+		parseFromSingleSubfield(fields, "245", 'n', grk::parseTitleNumber);
 
-		char type = marcRecord.getLeader().getTypeOfRecord();
+		char type = fields.getRecord().getLeader().getTypeOfRecord();
 		grk.setRecordType(type);
 //		System.out.println( grk.toString() );
 //		System.out.println( grk.getText() );
@@ -283,77 +311,93 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 	}
 
 	default IngestRecordBuilder enrichWithBlockingTitle(final IngestRecordBuilder ingestRecord, final Record marcRecord) {
-		// Initial title.
-//		final String title = Stream.of("245", "243", "240", "246", "222", "210", "240", "247", "130")
-		Stream.of("245", "243", "240", "246", "222", "210", "240", "247", "130")
-			.filter(Objects::nonNull)
-			.flatMap(tag -> concatSubfieldData(marcRecord, tag, "abhknp")).filter(StringUtils::isNotEmpty).map(item -> {
-				
-				// 250 Is edition statement
-				List<String> qualifiers = Marc4jRecordUtils.concatSubfieldData(marcRecord, "250", "a")
-					.map(EditionNormalizer::normalizeEdition)
-					.map(StringUtils::trimToNull)
-					.toList();
-
-				return DCBStringUtilities.generateBlockingString(item, qualifiers);
-			})
-			.filter(StringUtils::isNotEmpty)
-			.findFirst()
-			.map(blocking_title -> ingestRecord
-				.addIdentifier(id -> id
-					.namespace(BLOCKING_TITLE)
-					.value(blocking_title)
-					.confidence(0)));
+		return enrichWithBlockingTitle(ingestRecord, MarcFieldIndex.of(marcRecord));
+	}
+
+	private IngestRecordBuilder enrichWithBlockingTitle(final IngestRecordBuilder ingestRecord, final MarcFieldIndex fields) {
+		// 250 Is edition statement, only worked out once there is a title to qualify
+		List<String> qualifiers = null;
+
+		for (String tag : TITLE_TAGS) {
+			for (VariableField field : fields.get(tag)) {
+				final String item = fields.join((DataField) field, BLOCKING_TITLE_SUBFIELDS);
+				if (StringUtils.isEmpty(item)) continue;
+
+				if (qualifiers == null) {
+					qualifiers = new ArrayList<>();
+					for (VariableField edition : fields.get("250")) {
+						qualifiers.add(StringUtils.trimToNull(
+							EditionNormalizer.normalizeEdition(fields.join((DataField) edition, "a"))));
+					}
+				}
+
+				final String blocking_title = DCBStringUtilities.generateBlockingString(item, qualifiers);
+				if (StringUtils.isNotEmpty(blocking_title)) {
+					return ingestRecord
+						.addIdentifier(id -> id
+							.namespace(BLOCKING_TITLE)
+							.value(blocking_title)
+							.confidence(0));
+				}
+			}
+		}
 
 		return ingestRecord;
 	}
 
 
   default IngestRecordBuilder enrichWithBlockingWorkTitle(final IngestRecordBuilder ingestRecord, final Record marcRecord) {
-    // Initial title.
-//    final String title = Stream.of("240", "130", "245", "243", "246", "222", "210", "240", "247")
-
-    Stream.of("240", "130", "245", "243", "246", "222", "210", "240", "247")
-      .filter(Objects::nonNull)
-      .flatMap(tag -> concatSubfieldData(marcRecord, tag, "abhknp"))
-      .filter(StringUtils::isNotEmpty)
-      .reduce(ingestRecord.build().getIdentifier("BLOCKING_WORK_TITLE"), (current_blocking_title, item) -> {
-        if (StringUtils.isEmpty(current_blocking_title)) {
-
-          String blocking_title = DCBStringUtilities.generateBlockingString(item);
-          if ( blocking_title != null ) {
-            ingestRecord.addIdentifier(id -> {
-              // This allows us to add in important discriminators into the blocking title - edition being
-              // the most obvious one for now. Ideally we would normalised this tho into a canonical string
-
-              // The old style blocking titles arranged words alphabetically, removed duplicates and didn't
-              // suffer with double spacing, so using that here as it provides cleaner matching.
-              id.namespace("BLOCKING_WORK_TITLE").value(blocking_title).confidence(Integer.valueOf(0));
-            });
-
-            // Exit the lambda returning the selected title
-            return blocking_title;
-          }
-        }
+    return enrichWithBlockingWorkTitle(ingestRecord, MarcFieldIndex.of(marcRecord),
+      ingestRecord.build().getIdentifier("BLOCKING_WORK_TITLE"));
+  }
 
-        // Keep returning the first title that was set.
-        return current_blocking_title;
-      });
+  private IngestRecordBuilder enrichWithBlockingWorkTitle(final IngestRecordBuilder ingestRecord,
+      final MarcFieldIndex fields, final String initialBlockingTitle) {
+
+    String current_blocking_title = initialBlockingTitle;
+    for (String tag : WORK_TITLE_TAGS) {
+      for (VariableField field : fields.get(tag)) {
+        // Keep the first title that was set.
+        if (StringUtils.isNotEmpty(current_blocking_title)) return ingestRecord;
 
-    // log.trace("Title used: {}", title);
+        final String item = fields.join((DataField) field, BLOCKING_TITLE_SUBFIELDS);
+        if (StringUtils.isEmpty(item)) continue;
+
+        String blocking_title = DCBStringUtilities.generateBlockingString(item);
+        if ( blocking_title != null ) {
+          ingestRecord.addIdentifier(id -> {
+            // This allows us to add in important discriminators into the blocking title - edition being
+            // the most obvious one for now. Ideally we would normalised this tho into a canonical string
+
+            // The old style blocking titles arranged words alphabetically, removed duplicates and didn't
+            // suffer with double spacing, so using that here as it provides cleaner matching.
+            id.namespace("BLOCKING_WORK_TITLE").value(blocking_title).confidence(Integer.valueOf(0));
+          });
+
+          current_blocking_title = blocking_title;
+        }
+      }
+    }
+
+    // log.trace("Title used: {}", current_blocking_title);
 
     return ingestRecord;
   }
 
 	default IngestRecordBuilder handleControlNumber(final IngestRecordBuilder ingestRecord, final Record marcRecord) {
+		return handleControlNumber(ingestRecord, MarcFieldIndex.of(marcRecord));
+	}
+
+	private IngestRecordBuilder handleControlNumber(final IngestRecordBuilder ingestRecord, final MarcFieldIndex fields) {
 		// Grab the pair of 001 and 003. These contain the identifier value and
 		// namespace respectively
 
-		Optional.ofNullable(marcRecord.getControlNumber())
+		Optional.ofNullable((ControlField) fields.first("001"))
+			.map(ControlField::getData)
 			.filter(StringUtils::isNotEmpty)
 			.flatMap(cn -> {
-				final String cnAuthority = extractControlData(marcRecord, "003")
-					.findFirst()
+				final String cnAuthority = Optional.ofNullable((ControlField) fields.first("003"))
+					.map(ControlField::getData)
 					.orElse(getDefaultControlIdNamespace());
 	
 	      // log.info("Consider control number {} {}",cnAuthority,cn);
@@ -369,11 +413,17 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 
 	default IngestRecordBuilder handleSystemControlNumber(final IngestRecordBuilder ingestRecord,
 			final Record marcRecord) {
+		return handleSystemControlNumber(ingestRecord, MarcFieldIndex.of(marcRecord));
+	}
+
+	private IngestRecordBuilder handleSystemControlNumber(final IngestRecordBuilder ingestRecord,
+			final MarcFieldIndex fields) {
 
     // We are seeing duplicated 035$a fields causing failure to store record identifiers. Need to remove duplicated values
-    List<String> seen_identifiers = new ArrayList<>();
+    Set<String> seen_identifiers = new HashSet<>();
 
-		concatSubfieldData(marcRecord, "035", "a").forEach(val -> {
+		for (VariableField field : fields.get("035")) {
+			final String val = fields.join((DataField) field, "a");
 			final Matcher matcher = REGEX_NAMESPACE_ID_PAIR.matcher(val);
 
 			if (matcher.matches()) {
@@ -404,7 +454,7 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
           // log.info("Skip duplicate system control number \"{}\"",duplicate_detection_str);
         }
 			}
-		});
+		}
 
 		return ingestRecord;
 	}
@@ -415,25 +465,32 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 		"022", "ISSN",
 		"027", "STRN");
 
+	// The tags of IDENTIFIER_FIELD_NAMESPACE, in the order they are read
+	static final List<String> IDENTIFIER_TAGS = List.of("010", "020", "022", "027");
+
 	default IngestRecordBuilder enrichWithIdentifiers(final IngestRecordBuilder ingestRecord, final Record marcRecord) {
+		return enrichWithIdentifiers(ingestRecord, MarcFieldIndex.of(marcRecord));
+	}
 
-		handleControlNumber(ingestRecord, marcRecord);
-		handleSystemControlNumber(ingestRecord, marcRecord);
+	private IngestRecordBuilder enrichWithIdentifiers(final IngestRecordBuilder ingestRecord, final MarcFieldIndex fields) {
+
+		handleControlNumber(ingestRecord, fields);
+		handleSystemControlNumber(ingestRecord, fields);
 
 		// It turns out that in some conventional cataloguing standards, the FIRST 020 or 022 has substantially more standing
 		// than subsequent values. Rather than using an indicator or a subfield this convention is positional. We use this list
 		// to be able to track the first occurrence of an identifier type. /sigh.
-		List<String> seen_identifier_types = new ArrayList<>();
+		Set<String> seen_identifier_types = new HashSet<>();
 
     // We're encountering copies of the same identifier in a record - short hand list of identifiers so we can drop duplicates
-    List <String>seen_identifiers = new ArrayList<>();
+    Set<String> seen_identifiers = new HashSet<>();
 
 		// Make a unique list of normalised ISBN13s (that contains converted normalised ISBN10 values) in order to
 		// determine if this record contains just 1 useful ISBN13.
-		Set<String> unqique_normalised_isbn13_set = new java.util.HashSet<String>();
+		Set<String> unqique_normalised_isbn13_set = new HashSet<String>();
 
-		IDENTIFIER_FIELD_NAMESPACE.keySet().stream()
-			.flatMap(tag -> marcRecord.getVariableFields(tag).stream())
+		IDENTIFIER_TAGS.stream()
+			.flatMap(tag -> fields.get(tag).stream())
 			.filter(Objects::nonNull)
 			.map(DataField.class::cast)
 			.forEach(df -> {
@@ -562,13 +619,13 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 
     Matcher m = REGEX_ISXN_VALUE.matcher(v);
     if (m.matches()) {
-		  return m.group(1).replaceAll("[^\\dXx]", "");
+		  return REGEX_NON_ISXN_CHARACTERS.matcher(m.group(1)).replaceAll("");
     }
 
     // Conservative fallback: find the first plausible ISBN token anywhere in the string.
     Matcher f = REGEX_ISBN_FALLBACK.matcher(v);
     if (f.find()) {
-  		String cleaned = f.group(1).replaceAll("[^\\dXx]", "");
+  		String cleaned = REGEX_NON_ISXN_CHARACTERS.matcher(f.group(1)).replaceAll("");
 	  	if (cleaned.length() == 10 || cleaned.length() == 13) {
 		  	return cleaned;
       }
@@ -578,7 +635,11 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
   }
 
 	default IngestRecordBuilder enrichWithGoldrush(final IngestRecordBuilder ingestRecord, final Record marcRecord) {
-		final GoldrushKey grk = getGoldrushKey(marcRecord);
+		return enrichWithGoldrush(ingestRecord, MarcFieldIndex.of(marcRecord));
+	}
+
+	private IngestRecordBuilder enrichWithGoldrush(final IngestRecordBuilder ingestRecord, final MarcFieldIndex fields) {
+		final GoldrushKey grk = getGoldrushKey(fields);
 		
 		var identifierStream = Stream.of(grk.getText())
 			.map( StringUtils::trimToNull )
@@ -666,13 +727,33 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 	
 	T convertSourceToInternalType( SourceRecord source );
 	
+	/**
+	 * Put MARC read straight from a compact payload back into the internal record. The payload given to
+	 * {@link #convertSourceToInternalType(SourceRecord)} leaves that MARC out, see SourceRecordPayloadCodec,
+	 * so sources whose internal record carries it need to override this for it to be seen by
+	 * {@link #initIngestRecordBuilder(Object)} and the rest of ingest.
+	 * 
+	 * @param internalRecord the record converted from the payload without its MARC
+	 * @param marc the MARC held in the compact payload
+	 * @return the internal record with its MARC
+	 */
+	default T withMarc( T internalRecord, Record marc ) {
+		return internalRecord;
+	}
+	
 	
 	@Override
 	default Mono<IngestRecord> convertSourceToIngestRecord( @NonNull SourceRecord source ) {
 		
 		try {
-			final T internalRecord = convertSourceToInternalType(source);
-			final Record marc = resourceToMarc(internalRecord);
+			// MARC held in binary is read straight from the payload, see SourceRecordPayloadCodec
+			final Optional<Record> compactMarc = SourceRecordPayloadCodec.readMarc(source.getSourceRecordDataCompact());
+			
+			final T internalRecord = compactMarc
+				.map( compact -> withMarc(convertSourceToInternalType(source), compact) )
+				.orElseGet(() -> convertSourceToInternalType(source));
+			
+			final Record marc = compactMarc.orElseGet(() -> resourceToMarc(internalRecord));
 			
 			return reactiveInitIngestRecordBuilder(internalRecord)
 				.map( irBuilder -> {
@@ -682,6 +763,7 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 					
 					// Set the ID
 					irBuilder.sourceRecordUuid(sid);
+					irBuilder.contentHash(source.getContentHash());
 					
 					// Add the marc detail if there is any
 					if ( marc == null ) {
@@ -723,17 +805,19 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 
 	RawSource resourceToRawSource(T resource);
 
-	private static void parseFromSingleSubfield(Record marcRecord, String fieldTag, char subField,
-			Consumer<String> consumer) {		
-		extractOrderedSubfields((DataField) marcRecord.getVariableField(fieldTag), "" + subField)
-			.filter( Objects::nonNull ) // FindFirst non null, or degrade to empty if no data or only nulls.
-			.findFirst()
+	private static void parseFromSingleSubfield(MarcFieldIndex fields, String fieldTag, char subField,
+			Consumer<String> consumer) {
+		// First non null, or nothing if no data or only nulls.
+		Optional.ofNullable(fields.firstSubfieldData(fieldTag, subField))
 			.ifPresent(consumer);
 	}
 
 	public default IngestRecordBuilder enrichWithCanonicalRecord(final IngestRecordBuilder irb, final Record marcRecord) {
+		return irb.canonicalMetadata(canonicalMetadata(irb.build(), MarcFieldIndex.of(marcRecord)));
+	}
+
+	private Map<String, Object> canonicalMetadata(final IngestRecord ir, final MarcFieldIndex fields) {
 		Map<String, Object> canonical_metadata = new HashMap<>();
-		IngestRecord ir = irb.build();
 		canonical_metadata.put("sourceRecordId", ir.getSourceRecordId());
 		canonical_metadata.put("title", ir.getTitle());
 		canonical_metadata.put("identifiers", ir.getIdentifiers());
@@ -751,25 +835,25 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
     // Increment this seq number on significant changes to see if a record needs to be boosted
 		canonical_metadata.put("dcbMarcIngestSeq", "1");
 
-		DataField seriesStatement = (DataField) marcRecord.getVariableField("490");
+		DataField seriesStatement = (DataField) fields.first("490");
 		if ( seriesStatement != null ) {
 			setIfSubfieldPresent(seriesStatement, 'a', canonical_metadata, "seriesStatement");
 		}
 
-		DataField seriesAddedEntry = (DataField) marcRecord.getVariableField("830");
+		DataField seriesAddedEntry = (DataField) fields.first("830");
 		if ( seriesAddedEntry != null ) {
 			setIfSubfieldPresent(seriesAddedEntry, 'a', canonical_metadata, "serUniformTitle");
 			setIfSubfieldPresent(seriesAddedEntry, 'v', canonical_metadata, "serSeqDesignation");
 			setIfSubfieldPresent(seriesAddedEntry, 'v', canonical_metadata, "serMedium");
 		}
 
-		DataField publisher1 = (DataField) marcRecord.getVariableField("264");
+		DataField publisher1 = (DataField) fields.first("264");
 		if (publisher1 != null) {
 			setIfSubfieldPresent(publisher1, 'a', canonical_metadata, "placeOfPublication");
 			setIfSubfieldPresent(publisher1, 'b', canonical_metadata, "publisher");
 			setIfSubfieldPresent(publisher1, 'c', canonical_metadata, "dateOfPublication");
 		} else {
-			DataField publisher2 = (DataField) marcRecord.getVariableField("260");
+			DataField publisher2 = (DataField) fields.first("260");
 			if (publisher2 != null) {
 				setIfSubfieldPresent(publisher2, 'a', canonical_metadata, "placeOfPublication");
 				setIfSubfieldPresent(publisher2, 'b', canonical_metadata, "publisher");
@@ -777,87 +861,90 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 			}
 		}
 
-		DataField title_field = (DataField) marcRecord.getVariableField("245");
+		DataField title_field = (DataField) fields.first("245");
 		if (title_field != null) {
       setIfSubfieldPresent(title_field, 'n', canonical_metadata, "titleNumberOfPart");
     }
 
-		for (VariableField vf : (List<VariableField>) marcRecord.getVariableFields("500")) {
+		for (VariableField vf : fields.get("500")) {
 			addToCanonicalMetadata("notes", vf, "a", canonical_metadata);
 		}
 
-		for (VariableField vf : (List<VariableField>) marcRecord.getVariableFields("520")) {
+		for (VariableField vf : fields.get("520")) {
 			addToCanonicalMetadata("summary", vf, "a", canonical_metadata);
 		}
 
-		for (VariableField vf : (List<VariableField>) marcRecord.getVariableFields("505")) {
+		for (VariableField vf : fields.get("505")) {
 			addToCanonicalMetadata("contents", vf, "a", canonical_metadata);
 		}
 
-		for (VariableField vf : (List<VariableField>) marcRecord.getVariableFields("504")) {
+		for (VariableField vf : fields.get("504")) {
 			addToCanonicalMetadata("bibNotes", vf, "a", canonical_metadata);
 		}
 
-		for (VariableField vf : (List<VariableField>) marcRecord.getVariableFields("490")) {
+		for (VariableField vf : fields.get("490")) {
 			addToCanonicalMetadata("series", vf, "abcdefghijklmnopqrstuvwxyz", canonical_metadata);
 		}
-		for (VariableField vf : (List<VariableField>) marcRecord.getVariableFields("830")) {
+		for (VariableField vf : fields.get("830")) {
 			addToCanonicalMetadata("series", vf, "abcdefghijklmnopqrstuvwxyz", canonical_metadata);
 		}
 
-		canonical_metadata.put("language", interpretLanguages(marcRecord));
+		canonical_metadata.put("language", interpretLanguages(fields.getRecord()));
 
 		// Extract some subject metadata
-		addToCanonicalMetadata("subjects", "600", "personal-name", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "610", "corporate-name", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "611", "meeting-name", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "630", "uniform-name", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "647", "named-event", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "648", "chronological-term", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "650", "topical-term", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "651", "topical-term", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "653", "index-term-uncontrolled", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "654", "faceted", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "655", "faceted", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "657", "faceted", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "658", "faceted", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "662", "hierarchial-place-name", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "690", "local-subject", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "691", "local-subject", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "695", "local-subject", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "696", "local-subject", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "697", "local-subject", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "698", "local-subject", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("subjects", "699", "local-subject", marcRecord, canonical_metadata);
-
-		addToCanonicalMetadata("agents", "100", "name-personal", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("agents", "110", "name-corporate", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("agents", "111", "name-meeting", marcRecord, canonical_metadata);
-
-		addToCanonicalMetadata("agents", "700", "other-personal", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("agents", "710", "other-corporate", marcRecord, canonical_metadata);
-		addToCanonicalMetadata("agents", "711", "other-meeting", marcRecord, canonical_metadata);
+		addToCanonicalMetadata("subjects", "600", "personal-name", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "610", "corporate-name", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "611", "meeting-name", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "630", "uniform-name", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "647", "named-event", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "648", "chronological-term", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "650", "topical-term", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "651", "topical-term", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "653", "index-term-uncontrolled", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "654", "faceted", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "655", "faceted", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "657", "faceted", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "658", "faceted", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "662", "hierarchial-place-name", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "690", "local-subject", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "691", "local-subject", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "695", "local-subject", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "696", "local-subject", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "697", "local-subject", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "698", "local-subject", fields, canonical_metadata);
+		addToCanonicalMetadata("subjects", "699", "local-subject", fields, canonical_metadata);
+
+		addToCanonicalMetadata("agents", "100", "name-personal", fields, canonical_metadata);
+		addToCanonicalMetadata("agents", "110", "name-corporate", fields, canonical_metadata);
+		addToCanonicalMetadata("agents", "111", "name-meeting", fields, canonical_metadata);
+
+		addToCanonicalMetadata("agents", "700", "other-personal", fields, canonical_metadata);
+		addToCanonicalMetadata("agents", "710", "other-corporate", fields, canonical_metadata);
+		addToCanonicalMetadata("agents", "711", "other-meeting", fields, canonical_metadata);
 		
 		// addToCanonicalMetadata("agents", "130", "uniform-title", marcRecord,
 		// canonical_metadata);
 
-		addToCanonicalMetadata("physical-description", "300", null, marcRecord, canonical_metadata);
-		addToCanonicalMetadata("content-type", "336", null, marcRecord, canonical_metadata);
-		addToCanonicalMetadata("media-type", "337", null, marcRecord, canonical_metadata);
+		addToCanonicalMetadata("physical-description", "300", null, fields, canonical_metadata);
+		addToCanonicalMetadata("content-type", "336", null, fields, canonical_metadata);
+		addToCanonicalMetadata("media-type", "337", null, fields, canonical_metadata);
 
-		DataField edition_field = (DataField) marcRecord.getVariableField("250");
+		DataField edition_field = (DataField) fields.first("250");
 		if (edition_field != null) {
 			canonical_metadata.put("edition", tidy(edition_field.getSubfieldsAsString("a")));
 		}
 
-		return irb.canonicalMetadata(canonical_metadata);
+		return canonical_metadata;
 	}
 
 	public default IngestRecordBuilder enrichWithMetadataScore(final IngestRecordBuilder irb, final Record marcRecord) {
-		int score = 0;
 		IngestRecord currentRecordView = irb.build();
-		
-		Map<String, Object> canonical_metadata = currentRecordView.getCanonicalMetadata();
+
+		return irb.metadataScore(metadataScore(currentRecordView.getCanonicalMetadata(), currentRecordView.getIdentifiers()));
+	}
+
+	private static int metadataScore(final Map<String, Object> canonical_metadata, final Collection<Identifier> identifiers) {
+		int score = 0;
 		
 		if (canonical_metadata != null) {
 			
@@ -873,11 +960,11 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 			score++;
 		}
 		
-		score += Optional.ofNullable(currentRecordView.getIdentifiers())
+		score += Optional.ofNullable(identifiers)
 			.map( Collection::size )
 			.orElse( 0 );
 		
-		return irb.metadataScore(score);
+		return score;
 	}
 
 	private void setIfSubfieldPresent(DataField f, char subfield, Map<String, Object> target, String key) {
@@ -912,7 +999,7 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 		}
 	}
 
-	private void addToCanonicalMetadata(String property, String tag, String subtype, Record marcRecord,
+	private void addToCanonicalMetadata(String property, String tag, String subtype, MarcFieldIndex fields,
 			Map<String, Object> canonical_metadata) {
 
 		@SuppressWarnings("unchecked")
@@ -921,7 +1008,7 @@ public interface MarcIngestSource<T> extends IngestSource, SourceToIngestRecordC
 		if (the_values == null)
 			the_values = new ArrayList<>();
 
-		for (VariableField vf : marcRecord.getVariableFields(tag)) {
+		for (VariableField vf : fields.get(tag)) {
 			DataField df = (DataField) vf;
 			Map<String, String> the_entry = new HashMap<>();
 			if (subtype != null)
@@ -85,6 +85,9 @@ public class IngestRecord implements CoreBibliographicMetadata {
 	@Nullable
   UUID sourceRecordUuid;
 
+	@Nullable
+	String contentHash;
+
 //  @Nullable String edition();
 //  List<PublicationInformation> publicationInformation();
 //  List<Description> descriptions();
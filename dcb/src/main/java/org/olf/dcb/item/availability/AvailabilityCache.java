@@ -0,0 +1,217 @@
+package org.olf.dcb.item.availability;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.olf.dcb.core.interaction.HostLmsClient;
+import org.olf.dcb.core.model.BibRecord;
+import org.olf.dcb.core.model.Item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.map.IMap;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.serde.ObjectMapper;
+import io.micronaut.serde.annotation.Serdeable;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Two tier cache of live availability reports, keyed by bib.
+ *
+ * Reports are held as fetched from the Host LMS, before any filters are applied, so each
+ * caller can filter them for itself. Callers are given their own copies of the items, as
+ * they go on to be modified.
+ *
+ * The first tier is node local and bounded by the total number of items held. When distributed,
+ * reports are also written to a hazelcast map so that a lookup made by one node can be served by
+ * the others. Entries in the shared tier are held as JSON, and any entry that can't be read back
+ * is treated as absent.
+ */
+@Slf4j
+@Singleton
+public class AvailabilityCache {
+
+	public static enum Freshness {
+		FRESH,
+		STALE,
+		EXPIRED
+	}
+
+	static final String METRIC_NAME = "dcb.availability.cache";
+	private static final String SHARED_MAP_NAME = "dcb-availability";
+
+	private final AvailabilityCacheConfig config;
+	private final MeterRegistry meterRegistry;
+	private final BeanProvider<HazelcastInstance> hazelcast;
+	private final ObjectMapper objectMapper;
+
+	private final Cache<String, CachedAvailability> local;
+
+	// Bibs with a background refresh in flight, so a burst of stale reads triggers one lookup.
+	private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+	private volatile IMap<String, byte[]> shared;
+
+	public AvailabilityCache(AvailabilityCacheConfig config, MeterRegistry meterRegistry,
+			BeanProvider<HazelcastInstance> hazelcast, ObjectMapper objectMapper) {
+		this.config = config;
+		this.meterRegistry = meterRegistry;
+		this.hazelcast = hazelcast;
+		this.objectMapper = objectMapper;
+
+		this.local = Caffeine.newBuilder()
+			.maximumWeight(config.getMaxItems())
+			.weigher((String _key, CachedAvailability value) -> value.weight())
+			.expireAfterWrite(config.getRetention())
+			.build();
+	}
+
+	/**
+	 * How long reports from the given Host LMS should be served without a live lookup.
+	 * Uses the Host LMS specific setting when present, otherwise the configured default.
+	 */
+	public Duration ttlFor(@NonNull HostLmsClient hostLms) {
+		final Object configured = hostLms.getConfig() != null
+			? hostLms.getConfig().get(AvailabilityCacheConfig.HOST_LMS_TTL_KEY)
+			: null;
+
+		if (configured == null) return config.getDefaultTtl();
+
+		try {
+			return Duration.parse(configured.toString());
+		} catch (RuntimeException e) {
+			log.warn("Invalid [{}] value [{}] for host lms [{}], using default",
+				AvailabilityCacheConfig.HOST_LMS_TTL_KEY, configured, hostLms.getHostLmsCode());
+			return config.getDefaultTtl();
+		}
+	}
+
+	public Freshness freshness(@NonNull CachedAvailability cached, @NonNull Duration ttl) {
+		final Duration age = Duration.between(cached.fetched(), Instant.now());
+
+		if (age.compareTo(ttl) < 0) return Freshness.FRESH;
+		if (age.compareTo(ttl.plus(config.getStaleWhileRevalidate())) < 0) return Freshness.STALE;
+
+		return Freshness.EXPIRED;
+	}
+
+	/**
+	 * Find the cached report for the bib, checking the local tier before the shared one.
+	 *
+	 * @return The cached report or empty if not held by either tier
+	 */
+	public Mono<CachedAvailability> get(@NonNull BibRecord bib) {
+		final String key = keyFor(bib);
+
+		return Mono.defer(() -> Mono.justOrEmpty(local.getIfPresent(key)))
+			.switchIfEmpty(Mono.defer(() -> getShared(key)));
+	}
+
+	public void put(@NonNull BibRecord bib, @NonNull AvailabilityReport report) {
+		final String key = keyFor(bib);
+		final CachedAvailability cached = new CachedAvailability(copyOf(report.getItems()), Instant.now());
+
+		local.put(key, cached);
+		putShared(key, cached);
+	}
+
+	/**
+	 * Claim the background refresh of the bib.
+	 *
+	 * @return false if a refresh is already in progress
+	 */
+	public boolean beginRefresh(@NonNull BibRecord bib) {
+		return refreshing.add(keyFor(bib));
+	}
+
+	public void endRefresh(@NonNull BibRecord bib) {
+		refreshing.remove(keyFor(bib));
+	}
+
+	public void record(@NonNull String result, @NonNull String hostLmsCode) {
+		meterRegistry.counter(METRIC_NAME, "result", result, "lms", hostLmsCode).increment();
+	}
+
+	private static List<Item> copyOf(List<Item> items) {
+		if (items == null) return List.of();
+
+		return items.stream()
+			.map(item -> item.toBuilder().build())
+			.toList();
+	}
+
+	private static String keyFor(BibRecord bib) {
+		return bib.getId().toString();
+	}
+
+	private IMap<String, byte[]> sharedMap() {
+		if (!config.isDistributed() || !hazelcast.isPresent()) return null;
+
+		if (shared == null) {
+			synchronized (this) {
+				if (shared == null) {
+					shared = hazelcast.get().getMap(SHARED_MAP_NAME);
+				}
+			}
+		}
+
+		return shared;
+	}
+
+	private Mono<CachedAvailability> getShared(String key) {
+		final IMap<String, byte[]> map = sharedMap();
+		if (map == null) return Mono.empty();
+
+		return Mono.fromCompletionStage(() -> map.getAsync(key))
+			.mapNotNull(this::read)
+			.doOnNext(cached -> local.put(key, cached))
+			.onErrorResume(error -> {
+				log.warn("Unable to read availability for [{}] from the shared cache", key, error);
+				return Mono.empty();
+			});
+	}
+
+	private void putShared(String key, CachedAvailability cached) {
+		final IMap<String, byte[]> map = sharedMap();
+		if (map == null) return;
+
+		try {
+			map.setAsync(key, objectMapper.writeValueAsBytes(cached),
+				config.getRetention().toMillis(), MILLISECONDS);
+		} catch (IOException | RuntimeException e) {
+			log.warn("Unable to write availability for [{}] to the shared cache", key, e);
+		}
+	}
+
+	private CachedAvailability read(byte[] bytes) {
+		try {
+			return objectMapper.readValue(bytes, CachedAvailability.class);
+		} catch (IOException | RuntimeException e) {
+			log.debug("Discarding unreadable shared availability entry", e);
+			return null;
+		}
+	}
+
+	@Serdeable
+	public static record CachedAvailability(List<Item> items, Instant fetched) {
+		public AvailabilityReport report() {
+			return AvailabilityReport.ofItems(copyOf(items));
+		}
+
+		int weight() {
+			return (items != null ? items.size() : 0) + 1;
+		}
+	}
+}
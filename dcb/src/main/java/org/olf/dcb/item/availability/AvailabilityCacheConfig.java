@@ -0,0 +1,50 @@
+package org.olf.dcb.item.availability;
+
+import java.time.Duration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+
+@ConfigurationProperties(AvailabilityCacheConfig.PREFIX)
+public interface AvailabilityCacheConfig {
+	public static final String PREFIX = "dcb.availability.cache";
+
+	/**
+	 * Host LMS client config key used to override {@link #getDefaultTtl()} for a single system.
+	 */
+	public static final String HOST_LMS_TTL_KEY = "availability-cache-ttl";
+
+	/**
+	 * Upper bound on the total number of items held in the node local tier. Each report
+	 * is weighed by its item count, so a bib with many copies costs proportionally more.
+	 */
+	@Bindable(defaultValue = "200000")
+	long getMaxItems();
+
+	/**
+	 * How long a report is retained at all. Reports older than the TTL are still used
+	 * as the fallback when a live lookup times out, until they reach this age.
+	 */
+	@Bindable(defaultValue = "P1D")
+	Duration getRetention();
+
+	/**
+	 * How long a cached report is served in place of a live lookup. Zero always goes
+	 * to the Host LMS, only using the cache when a lookup times out.
+	 */
+	@Bindable(defaultValue = "PT0S")
+	Duration getDefaultTtl();
+
+	/**
+	 * Window beyond the TTL in which a cached report is still served, while a
+	 * replacement is fetched in the background.
+	 */
+	@Bindable(defaultValue = "PT2M")
+	Duration getStaleWhileRevalidate();
+
+	/**
+	 * Share cached reports between nodes via hazelcast.
+	 */
+	@Bindable(defaultValue = "false")
+	boolean isDistributed();
+}
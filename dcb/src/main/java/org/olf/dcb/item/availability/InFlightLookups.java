@@ -0,0 +1,95 @@
+package org.olf.dcb.item.availability;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Lookups currently in progress, shared by concurrent callers asking for the same key. The result is
+ * held once it arrives, so a caller joining just as a lookup finishes is still given it rather than
+ * nothing. The lookup is only cancelled once every caller sharing it has cancelled.
+ */
+final class InFlightLookups<K, T> {
+
+	private final Map<K, SharedLookup> inFlight = new ConcurrentHashMap<>();
+	private final Consumer<K> onJoin;
+
+	InFlightLookups(Consumer<K> onJoin) {
+		this.onJoin = onJoin;
+	}
+
+	/**
+	 * @return the result of the lookup in progress for the key, starting one with the supplier if there is none
+	 */
+	Mono<T> get(K key, Supplier<Mono<T>> lookup) {
+		return Mono.defer(() -> {
+			final var started = new SharedLookup(key, lookup);
+			final var existing = inFlight.putIfAbsent(key, started);
+			final var shared = existing == null ? started : existing;
+
+			// Every caller of a lookup cancelled it just before this one joined, start again
+			if (!shared.join()) {
+				inFlight.remove(key, shared);
+				return get(key, lookup);
+			}
+
+			if (existing != null) onJoin.accept(key);
+
+			return shared.result.asMono()
+				.doOnCancel(shared::leave);
+		});
+	}
+
+	int size() {
+		return inFlight.size();
+	}
+
+	private final class SharedLookup {
+		private final K key;
+		private final Supplier<Mono<T>> lookup;
+		private final Sinks.One<T> result = Sinks.one();
+
+		private int callers = 0;
+		private boolean done = false;
+		private boolean cancelled = false;
+		private Disposable upstream;
+
+		private SharedLookup(K key, Supplier<Mono<T>> lookup) {
+			this.key = key;
+			this.lookup = lookup;
+		}
+
+		private synchronized boolean join() {
+			if (cancelled) return false;
+
+			callers++;
+			if (upstream == null) {
+				upstream = Mono.defer(lookup)
+					// The result is held by the sink, so callers arriving after this start a fresh lookup
+					.doFinally(_signal -> finish())
+					.subscribe(result::tryEmitValue, result::tryEmitError, result::tryEmitEmpty);
+			}
+			return true;
+		}
+
+		private synchronized void leave() {
+			if (--callers > 0 || done) return;
+
+			cancelled = true;
+			inFlight.remove(key, this);
+			if (upstream != null) upstream.dispose();
+		}
+
+		private void finish() {
+			synchronized (this) {
+				done = true;
+			}
+			inFlight.remove(key, this);
+		}
+	}
+}
@@ -0,0 +1,256 @@
+package org.olf.dcb.item.availability;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.olf.dcb.core.interaction.HostLmsClient;
+import org.olf.dcb.core.model.BibRecord;
+import org.olf.dcb.core.model.Item;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Groups item lookups for bibs from the same Host LMS into batches, for systems that can
+ * look up items for several bibs in a single request.
+ *
+ * A lookup made while no other request is in progress for the Host LMS is sent straight away.
+ * Lookups arriving while one is in progress are held back for a short linger period, or until
+ * the batch is full, and then sent together. Bibs missing from the batch response, or in a batch
+ * the Host LMS could not answer, are looked up individually. Any other failure is passed to every
+ * lookup in the batch. The request is cancelled once every lookup waiting on it has been cancelled.
+ */
+@Slf4j
+@Singleton
+public class ItemLookupBatcher {
+
+	static final String METRIC_NAME = "dcb.availability.batch";
+
+	private final Duration linger;
+	private final MeterRegistry meterRegistry;
+
+	// Batches still accepting lookups, and the number of requests in progress, keyed by Host LMS.
+	// Both are guarded by synchronizing on the pending map, as is the state of each batch.
+	private final Map<String, PendingBatch> pending = new HashMap<>();
+	private final Map<String, Integer> requestsInProgress = new HashMap<>();
+
+	public ItemLookupBatcher(@Value("${dcb.availability.batch.linger:PT0.025S}") Duration linger,
+			MeterRegistry meterRegistry) {
+		this.linger = linger;
+		this.meterRegistry = meterRegistry;
+	}
+
+	public Mono<List<Item>> getItems(BibRecord bib, HostLmsClient hostLms) {
+		final int batchSize = hostLms.getItemsBatchSize();
+		if (batchSize <= 1) {
+			return hostLms.getItems(bib);
+		}
+
+		return Mono.defer(() -> enqueue(bib, hostLms, batchSize));
+	}
+
+	private Mono<List<Item>> enqueue(BibRecord bib, HostLmsClient hostLms, int batchSize) {
+		final String key = hostLms.getHostLmsCode();
+		final Lookup lookup = new Lookup(bib);
+
+		final PendingBatch batch;
+		final boolean full;
+		synchronized (pending) {
+			// Nothing to wait for, so there is no reason to hold this one back.
+			if (!pending.containsKey(key) && requestsInProgress.getOrDefault(key, 0) == 0) {
+				requestStarted(key);
+
+				return hostLms.getItems(bib)
+					.doFinally(_signal -> requestFinished(key));
+			}
+
+			batch = pending.computeIfAbsent(key, _k -> startBatch(key, hostLms));
+			batch.lookups.add(lookup);
+
+			full = batch.lookups.size() >= batchSize;
+			if (full) {
+				takeForSending(batch);
+			}
+		}
+
+		if (full) {
+			send(batch);
+		}
+
+		return lookup.result.asMono()
+			.doOnCancel(() -> cancel(batch, lookup));
+	}
+
+	// Must hold the pending lock.
+	private PendingBatch startBatch(String key, HostLmsClient hostLms) {
+		final PendingBatch batch = new PendingBatch(key, hostLms);
+
+		batch.linger = Mono.delay(linger)
+			.subscribe(_tick -> {
+				final boolean expired;
+				synchronized (pending) {
+					expired = pending.get(key) == batch;
+					if (expired) {
+						takeForSending(batch);
+					}
+				}
+
+				if (expired) {
+					send(batch);
+				}
+			});
+
+		return batch;
+	}
+
+	// Must hold the pending lock.
+	private void takeForSending(PendingBatch batch) {
+		pending.remove(batch.key, batch);
+		batch.linger.dispose();
+		batch.sent = true;
+	}
+
+	private void send(PendingBatch batch) {
+		final HostLmsClient hostLms = batch.hostLms;
+		final List<Lookup> lookups = batch.lookups;
+
+		// Nothing else turned up in time, so there is no benefit in a batch request.
+		if (lookups.size() == 1) {
+			lookupIndividually(hostLms, lookups.get(0));
+			return;
+		}
+
+		DistributionSummary.builder(METRIC_NAME + ".size")
+			.tag("lms", hostLms.getHostLmsCode())
+			.register(meterRegistry)
+			.record(lookups.size());
+
+		synchronized (pending) {
+			requestStarted(batch.key);
+		}
+
+		final Disposable request = hostLms.getItems(lookups.stream().map(Lookup::bib).toList())
+			.doFinally(_signal -> requestFinished(batch.key))
+			.subscribe(
+				itemsByBib -> lookups.forEach(lookup -> {
+					final List<Item> items = itemsByBib.get(lookup.bib.getSourceRecordId());
+					if (items != null) {
+						lookup.result.tryEmitValue(items);
+					} else {
+						// Not accounted for in the batch response, so ask for it on its own.
+						lookupIndividually(hostLms, lookup);
+					}
+				}),
+				error -> {
+					if (error instanceof UnsupportedOperationException) {
+						log.warn("Host lms [{}] could not look up a batch of [{}] bibs, looking each up individually",
+							hostLms.getHostLmsCode(), lookups.size(), error);
+
+						meterRegistry.counter(METRIC_NAME + ".fallback", "lms", hostLms.getHostLmsCode()).increment();
+						lookups.forEach(lookup -> lookupIndividually(hostLms, lookup));
+					} else {
+						// Asking for each bib again would only multiply the load on a struggling system.
+						lookups.forEach(lookup -> lookup.result.tryEmitError(error));
+					}
+				});
+
+		synchronized (pending) {
+			batch.request = request;
+			if (batch.allCancelled()) {
+				request.dispose();
+			}
+		}
+	}
+
+	private void lookupIndividually(HostLmsClient hostLms, Lookup lookup) {
+		final Disposable request = hostLms.getItems(lookup.bib)
+			.subscribe(
+				items -> lookup.result.tryEmitValue(items),
+				error -> lookup.result.tryEmitError(error),
+				() -> lookup.result.tryEmitEmpty());
+
+		synchronized (pending) {
+			lookup.request = request;
+			if (lookup.cancelled) {
+				request.dispose();
+			}
+		}
+	}
+
+	private void cancel(PendingBatch batch, Lookup lookup) {
+		synchronized (pending) {
+			lookup.cancelled = true;
+
+			if (!batch.sent) {
+				batch.lookups.remove(lookup);
+				if (batch.lookups.isEmpty() && pending.remove(batch.key, batch)) {
+					batch.linger.dispose();
+				}
+				return;
+			}
+
+			if (lookup.request != null) {
+				lookup.request.dispose();
+			}
+
+			if (batch.request != null && batch.allCancelled()) {
+				batch.request.dispose();
+			}
+		}
+	}
+
+	// Must hold the pending lock.
+	private void requestStarted(String key) {
+		requestsInProgress.merge(key, 1, Integer::sum);
+	}
+
+	private void requestFinished(String key) {
+		synchronized (pending) {
+			requestsInProgress.computeIfPresent(key, (_k, count) -> count > 1 ? count - 1 : null);
+		}
+	}
+
+	private static final class Lookup {
+		private final BibRecord bib;
+		private final Sinks.One<List<Item>> result = Sinks.one();
+
+		private boolean cancelled = false;
+		private Disposable request;
+
+		private Lookup(BibRecord bib) {
+			this.bib = bib;
+		}
+
+		private BibRecord bib() {
+			return bib;
+		}
+	}
+
+	private static final class PendingBatch {
+		private final String key;
+		private final HostLmsClient hostLms;
+		private final List<Lookup> lookups = new ArrayList<>();
+
+		private boolean sent = false;
+		private Disposable linger;
+		private Disposable request;
+
+		private PendingBatch(String key, HostLmsClient hostLms) {
+			this.key = key;
+			this.hostLms = hostLms;
+		}
+
+		private boolean allCancelled() {
+			return lookups.stream().allMatch(lookup -> lookup.cancelled);
+		}
+	}
+}
@@ -25,14 +25,12 @@ import org.olf.dcb.core.interaction.HostLmsClient;
 import org.olf.dcb.core.model.BibRecord;
 import org.olf.dcb.core.model.Item;
 import org.olf.dcb.core.svc.LocationService;
+import org.olf.dcb.item.availability.AvailabilityCache.CachedAvailability;
 import org.olf.dcb.request.resolution.AvailabilityDateCalculator;
 import org.olf.dcb.request.resolution.CannotFindClusterRecordException;
 import org.olf.dcb.request.resolution.ClusteredBib;
 import org.olf.dcb.request.resolution.SharedIndexService;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
-
 import io.micrometer.common.lang.NonNull;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Tag;
@@ -56,13 +54,14 @@ public class LiveAvailabilityService {
 	private final LocationService locationService;
 	private final MeterRegistry meterRegistry; 
 	private final BeanProvider<AvailabilityCheckJob> availability;
+	private final AvailabilityCache availabilityCache;
+	private final ItemLookupBatcher itemLookupBatcher;
 	
 	private static final String METRIC_NAME = "dcb.availability";
-	
-	final Cache<String, AvailabilityReport> availabilityCache = Caffeine.newBuilder()
-			.maximumSize(1_000) // Maximum number of entries
-			.expireAfterAccess(Duration.ofDays(1)) // Consider 24 hour old data to be stale enough for complete eviction
-			.build();
+	private static final String COALESCED_METRIC_NAME = METRIC_NAME + ".coalesced";
+
+	// Host LMS lookups currently in progress, shared by concurrent callers asking for the same bib.
+	private final InFlightLookups<InFlightKey, List<Item>> inFlight = new InFlightLookups<>(this::countJoined);
 
 	private Flux<BibRecord> getClusterMembers(UUID clusteredBibId, boolean includeDeleted) {
 		return sharedIndexService.findClusteredBib(clusteredBibId, includeDeleted)
@@ -98,9 +97,8 @@ public class LiveAvailabilityService {
 			.flatMap( ar -> tryAndUpdateCounts(bib, ar) )
 			.filter(this::shouldCache)
 			.map( ar -> {
-				String bibIdStr = bib.getId().toString();
-				log.debug("Caching availability for bibId: [{}]", bibIdStr);
-				availabilityCache.put(bibIdStr, ar);
+				log.debug("Caching availability for bibId: [{}]", bib.getId());
+				availabilityCache.put(bib, ar);
 				return ar;
 			})
 			
@@ -118,6 +116,24 @@ public class LiveAvailabilityService {
 		return checkBibAvailabilityAtHost(bib, emptyList(), options);
 	}
 
+	/**
+	 * Fetch the current availability of the bib from its Host LMS, bypassing the cache. The counts and
+	 * cached report are updated from the result, as they are for any other live lookup.
+	 *
+	 * No filters are applied to the report returned. Writing it to the shared cache is still safe for
+	 * discovery callers, as the cache always holds reports from before filtering and each caller's
+	 * filters are applied to what it reads from there.
+	 */
+	public Mono<AvailabilityReport> refreshBibAvailability(BibRecord bib, Duration timeout) {
+		final var options = AvailabilityOptions.builder()
+			.timeout(ofNullable(timeout))
+			.filters(Optional.of("none"))
+			.ignoreCache(true)
+			.build();
+
+		return checkBibAvailabilityAtHost(bib, emptyList(), options);
+	}
+
 	public Mono<AvailabilityReport> checkAvailability(UUID clusteredBibId,
 		AvailabilityOptions options) {
 
@@ -203,6 +219,20 @@ public class LiveAvailabilityService {
 		return item -> ( (filters.orElse("all").equalsIgnoreCase("none" ) ) || filterPredicate.test(item) );
 	}
 
+	private AvailabilityReport applyFilters(Optional<String> filters, AvailabilityReport report) {
+		final var items = report.getItems().stream()
+			.filter(conditionallyFilter(filters, Item::notSuppressed))
+			.filter(conditionallyFilter(filters, Item::notDeleted))
+			.filter(conditionallyFilter(filters, Item::hasAgency))
+			.filter(conditionallyFilter(filters, Item::hasHostLms))
+			.filter(conditionallyFilter(filters, Item::AgencyIsSupplying))
+			.toList();
+
+		return report.toBuilder()
+			.items(items)
+			.build();
+	}
+
 	private Mono<AvailabilityReport> checkBibAvailabilityAtHost(BibRecord bib,
 		List<Tag> parentTags, HostLmsClient hostLms, AvailabilityOptions options) {
 
@@ -216,16 +246,12 @@ public class LiveAvailabilityService {
 		commonTags.addAll(parentTags);
 		
 		final var liveData = Mono.defer( () -> Mono.just(System.nanoTime()) )
-			.flatMap( start -> hostLms.getItems(bib)
+			.flatMap( start -> getItemsCoalesced(bib, hostLms)
 					.flatMapIterable(identity())
 					.flatMap(this::memoizeLocationFromItem)
-					.filter(conditionallyFilter(filters, Item::notSuppressed))
-					.filter(conditionallyFilter(filters, Item::notDeleted))
-					.filter(conditionallyFilter(filters, Item::hasAgency))
-					.filter(conditionallyFilter(filters, Item::hasHostLms))
-					.filter(conditionallyFilter(filters, Item::AgencyIsSupplying))
 					.collectList()
 					.map(AvailabilityReport::ofItems)
+					// Cached before filtering, as the cache is shared by callers asking for different filters
 					.flatMap(Functions.curry(bib, this::addValueToCache))
 					.map( report -> {
 						final long elapsed = System.nanoTime() - start;
@@ -249,11 +275,79 @@ public class LiveAvailabilityService {
 					})))
 			.cache();
 		
-		return timeout
+		final var lookup = timeout
 			.map(timeoutSet -> liveData.transformDeferred(addCacheFallback(timeoutSet, bib, hostLms, ignoreCache)))
 			.orElse(liveData);
+
+		final Duration ttl = availabilityCache.ttlFor(hostLms);
+		if (Boolean.TRUE.equals(ignoreCache) || ttl.isZero()) {
+			return lookup.map(report -> applyFilters(filters, report));
+		}
+
+		return fromCacheOrLookup(bib, hostLms, ttl, liveData, lookup)
+			.map(report -> applyFilters(filters, report));
+	}
+
+	private Mono<AvailabilityReport> fromCacheOrLookup(BibRecord bib, HostLmsClient hostLms,
+		Duration ttl, Mono<AvailabilityReport> liveData, Mono<AvailabilityReport> lookup) {
+
+		final String hostLmsCode = hostLms.getHostLmsCode();
+		return availabilityCache.get(bib)
+			.flatMap(cached -> switch (availabilityCache.freshness(cached, ttl)) {
+				case FRESH -> {
+					availabilityCache.record("hit", hostLmsCode);
+					yield Mono.just(cached.report());
+				}
+				case STALE -> {
+					availabilityCache.record("stale", hostLmsCode);
+					refreshInBackground(bib, hostLmsCode, liveData);
+					yield Mono.just(cached.report());
+				}
+				case EXPIRED -> Mono.<AvailabilityReport>empty();
+			})
+			.switchIfEmpty(Mono.defer(() -> {
+				availabilityCache.record("miss", hostLmsCode);
+				return lookup;
+			}));
+	}
+
+	// Serve the stale report now and replace it once the live lookup completes.
+	private void refreshInBackground(BibRecord bib, String hostLmsCode, Mono<AvailabilityReport> liveData) {
+		if (!availabilityCache.beginRefresh(bib)) return;
+
+		availabilityCache.record("refresh", hostLmsCode);
+		log.debug("Refreshing stale availability for bib [{}] from host lms [{}]", bib.getId(), hostLmsCode);
+
+		liveData
+			.doFinally(_signal -> availabilityCache.endRefresh(bib))
+			.subscribe(
+				_report -> {},
+				error -> log.warn("Background availability refresh failed for bib [{}]", bib.getId(), error));
 	}
 
+	/**
+	 * Fetch the items for the bib from the Host LMS, joining a lookup for the same record that is already
+	 * in progress rather than starting another. Lookups for other bibs from the same Host LMS may be
+	 * sent with it as a batch, see {@link ItemLookupBatcher}. The upstream call is only cancelled once every caller
+	 * sharing it has cancelled, so a caller giving up early (e.g. on timeout) does not fail the others.
+	 * Each caller is given its own copies of the items, as they are modified further down the chain.
+	 */
+	private Mono<List<Item>> getItemsCoalesced(BibRecord bib, HostLmsClient hostLms) {
+		final var key = new InFlightKey(hostLms.getHostLmsCode(), bib.getSourceRecordId());
+
+		return inFlight.get(key, () -> itemLookupBatcher.getItems(bib, hostLms))
+			.map(items -> items.stream()
+				.map(item -> item.toBuilder().build())
+				.toList());
+	}
+
+	private void countJoined(InFlightKey key) {
+		log.debug("Joining in flight lookup of [{}] at host lms [{}]", key.sourceRecordId(), key.hostLmsCode());
+		meterRegistry.counter(COALESCED_METRIC_NAME, "lms", key.hostLmsCode()).increment();
+	}
+
+	private static record InFlightKey(String hostLmsCode, String sourceRecordId) {}
+
 	private Mono<Item> memoizeLocationFromItem(Item item) {
 
 		if ( item.getLocation() == null )
@@ -294,8 +388,8 @@ public class LiveAvailabilityService {
 	}
 	
 	private Mono<AvailabilityReport> getFromCache(BibRecord bib) {
-		return Mono.just(bib.getId().toString())
-			.mapNotNull(availabilityCache::getIfPresent);
+		return availabilityCache.get(bib)
+			.map(CachedAvailability::report);
 //			.map( this::modifyCachedRecord );
 	}
 	
@@ -0,0 +1,23 @@
+package org.olf.dcb.metrics;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import io.micronaut.aop.Around;
+
+/**
+ * Time the reactive operations a {@link org.olf.dcb.core.interaction.HostLmsClient} exposes,
+ * from subscription until the publisher terminates.
+ *
+ * @see HostLmsClientMetricsInterceptor
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(TYPE)
+@Around
+public @interface HostLmsClientMetrics {
+}
@@ -0,0 +1,112 @@
+package org.olf.dcb.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.olf.dcb.core.interaction.HostLmsClient;
+import org.reactivestreams.Publisher;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.aop.InterceptorBean;
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Records how long each Host LMS operation takes, tagged by the Host LMS, the operation and the
+ * outcome.
+ *
+ * Only methods declared on {@link HostLmsClient} that return a publisher are timed. The clock
+ * starts when the publisher is subscribed to, not when the method is called, so the time
+ * includes every request the client makes to satisfy the operation.
+ */
+@Singleton
+@InterceptorBean(HostLmsClientMetrics.class)
+public class HostLmsClientMetricsInterceptor implements MethodInterceptor<Object, Object> {
+
+	static final String METRIC_NAME = "dcb.hostlms.client.operation";
+
+	private static final Set<String> OPERATIONS = Arrays.stream(HostLmsClient.class.getMethods())
+		.map(Method::getName)
+		.collect(Collectors.toUnmodifiableSet());
+
+	private final MeterRegistry meterRegistry;
+
+	public HostLmsClientMetricsInterceptor(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public Object intercept(MethodInvocationContext<Object, Object> context) {
+		final String operation = context.getMethodName();
+
+		if (!(context.getTarget() instanceof HostLmsClient client)
+				|| !OPERATIONS.contains(operation)
+				|| !Publisher.class.isAssignableFrom(context.getReturnType().getType())) {
+
+			return context.proceed();
+		}
+
+		final String lms = client.getHostLmsCode();
+		final Object result;
+		try {
+			result = context.proceed();
+		}
+		catch (RuntimeException e) {
+			timer(lms, operation, "error").record(0, TimeUnit.NANOSECONDS);
+			throw e;
+		}
+
+		if (result instanceof Mono<?> mono) {
+			return Mono.defer(() -> {
+				final long start = System.nanoTime();
+				final boolean[] emitted = { false };
+
+				return mono
+					.doOnNext(_v -> emitted[0] = true)
+					.doFinally(signal -> record(lms, operation, signal, emitted[0], start));
+			});
+		}
+
+		if (result instanceof Publisher<?> publisher) {
+			// Flux is assignable to any declared publisher type other than Mono.
+			return Flux.defer(() -> {
+				final long start = System.nanoTime();
+				final boolean[] emitted = { false };
+
+				return Flux.from(publisher)
+					.doOnNext(_v -> emitted[0] = true)
+					.doFinally(signal -> record(lms, operation, signal, emitted[0], start));
+			});
+		}
+
+		return result;
+	}
+
+	private void record(String lms, String operation, SignalType signal, boolean emitted, long start) {
+		final String outcome = switch (signal) {
+			case ON_ERROR -> "error";
+			// The operation didn't finish, even if the subscriber had what it needed by then
+			case CANCEL -> "cancelled";
+			default -> emitted ? "success" : "empty";
+		};
+
+		timer(lms, operation, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	private Timer timer(String lms, String operation, String outcome) {
+		return Timer.builder(METRIC_NAME)
+			.tag("lms", lms != null ? lms : "unknown")
+			.tag("operation", operation)
+			.tag("outcome", outcome)
+			.publishPercentiles(0.5, 0.95, 0.99)
+			.register(meterRegistry);
+	}
+}
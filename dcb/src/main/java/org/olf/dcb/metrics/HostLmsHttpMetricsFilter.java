@@ -0,0 +1,114 @@
+package org.olf.dcb.metrics;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.reactivestreams.Publisher;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.client.exceptions.HttpClientResponseException;
+import io.micronaut.http.filter.ClientFilterChain;
+import io.micronaut.http.filter.HttpClientFilter;
+import reactor.core.publisher.Flux;
+
+/**
+ * Times each HTTP request made to a Host LMS, from the point the request is sent until the
+ * response arrives, and records the size of the response.
+ *
+ * Only requests marked with {@link #forHostLms(HttpRequest, String)} are measured. Response
+ * sizes are taken from the Content-Length header, so chunked responses are not counted.
+ */
+@Filter("/**")
+public class HostLmsHttpMetricsFilter implements HttpClientFilter {
+
+	static final String METRIC_NAME = "dcb.hostlms.client.http";
+
+	private static final String HOST_LMS_ATTRIBUTE = "dcb.metrics.host-lms";
+
+	public static <T extends HttpRequest<?>> T forHostLms(T request, @Nullable String hostLmsCode) {
+		if (hostLmsCode != null) {
+			request.setAttribute(HOST_LMS_ATTRIBUTE, hostLmsCode);
+		}
+		return request;
+	}
+
+	private final MeterRegistry meterRegistry;
+
+	public HostLmsHttpMetricsFilter(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public Publisher<? extends HttpResponse<?>> doFilter(MutableHttpRequest<?> request, ClientFilterChain chain) {
+		final Optional<String> lms = request.getAttribute(HOST_LMS_ATTRIBUTE, String.class);
+		if (lms.isEmpty()) {
+			return chain.proceed(request);
+		}
+
+		final String method = request.getMethodName();
+
+		return Flux.defer(() -> {
+			final long start = System.nanoTime();
+			final AtomicBoolean recorded = new AtomicBoolean();
+
+			return Flux.from(chain.proceed(request))
+				.doOnNext(response -> {
+					if (recorded.compareAndSet(false, true)) {
+						record(lms.get(), method, String.valueOf(response.code()), start, response);
+					}
+				})
+				.doOnError(error -> {
+					if (recorded.compareAndSet(false, true)) {
+						if (error instanceof HttpClientResponseException responseError) {
+							record(lms.get(), method, String.valueOf(responseError.getResponse().code()), start,
+								responseError.getResponse());
+						} else {
+							record(lms.get(), method, "error", start, null);
+						}
+					}
+				})
+				.doOnCancel(() -> {
+					if (recorded.compareAndSet(false, true)) {
+						record(lms.get(), method, "cancelled", start, null);
+					}
+				});
+		});
+	}
+
+	private void record(String lms, String method, String status, long start, @Nullable HttpResponse<?> response) {
+		Timer.builder(METRIC_NAME)
+			.tag("lms", lms)
+			.tag("method", method)
+			.tag("status", status)
+			.publishPercentiles(0.5, 0.95, 0.99)
+			.register(meterRegistry)
+			.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+		if (response != null) {
+			response.getHeaders().contentLength().ifPresent(size ->
+				DistributionSummary.builder(METRIC_NAME + ".response.size")
+					.baseUnit("bytes")
+					.tag("lms", lms)
+					.tag("method", method)
+					.publishPercentiles(0.5, 0.95, 0.99)
+					.register(meterRegistry)
+					.record(size));
+		}
+	}
+
+	// Run closest to the network so that time spent in other filters, such as fetching
+	// authentication tokens, is not counted against the request.
+	@Override
+	public int getOrder() {
+		return Ordered.LOWEST_PRECEDENCE;
+	}
+}
@@ -0,0 +1,160 @@
+package org.olf.dcb.request.fulfilment;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.olf.dcb.core.model.PatronRequestAudit;
+import org.olf.dcb.storage.PatronRequestAuditRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Holds back audits that can be written after the fact and writes them in batches, either
+ * once enough are waiting or when the flush interval passes, whichever comes first.
+ *
+ * Buffered audits are written on a best effort basis. Those still waiting when the node stops
+ * are written during shutdown, but are lost if the node dies. Audits that must commit along
+ * with the change they describe should be saved directly instead.
+ */
+@Slf4j
+@Singleton
+public class PatronRequestAuditBuffer {
+
+	static final String METRIC_NAME = "dcb.audit.write-behind";
+
+	private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+	private static final Duration SHUTDOWN_POLL = Duration.ofMillis(50);
+
+	private final PatronRequestAuditBufferConfig config;
+	private final PatronRequestAuditRepository patronRequestAuditRepository;
+	private final MeterRegistry meterRegistry;
+
+	private final Queue<PatronRequestAudit> pending = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger depth = new AtomicInteger();
+	private final AtomicBoolean flushing = new AtomicBoolean();
+
+	public PatronRequestAuditBuffer(PatronRequestAuditBufferConfig config,
+		PatronRequestAuditRepository patronRequestAuditRepository, MeterRegistry meterRegistry) {
+
+		this.config = config;
+		this.patronRequestAuditRepository = patronRequestAuditRepository;
+		this.meterRegistry = meterRegistry;
+
+		meterRegistry.gauge(METRIC_NAME + ".depth", depth);
+	}
+
+	/**
+	 * Write the audit at some point soon. Written straight away when buffering is disabled
+	 * or the buffer is full.
+	 *
+	 * @return the audit, once it has either been buffered or written
+	 */
+	public Mono<PatronRequestAudit> write(@NonNull PatronRequestAudit audit) {
+		if (!config.isEnabled() || depth.get() >= config.getMaxPending()) {
+			return Mono.from(patronRequestAuditRepository.save(audit))
+				.cast(PatronRequestAudit.class);
+		}
+
+		return Mono.fromSupplier(() -> {
+			pending.add(audit);
+
+			if (depth.incrementAndGet() >= config.getMaxBatchSize()) {
+				flushInBackground();
+			}
+
+			return audit;
+		});
+	}
+
+	@Scheduled(initialDelay = "10s", fixedDelay = "${dcb.audit.write-behind.flush-interval:250ms}")
+	void flushInBackground() {
+		if (pending.isEmpty()) return;
+
+		flush().subscribe(_done -> {},
+			error -> log.error("Unable to write buffered patron request audits", error));
+	}
+
+	/**
+	 * Write everything that is waiting, a batch at a time. Only one flush runs at once,
+	 * anything added while another is running is picked up by it or the next one.
+	 */
+	public Mono<Void> flush() {
+		if (!flushing.compareAndSet(false, true)) return Mono.empty();
+
+		return Mono.defer(this::writeNextBatch)
+			.repeat(() -> !pending.isEmpty())
+			.then()
+			.doFinally(_signal -> flushing.set(false));
+	}
+
+	private Mono<Integer> writeNextBatch() {
+		final List<PatronRequestAudit> batch = new ArrayList<>(config.getMaxBatchSize());
+
+		PatronRequestAudit next;
+		while (batch.size() < config.getMaxBatchSize() && (next = pending.poll()) != null) {
+			batch.add(next);
+		}
+
+		if (batch.isEmpty()) return Mono.empty();
+
+		depth.addAndGet(-batch.size());
+
+		final Timer.Sample sample = Timer.start(meterRegistry);
+
+		return Flux.from(patronRequestAuditRepository.saveAll(batch))
+			.then(Mono.fromSupplier(() -> record(sample, "success", batch.size())))
+			.onErrorResume(error -> {
+				log.warn("Unable to write batch of {} patron request audits, writing individually", batch.size(), error);
+
+				// A single bad audit shouldn't cost the rest of the batch
+				return Flux.fromIterable(batch)
+					.concatMap(audit -> Mono.from(patronRequestAuditRepository.save(audit))
+						.then(Mono.just(1))
+						.onErrorResume(auditError -> {
+							log.error("Error attempting to write audit for {}", audit, auditError);
+							return Mono.just(0);
+						}))
+					.reduce(0, Integer::sum)
+					.map(written -> record(sample, "partial", written));
+			});
+	}
+
+	private int record(Timer.Sample sample, String outcome, int written) {
+		sample.stop(Timer.builder(METRIC_NAME + ".flush")
+			.description("Time taken to write a batch of buffered patron request audits")
+			.tag("outcome", outcome)
+			.publishPercentiles(0.5, 0.95, 0.99)
+			.register(meterRegistry));
+
+		meterRegistry.counter(METRIC_NAME + ".written", "outcome", outcome).increment(written);
+
+		return written;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		if (pending.isEmpty() && !flushing.get()) return;
+
+		log.info("Writing {} buffered patron request audits before shutdown", depth.get());
+
+		// Keep going until nothing is waiting and any flush already running has finished
+		Mono.defer(this::flush)
+			.then(Mono.delay(SHUTDOWN_POLL))
+			.repeat(() -> !pending.isEmpty() || flushing.get())
+			.take(SHUTDOWN_TIMEOUT)
+			.blockLast();
+	}
+}
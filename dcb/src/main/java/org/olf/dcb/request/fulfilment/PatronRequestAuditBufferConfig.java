@@ -0,0 +1,37 @@
+package org.olf.dcb.request.fulfilment;
+
+import java.time.Duration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+
+@ConfigurationProperties(PatronRequestAuditBufferConfig.PREFIX)
+public interface PatronRequestAuditBufferConfig {
+	public static final String PREFIX = "dcb.audit.write-behind";
+
+	/**
+	 * Hold back audits that don't record a change of status and write them in batches.
+	 * When disabled every audit is written as it is made.
+	 */
+	@Bindable(defaultValue = "true")
+	boolean isEnabled();
+
+	/**
+	 * Number of pending audits that causes a write, and the most written at once.
+	 */
+	@Bindable(defaultValue = "200")
+	int getMaxBatchSize();
+
+	/**
+	 * Longest time an audit is held before being written.
+	 */
+	@Bindable(defaultValue = "250ms")
+	Duration getFlushInterval();
+
+	/**
+	 * Number of audits that can be waiting to be written. Beyond this audits are written
+	 * as they are made, until the buffer catches up.
+	 */
+	@Bindable(defaultValue = "10000")
+	int getMaxPending();
+}
@@ -33,14 +33,31 @@ import reactor.core.publisher.Mono;
 @Slf4j
 @Singleton
 public class PatronRequestAuditService {
+	/**
+	 * How soon an audit entry has to be written
+	 */
+	public enum AuditDurability {
+		/**
+		 * Written before the returned publisher completes, within any surrounding transaction,
+		 * so that it commits along with the change it describes
+		 */
+		IMMEDIATE,
+		/**
+		 * Written shortly afterwards as part of a batch, see {@link PatronRequestAuditBuffer}
+		 */
+		BUFFERED
+	}
+
 	private final PatronRequestAuditRepository patronRequestAuditRepository;
 	private final PatronRequestRepository patronRequestRepository;
+	private final PatronRequestAuditBuffer patronRequestAuditBuffer;
 
 	public PatronRequestAuditService(PatronRequestAuditRepository patronRequestAuditRepository,
-		PatronRequestRepository patronRequestRepository) {
+		PatronRequestRepository patronRequestRepository, PatronRequestAuditBuffer patronRequestAuditBuffer) {
 
 		this.patronRequestAuditRepository = patronRequestAuditRepository;
 		this.patronRequestRepository = patronRequestRepository;
+		this.patronRequestAuditBuffer = patronRequestAuditBuffer;
 	}
 
 	private void log(PatronRequestAudit auditEntry) {
@@ -54,7 +71,8 @@ public class PatronRequestAuditService {
 	}
 
 	/**
-	 * Adds an audit entry to the provided patron request
+	 * Adds an audit entry to the provided patron request. Entries recording a change of
+	 * status are written immediately, all others are buffered.
 	 *
 	 * @param patronRequest the patron request to add an audit entry for
 	 * @param from the status the patron request was in
@@ -67,6 +85,24 @@ public class PatronRequestAuditService {
 	public Mono<PatronRequestAudit> addAuditEntry(PatronRequest patronRequest,
 		Status from, Status to, Optional<String> message, Optional<Map<String, Object>> auditData) {
 
+		final var durability = from == to
+			? AuditDurability.BUFFERED
+			: AuditDurability.IMMEDIATE;
+
+		return addAuditEntry(patronRequest, from, to, message, auditData, durability);
+	}
+
+	/**
+	 * Adds an audit entry to the provided patron request
+	 *
+	 * @param durability how soon the entry has to be written
+	 * @return a publisher containing the audit entry
+	 * @see #addAuditEntry(PatronRequest, Status, Status, Optional, Optional)
+	 */
+	public Mono<PatronRequestAudit> addAuditEntry(PatronRequest patronRequest,
+		Status from, Status to, Optional<String> message, Optional<Map<String, Object>> auditData,
+		AuditDurability durability) {
+
 		var builder = PatronRequestAudit.builder()
 			.id(UUID.randomUUID())
 			.patronRequest(patronRequest)
@@ -84,7 +120,9 @@ public class PatronRequestAuditService {
 
 		message.ifPresent(value -> builder.briefDescription(truncate(value, 254)));
 
-		return buildAndSaveAuditMessage(builder.build());
+		return durability == AuditDurability.IMMEDIATE
+			? buildAndSaveAuditMessage(builder.build())
+			: bufferAuditMessage(builder.build());
 	}
 
 	private Map<String, Object> updateAuditData(Map<String, Object> auditData, PatronRequest patronRequest) {
@@ -120,6 +158,14 @@ public class PatronRequestAuditService {
 			.onErrorResume(error -> Mono.just(pra));
 	}
 
+	private Mono<PatronRequestAudit> bufferAuditMessage(PatronRequestAudit pra) {
+		return patronRequestAuditBuffer.write(pra)
+			.doOnSuccess(this::log)
+			.doOnError(error -> log.error("Error attempting to write audit for {}", pra, error))
+			// protect against audit failures
+			.onErrorResume(error -> Mono.just(pra));
+	}
+
 	public Mono<PatronRequestAudit> addAuditEntry(UUID patronRequestId,
 		String message, Map<String, Object> auditData) {
 
@@ -16,6 +16,7 @@ import org.olf.dcb.core.model.PatronRequestAudit;
 import org.olf.dcb.request.fulfilment.PatronService.PatronId;
 import org.olf.dcb.request.fulfilment.PlacePatronRequestCommand.Requestor;
 import org.olf.dcb.request.workflow.PatronRequestWorkflowService;
+import org.olf.dcb.request.workflow.WorkflowQueue;
 import org.olf.dcb.storage.BibRepository;
 import org.olf.dcb.storage.PatronRequestAuditRepository;
 import org.olf.dcb.storage.PatronRequestRepository;
@@ -33,6 +34,7 @@ import reactor.core.publisher.Mono;
 public class PatronRequestService {
 	private final PatronRequestRepository patronRequestRepository;
 	private final PatronRequestWorkflowService requestWorkflow;
+	private final WorkflowQueue workflowQueue;
 	private final PatronService patronService;
 	private final FindOrCreatePatronService findOrCreatePatronService;
 	private final PatronRequestPreflightChecksService preflightChecksService;
@@ -43,7 +45,8 @@ public class PatronRequestService {
 	private final BibRepository bibRepository;
 
 	public PatronRequestService(PatronRequestRepository patronRequestRepository,
-		PatronRequestWorkflowService requestWorkflow, PatronService patronService,
+		PatronRequestWorkflowService requestWorkflow, WorkflowQueue workflowQueue,
+		PatronService patronService,
 		FindOrCreatePatronService findOrCreatePatronService,
 		PatronRequestPreflightChecksService preflightChecksService,
 		PatronRequestAuditRepository patronRequestAuditRepository, 
@@ -53,6 +56,7 @@ public class PatronRequestService {
 
 		this.patronRequestRepository = patronRequestRepository;
 		this.requestWorkflow = requestWorkflow;
+		this.workflowQueue = workflowQueue;
 		this.patronService = patronService;
 		this.findOrCreatePatronService = findOrCreatePatronService;
 		this.preflightChecksService = preflightChecksService;
@@ -74,10 +78,27 @@ public class PatronRequestService {
 			.map(mapManualItemSelectionIfPresent(command))
 			.flatMap(this::savePatronRequest)
 			.flatMap(savedPatronRequest -> recordRequestPayloadAudit(savedPatronRequest, command))
-			.doOnSuccess(requestWorkflow::initiate)
+			.flatMap(this::startWorkflow)
 			.doOnError(e -> log.error("Placing request {} failed", command, e));
 	}
 
+	/**
+	 * Queue the newly placed request for its workflow to be progressed. Should the queue be
+	 * unavailable the workflow is started directly, rather than failing a request that has
+	 * already been saved.
+	 */
+	private Mono<PatronRequest> startWorkflow(PatronRequest patronRequest) {
+		return workflowQueue.enqueue(patronRequest)
+			.thenReturn(patronRequest)
+			.onErrorResume(error -> {
+				log.warn("Unable to queue workflow for patron request {}, starting it directly",
+					patronRequest.getId(), error);
+
+				requestWorkflow.initiate(patronRequest);
+				return Mono.just(patronRequest);
+			});
+	}
+
 	/**
 	 * Records an audit entry capturing the original request payload sent to DCB.
 	 * This provides a source of truth for data validation and debugging purposes.
@@ -126,7 +147,7 @@ public class PatronRequestService {
 			})
 			.flatMap(this::savePatronRequest)
 			.flatMap(savedPatronRequest -> recordRequestPayloadAudit(savedPatronRequest, command))
-			.doOnSuccess(requestWorkflow::initiate)
+			.flatMap(this::startWorkflow)
 			.doOnError(e -> log.error("Placing expedited request {} failed", command, e));
 	}
 
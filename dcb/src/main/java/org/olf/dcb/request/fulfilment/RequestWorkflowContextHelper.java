@@ -16,16 +16,16 @@ import org.olf.dcb.core.model.Agency;
 import org.olf.dcb.core.model.DataAgency;
 import org.olf.dcb.core.model.HostLms;
 import org.olf.dcb.core.model.Location;
+import org.olf.dcb.core.model.PatronIdentity;
 import org.olf.dcb.core.model.PatronRequest;
 import org.olf.dcb.core.model.SupplierRequest;
-import org.olf.dcb.core.svc.LocationService;
+import org.olf.dcb.core.svc.ReferenceDataCache;
 import org.olf.dcb.request.fulfilment.PatronService.PatronId;
 import org.olf.dcb.request.resolution.SupplierRequestService;
 import org.olf.dcb.request.workflow.UnsupportedWorkflowProblem;
 import org.olf.dcb.request.workflow.exceptions.UnableToFindPickupLocationProblem;
 import org.olf.dcb.request.workflow.exceptions.UnknownPickupLocationAgencyProblem;
 import org.olf.dcb.storage.AgencyRepository;
-import org.olf.dcb.storage.LibraryRepository;
 import org.olf.dcb.storage.PatronRequestRepository;
 import org.olf.dcb.storage.SupplierRequestRepository;
 
@@ -44,9 +44,8 @@ public class RequestWorkflowContextHelper {
 	private final SupplierRequestRepository supplierRequestRepository;
 	private final PatronRequestRepository patronRequestRepository;
 	private final AgencyRepository agencyRepository;
-	private final LibraryRepository libraryRepository;
 
-	private final LocationService locationService;
+	private final ReferenceDataCache referenceDataCache;
 	private final HostLmsService hostLmsService;
 	private final PatronService patronService;
 	private final PatronRequestAuditService patronRequestAuditService;
@@ -57,6 +56,11 @@ public class RequestWorkflowContextHelper {
 	}
 
 	// Given a patron request, construct the patron request context containing all related objects for a workflow
+	//
+	// The patron is loaded first, a patron that can't be found yields no context. The supplier, requesting
+	// identity and pickup branches don't depend on one another so are then looked up concurrently, each
+	// setting its own part of the context. As before, any branch that comes back empty yields no context.
+	// Agencies, locations and libraries come from the reference data cache.
 	public Mono<RequestWorkflowContext> fromPatronRequest(PatronRequest pr) {
 		RequestWorkflowContext rwc = new RequestWorkflowContext();
 		log.info("fromPatronRequest {}", pr.getId());
@@ -64,12 +68,16 @@ public class RequestWorkflowContextHelper {
 		return  Mono.just(rwc.setPatronRequest(pr))
 			.flatMap(this::decorateWithPatronRequestStateOnEntry)
 			.flatMap(this::decorateWithPatron)
-			.flatMap(this::findSupplierRequest)
-			.flatMap(this::decorateWithPatronVirtualIdentity)
-			.flatMap(this::decorateContextWithPatronDetails)
-			.flatMap(this::decorateContextWithLenderDetails)
-			.flatMap(this::resolvePickupLocationAgency)
-			.flatMap(this::decorateWithPickupLibrary)
+			.flatMap(ctx -> Mono.zip(
+					findSupplierRequest(ctx)
+						.flatMap(this::decorateWithPatronVirtualIdentity)
+						.flatMap(this::decorateContextWithLenderDetails),
+					Mono.defer(() -> decorateContextWithPatronDetails(ctx)),
+					resolvePickupLocationAgency(ctx)
+						.flatMap(this::decorateWithPickupLibrary))
+				// Only emitted once every branch has decorated the context
+				.map(decorated -> ctx))
+			// Needs the patron's identities, loaded above
 			.flatMap(this::decorateWithPickupPatronIdentity)
 			.onErrorResume(error -> {
 				log.error("Error in RequestWorkflowContextHelper fromPatronRequest: {}",
@@ -118,7 +126,7 @@ public class RequestWorkflowContextHelper {
 		if ( ctx.getPickupAgencyCode() == null )
 			return Mono.just(ctx);
 
-		return Mono.from(libraryRepository.findOneByAgencyCode(ctx.getPickupAgencyCode()))
+		return referenceDataCache.findLibraryByAgencyCode(ctx.getPickupAgencyCode())
 			.map(ctx::setPickupLibrary)
 			.defaultIfEmpty(ctx);
 	}
@@ -192,7 +200,11 @@ public class RequestWorkflowContextHelper {
 		log.info("decorateContextWithPatronAgency");
 
 		if (ctx.getPatronHomeIdentity() != null) {
-			return patronService.findResolvedAgencyByIdentity(ctx.getPatronHomeIdentity())
+			final var identity = ctx.getPatronHomeIdentity();
+
+			return referenceDataCache.findAgencyById(
+					getValueOrNull(identity, PatronIdentity::getResolvedAgency, DataAgency::getId))
+				.switchIfEmpty(Mono.defer(() -> patronService.findResolvedAgencyByIdentity(identity)))
 				.flatMap(agency -> {
 					log.debug("Found patron agency {}",agency);
 					ctx.setPatronAgency(agency);
@@ -219,7 +231,7 @@ public class RequestWorkflowContextHelper {
 		}
 
 		// There is a problem here - as per getDataAgencyWithHostLms agencyRepository.findHostLmsById doesn't work directly
-		return Mono.from(agencyRepository.findHostLmsIdById(ctx.getPatronAgency().getId()))
+		return hostLmsIdFor(ctx.getPatronAgency())
 			.flatMap(hostLmsService::findById)
 			.flatMap(patronHostLms -> {
 				ctx.setPatronSystem(patronHostLms);
@@ -305,7 +317,7 @@ public class RequestWorkflowContextHelper {
 			return Mono.just(ctx);
 		}
 
-		return locationService.findById(pickupSymbol)
+		return referenceDataCache.findLocationById(pickupSymbol)
 			.switchIfEmpty(raiseError(new UnableToFindPickupLocationProblem(pickupSymbol)))
 			.flatMap(pickupLocation -> {
 				// Set the local ID of the pickup location in the request context - in case we need it to specify
@@ -336,9 +348,15 @@ public class RequestWorkflowContextHelper {
 
 	// If an agency has been directly attached to the location then return it by just walking the model
 	private Mono<DataAgency> getAgencyDirectlyFromLocation(Location l) {
-		return Mono.justOrEmpty(l.getAgency())
-			.flatMap(agency -> Mono.just(agency.getId()))
-			.flatMap(agencyId -> Mono.from(agencyRepository.findById(agencyId)));
+		return referenceDataCache.findAgencyById(getValueOrNull(l, Location::getAgency, DataAgency::getId));
+	}
+
+	// Agencies loaded by id carry the id of their Host LMS, otherwise ask for it
+	private Mono<UUID> hostLmsIdFor(Agency agency) {
+		final HostLms hostLms = agency.getHostLms();
+
+		return Mono.justOrEmpty(getValueOrNull(hostLms, HostLms::getId))
+			.switchIfEmpty(Mono.defer(() -> Mono.from(agencyRepository.findHostLmsIdById(agency.getId()))));
 	}
 
 	private Mono<RequestWorkflowContext> report(RequestWorkflowContext ctx) {
@@ -2,18 +2,23 @@ package org.olf.dcb.request.workflow;
 
 import static io.micronaut.core.util.StringUtils.isNotEmpty;
 import static org.olf.dcb.core.model.PatronRequest.Status.ERROR;
+import static org.olf.dcb.utils.PropertyAccessUtils.getValueOrNull;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
 import org.olf.dcb.core.svc.AlarmsService;
 import org.olf.dcb.core.model.PatronRequest;
+import org.olf.dcb.core.model.PatronRequest.Status;
 import org.olf.dcb.core.model.Alarm;
 import org.olf.dcb.request.fulfilment.PatronRequestAuditService;
 import org.olf.dcb.request.fulfilment.RequestWorkflowContext;
@@ -26,6 +31,8 @@ import org.slf4j.MDC;
 import org.zalando.problem.Problem;
 import org.zalando.problem.ThrowableProblem;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.micronaut.context.annotation.Value;
 import io.micronaut.scheduling.TaskExecutors;
 import io.micronaut.scheduling.annotation.ExecuteOn;
@@ -40,6 +47,8 @@ import services.k_int.utils.UUIDUtils;
 @ExecuteOn(value = TaskExecutors.IO)
 public class PatronRequestWorkflowService {
 
+	static final String GUARD_METRIC_NAME = "dcb.workflow.guard";
+
 	private final PatronRequestRepository patronRequestRepository;
 	private final PatronRequestAuditService patronRequestAuditService;
 	private final List<PatronRequestStateTransition> allTransitions;
@@ -48,13 +57,19 @@ public class PatronRequestWorkflowService {
 	private final RequestTrackingPolicy requestTrackingPolicy;
 	private final AlarmsService alarmsService;
 
+	// Automatic transitions that could apply in each status, in the order they are tried, so only
+	// their guards need evaluating. Transitions that don't declare source statuses are tried in all.
+	private final Map<Status, List<GuardedTransition>> transitionsByStatus;
+	private final List<GuardedTransition> transitionsForAnyStatus;
+
 	public PatronRequestWorkflowService(List<PatronRequestStateTransition> allTransitions,
 		PatronRequestRepository patronRequestRepository,
 		PatronRequestAuditService patronRequestAuditService,
 		RequestWorkflowContextHelper requestWorkflowContextHelper,
 		TrackingHelpers trackingHelpers,
 		RequestTrackingPolicy requestTrackingPolicy,
-		AlarmsService alarmsService) {
+		AlarmsService alarmsService,
+		MeterRegistry meterRegistry) {
 
 		this.patronRequestAuditService = patronRequestAuditService;
 		// By loading the list of all transitions, we can declare new transitions
@@ -72,6 +87,26 @@ public class PatronRequestWorkflowService {
 			log.debug(t.getClass().getName());
 		}
 
+		final var automaticTransitions = allTransitions.stream()
+			.filter(PatronRequestStateTransition::attemptAutomatically)
+			.sorted(Comparator.comparing(PatronRequestStateTransition::getName).reversed())
+			.map(transition -> GuardedTransition.of(transition, meterRegistry))
+			.toList();
+
+		this.transitionsForAnyStatus = automaticTransitions.stream()
+			.filter(GuardedTransition::appliesToAnyStatus)
+			.toList();
+
+		this.transitionsByStatus = new EnumMap<>(Status.class);
+		for (Status status : Status.values()) {
+			final var candidates = automaticTransitions.stream()
+				.filter(transition -> transition.couldApplyTo(status))
+				.toList();
+
+			transitionsByStatus.put(status, candidates);
+			log.debug("Transitions from {}: {}", status, candidates.stream().map(GuardedTransition::getName).toList());
+		}
+
 		log.info("Tracking durations : ",trackingHelpers.getDurations());
 	}
 
@@ -166,12 +201,15 @@ public class PatronRequestWorkflowService {
 	public Stream<PatronRequestStateTransition> getPossibleStateTransitionsFor(
 		RequestWorkflowContext ctx) {
 
-		final var sortedTransitions = allTransitions.stream()
-			.sorted(Comparator.comparing(PatronRequestStateTransition::getName).reversed())
-			.toList();
+		final var status = getValueOrNull(ctx, RequestWorkflowContext::getPatronRequest, PatronRequest::getStatus);
+
+		final var candidates = status != null
+			? transitionsByStatus.get(status)
+			: transitionsForAnyStatus;
 
-		return sortedTransitions.stream()
-			.filter(transition -> (transition.isApplicableFor(ctx) && transition.attemptAutomatically()));
+		return candidates.stream()
+			.filter(transition -> transition.isApplicableFor(ctx))
+			.map(GuardedTransition::transition);
 	}
 
 	private Mono<PatronRequest> applyTransition(PatronRequestStateTransition action,
@@ -291,9 +329,12 @@ public class PatronRequestWorkflowService {
 
 		log.debug("getApplicableTransitionFor...");
 
-		log.debug("WORKFLOW Possible transitions: {}", getPossibleStateTransitionsFor(ctx)
-			.map(PatronRequestStateTransition::getName)
-			.toList());
+		// Evaluates every guard, so only when it will be seen
+		if (log.isDebugEnabled()) {
+			log.debug("WORKFLOW Possible transitions: {}", getPossibleStateTransitionsFor(ctx)
+				.map(PatronRequestStateTransition::getName)
+				.toList());
+		}
 
 		final var firstApplicable = getPossibleStateTransitionsFor(ctx).findFirst();
 
@@ -363,4 +404,51 @@ public class PatronRequestWorkflowService {
 		
 		return requestWorkflowContext.setPatronRequest(patronRequest);
 	}
+
+	/**
+	 * A transition with timers recording how long its guard takes to evaluate
+	 */
+	private static record GuardedTransition(PatronRequestStateTransition transition,
+		Timer applicableTimer, Timer notApplicableTimer) {
+
+		static GuardedTransition of(PatronRequestStateTransition transition, MeterRegistry meterRegistry) {
+			return new GuardedTransition(transition,
+				guardTimer(transition, "true", meterRegistry),
+				guardTimer(transition, "false", meterRegistry));
+		}
+
+		private static Timer guardTimer(PatronRequestStateTransition transition, String applicable,
+			MeterRegistry meterRegistry) {
+
+			return Timer.builder(GUARD_METRIC_NAME)
+				.description("Time taken to check whether a workflow transition applies")
+				.tag("transition", transition.getName())
+				.tag("applicable", applicable)
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.register(meterRegistry);
+		}
+
+		String getName() {
+			return transition.getName();
+		}
+
+		boolean appliesToAnyStatus() {
+			final var sourceStatuses = transition.getPossibleSourceStatus();
+			return sourceStatuses == null || sourceStatuses.isEmpty();
+		}
+
+		boolean couldApplyTo(Status status) {
+			return appliesToAnyStatus() || transition.getPossibleSourceStatus().contains(status);
+		}
+
+		boolean isApplicableFor(RequestWorkflowContext ctx) {
+			final long start = System.nanoTime();
+			final boolean applicable = transition.isApplicableFor(ctx);
+
+			(applicable ? applicableTimer : notApplicableTimer)
+				.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+			return applicable;
+		}
+	}
 }
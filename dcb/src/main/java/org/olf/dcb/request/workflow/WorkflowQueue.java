@@ -0,0 +1,295 @@
+package org.olf.dcb.request.workflow;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.olf.dcb.core.model.PatronRequest;
+import org.olf.dcb.storage.PatronRequestRepository;
+import org.slf4j.MDC;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.data.r2dbc.operations.R2dbcOperations;
+import io.micronaut.scheduling.annotation.Scheduled;
+import io.r2dbc.spi.Statement;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Durable queue of patron requests waiting for their workflow to be progressed, held in the
+ * workflow_queue table so that work survives a node restart.
+ *
+ * Nodes claim due requests with SKIP LOCKED and hold them under a lease, so a request is only
+ * worked on by one node at a time and is picked up again if its node goes away. Each node works
+ * on a bounded number of requests at once. Failed attempts are retried with exponential backoff.
+ *
+ * Queueing a request that is already queued, or being worked on, ensures it is progressed
+ * once more after the current attempt rather than adding a second entry.
+ */
+@Slf4j
+@Singleton
+public class WorkflowQueue {
+
+	static final String METRIC_NAME = "dcb.workflow.queue";
+
+	private static final String ENQUEUE = """
+		insert into workflow_queue (patron_request_id, enqueued_at, available_at)
+		values ($1, now(), now())
+		on conflict (patron_request_id) do update
+		set generation = workflow_queue.generation + 1,
+			available_at = least(workflow_queue.available_at, now())
+		""";
+
+	private static final String CLAIM = """
+		update workflow_queue q
+		set claimed_by = $1, claimed_until = now() + $2 * interval '1 millisecond', attempts = q.attempts + 1
+		from (
+			select patron_request_id from workflow_queue
+			where available_at <= now() and (claimed_until is null or claimed_until < now())
+			order by available_at
+			limit $3
+			for update skip locked
+		) due
+		where q.patron_request_id = due.patron_request_id
+		returning q.patron_request_id, q.generation, q.attempts,
+			cast(extract(epoch from (now() - q.available_at)) * 1000 as bigint) as lag_ms
+		""";
+
+	// Only removes the entry if it hasn't been queued again while it was being worked on
+	private static final String COMPLETE = """
+		delete from workflow_queue
+		where patron_request_id = $1 and generation = $2 and claimed_by = $3
+		""";
+
+	private static final String RELEASE = """
+		update workflow_queue
+		set claimed_by = null, claimed_until = null, attempts = 0, available_at = now(), last_error = null
+		where patron_request_id = $1 and claimed_by = $2
+		""";
+
+	private static final String RETRY = """
+		update workflow_queue
+		set claimed_by = null, claimed_until = null, available_at = now() + $3 * interval '1 millisecond', last_error = $4
+		where patron_request_id = $1 and claimed_by = $2
+		""";
+
+	private static final String ABANDON = """
+		delete from workflow_queue
+		where patron_request_id = $1 and claimed_by = $2
+		""";
+
+	private static final String STATS = """
+		select count(*) as depth,
+			coalesce(cast(max(extract(epoch from (now() - available_at))) filter (
+				where available_at <= now() and (claimed_until is null or claimed_until < now())) * 1000 as bigint), 0) as lag_ms
+		from workflow_queue
+		""";
+
+	private final WorkflowQueueConfig config;
+	private final R2dbcOperations operations;
+	private final PatronRequestRepository patronRequestRepository;
+	// Provider as the workflow service depends, indirectly, on things that queue requests
+	private final BeanProvider<PatronRequestWorkflowService> workflowService;
+	private final MeterRegistry meterRegistry;
+
+	private final String nodeId = UUID.randomUUID().toString();
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicBoolean claiming = new AtomicBoolean();
+	private final AtomicLong depth = new AtomicLong();
+	private final AtomicLong lagMillis = new AtomicLong();
+
+	public WorkflowQueue(WorkflowQueueConfig config, R2dbcOperations operations,
+			PatronRequestRepository patronRequestRepository,
+			BeanProvider<PatronRequestWorkflowService> workflowService, MeterRegistry meterRegistry) {
+
+		this.config = config;
+		this.operations = operations;
+		this.patronRequestRepository = patronRequestRepository;
+		this.workflowService = workflowService;
+		this.meterRegistry = meterRegistry;
+
+		meterRegistry.gauge(METRIC_NAME + ".depth", depth);
+		meterRegistry.gauge(METRIC_NAME + ".lag", lagMillis);
+		meterRegistry.gauge(METRIC_NAME + ".in-flight", inFlight);
+	}
+
+	/**
+	 * Queue the request for its workflow to be progressed
+	 */
+	public Mono<Void> enqueue(@NonNull PatronRequest patronRequest) {
+		if (!config.isEnabled()) {
+			workflowService.get().initiate(patronRequest);
+			return Mono.empty();
+		}
+
+		log.debug("Queue workflow for patron request {}", patronRequest.getId());
+
+		return execute(ENQUEUE, statement -> statement.bind("$1", patronRequest.getId()))
+			.doOnSuccess(_rows -> {
+				meterRegistry.counter(METRIC_NAME, "result", "queued").increment();
+				drain();
+			})
+			.then();
+	}
+
+	@Scheduled(initialDelay = "30s", fixedDelay = "${dcb.workflow.queue.poll-interval:2s}")
+	void poll() {
+		if (config.isEnabled()) drain();
+	}
+
+	/**
+	 * Claim as many due requests as there is capacity for and start working on them
+	 */
+	void drain() {
+		final int capacity = config.getMaxConcurrency() - inFlight.get();
+		if (capacity <= 0 || !claiming.compareAndSet(false, true)) return;
+
+		claim(capacity)
+			.doFinally(_signal -> claiming.set(false))
+			.subscribe(this::process,
+				error -> log.warn("Unable to claim patron requests from the workflow queue", error));
+	}
+
+	Flux<Claimed> claim(int limit) {
+		return Flux.from(operations.withTransaction(status ->
+			Flux.from(status.getConnection().createStatement(CLAIM)
+					.bind("$1", nodeId)
+					.bind("$2", config.getLease().toMillis())
+					.bind("$3", limit)
+					.execute())
+				.flatMap(result -> result.map((row, _meta) -> new Claimed(
+					row.get("patron_request_id", UUID.class),
+					row.get("generation", Long.class),
+					row.get("attempts", Integer.class),
+					row.get("lag_ms", Long.class))))));
+	}
+
+	private void process(Claimed claimed) {
+		inFlight.incrementAndGet();
+
+		Timer.builder(METRIC_NAME + ".wait")
+			.description("Time requests spent waiting in the workflow queue once due")
+			.publishPercentiles(0.5, 0.95, 0.99)
+			.register(meterRegistry)
+			.record(Math.max(claimed.lagMillis(), 0), TimeUnit.MILLISECONDS);
+
+		final long start = System.nanoTime();
+
+		Mono.from(patronRequestRepository.findById(claimed.patronRequestId()))
+			.flatMap(patronRequest -> {
+				// The thread goes on to work on other requests, so don't leave this one in its MDC
+				MDC.put("prID", patronRequest.getId().toString());
+				try {
+					log.info("WORKFLOW progressing queued request {}, attempt {}", patronRequest.getId(), claimed.attempts());
+
+					return workflowService.get().progressAll(patronRequest);
+				} finally {
+					MDC.remove("prID");
+				}
+			})
+			// Not cut short at the end of the lease, as that could leave the request part way through
+			// a transition. Once the lease expires the request can be claimed again instead.
+			.then(Mono.defer(() -> complete(claimed)))
+			.doOnSuccess(_done -> record("success", start))
+			.onErrorResume(error -> {
+				record("error", start);
+				return retry(claimed, error);
+			})
+			.doFinally(_signal -> {
+				inFlight.decrementAndGet();
+				drain();
+			})
+			.subscribe(_done -> {},
+				error -> log.error("Unable to update workflow queue entry for patron request {}",
+					claimed.patronRequestId(), error));
+	}
+
+	Mono<Void> complete(Claimed claimed) {
+		return execute(COMPLETE, statement -> statement
+				.bind("$1", claimed.patronRequestId())
+				.bind("$2", claimed.generation())
+				.bind("$3", nodeId))
+			.flatMap(removed -> removed > 0
+				? Mono.empty()
+				// Queued again while we were working on it, so go round once more
+				: execute(RELEASE, statement -> statement
+					.bind("$1", claimed.patronRequestId())
+					.bind("$2", nodeId)))
+			.then();
+	}
+
+	Mono<Void> retry(Claimed claimed, Throwable error) {
+		if (claimed.attempts() >= config.getMaxAttempts()) {
+			log.error("Giving up on progressing patron request {} after {} attempts",
+				claimed.patronRequestId(), claimed.attempts(), error);
+			meterRegistry.counter(METRIC_NAME, "result", "abandoned").increment();
+
+			return execute(ABANDON, statement -> statement
+					.bind("$1", claimed.patronRequestId())
+					.bind("$2", nodeId))
+				.then();
+		}
+
+		final Duration backoff = backoff(claimed.attempts());
+
+		log.warn("Unable to progress patron request {}, retrying in {}", claimed.patronRequestId(), backoff, error);
+		meterRegistry.counter(METRIC_NAME, "result", "retried").increment();
+
+		return execute(RETRY, statement -> statement
+				.bind("$1", claimed.patronRequestId())
+				.bind("$2", nodeId)
+				.bind("$3", backoff.toMillis())
+				.bind("$4", String.valueOf(error.getMessage())))
+			.then();
+	}
+
+	Duration backoff(int attempts) {
+		final Duration max = config.getMaxBackoff();
+		final int doublings = Math.min(Math.max(attempts - 1, 0), 30);
+		final Duration backoff = config.getInitialBackoff().multipliedBy(1L << doublings);
+
+		return backoff.compareTo(max) > 0 ? max : backoff;
+	}
+
+	@Scheduled(initialDelay = "1m", fixedDelay = "${dcb.workflow.queue.metrics-interval:30s}")
+	void refreshMetrics() {
+		if (!config.isEnabled()) return;
+
+		Flux.from(operations.withConnection(connection ->
+				Flux.from(connection.createStatement(STATS).execute())
+					.flatMap(result -> result.map((row, _meta) -> {
+						depth.set(row.get("depth", Long.class));
+						lagMillis.set(row.get("lag_ms", Long.class));
+						return true;
+					}))))
+			.subscribe(_ok -> {}, error -> log.warn("Unable to read workflow queue statistics", error));
+	}
+
+	private void record(String outcome, long start) {
+		Timer.builder(METRIC_NAME + ".progress")
+			.description("Time taken to progress a queued patron request")
+			.tag("outcome", outcome)
+			.publishPercentiles(0.5, 0.95, 0.99)
+			.register(meterRegistry)
+			.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	private Mono<Long> execute(String sql, Function<Statement, Statement> binder) {
+		return Mono.from(operations.withTransaction(status ->
+			Flux.from(binder.apply(status.getConnection().createStatement(sql)).execute())
+				.flatMap(result -> Mono.from(result.getRowsUpdated()))
+				.reduce(0L, Long::sum)));
+	}
+
+	static record Claimed(UUID patronRequestId, long generation, int attempts, long lagMillis) {}
+}
@@ -0,0 +1,46 @@
+package org.olf.dcb.request.workflow;
+
+import java.time.Duration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+
+@ConfigurationProperties(WorkflowQueueConfig.PREFIX)
+public interface WorkflowQueueConfig {
+	public static final String PREFIX = "dcb.workflow.queue";
+
+	/**
+	 * Progress newly placed requests via the queue. When disabled the workflow is started
+	 * straight away on the placing node, and is lost if that node stops.
+	 */
+	@Bindable(defaultValue = "true")
+	boolean isEnabled();
+
+	/**
+	 * Number of requests each node will progress at once.
+	 */
+	@Bindable(defaultValue = "8")
+	int getMaxConcurrency();
+
+	/**
+	 * How long a node holds a request it has claimed. Requests not finished within this
+	 * time are made available to other nodes, while the node working on them carries on.
+	 */
+	@Bindable(defaultValue = "PT5M")
+	Duration getLease();
+
+	/**
+	 * Number of times progression is attempted before the request is dropped from the queue.
+	 */
+	@Bindable(defaultValue = "5")
+	int getMaxAttempts();
+
+	/**
+	 * Delay before the first retry, doubling with each subsequent attempt.
+	 */
+	@Bindable(defaultValue = "PT10S")
+	Duration getInitialBackoff();
+
+	@Bindable(defaultValue = "PT10M")
+	Duration getMaxBackoff();
+}
@@ -61,6 +61,9 @@ public interface AgencyRepository {
 	@SingleResult
 	Publisher<DataHostLms> findHostLmsById(@NonNull UUID id);
 
+	@Query(value = "SELECT * from agency where id in (:ids)", nativeQuery = true)
+	Publisher<DataAgency> findByIds(@NonNull Collection<UUID> ids);
+
 	@Query(value = "SELECT * from agency where host_lms_id in (:hostLmsIds) order by name", nativeQuery = true)
 	Publisher<DataAgency> findByHostLmsIds(@NonNull Collection<UUID> hostLmsIds);
 
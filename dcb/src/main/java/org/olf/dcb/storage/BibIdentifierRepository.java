@@ -31,6 +31,9 @@ public interface BibIdentifierRepository {
     @NonNull
     Publisher<BibIdentifier> findAllByOwner(@NonNull BibRecord owner);
 
+    @NonNull
+    Publisher<BibIdentifier> findAllByOwnerIdIn(@NonNull Collection<UUID> ownerIds);
+
     @NonNull
     Publisher<BibIdentifier> queryAll();
 
@@ -76,6 +76,10 @@ public interface ClusterRecordRepository {
 	@SingleResult
 	Publisher<Long> updateLastIndexed(Collection<UUID> ids, Instant lastIndexed);
 	
+	@Vetoed
+	@NonNull
+	Publisher<UUID> findIdsInRangeIndexedBefore(@NonNull UUID after, @NonNull UUID upTo, @NonNull Instant before, int max);
+	
 	@NonNull
 	@Vetoed
 	Publisher<ClusterRecord> findAllByMatchPoints ( Collection<UUID> points );
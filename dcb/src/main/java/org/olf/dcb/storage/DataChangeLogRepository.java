@@ -2,6 +2,7 @@ package org.olf.dcb.storage;
 
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.async.annotation.SingleResult;
+import io.micronaut.data.annotation.Query;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import jakarta.validation.Valid;
@@ -10,6 +11,8 @@ import org.olf.dcb.core.model.DataChangeLog;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.UUID;
 
 public interface DataChangeLogRepository {
@@ -50,6 +53,12 @@ public interface DataChangeLogRepository {
 
 	Publisher<Void> delete(UUID id);
 
+	// When the most recent change to any of the given entity types was logged, or the epoch if there are none
+	@NonNull
+	@SingleResult
+	@Query(value = "SELECT coalesce(max(timestamp_logged), timestamp 'epoch') from data_change_log where entity_type in (:entityTypes)", nativeQuery = true)
+	Publisher<Instant> findLatestTimestampLogged(@NonNull Collection<String> entityTypes);
+
 	@SingleResult
 	@NonNull
 	default Publisher<DataChangeLog> saveOrUpdate(@Valid @NotNull DataChangeLog DataChangeLog) {
@@ -65,6 +65,9 @@ public interface LocationRepository {
 	@Query(value = "SELECT * from location where agency_fk = :agencyId and is_pickup = true order by name", nativeQuery = true)
 	Publisher<Location> getPickupLocations(UUID agencyId);
 	
+	@Query(value = "SELECT * from location where id in (:ids)", nativeQuery = true)
+	Publisher<Location> findByIds(@NonNull Collection<UUID> ids);
+
 	@Query(value = "SELECT * from location where host_system_id in (:hostLmsIds) order by name", nativeQuery = true)
 	Publisher<Location> findByHostLmsIds(@NonNull Collection<UUID> hostLmsIds);
 	
@@ -6,7 +6,9 @@ import java.util.UUID;
 import org.olf.dcb.core.clustering.model.MatchPoint;
 import org.reactivestreams.Publisher;
 
+import io.micronaut.core.annotation.Introspected;
 import io.micronaut.core.annotation.NonNull;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.annotation.Vetoed;
 import jakarta.validation.constraints.NotNull;
 
@@ -18,6 +20,8 @@ public interface MatchPointRepository {
 	
 	Publisher<MatchPoint> findAllByBibId(@NotNull UUID bibId);
 	
+	Publisher<MatchPoint> findAllByBibIdIn(@NotNull Collection<UUID> bibIds);
+	
 	Publisher<Long> deleteAllByBibId(@NotNull UUID bib);
 	
 	Publisher<Long> deleteAllByBibIdAndValueNotIn(@NotNull UUID bibId, @NotNull Collection<UUID> values);
@@ -25,8 +29,26 @@ public interface MatchPointRepository {
 	Publisher<MatchPoint> findAllByBibIdNotAndValueIn( @NotNull UUID bibId, @NotNull Collection<UUID> values );
 	
 	Publisher<Void> delete (@NotNull UUID id);
+	
+	Publisher<Long> deleteAllByIdIn(@NotNull Collection<UUID> ids);
 
 	@NonNull
 	@Vetoed
 	Publisher<MatchPoint> getMatchesByDerrivedType(String derivedType, Collection<UUID> points);
+
+	@NonNull
+	@Vetoed
+	Publisher<MatchPointIndexEntry> streamIndexEntries();
+
+	@NonNull
+	@Vetoed
+	Publisher<MatchPointIndexEntry> findIndexEntriesByValueIn(Collection<UUID> points);
+
+	@Introspected
+	public static record MatchPointIndexEntry(
+		UUID value,
+		UUID bibId,
+		@Nullable String derivedType
+	) {
+	};
 }
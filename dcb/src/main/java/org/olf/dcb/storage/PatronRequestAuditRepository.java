@@ -1,5 +1,6 @@
 package org.olf.dcb.storage;
 
+import java.util.Collection;
 import java.util.UUID;
 
 import org.olf.dcb.core.model.PatronRequest;
@@ -17,6 +18,9 @@ public interface PatronRequestAuditRepository {
 	@SingleResult
 	Publisher<? extends PatronRequestAudit> save(@Valid @NotNull @NonNull PatronRequestAudit patronRequestAudit);
 
+	@NonNull
+	Publisher<PatronRequestAudit> saveAll(@Valid @NotNull @NonNull Collection<PatronRequestAudit> patronRequestAudits);
+
 	Publisher<PatronRequestAudit> findByPatronRequest(@NotNull @NonNull PatronRequest patronRequest);
 
 	Publisher<PatronRequestAudit> findAllByPatronRequest(@NotNull @NonNull PatronRequest patronRequest);
@@ -76,12 +76,16 @@ public interface PatronRequestRepository {
 
 
 	@Introspected
-	public record ScheduledTrackingRecord(UUID id, @Nullable String status_code, @Nullable Instant next_scheduled_poll) {	};
+	public record ScheduledTrackingRecord(UUID id, @Nullable String status_code, @Nullable Instant next_scheduled_poll, @Nullable String patron_hostlms_code) {	};
 
 	// If you change the where clause, make sure you keep the index aligned otherwise it will probably do a full table scan 
-	@Query(value = "SELECT pr.id, pr.status_code, pr.next_scheduled_poll from patron_request pr where pr.next_scheduled_poll < now() and pr.is_too_long = false order by pr.next_scheduled_poll", nativeQuery = true)
+	@Query(value = "SELECT pr.id, pr.status_code, pr.next_scheduled_poll, pr.patron_hostlms_code from patron_request pr where pr.next_scheduled_poll < now() and pr.is_too_long = false order by pr.next_scheduled_poll", nativeQuery = true)
 	Publisher<ScheduledTrackingRecord> findScheduledChecks();
 
+	// As above, restricted to the requests whose id hashes to the given shard. The hash is shifted to be non negative.
+	@Query(value = "SELECT pr.id, pr.status_code, pr.next_scheduled_poll, pr.patron_hostlms_code from patron_request pr where pr.next_scheduled_poll < now() and pr.is_too_long = false and mod(hashtext(pr.id::text)::bigint + 2147483648, :shards) = :shard order by pr.next_scheduled_poll", nativeQuery = true)
+	Publisher<ScheduledTrackingRecord> findScheduledChecksForShard(int shards, int shard);
+
 	@SingleResult
 	@NonNull
 	default Publisher<PatronRequest> saveOrUpdate(@Valid @NotNull @NonNull PatronRequest pc) {
@@ -1,6 +1,7 @@
 package org.olf.dcb.storage;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -9,6 +10,7 @@ import org.olf.dcb.dataimport.job.model.SourceRecord;
 import org.olf.dcb.dataimport.job.model.SourceRecord.ProcessingStatus;
 import org.reactivestreams.Publisher;
 
+import io.micronaut.core.annotation.Introspected;
 import io.micronaut.core.annotation.NonNull;
 import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.annotation.Vetoed;
@@ -71,6 +73,17 @@ public interface SourceRecordRepository {
 	@SingleResult
 	public Publisher<Long> getCountForHostLms(UUID hostLmsId);
 
+	/**
+	 * Of the given source records, those processed successfully into a clustered bib by the given
+	 * version of processing, along with the content hash of what they were processed from.
+	 */
+	@Vetoed
+	public Publisher<ProcessedContent> findProcessedContentByIdIn(Collection<UUID> ids, int processVersion);
+
+	@Vetoed
+	@SingleResult
+	public Publisher<Long> updateLastFetchedByIdIn(Collection<UUID> ids, Instant lastFetched);
+
 	@NonNull
 	Publisher<SourceRecord> findByHostLmsIdAndRemoteIdLike(@NonNull UUID hostLmsId, @NonNull String remoteId);
 
@@ -78,4 +91,8 @@ public interface SourceRecordRepository {
   @NonNull
   Publisher<Integer> deleteAllByHostLmsId( UUID hostLmsId );
 
+	@Introspected
+	public static record ProcessedContent(UUID id, String contenthash) {
+	};
+
 }
@@ -1,5 +1,6 @@
 package org.olf.dcb.storage;
 
+import java.util.Collection;
 import java.util.UUID;
 
 import io.micronaut.core.annotation.Nullable;
@@ -39,6 +40,9 @@ public interface SupplierRequestRepository {
 	@NonNull
 	Publisher<SupplierRequest> findByPatronRequest(@NotNull PatronRequest pr);
 
+	@Query(value = "SELECT * from supplier_request where patron_request_id in (:patronRequestIds)", nativeQuery = true)
+	Publisher<SupplierRequest> findAllByPatronRequestIds(@NonNull Collection<UUID> patronRequestIds);
+
 	@NonNull
 	Publisher<SupplierRequest> queryAll();
 
@@ -106,6 +106,16 @@ public interface PostgresClusterRecordRepository extends
 				AND source_record.processing_state != 'PROCESSING_REQUIRED');""")
 	Publisher<Integer> reprocessOrphanedBibsWithSource();
 	
+	@NonNull
+	@Override
+	@Query("""
+		SELECT id FROM cluster_record
+		WHERE id > :after AND id <= :upTo
+			AND (last_indexed IS NULL OR last_indexed < :before)
+		ORDER BY id
+		LIMIT :max;""")
+	Publisher<UUID> findIdsInRangeIndexedBefore( @NonNull UUID after, @NonNull UUID upTo, @NonNull Instant before, int max );
+	
 	@NonNull
 	@Override
 	@Query(
@@ -29,4 +29,22 @@ public interface PostgresMatchPointRepository extends ReactiveStreamsPageableRep
 		  AND bib_record.derived_type = :derivedType
 		ORDER BY bib_id;""")
 	Publisher<MatchPoint> getMatchesByDerrivedType (String derivedType, Collection<UUID> points );
+
+	@NonNull
+	@Override
+	@Query(value = """
+		SELECT match_point.value, match_point.bib_id, bib_record.derived_type
+		FROM match_point
+		  INNER JOIN bib_record ON bib_id = bib_record.id;""", nativeQuery = true)
+	Publisher<MatchPointIndexEntry> streamIndexEntries();
+
+	@NonNull
+	@Override
+	@Query(value = """
+		SELECT match_point.value, match_point.bib_id, bib_record.derived_type
+		FROM match_point
+		  INNER JOIN bib_record ON bib_id = bib_record.id
+		WHERE value IN (:points)
+		ORDER BY bib_id;""", nativeQuery = true)
+	Publisher<MatchPointIndexEntry> findIndexEntriesByValueIn(Collection<UUID> points);
 }
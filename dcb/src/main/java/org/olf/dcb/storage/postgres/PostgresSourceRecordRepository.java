@@ -1,5 +1,7 @@
 package org.olf.dcb.storage.postgres;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.UUID;
 
 import org.olf.dcb.core.model.RecordCount;
@@ -29,6 +31,21 @@ public interface PostgresSourceRecordRepository extends ReactiveStreamsPageableR
 	@Query(value = "select count(*) count from source_record where host_lms_id = :hostLmsId", nativeQuery = true)
 	public Publisher<Long> getCountForHostLms(UUID hostLmsId);
 
+	@Query(value = """
+		select sr.id as id, sr.content_hash as contenthash
+		from source_record sr
+			inner join bib_record br on br.source_record_uuid = sr.id
+		where sr.id in (:ids)
+			and sr.processing_state = 'SUCCESS'
+			and br.content_hash = sr.content_hash
+			and br.process_version = :processVersion
+			and br.contributes_to is not null""", nativeQuery = true)
+	public Publisher<ProcessedContent> findProcessedContentByIdIn(Collection<UUID> ids, int processVersion);
+
+	@SingleResult
+	@Query(value = "update source_record set last_fetched = :lastFetched where id in (:ids)", nativeQuery = true)
+	public Publisher<Long> updateLastFetchedByIdIn(Collection<UUID> ids, Instant lastFetched);
+
 //	@NonNull
 //	@SingleResult
 //	@Query("SELECT * FROM source_record WHERE host_lms_id = :hostLmsId AND remote_id LIKE :remoteId")
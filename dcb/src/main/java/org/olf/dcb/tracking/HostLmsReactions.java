@@ -3,6 +3,7 @@ package org.olf.dcb.tracking;
 import jakarta.inject.Singleton;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.olf.dcb.availability.job.AvailabilityRefreshQueue;
 import org.olf.dcb.core.model.PatronRequest;
 import org.olf.dcb.core.model.SupplierRequest;
 import org.olf.dcb.request.fulfilment.PatronRequestAuditService;
@@ -36,6 +37,7 @@ public class HostLmsReactions implements TrackingEventSink {
 	private final PatronRequestAuditService patronRequestAuditService;
 	private final PatronRequestRepository patronRequestRepository;
 	private final SupplierRequestRepository supplierRequestRepository;
+	private final AvailabilityRefreshQueue availabilityRefreshQueue;
 
 	// Ensure that we have loaded and initialised all workflow actions
 	// private final List<WorkflowAction> allWorkflowActions;
@@ -43,12 +45,14 @@ public class HostLmsReactions implements TrackingEventSink {
 	public HostLmsReactions(PatronRequestAuditService patronRequestAuditService,
 		// List<WorkflowAction> allWorkflowActions,
 		PatronRequestRepository patronRequestRepository,
-		SupplierRequestRepository supplierRequestRepository) {
+		SupplierRequestRepository supplierRequestRepository,
+		AvailabilityRefreshQueue availabilityRefreshQueue) {
 
 		// this.allWorkflowActions = allWorkflowActions;
 		this.patronRequestAuditService = patronRequestAuditService;
 		this.patronRequestRepository = patronRequestRepository;
 		this.supplierRequestRepository = supplierRequestRepository;
+		this.availabilityRefreshQueue = availabilityRefreshQueue;
 	}
 
 	@jakarta.annotation.PostConstruct
@@ -77,6 +81,7 @@ public class HostLmsReactions implements TrackingEventSink {
 					sr.setLocalStatus(sc.getToState());
 					sr.setLocalRequestLastCheckTimestamp(Instant.now());
 					sr.setLocalRequestStatusRepeat(Long.valueOf(0));
+					availabilityRefreshQueue.enqueue(sr);
 					return Mono.from(supplierRequestRepository.update(sr)).flatMap( ssr -> auditEventIndication( context, trackingRecord));
 				case "PatronRequest":
 					PatronRequest pr = (PatronRequest) sc.getResource();
@@ -99,6 +104,7 @@ public class HostLmsReactions implements TrackingEventSink {
 					sr2.setLocalRenewalCount(sc.getToRenewalCount());
 					sr2.setLocalHoldCount(sc.getToHoldCount());
 					sr2.setLocalRenewable(sc.getRenewable());
+					availabilityRefreshQueue.enqueue(sr2);
 					return Mono.from(supplierRequestRepository.update(sr2)).flatMap(ssr -> auditEventIndication( context, trackingRecord));
 				case "PickupRequest":
 					PatronRequest pickupRequest = (PatronRequest) sc.getResource();
@@ -2,6 +2,7 @@ package org.olf.dcb.tracking;
 
 import jakarta.inject.Singleton;
 import java.util.Map;
+import org.olf.dcb.availability.job.AvailabilityRefreshQueue;
 import org.olf.dcb.core.model.PatronRequest;
 import org.olf.dcb.core.model.SupplierRequest;
 import org.olf.dcb.request.fulfilment.RequestWorkflowContext;
@@ -15,12 +16,15 @@ import reactor.core.publisher.Mono;
 public class LifecycleEvidenceTrackingEventSink implements TrackingEventSink {
 	private final LifecycleEvidenceProjector lifecycleEvidenceProjector;
 	private final StateChangeLifecycleEvidenceMapper mapper;
+	private final AvailabilityRefreshQueue availabilityRefreshQueue;
 
 	public LifecycleEvidenceTrackingEventSink(
-		LifecycleEvidenceProjector lifecycleEvidenceProjector) {
+		LifecycleEvidenceProjector lifecycleEvidenceProjector,
+		AvailabilityRefreshQueue availabilityRefreshQueue) {
 
 		this.lifecycleEvidenceProjector = lifecycleEvidenceProjector;
 		this.mapper = new StateChangeLifecycleEvidenceMapper();
+		this.availabilityRefreshQueue = availabilityRefreshQueue;
 	}
 
 	@Override
@@ -42,9 +46,20 @@ public class LifecycleEvidenceTrackingEventSink implements TrackingEventSink {
 
 		return lifecycleEvidenceProjector
 			.project(mapper.map(stateChange), seedFrom(stateChange))
+			.doOnSuccess(_result -> queueAvailabilityRefresh(stateChange))
 			.thenReturn(Map.of("StateChange", stateChange));
 	}
 
+	/**
+	 * A change to a supplier request or item (e.g. a checkout, return or hold) alters the
+	 * availability of the supplying bib.
+	 */
+	private void queueAvailabilityRefresh(StateChange stateChange) {
+		if (stateChange.getResource() instanceof SupplierRequest supplierRequest) {
+			availabilityRefreshQueue.enqueue(supplierRequest);
+		}
+	}
+
 	/**
 	 * Tracking hands us the entity it is holding. Pass it to the projector so the status is
 	 * written onto that instance rather than onto a second copy read back from the database -
@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 
 import org.olf.dcb.core.HostLmsService;
@@ -52,6 +53,7 @@ import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import services.k_int.federation.reactor.ReactorFederatedLockService;
+import services.k_int.micronaut.concurrency.ConcurrencyGroupService;
 
 @Slf4j
 @Refreshable
@@ -71,13 +73,31 @@ public class TrackingServiceV4 implements TrackingService {
 	private final PatronRequestAuditService patronRequestAuditService;
 	private final RequestTrackingPolicy requestTrackingPolicy;
 
+	private final ConcurrencyGroupService concurrencyGroupService;
+
 	@Value("${dcb.tracking.dryRun:false}")
 	private Boolean dryRun;
 
+	// Overdue requests are split by a hash of their id. Each shard is claimed by one node at a time.
+	@Value("${dcb.tracking.shards:1}")
+	private int shards;
+
+	// Concurrent requests tracked per patron Host LMS, unless a concurrency group named
+	// tracking-<host lms code> has been configured.
+	@Value("${dcb.tracking.host-lms-concurrency:" + DEFAULT_HOST_LMS_CONCURRENCY + "}")
+	private int hostLmsConcurrency;
+
+	// Concurrent requests tracked across all Host LMS, so the total load stays bounded however many there are.
+	@Value("${dcb.tracking.max-concurrency:" + DEFAULT_MAX_CONCURRENCY + "}")
+	private int maxConcurrency;
+
   private Duration lastTrackingRunDuration;
   private Long lastTrackingRunCount;
 
-	private final int MAX_TRACKING_CONCURRENCY = 10;
+	private static final int DEFAULT_HOST_LMS_CONCURRENCY = 5;
+	private static final int DEFAULT_MAX_CONCURRENCY = 20;
+	private static final String TRACKING_GROUP_PREFIX = "tracking-";
+	private static final String UNKNOWN_HOST_LMS = "unknown";
   // If a request in a trackable state gets stuck in a non-termina state for > this number of days.
   // mark it "TooLong" which will stop it being visited by the tracking code.
 	private final int TOO_LONG_THRESHOLD = 56;
@@ -91,7 +111,8 @@ public class TrackingServiceV4 implements TrackingService {
 		ReactorFederatedLockService reactorFederatedLockService,
 		RequestWorkflowContextHelper requestWorkflowContextHelper,
 		PatronRequestAuditService patronRequestAuditService,
-		RequestTrackingPolicy requestTrackingPolicy) {
+		RequestTrackingPolicy requestTrackingPolicy,
+		ConcurrencyGroupService concurrencyGroupService) {
 
 		this.patronRequestRepository = patronRequestRepository;
 		this.supplierRequestRepository = supplierRequestRepository;
@@ -103,6 +124,7 @@ public class TrackingServiceV4 implements TrackingService {
 		this.requestWorkflowContextHelper = requestWorkflowContextHelper;
 		this.patronRequestAuditService = patronRequestAuditService;
 		this.requestTrackingPolicy = requestTrackingPolicy;
+		this.concurrencyGroupService = concurrencyGroupService;
 	}
 
 	@Timed("tracking.run")
@@ -111,10 +133,15 @@ public class TrackingServiceV4 implements TrackingService {
 		log.debug("DCB Tracking Service run");
     Instant start = Instant.now(); // ⏱ Start timing
 
-		Flux.from(patronRequestRepository.findScheduledChecks())
-			.doOnNext( tracking_record -> log.debug("Scheduled check for {}",tracking_record))
-			.flatMap(this::doTracking, MAX_TRACKING_CONCURRENCY)
-			.transformDeferred(reactorFederatedLockService.withLockOrEmpty(LOCK_NAME))
+		final int shardCount = Math.max(shards, 1);
+
+		// Start at a random shard so that nodes running at the same time don't all contend for the first.
+		final int offset = ThreadLocalRandom.current().nextInt(shardCount);
+
+		Flux.range(0, shardCount)
+			.map(i -> (i + offset) % shardCount)
+			.concatMap(shard -> trackShard(shard, shardCount)
+				.transformDeferred(reactorFederatedLockService.withLockOrEmpty(shardLockName(shard, shardCount))))
 			.count()
       .doOnSuccess(total -> {
         this.lastTrackingRunDuration = Duration.between(start, Instant.now()); // ⏱ Store duration
@@ -131,6 +158,32 @@ public class TrackingServiceV4 implements TrackingService {
 				error -> log.error("TRACKING Error when updating tracking information", error));
 	}
 
+	private static String shardLockName(int shard, int shardCount) {
+		// A single shard keeps the original lock name.
+		return shardCount > 1 ? LOCK_NAME + "-" + shard : LOCK_NAME;
+	}
+
+	private Flux<PatronRequestRepository.ScheduledTrackingRecord> trackShard(int shard, int shardCount) {
+		final var scheduled = shardCount > 1
+			? patronRequestRepository.findScheduledChecksForShard(shardCount, shard)
+			: patronRequestRepository.findScheduledChecks();
+
+		// Each Host LMS works through its own requests within its own limit, so a slow system
+		// only holds up the requests that depend on it, all within an overall limit.
+		return Flux.from(scheduled)
+			.doOnNext( tracking_record -> log.debug("Scheduled check for {}",tracking_record))
+			.transform(records -> concurrencyGroupService.getGroupedSubscription(records,
+				this::trackingGroupFor, this::trackingLimitFor, maxConcurrency, this::doTracking));
+	}
+
+	private String trackingGroupFor(PatronRequestRepository.ScheduledTrackingRecord tr) {
+		return TRACKING_GROUP_PREFIX + Objects.requireNonNullElse(tr.patron_hostlms_code(), UNKNOWN_HOST_LMS);
+	}
+
+	private Integer trackingLimitFor(String group) {
+		return concurrencyGroupService.getLimit(group, hostLmsConcurrency);
+	}
+
 	private <T> Function<Flux<T>, Flux<T>> enrichWithLogging( String successMsg, String errorMsg ) {
 		return (source) -> source
 			.doOnComplete(() -> log.info(successMsg))
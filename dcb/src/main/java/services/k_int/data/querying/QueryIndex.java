@@ -0,0 +1,27 @@
+package services.k_int.data.querying;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the database indexes that back a property, so the {@link QueryPlanner} can tell
+ * which admin queries can be answered without a full scan. Annotating any property of an
+ * entity opts that entity in to the unindexed query policy.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.FIELD, ElementType.ANNOTATION_TYPE})
+@Documented
+public @interface QueryIndex {
+
+	public static enum Type {
+		// Equality and range lookups
+		BTREE,
+		// Equality and wildcard (I)LIKE lookups via pg_trgm
+		TRIGRAM
+	}
+
+	Type[] value();
+}
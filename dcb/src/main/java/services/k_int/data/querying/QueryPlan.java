@@ -0,0 +1,55 @@
+package services.k_int.data.querying;
+
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.data.repository.jpa.criteria.QuerySpecification;
+import reactor.core.publisher.Mono;
+
+/**
+ * The result of planning a query, with the specification to run and whether an index
+ * can answer it.
+ */
+public class QueryPlan<T> {
+
+	public static enum Access {
+		INDEXED,
+		UNINDEXED
+	}
+
+	private final Class<T> entityClass;
+	private final QuerySpecification<T> specification;
+	private final Access access;
+	private final QueryPlanner planner;
+
+	QueryPlan(Class<T> entityClass, @Nullable QuerySpecification<T> specification, Access access,
+		QueryPlanner planner) {
+
+		this.entityClass = entityClass;
+		this.specification = specification;
+		this.access = access;
+		this.planner = planner;
+	}
+
+	public Class<T> getEntityClass() {
+		return entityClass;
+	}
+
+	@Nullable
+	public QuerySpecification<T> getSpecification() {
+		return specification;
+	}
+
+	public Access getAccess() {
+		return access;
+	}
+
+	/**
+	 * Run the planned query, recording how long it took and how many rows it returned
+	 */
+	public <R> Mono<R> execute(Function<QuerySpecification<T>, Publisher<R>> query) {
+		return planner.observe(this, Mono.defer(() -> Mono.from(query.apply(specification))));
+	}
+}
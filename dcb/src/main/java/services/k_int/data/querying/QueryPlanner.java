@@ -0,0 +1,298 @@
+package services.k_int.data.querying;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.apache.lucene.queryparser.flexible.core.nodes.AndQueryNode;
+import org.apache.lucene.queryparser.flexible.core.nodes.FieldQueryNode;
+import org.apache.lucene.queryparser.flexible.core.nodes.GroupQueryNode;
+import org.apache.lucene.queryparser.flexible.core.nodes.ModifierQueryNode;
+import org.apache.lucene.queryparser.flexible.core.nodes.OrQueryNode;
+import org.apache.lucene.queryparser.flexible.core.nodes.QueryNode;
+import org.apache.lucene.queryparser.flexible.core.nodes.RangeQueryNode;
+import org.apache.lucene.queryparser.flexible.standard.nodes.WildcardQueryNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.beans.BeanIntrospection;
+import io.micronaut.data.annotation.Id;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.repository.jpa.criteria.QuerySpecification;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Mono;
+import services.k_int.data.querying.QueryIndex.Type;
+import services.k_int.data.querying.QueryPlan.Access;
+import services.k_int.data.querying.QueryPlanningConfig.UnindexedPolicy;
+
+/**
+ * Works out whether a parsed query can be answered from the indexes declared on the entity
+ * with {@link QueryIndex}, and applies the configured policy to those that cannot.
+ *
+ * A conjunction is indexed when any of its terms is, a disjunction only when all of them are.
+ * Wildcards need a trigram index and at least {@link #MIN_TRIGRAM_LITERAL} consecutive
+ * literal characters, ranges need a btree. Negations are always treated as unindexed.
+ *
+ * Under the LIMIT policy each principal has their own allowance of unindexed queries, so one
+ * user's broad searches don't lock everyone else out.
+ */
+@Singleton
+public class QueryPlanner {
+
+	private static final Logger log = LoggerFactory.getLogger(QueryPlanner.class);
+
+	static final String METRIC_NAME = "dcb.query.lucene";
+
+	// pg_trgm can't use the index for patterns with no complete trigram
+	static final int MIN_TRIGRAM_LITERAL = 3;
+
+	// Unindexed queries from those not signed in share an allowance
+	private static final String ANONYMOUS = "";
+
+	private final QueryPlanningConfig config;
+	private final MeterRegistry meterRegistry;
+
+	// Fields given special handling by LuceneFieldQueryNodeBuilder rather than mapped to a property
+	private final List<VirtualQueryField> virtualFields;
+	// Matched with LIKE '%text%' rather than equality
+	private final Set<String> containsFields;
+
+	private final Map<Class<?>, Map<String, Set<Type>>> indexCache = new ConcurrentHashMap<>();
+
+	private final long windowNanos;
+	// Guarded by this
+	private final Map<String, UnindexedWindow> unindexedWindows = new HashMap<>();
+
+	public QueryPlanner(QueryPlanningConfig config, MeterRegistry meterRegistry, List<VirtualQueryField> virtualFields) {
+		this.config = config;
+		this.meterRegistry = meterRegistry;
+		this.virtualFields = List.copyOf(virtualFields);
+		this.containsFields = virtualFields.stream()
+			.filter(VirtualQueryField::contains)
+			.map(VirtualQueryField::name)
+			.collect(Collectors.toUnmodifiableSet());
+		this.windowNanos = config.getUnindexedWindow().toNanos();
+	}
+
+	public <T> QueryPlan<T> plan(String query, Class<T> entityClass, QueryNode tree, QuerySpecification<T> spec) {
+		return plan(query, entityClass, tree, spec, null);
+	}
+
+	/**
+	 * @param principal who the query is for, unindexed queries are limited per principal
+	 */
+	public <T> QueryPlan<T> plan(String query, Class<T> entityClass, QueryNode tree, QuerySpecification<T> spec,
+			@Nullable String principal) {
+
+		final Map<String, Set<Type>> indexes = indexesFor(entityClass);
+
+		// Entities that declare no indexes aren't subject to planning
+		if (indexes.isEmpty()) {
+			return new QueryPlan<>(entityClass, spec, Access.INDEXED, this);
+		}
+
+		final Access access = spec != null ? accessFor(tree, indexes) : Access.UNINDEXED;
+
+		meterRegistry.counter(METRIC_NAME + ".plan",
+			"entity", entityClass.getSimpleName(),
+			"access", access.name().toLowerCase()).increment();
+
+		if (access == Access.UNINDEXED) {
+			checkUnindexedAllowed(query, entityClass, principal);
+		}
+
+		return new QueryPlan<>(entityClass, spec, access, this);
+	}
+
+	private void checkUnindexedAllowed(String query, Class<?> entityClass, @Nullable String principal) {
+		final UnindexedPolicy policy = config.getUnindexedPolicy();
+
+		final boolean allowed = switch (policy) {
+			case ALLOW -> true;
+			case REJECT -> false;
+			case LIMIT -> tryAcquireUnindexed(principal != null ? principal : ANONYMOUS);
+		};
+
+		if (!allowed) {
+			meterRegistry.counter(METRIC_NAME + ".rejected", "entity", entityClass.getSimpleName()).increment();
+			log.warn("Rejected query [{}] from [{}] against {} as it would scan the whole table", query, principal, entityClass.getSimpleName());
+
+			throw new UnindexedQueryException(policy == UnindexedPolicy.LIMIT
+				? "Too many searches that need a full scan of %s, please narrow the search or try again later".formatted(entityClass.getSimpleName())
+				: "Searching %s needs an indexed field, please narrow the search".formatted(entityClass.getSimpleName()));
+		}
+
+		log.info("Allowing query [{}] from [{}] against {} that will scan the whole table", query, principal, entityClass.getSimpleName());
+	}
+
+	private synchronized boolean tryAcquireUnindexed(String principal) {
+		final long now = System.nanoTime();
+
+		// Forget windows that have passed, rather than holding one for everyone who has ever searched
+		unindexedWindows.values().removeIf(window -> now - window.start >= windowNanos);
+
+		final UnindexedWindow window = unindexedWindows.computeIfAbsent(principal, _principal -> new UnindexedWindow(now));
+
+		if (window.count >= config.getUnindexedLimit()) return false;
+
+		window.count++;
+		return true;
+	}
+
+	// Guarded by the planner lock
+	private static class UnindexedWindow {
+		private final long start;
+		private int count = 0;
+
+		private UnindexedWindow(long start) {
+			this.start = start;
+		}
+	}
+
+	Access accessFor(QueryNode node, Map<String, Set<Type>> indexes) {
+		if (node instanceof WildcardQueryNode wildcard) {
+			final Set<Type> types = indexes.getOrDefault(wildcard.getFieldAsString(), Set.of());
+
+			return types.contains(Type.TRIGRAM) && longestLiteral(wildcard.getTextAsString()) >= MIN_TRIGRAM_LITERAL
+				? Access.INDEXED
+				: Access.UNINDEXED;
+		}
+
+		if (node instanceof FieldQueryNode field) {
+			final String name = field.getFieldAsString();
+
+			if (containsFields.contains(name)) {
+				return indexes.getOrDefault(name, Set.of()).contains(Type.TRIGRAM)
+						&& longestLiteral(field.getTextAsString()) >= MIN_TRIGRAM_LITERAL
+					? Access.INDEXED
+					: Access.UNINDEXED;
+			}
+
+			return indexes.containsKey(name) ? Access.INDEXED : Access.UNINDEXED;
+		}
+
+		if (node instanceof RangeQueryNode<?> range) {
+			return indexes.getOrDefault(range.getField().toString(), Set.of()).contains(Type.BTREE)
+				? Access.INDEXED
+				: Access.UNINDEXED;
+		}
+
+		if (node instanceof ModifierQueryNode modifier) {
+			return modifier.getModifier() == ModifierQueryNode.Modifier.MOD_NOT
+				? Access.UNINDEXED
+				: accessFor(modifier.getChild(), indexes);
+		}
+
+		if (node instanceof GroupQueryNode group) {
+			return accessFor(group.getChild(), indexes);
+		}
+
+		if (node instanceof AndQueryNode) {
+			return children(node).stream().anyMatch(child -> accessFor(child, indexes) == Access.INDEXED)
+				? Access.INDEXED
+				: Access.UNINDEXED;
+		}
+
+		if (node instanceof OrQueryNode) {
+			final List<QueryNode> children = children(node);
+			return !children.isEmpty() && children.stream().allMatch(child -> accessFor(child, indexes) == Access.INDEXED)
+				? Access.INDEXED
+				: Access.UNINDEXED;
+		}
+
+		// Anything else contributes no predicate, see JpaQuerySpecificationBuilder
+		return Access.UNINDEXED;
+	}
+
+	private static List<QueryNode> children(QueryNode node) {
+		return node.getChildren() != null ? node.getChildren() : List.of();
+	}
+
+	static int longestLiteral(String pattern) {
+		int longest = 0;
+		int current = 0;
+		for (char c : pattern.toCharArray()) {
+			if (c == '*' || c == '?') {
+				current = 0;
+			} else {
+				longest = Math.max(longest, ++current);
+			}
+		}
+		return longest;
+	}
+
+	Map<String, Set<Type>> indexesFor(Class<?> entityClass) {
+		return indexCache.computeIfAbsent(entityClass, this::introspectIndexes);
+	}
+
+	private Map<String, Set<Type>> introspectIndexes(Class<?> entityClass) {
+		final Map<String, Set<Type>> indexes = new HashMap<>();
+
+		BeanIntrospection.getIntrospection(entityClass).getBeanProperties().forEach(property -> {
+			if (property.hasStereotype(QueryIndex.class)) {
+				indexes.computeIfAbsent(property.getName(), _name -> EnumSet.noneOf(Type.class))
+					.addAll(List.of(property.enumValues(QueryIndex.class, Type.class)));
+			}
+		});
+
+		if (indexes.isEmpty()) return Map.of();
+
+		// Primary keys are always indexed
+		BeanIntrospection.getIntrospection(entityClass).getBeanProperties().stream()
+			.filter(property -> property.hasStereotype(Id.class))
+			.forEach(property -> indexes.computeIfAbsent(property.getName(), _name -> EnumSet.noneOf(Type.class))
+				.add(Type.BTREE));
+
+		virtualFields.stream()
+			.filter(field -> field.entityClass().equals(entityClass))
+			.forEach(field -> indexes.putIfAbsent(field.name(), field.indexes()));
+
+		return Map.copyOf(indexes);
+	}
+
+	<T, R> Mono<R> observe(QueryPlan<T> plan, Mono<R> results) {
+		return Mono.defer(() -> {
+			final long start = System.nanoTime();
+			final AtomicLong rows = new AtomicLong();
+
+			return results
+				.doOnNext(result -> rows.addAndGet(result instanceof Page<?> page ? page.getContent().size() : 1))
+				.doOnEach(signal -> {
+					if (signal.isOnComplete() || signal.isOnError()) {
+						record(plan, signal.isOnError() ? "error" : "success", start, rows.get());
+					}
+				});
+		});
+	}
+
+	private void record(QueryPlan<?> plan, String outcome, long start, long rows) {
+		final String entity = plan.getEntityClass().getSimpleName();
+		final String access = plan.getAccess().name().toLowerCase();
+
+		Timer.builder(METRIC_NAME)
+			.description("Time taken to run an admin search")
+			.tag("entity", entity)
+			.tag("access", access)
+			.tag("outcome", outcome)
+			.publishPercentiles(0.5, 0.95, 0.99)
+			.register(meterRegistry)
+			.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+		DistributionSummary.builder(METRIC_NAME + ".rows")
+			.description("Number of rows returned by an admin search")
+			.tag("entity", entity)
+			.tag("access", access)
+			.register(meterRegistry)
+			.record(rows);
+	}
+}
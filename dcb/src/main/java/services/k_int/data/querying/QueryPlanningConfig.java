@@ -0,0 +1,33 @@
+package services.k_int.data.querying;
+
+import java.time.Duration;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+
+@ConfigurationProperties(QueryPlanningConfig.PREFIX)
+public interface QueryPlanningConfig {
+	public static final String PREFIX = "services.k-int.data.querying.planning";
+
+	public static enum UnindexedPolicy {
+		ALLOW,
+		LIMIT,
+		REJECT
+	}
+
+	/**
+	 * What to do with a query against an entity declaring {@link QueryIndex}es that none of
+	 * those indexes can answer.
+	 */
+	@Bindable(defaultValue = "LIMIT")
+	UnindexedPolicy getUnindexedPolicy();
+
+	/**
+	 * Number of unindexed queries accepted per window when the policy is LIMIT
+	 */
+	@Bindable(defaultValue = "5")
+	int getUnindexedLimit();
+
+	@Bindable(defaultValue = "PT1M")
+	Duration getUnindexedWindow();
+}
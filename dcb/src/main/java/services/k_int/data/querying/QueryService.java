@@ -11,6 +11,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.annotation.Nullable;
 import io.micronaut.core.beans.BeanIntrospection;
 import io.micronaut.core.beans.BeanProperty;
 import io.micronaut.data.annotation.Id;
@@ -18,6 +19,7 @@ import io.micronaut.data.repository.jpa.criteria.QuerySpecification;
 import jakarta.inject.Singleton;
 import lombok.Setter;
 import services.k_int.data.querying.lucene.JpaSpecificationQueryParser;
+import services.k_int.data.querying.lucene.JpaSpecificationQueryParser.ParsedQuery;
 
 @Setter
 @ConfigurationProperties("services.k-int.data.querying")
@@ -30,12 +32,18 @@ public class QueryService {
 	
 	private static final Logger log = LoggerFactory.getLogger(QueryService.class);
 
-	private <T> QuerySpecification<T> parse(String q, Class<T> entityClass) throws QueryNodeException {
+	private final QueryPlanner planner;
+
+	public QueryService(QueryPlanner planner) {
+		this.planner = planner;
+	}
+
+	private <T> ParsedQuery<T> parse(String q, Class<T> entityClass) throws QueryNodeException {
 		log.debug("parse({})", q);
 		JpaSpecificationQueryParser<T> qpHelper = new JpaSpecificationQueryParser<>();
 		qpHelper.getQueryConfigHandler().set(StandardQueryConfigHandler.ConfigurationKeys.ALLOW_LEADING_WILDCARD, allowLeadingWildcard);
-		QuerySpecification<T> query = qpHelper.parse(q, getDefaultFieldForType( entityClass ));
-		log.debug("returning: {}", Objects.toString(query, null));
+		ParsedQuery<T> query = qpHelper.parseTree(q, getDefaultFieldForType( entityClass ));
+		log.debug("returning: {}", Objects.toString(query.specification(), null));
 		return query;
 	}
 	
@@ -89,9 +97,27 @@ public class QueryService {
 
 	public <T> QuerySpecification<T> evaluate(String q, Class<T> c) throws Exception {
 		log.debug("evaluate({},{},...)", q, c);
+		return plan(q, c).getSpecification();
+	}
+
+	/**
+	 * Parse the query and check it can be answered from the indexes of the entity. Running
+	 * the query through {@link QueryPlan#execute(java.util.function.Function)} also records
+	 * its timing and the number of rows returned.
+	 *
+	 * @throws UnindexedQueryException if the query would scan the whole table and the policy forbids it
+	 */
+	public <T> QueryPlan<T> plan(String q, Class<T> c) throws Exception {
+		return plan(q, c, null);
+	}
+
+	/**
+	 * As {@link #plan(String, Class)}, counting any unindexed query against the allowance of the given principal
+	 */
+	public <T> QueryPlan<T> plan(String q, Class<T> c, @Nullable String principal) throws Exception {
 		try {
-			QuerySpecification<T> parsed_query = parse(q, c);
-			return parsed_query;
+			ParsedQuery<T> parsed_query = parse(q, c);
+			return planner.plan(q, c, parsed_query.tree(), parsed_query.specification(), principal);
 
 		} catch (QueryNodeException qne) {
 			log.error("Problem parsing query");
@@ -0,0 +1,10 @@
+package services.k_int.data.querying;
+
+public class UnindexedQueryException extends IllegalArgumentException {
+
+	private static final long serialVersionUID = 1L;
+
+	public UnindexedQueryException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,15 @@
+package services.k_int.data.querying;
+
+import java.util.Set;
+
+import services.k_int.data.querying.QueryIndex.Type;
+
+/**
+ * A field that can be searched on an entity without being one of its properties, such as those
+ * given special handling by LuceneFieldQueryNodeBuilder. Beans of this type tell the
+ * {@link QueryPlanner} which indexes back the field, as it cannot find them by introspection.
+ *
+ * @param contains whether the field is matched with LIKE '%text%' rather than equality
+ */
+public record VirtualQueryField(Class<?> entityClass, String name, Set<Type> indexes, boolean contains) {
+}
@@ -2,6 +2,8 @@ package services.k_int.data.querying.lucene;
 
 import org.apache.lucene.queryparser.flexible.core.QueryNodeException;
 import org.apache.lucene.queryparser.flexible.core.QueryParserHelper;
+import org.apache.lucene.queryparser.flexible.core.nodes.QueryNode;
+import org.apache.lucene.queryparser.flexible.core.processors.QueryNodeProcessor;
 import org.apache.lucene.queryparser.flexible.standard.config.StandardQueryConfigHandler;
 import org.apache.lucene.queryparser.flexible.standard.parser.StandardSyntaxParser;
 import org.apache.lucene.queryparser.flexible.standard.processors.StandardQueryNodeProcessorPipeline;
@@ -36,4 +38,23 @@ public class JpaSpecificationQueryParser<T> extends QueryParserHelper {
 	public QuerySpecification<T> parse(String query, String defaultField) throws QueryNodeException {
 		return (QuerySpecification<T>) super.parse(query, defaultField);
 	}
+
+	/**
+	 * Parse as {@link #parse(String, String)} does, but keep hold of the processed query tree
+	 * so it can be inspected alongside the specification built from it.
+	 */
+	@SuppressWarnings("unchecked")
+	public ParsedQuery<T> parseTree(String query, String defaultField) throws QueryNodeException {
+		QueryNode tree = getSyntaxParser().parse(query, defaultField);
+
+		final QueryNodeProcessor processor = getQueryNodeProcessor();
+		if (processor != null) {
+			tree = processor.process(tree);
+		}
+
+		return new ParsedQuery<>(tree, (QuerySpecification<T>) getQueryBuilder().build(tree));
+	}
+
+	public static record ParsedQuery<T>(QueryNode tree, QuerySpecification<T> specification) {
+	}
 }
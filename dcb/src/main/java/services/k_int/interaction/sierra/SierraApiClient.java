@@ -40,13 +40,14 @@ public interface SierraApiClient extends BasicAuthClient {
 	Publisher<JsonNode> bibsRawResponse(@Nullable final Integer limit, @Nullable final Integer offset,
 			@Nullable final String createdDate, @Nullable final String updatedDate, @Nullable final Iterable<String> fields,
 			@Nullable final Boolean deleted, @Nullable final String deletedDate, @Nullable final Boolean suppressed,
-			@Nullable final Iterable<String> locations);
+			@Nullable final Iterable<String> locations, @Nullable final String id);
 
 	@SingleResult
 	default Publisher<JsonNode> bibsRawResponse( BibParams params ) {
 		return bibsRawResponse(params.getLimit(), params.getOffset(), Objects.toString(params.getCreatedDate(), null),
 				Objects.toString(params.getUpdatedDate(), null), nullIfEmpty(params.getFields()), params.getDeleted(),
-				Objects.toString(params.getDeletedDate(), null), params.getSuppressed(), nullIfEmpty(params.getLocations()));
+				Objects.toString(params.getDeletedDate(), null), params.getSuppressed(), nullIfEmpty(params.getLocations()),
+				params.getId());
 	}	
 	@SingleResult
 	default Publisher<BibResultSet> bibs(BibParams params) {
@@ -22,6 +22,10 @@ public class BibParams {
 	@Nullable
 	Integer offset;
 
+	// A single id, a list, or a range such as [1000000,] which also orders results by id
+	@Nullable
+	String id;
+
 	@Nullable
 	@Singular
 	Set<String> fields;
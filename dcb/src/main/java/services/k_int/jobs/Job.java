@@ -46,4 +46,16 @@ public interface Job<T> {
 	 */
 	@SingleResult
 	Publisher<JobChunk<T>> start();
+	
+	/**
+	 * Whether the next chunk can be fetched before the current one has been processed. Only true
+	 * when {@link #resume(JsonNode)} depends on nothing but the checkpoint it is given, and not
+	 * on the effects of processing earlier chunks, e.g. jobs that page through a remote source
+	 * rather than taking the next page of work still to be done.
+	 * 
+	 * @return true if chunks may be fetched ahead
+	 */
+	default boolean isPrefetchable() {
+		return false;
+	}
 }
@@ -0,0 +1,17 @@
+package services.k_int.jobs;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+import io.micronaut.core.bind.annotation.Bindable;
+
+@ConfigurationProperties(JobRunnerConfig.PREFIX)
+public interface JobRunnerConfig {
+	public static final String PREFIX = "services.k-int.jobs.runner";
+
+	/**
+	 * Number of chunks fetched ahead of the one being processed, for jobs that support it
+	 * (see {@link Job#isPrefetchable()}). 0 fetches each chunk only once the previous one has
+	 * been processed.
+	 */
+	@Bindable(defaultValue = "2")
+	int getPrefetch();
+}
@@ -28,6 +28,10 @@ import services.k_int.jobs.JobChunkProcessor.ApplicableChunkTypes;
  * This class manages the saving of the provided Checkpoint value and uses that to obtain the "next"
  * chunk of data. Failure in processing results in the checkpoint not being saved, ensuring proper resumption.  
  * 
+ * For jobs that are {@link Job#isPrefetchable() prefetchable} the next chunks are fetched while the current one
+ * is processed, up to the configured prefetch. Chunks are still processed, and their checkpoints saved, one at a
+ * time in order. Chunks fetched ahead are simply dropped if the run stops, and fetched again on resumption.
+ * 
  * @author Steve Osguthorpe
  */
 @Slf4j
@@ -38,10 +42,12 @@ public class ReactiveJobRunnerService {
 
 	private final JobCheckpointRepository checkpoints;
 	private final BeanContext context;
+	private final JobRunnerConfig config;
 	
-	public ReactiveJobRunnerService(JobCheckpointRepository checkpoints, BeanContext context) {
+	public ReactiveJobRunnerService(JobCheckpointRepository checkpoints, BeanContext context, JobRunnerConfig config) {
 		this.checkpoints = checkpoints;
 		this.context = context;
+		this.config = config;
 	}
 	
 	/**
@@ -112,27 +118,48 @@ public class ReactiveJobRunnerService {
 	 * @return Publisher of chunks processed
 	 */
 	public <CT> Flux<JobChunk<CT>> processJobInstance ( final Job<CT> jobInstance ) {
-		return Mono.defer( () -> readLastCheckpointData(jobInstance) )
+		final Mono<JobChunk<CT>> firstChunk = Mono.defer( () -> readLastCheckpointData(jobInstance) )
 			.flatMap( checkPoint -> {
 				final var pub = checkPoint.isPresent() ? jobInstance.resume(checkPoint.get()) : jobInstance.start();
 				return Mono.from(pub);
-			})
+			});
+		
+		final int prefetch = config.getPrefetch();
+		if (prefetch > 0 && jobInstance.isPrefetchable()) {
+			log.info("Running job [{}] fetching up to {} chunks ahead", jobInstance.getName(), prefetch);
+			return processPipelined(jobInstance, firstChunk, prefetch);
+		}
+		
+		return firstChunk
 			.expand( chunk -> {
 				
 				return processChunkAndSaveCheckpoint(chunk)
 
-					.flatMap(theChunk -> {
-						if (theChunk.isLastChunk()) {
-							log.info("Ending job run as chunk was marked as the last one");
-							return Mono.empty();
-						}
-						final var checkpoint = theChunk.getCheckpoint();
-						return Mono.from( jobInstance.resume( checkpoint ) )
-              .doOnError( e -> log.error(" Error in process chunk {}",e.getMessage(),e))
-							.doOnNext( cp -> log.info("Get next chunk using checkpoint"));
-					});
+					.flatMap(theChunk -> nextChunk(jobInstance, theChunk));
 			});
 	}
+	
+	private <CT> Flux<JobChunk<CT>> processPipelined ( final Job<CT> jobInstance, final Mono<JobChunk<CT>> firstChunk, final int prefetch ) {
+		
+		// Fetching runs ahead of processing, limited by the demand from concatMap.
+		final Flux<JobChunk<CT>> fetched = firstChunk
+			.expand( chunk -> nextChunk(jobInstance, chunk) );
+		
+		// Errors fetching ahead are held until the chunk being processed has finished, and its checkpoint saved.
+		return fetched
+			.concatMapDelayError( this::processChunkAndSaveCheckpoint, false, prefetch );
+	}
+	
+	private <CT> Mono<JobChunk<CT>> nextChunk( final Job<CT> jobInstance, final JobChunk<CT> chunk ) {
+		if (chunk.isLastChunk()) {
+			log.info("Ending job run as chunk was marked as the last one");
+			return Mono.empty();
+		}
+		final var checkpoint = chunk.getCheckpoint();
+		return Mono.from( jobInstance.resume( checkpoint ) )
+      .doOnError( e -> log.error(" Error in process chunk {}",e.getMessage(),e))
+			.doOnNext( cp -> log.info("Get next chunk using checkpoint"));
+	}
 
 	@Transactional(readOnly = true)
 	protected Flux<JobInstanceProvider> fetchAllProviderData( List<JobInstanceProvider> providers ) {
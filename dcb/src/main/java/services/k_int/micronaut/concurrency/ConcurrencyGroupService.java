@@ -48,6 +48,14 @@ public class ConcurrencyGroupService {
 		
 	}
 	
+	/**
+	 * The limit of the named group if one has been configured, otherwise the supplied default.
+	 */
+	public int getLimit( @NonNull String groupKey, int defaultLimit ) {
+		final ConcurrencyGroup group = allGroups.get(groupKey);
+		return group != null ? group.getLimit() : defaultLimit;
+	}
+	
 	public <R, T extends ConcurrencyGroupAware> Function<Publisher<T>, Flux<R>> toGroupedSubscription( Function<T, Publisher<R>> getPublisher ) {
 		return ( Publisher<T> allPublishers ) -> getConcurrencyGroupAwareSubscription( allPublishers, getPublisher );
 	}
@@ -80,36 +88,28 @@ public class ConcurrencyGroupService {
 		return _sub -> log.debug("Starting subscription using {} for group {}", _sub.getClass(), group);
 	}
 	
+	/**
+	 * As {@link #getGroupedSubscription(Publisher, Function, Function, Function)}, but with no more than
+	 * totalLimit publishers subscribed at once across all of the groups.
+	 */
+	public <T, R> Flux<R> getGroupedSubscription(Publisher<T> allPublishers, Function<T, String> getGroupKey, Function<String, Integer> groupKeyToLimit, int totalLimit, Function<T, Publisher<R>> getPublisher) {
+		
+		final ConcurrencyLimiter limiter = new ConcurrencyLimiter(totalLimit);
+		
+		return getGroupedSubscription(allPublishers, getGroupKey, groupKeyToLimit,
+			source -> limiter.limit(() -> getPublisher.apply(source)));
+	}
+	
+	/**
+	 * Subscribe to the publisher for each source, with no more than the limit of its group subscribed at once.
+	 * Sources are streamed into their groups as they arrive, rather than the whole source being read first.
+	 */
 	public <T, R> Flux<R> getGroupedSubscription(Publisher<T> allPublishers, Function<T, String> getGroupKey, Function<String, Integer> groupKeyToLimit, Function<T, Publisher<R>> getPublisher) {
 		
 		return Flux.from(allPublishers)
-			.collectMultimap(getGroupKey)
-			.flux()
-			.flatMap( sources -> {
-				if (sources.size() < 1) {
-					return Flux.empty();
-				}
-				
-				// Go through all groups and get the source and max limits.
-				var groups = sources.keySet().iterator();
-				
-				// First group.
-				var group = groups.next();
-				
-				int limit = groupKeyToLimit.apply( group );
-				
-				var flux = Flux.fromIterable(sources.get(group))
-						.transform( this.doMapping(getPublisher, limit, group));
-				
-				// Any more groups.
-				while (groups.hasNext()) {
-					group = groups.next();
-					limit = groupKeyToLimit.apply( group );
-					flux = flux.mergeWith(Flux.fromIterable(sources.get(group))
-						.transform( this.doMapping(getPublisher, limit, group) ));
-				}
-				
-				return flux;
-			});
+			.groupBy(getGroupKey)
+			// Every group has to be subscribed for the source to keep flowing, so no limit on the groups themselves.
+			.flatMap( group -> group.transform( this.doMapping(getPublisher, groupKeyToLimit.apply( group.key() ), group.key()) ),
+				Integer.MAX_VALUE);
 	}
 }
@@ -0,0 +1,123 @@
+package services.k_int.micronaut.concurrency;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.reactivestreams.Publisher;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Limit on the number of publishers subscribed at once, shared by everything run through it.
+ * Publishers beyond the limit wait, in the order they arrived, for one in progress to finish.
+ * The limit can be changed while in use, see {@link #setLimit(int)}.
+ */
+public class ConcurrencyLimiter {
+
+	private final Deque<Permit> waiting = new ArrayDeque<>();
+	private int limit;
+	private int inProgress = 0;
+
+	public ConcurrencyLimiter(int limit) {
+		this.limit = Math.max(limit, 1);
+	}
+
+	public synchronized int getLimit() {
+		return limit;
+	}
+
+	public synchronized int getInProgress() {
+		return inProgress;
+	}
+
+	/**
+	 * Change the limit. Raising it starts waiting publishers straight away, lowering it lets
+	 * those in progress finish and holds back the next until the new limit allows.
+	 */
+	public void setLimit(int newLimit) {
+		final List<Permit> granted = new ArrayList<>();
+		synchronized (this) {
+			limit = Math.max(newLimit, 1);
+
+			Permit next;
+			while ((next = grantNext()) != null) {
+				granted.add(next);
+			}
+		}
+
+		granted.forEach(permit -> permit.sink.success());
+	}
+
+	/**
+	 * Subscribe to the supplied publisher once the limit allows it.
+	 */
+	public <T> Flux<T> limit(Supplier<? extends Publisher<T>> publisher) {
+		return Flux.defer(() -> {
+			final Permit permit = new Permit();
+
+			return Mono.<Void>create(sink -> acquire(permit, sink))
+				.thenMany(Flux.defer(publisher))
+				.doFinally(_signal -> release(permit));
+		});
+	}
+
+	private void acquire(Permit permit, MonoSink<Void> sink) {
+		synchronized (this) {
+			if (permit.finished) return;
+
+			permit.sink = sink;
+			if (inProgress < limit) {
+				inProgress++;
+				permit.granted = true;
+			} else {
+				waiting.add(permit);
+			}
+		}
+
+		if (permit.granted) sink.success();
+	}
+
+	private void release(Permit permit) {
+		final Permit next;
+		synchronized (this) {
+			if (permit.finished) return;
+			permit.finished = true;
+
+			if (!permit.granted) {
+				// Gave up while waiting.
+				waiting.remove(permit);
+				return;
+			}
+
+			inProgress--;
+			next = grantNext();
+		}
+
+		if (next != null) next.sink.success();
+	}
+
+	// Must hold the lock. The permit passes straight to the waiter.
+	private Permit grantNext() {
+		if (inProgress >= limit) return null;
+
+		final Permit next = waiting.poll();
+		if (next != null) {
+			inProgress++;
+			next.granted = true;
+		}
+
+		return next;
+	}
+
+	// Guarded by the limiter lock.
+	private static class Permit {
+		private MonoSink<Void> sink;
+		private boolean granted = false;
+		private boolean finished = false;
+	}
+}
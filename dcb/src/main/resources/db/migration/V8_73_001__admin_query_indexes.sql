@@ -0,0 +1,18 @@
+-- Indexes backing the fields the admin search planner treats as indexed, see @QueryIndex
+-- Built concurrently so writes to these busy tables carry on meanwhile, which can't be done
+-- inside a transaction, see the accompanying .sql.conf. The trigram indexes need pg_trgm,
+-- which isn't always available, so are left to V8_73_005__Admin_query_trigram_indexes.
+create index concurrently if not exists idx_pr_date_created on patron_request(date_created, id);
+create index concurrently if not exists idx_pr_date_updated on patron_request(date_updated);
+create index concurrently if not exists idx_pr_status_code on patron_request(status_code);
+create index concurrently if not exists idx_pr_patron_hostlms_code on patron_request(patron_hostlms_code);
+create index concurrently if not exists idx_pr_bib_cluster on patron_request(bib_cluster_id);
+
+create index concurrently if not exists idx_sr_patron_request on supplier_request(patron_request_id);
+create index concurrently if not exists idx_sr_local_agency on supplier_request(local_agency);
+
+create index concurrently if not exists idx_bib_date_created on bib_record(date_created, id);
+
+-- Cursor paging of the audit and data change log lists
+create index concurrently if not exists idx_pra_audit_date on patron_request_audit(audit_date, id);
+create index concurrently if not exists idx_dcl_timestamp_logged on data_change_log(timestamp_logged, id);
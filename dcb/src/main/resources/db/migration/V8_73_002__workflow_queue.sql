@@ -0,0 +1,14 @@
+-- Durable queue of patron requests awaiting workflow progression, see WorkflowQueue
+-- One row per request, so at most one node works on a request at a time
+create table if not exists workflow_queue (
+	patron_request_id uuid primary key references patron_request(id) on delete cascade,
+	enqueued_at timestamp not null,
+	available_at timestamp not null,
+	generation bigint not null default 0,
+	attempts int not null default 0,
+	claimed_by varchar(64),
+	claimed_until timestamp,
+	last_error text
+);
+
+create index if not exists idx_wq_available_at on workflow_queue(available_at);
@@ -0,0 +1,6 @@
+-- Compact alternative to source_record_data, see SourceRecordPayloadCodec
+-- A record holds its payload in one or the other
+alter table source_record add column if not exists source_record_data_compact bytea;
+
+-- Already compressed, so don't have TOAST try again
+alter table source_record alter column source_record_data_compact set storage external;
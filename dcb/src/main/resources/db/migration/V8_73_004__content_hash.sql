@@ -0,0 +1,3 @@
+-- Hash of the source payload, and of the payload a bib was last built from, see SourceRecordContentHash
+alter table source_record add column if not exists content_hash varchar(64);
+alter table bib_record add column if not exists content_hash varchar(64);
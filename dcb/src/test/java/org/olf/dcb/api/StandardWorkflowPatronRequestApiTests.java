@@ -12,6 +12,8 @@ import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.nullValue;
@@ -26,6 +28,7 @@ import static org.olf.dcb.core.model.PatronRequest.Status.REQUEST_PLACED_AT_SUPP
 import static org.olf.dcb.core.model.PatronRequest.Status.RESOLVED;
 import static org.olf.dcb.core.model.PatronRequest.Status.RETURN_TRANSIT;
 import static org.olf.dcb.core.model.PatronRequest.Status.SUBMITTED_TO_DCB;
+import static org.olf.dcb.test.PublisherUtils.singleValueFrom;
 import static org.olf.dcb.test.clients.ChecksFailure.Check.hasCode;
 import static org.olf.dcb.test.clients.ChecksFailure.Check.hasDescription;
 import static org.olf.dcb.test.matchers.PatronRequestMatchers.hasStatus;
@@ -34,6 +37,7 @@ import static org.olf.dcb.test.matchers.SupplierRequestMatchers.hasLocalItemId;
 import static org.olf.dcb.test.matchers.SupplierRequestMatchers.hasLocalStatus;
 
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -54,6 +58,7 @@ import org.olf.dcb.core.interaction.sierra.SierraPatronsAPIFixture;
 import org.olf.dcb.core.model.Event;
 import org.olf.dcb.core.model.PatronRequest;
 import org.olf.dcb.core.model.PatronRequestAudit;
+import org.olf.dcb.request.fulfilment.PatronRequestAuditBuffer;
 import org.olf.dcb.test.AgencyFixture;
 import org.olf.dcb.test.BibRecordFixture;
 import org.olf.dcb.test.ClusterRecordFixture;
@@ -68,6 +73,7 @@ import org.olf.dcb.test.SupplierRequestsFixture;
 import org.olf.dcb.test.TrackingFixture;
 import org.olf.dcb.test.clients.ChecksFailure;
 
+import io.micronaut.context.annotation.Property;
 import io.micronaut.http.client.exceptions.HttpClientResponseException;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
@@ -79,6 +85,8 @@ import services.k_int.interaction.sierra.holds.SierraPatronHold;
 import services.k_int.interaction.sierra.patrons.SierraPatronRecord;
 import services.k_int.test.mockserver.MockServerMicronautTest;
 
+// Audits held back by write-behind are only written when a test flushes them
+@Property(name = "dcb.audit.write-behind.flush-interval", value = "1h")
 @MockServerMicronautTest
 @TestInstance(PER_CLASS)
 @Slf4j
@@ -123,6 +131,9 @@ class StandardWorkflowPatronRequestApiTests {
 	@Inject
 	private ConsortiumFixture consortiumFixture;
 
+	@Inject
+	private PatronRequestAuditBuffer patronRequestAuditBuffer;
+
 	@Inject
 	private PatronRequestApiClient patronRequestApiClient;
 	@Inject
@@ -490,6 +501,8 @@ class StandardWorkflowPatronRequestApiTests {
 			is(REQUEST_PLACED_AT_BORROWING_AGENCY)
 		));
 
+		assertNoAuditsLostOrReorderedByWriteBehind(placedPatronRequest.getId());
+
 		assertThat("Should not record any failed check event log entries",
 			eventLogFixture.findAll(), hasSize(0));
 	}
@@ -644,6 +657,8 @@ class StandardWorkflowPatronRequestApiTests {
 			hasLocalStatus("CONFIRMED")
 		));
 
+		assertNoAuditsLostOrReorderedByWriteBehind(fetchedPatronRequest.getId());
+
 		final var sortedDistinctToStatus = patronRequestsFixture.findAuditEntries(fetchedPatronRequest)
 			.stream()
 			.sorted(Comparator.comparing(PatronRequestAudit::getAuditDate))
@@ -836,6 +851,44 @@ class StandardWorkflowPatronRequestApiTests {
 			rolledBackPatronRequest.getNextExpectedStatus(), is(RETURN_TRANSIT.getNextExpectedStatus("RET-STD")));
 	}
 
+	/**
+	 * Audits that don't record a change of status are held back and written in a batch. Once
+	 * flushed, all of those should have been written alongside the ones written straight away,
+	 * and each should sit after the change into the status it was recorded in.
+	 */
+	private void assertNoAuditsLostOrReorderedByWriteBehind(UUID patronRequestId) {
+		final var patronRequest = patronRequestsFixture.findById(patronRequestId);
+
+		final var writtenStraightAway = patronRequestsFixture.findAuditEntries(patronRequest);
+
+		singleValueFrom(patronRequestAuditBuffer.flush());
+
+		final var audits = patronRequestsFixture.findAuditEntries(patronRequest).stream()
+			.sorted(Comparator.comparing(PatronRequestAudit::getAuditDate))
+			.toList();
+
+		assertThat("Should keep the audits written straight away",
+			audits.stream().map(PatronRequestAudit::getId).toList(),
+			hasItems(writtenStraightAway.stream().map(PatronRequestAudit::getId).toArray(UUID[]::new)));
+
+		assertThat("Should write the audits held back once flushed",
+			audits.size(), greaterThan(writtenStraightAway.size()));
+
+		final var reachedStatuses = new HashSet<PatronRequest.Status>();
+
+		for (final var audit : audits) {
+			if (audit.getFromStatus() != audit.getToStatus()) {
+				reachedStatuses.add(audit.getFromStatus());
+				reachedStatuses.add(audit.getToStatus());
+			}
+			else {
+				assertThat("Audit \"%s\" should come after the request reached %s"
+						.formatted(audit.getBriefDescription(), audit.getToStatus()),
+					reachedStatuses.contains(audit.getToStatus()), is(true));
+			}
+		}
+	}
+
 	private static Matcher<Object> isPlacedAtBorrowingAgency() {
 		return hasProperty("status",
 			hasProperty("code", is("REQUEST_PLACED_AT_BORROWING_AGENCY")
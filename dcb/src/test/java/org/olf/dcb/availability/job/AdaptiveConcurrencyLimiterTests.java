@@ -0,0 +1,106 @@
+package org.olf.dcb.availability.job;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class AdaptiveConcurrencyLimiterTests {
+	private static final long FAST = Duration.ofMillis(10).toNanos();
+	private static final long SLOW = Duration.ofSeconds(10).toNanos();
+
+	@Test
+	void shouldHalveLimitOnFailure() {
+		final var limiter = limiter(8);
+
+		limiter.onSample(FAST, true);
+
+		assertThat(limiter.getLimit(), is(4));
+	}
+
+	@Test
+	void shouldNotDropBelowMinimum() {
+		final var limiter = limiter(2);
+
+		limiter.onSample(FAST, true);
+		limiter.onSample(FAST, true);
+		limiter.onSample(SLOW, false);
+
+		assertThat(limiter.getLimit(), is(1));
+	}
+
+	@Test
+	void shouldGrowLimitWhileHealthy() {
+		final var limiter = limiter(2);
+
+		// The limit only grows while it is being used
+		final Sinks.One<String> held = Sinks.one();
+		limiter.limit(held::asMono, _result -> false).subscribe();
+		limiter.limit(held::asMono, _result -> false).subscribe();
+
+		for (int i = 0; i < 50; i++) {
+			limiter.onSample(FAST, false);
+		}
+
+		assertThat(limiter.getLimit(), greaterThan(2));
+	}
+
+	@Test
+	void shouldHoldCallsBeyondLimitUntilPermitReleased() {
+		final var limiter = limiter(1);
+		final Sinks.One<String> first = Sinks.one();
+
+		limiter.limit(first::asMono, _result -> false).subscribe();
+		final var second = limiter.limit(() -> Mono.just("second"), _result -> false).toFuture();
+
+		assertThat(limiter.getInFlight(), is(1));
+		assertThat(second.isDone(), is(false));
+
+		first.tryEmitValue("first");
+
+		assertThat(second.isDone(), is(true));
+		assertThat(limiter.getInFlight(), is(0));
+	}
+
+	@Test
+	void shouldNotHoldPermitForCancelledWaiter() {
+		final var limiter = limiter(1);
+		final Sinks.One<String> first = Sinks.one();
+
+		limiter.limit(first::asMono, _result -> false).subscribe();
+		limiter.limit(() -> Mono.just("cancelled"), _result -> false).subscribe().dispose();
+
+		first.tryEmitValue("first");
+
+		assertThat(limiter.getInFlight(), is(0));
+	}
+
+	@Test
+	void shouldStartWaitingCallOnceLimitGrows() {
+		final var limiter = limiter(1);
+		final Sinks.One<String> held = Sinks.one();
+
+		limiter.limit(held::asMono, _result -> false).subscribe();
+		final var waiting = limiter.limit(() -> Mono.just("waiting"), _result -> false).toFuture();
+
+		assertThat(waiting.isDone(), is(false));
+
+		// Grows by one per round of healthy calls at the current limit
+		limiter.onSample(FAST, false);
+
+		assertThat(limiter.getLimit(), is(2));
+		assertThat(waiting.isDone(), is(true));
+	}
+
+	private static AdaptiveConcurrencyLimiter limiter(int initial) {
+		return new AdaptiveConcurrencyLimiter("test", initial, 1, 10, Duration.ofSeconds(5),
+			new SimpleMeterRegistry());
+	}
+}
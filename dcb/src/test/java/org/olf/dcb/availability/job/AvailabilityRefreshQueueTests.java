@@ -0,0 +1,63 @@
+package org.olf.dcb.availability.job;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.availability.job.AvailabilityRefreshQueue.BibKey;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AvailabilityRefreshQueueTests {
+	@Test
+	void shouldHoldBibsUntilDebouncePeriodHasPassed() {
+		final var queue = queue(Duration.ofMinutes(5), 10);
+
+		queue.enqueue("host-lms", "bib-1");
+
+		assertThat(queue.takeDue(), is(empty()));
+		assertThat(queue.pendingCount(), is(1));
+	}
+
+	@Test
+	void shouldQueueRepeatedChangesToSameBibOnce() {
+		final var queue = queue(Duration.ZERO, 10);
+
+		queue.enqueue("host-lms", "bib-1");
+		queue.enqueue("host-lms", "bib-1");
+
+		assertThat(queue.takeDue(), contains(new BibKey("host-lms", "bib-1")));
+		assertThat(queue.pendingCount(), is(0));
+	}
+
+	@Test
+	void shouldLimitEachBatchToConfiguredSize() {
+		final var queue = queue(Duration.ZERO, 2);
+
+		queue.enqueue("host-lms", "bib-1");
+		queue.enqueue("host-lms", "bib-2");
+		queue.enqueue("host-lms", "bib-3");
+
+		assertThat(queue.takeDue(), hasSize(2));
+		assertThat(queue.pendingCount(), is(1));
+	}
+
+	@Test
+	void shouldIgnoreChangesWithoutBib() {
+		final var queue = queue(Duration.ZERO, 10);
+
+		queue.enqueue("host-lms", null);
+
+		assertThat(queue.pendingCount(), is(0));
+	}
+
+	private static AvailabilityRefreshQueue queue(Duration debounce, int batchSize) {
+		return new AvailabilityRefreshQueue(true, debounce, batchSize, 1, null, null, null,
+			new SimpleMeterRegistry());
+	}
+}
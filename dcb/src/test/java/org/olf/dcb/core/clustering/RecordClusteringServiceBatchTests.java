@@ -0,0 +1,240 @@
+package org.olf.dcb.core.clustering;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+import static org.olf.dcb.test.PublisherUtils.manyValuesFrom;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.olf.dcb.core.audit.ProcessAuditService;
+import org.olf.dcb.core.model.BibRecord;
+import org.olf.dcb.core.svc.BibRecordService;
+import org.olf.dcb.test.BibRecordFixture;
+import org.olf.dcb.test.ClusterRecordFixture;
+import org.olf.dcb.test.DcbTestContainerContextBuilder;
+import org.olf.dcb.test.HostLmsFixture;
+import org.reactivestreams.Publisher;
+
+import io.micronaut.data.r2dbc.operations.R2dbcOperations;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import reactor.core.publisher.Flux;
+
+/**
+ * Clustering a chunk of bibs as one batch should end up with the same clusters as
+ * clustering each of them on its own, one after another.
+ */
+@MicronautTest(transactional = false, contextBuilder = DcbTestContainerContextBuilder.class)
+@TestInstance(PER_CLASS)
+class RecordClusteringServiceBatchTests {
+	private static final String HOST_LMS_CODE = "batch-clustering-host-lms";
+
+	@Inject
+	private RecordClusteringService recordClusteringService;
+	@Inject
+	private BibRecordService bibRecordService;
+	@Inject
+	private R2dbcOperations r2dbcOperations;
+
+	@Inject
+	private HostLmsFixture hostLmsFixture;
+	@Inject
+	private ClusterRecordFixture clusterRecordFixture;
+	@Inject
+	private BibRecordFixture bibRecordFixture;
+
+	private UUID sourceSystemId;
+
+	// Every bib created by the current test, including those clustered before the chunk
+	private final List<BibRecord> created = new ArrayList<>();
+
+	@BeforeAll
+	void beforeAll() {
+		hostLmsFixture.deleteAll();
+
+		sourceSystemId = hostLmsFixture.createSierraHostLms(HOST_LMS_CODE).getId();
+	}
+
+	@BeforeEach
+	void beforeEach() {
+		deleteAllClusters();
+	}
+
+	@Test
+	void shouldClusterChunkMatchingEachOtherTheSameWayAsOneAtATime() {
+		// Arrange
+		final var expected = Set.of(Set.of("first-copy", "second-copy", "third-copy"), Set.of("unrelated"));
+
+		// Act
+		final var oneAtATime = clusterOneAtATime(createChunkMatchingEachOther());
+
+		deleteAllClusters();
+
+		final var batched = clusterAsBatch(createChunkMatchingEachOther());
+
+		// Assert
+		assertThat(oneAtATime, is(expected));
+		assertThat(batched, is(oneAtATime));
+	}
+
+	@Test
+	void shouldJoinExistingClustersTheSameWayAsOneAtATime() {
+		// Arrange
+		final var expected = Set.of(Set.of("existing", "matches-existing"), Set.of("new"));
+
+		// Act
+		clusterOneAtATime(createExisting());
+		final var oneAtATime = clusterOneAtATime(createChunkMatchingExisting());
+
+		deleteAllClusters();
+
+		clusterOneAtATime(createExisting());
+		final var batched = clusterAsBatch(createChunkMatchingExisting());
+
+		// Assert
+		assertThat(oneAtATime, is(expected));
+		assertThat(batched, is(oneAtATime));
+	}
+
+	@Test
+	void shouldMergeCollidingClustersTheSameWayAsOneAtATime() {
+		// Arrange
+		// One bib in the chunk matches both existing clusters, and a later one matches a cluster
+		// that was merged away earlier in the same chunk.
+		final var expected = Set.of(
+			Set.of("existing", "other-existing", "matches-both", "matches-merged-away"));
+
+		// Act
+		clusterOneAtATime(createTwoExisting());
+		final var oneAtATime = clusterOneAtATime(createChunkMatchingBothExisting());
+
+		deleteAllClusters();
+
+		clusterOneAtATime(createTwoExisting());
+		final var batched = clusterAsBatch(createChunkMatchingBothExisting());
+
+		// Assert
+		assertThat(oneAtATime, is(expected));
+		assertThat(batched, is(oneAtATime));
+	}
+
+	@Test
+	void shouldLeaveBibsWithoutMatchPointsInTheirOwnClusters() {
+		// Arrange & Act
+		final var oneAtATime = clusterOneAtATime(createChunkWithoutMatchPoints());
+
+		deleteAllClusters();
+
+		final var batched = clusterAsBatch(createChunkWithoutMatchPoints());
+
+		// Assert
+		assertThat(oneAtATime, hasSize(2));
+		assertThat(batched, is(oneAtATime));
+	}
+
+	private List<BibRecord> createChunkMatchingEachOther() {
+		return List.of(
+			bib("first-copy", Map.of("ONLY-ISBN-13", "9780000000017")),
+			bib("unrelated", Map.of("ONLY-ISBN-13", "9780000000024")),
+			bib("second-copy", Map.of("ONLY-ISBN-13", "9780000000017", "OCOLC", "1111")),
+			// Only matches the second copy, which is in the same chunk
+			bib("third-copy", Map.of("OCOLC", "1111")));
+	}
+
+	private List<BibRecord> createExisting() {
+		return List.of(bib("existing", Map.of("LCCN", "2001000001")));
+	}
+
+	private List<BibRecord> createChunkMatchingExisting() {
+		return List.of(
+			bib("matches-existing", Map.of("LCCN", "2001000001")),
+			bib("new", Map.of("LCCN", "2001000002")));
+	}
+
+	private List<BibRecord> createTwoExisting() {
+		return List.of(
+			bib("existing", Map.of("LCCN", "2001000001")),
+			bib("other-existing", Map.of("OCOLC", "2222")));
+	}
+
+	private List<BibRecord> createChunkMatchingBothExisting() {
+		return List.of(
+			bib("matches-both", Map.of("LCCN", "2001000001", "OCOLC", "2222")),
+			bib("matches-merged-away", Map.of("OCOLC", "2222")));
+	}
+
+	private List<BibRecord> createChunkWithoutMatchPoints() {
+		return List.of(
+			bib("no-identifiers", Map.of()),
+			bib("unusable-identifiers", Map.of("LOCAL-ID", "1234")));
+	}
+
+	private BibRecord bib(String sourceRecordId, Map<String, String> identifiers) {
+		final var bib = bibRecordFixture.createBibRecordWithIdentifiers(sourceSystemId, sourceRecordId,
+			"Clustering tests " + sourceRecordId, identifiers);
+
+		created.add(bib);
+
+		return bib;
+	}
+
+	private void deleteAllClusters() {
+		clusterRecordFixture.deleteAll();
+		created.clear();
+	}
+
+	/**
+	 * As ingest does without batching, each bib clustered in its own transaction
+	 */
+	private Set<Set<String>> clusterOneAtATime(List<BibRecord> bibs) {
+		bibs.forEach(bib -> inTransaction(() -> recordClusteringService.clusterBib(bib)));
+
+		return clusters();
+	}
+
+	/**
+	 * As ingest does when batching, every bib clustered together in one transaction
+	 */
+	private Set<Set<String>> clusterAsBatch(List<BibRecord> bibs) {
+		inTransaction(() -> recordClusteringService.clusterBibs(bibs));
+
+		return clusters();
+	}
+
+	/**
+	 * The source record ids of every bib created so far, grouped by the cluster they ended up in
+	 */
+	private Set<Set<String>> clusters() {
+		final var allBibs = manyValuesFrom(bibRecordService.findAllIncludingClusterByIdIn(
+			created.stream().map(BibRecord::getId).toList()));
+
+		final Map<UUID, Set<String>> clusters = new LinkedHashMap<>();
+
+		allBibs.forEach(bib -> clusters
+			.computeIfAbsent(bib.getContributesTo().getId(), _id -> new HashSet<>())
+			.add(bib.getSourceRecordId()));
+
+		return clusters.values().stream()
+			.map(Set::copyOf)
+			.collect(Collectors.toUnmodifiableSet());
+	}
+
+	private <T> List<T> inTransaction(Supplier<Publisher<T>> work) {
+		return manyValuesFrom(Flux.from(r2dbcOperations.withTransaction(_status -> work.get()))
+			.transformDeferred(ProcessAuditService.withNewProcessAudit("batch-clustering-tests")));
+	}
+}
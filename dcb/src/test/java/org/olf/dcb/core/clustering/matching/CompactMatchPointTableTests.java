@@ -0,0 +1,95 @@
+package org.olf.dcb.core.clustering.matching;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class CompactMatchPointTableTests {
+	@Test
+	void shouldFindAllBibsSharingAValue() {
+		final var table = new CompactMatchPointTable(1_000);
+		final var value = UUID.randomUUID();
+		final var firstBib = UUID.randomUUID();
+		final var secondBib = UUID.randomUUID();
+
+		put(table, value, firstBib, (byte) 2);
+		put(table, value, secondBib, (byte) 2);
+		put(table, UUID.randomUUID(), UUID.randomUUID(), (byte) 2);
+
+		assertThat(bibsFor(table, value), containsInAnyOrder(firstBib, secondBib));
+	}
+
+	@Test
+	void shouldNotDuplicateEntryWhenPutTwice() {
+		final var table = new CompactMatchPointTable(1_000);
+		final var value = UUID.randomUUID();
+		final var bib = UUID.randomUUID();
+
+		put(table, value, bib, (byte) 2);
+		put(table, value, bib, (byte) 3);
+
+		assertThat(table.size(), is(1));
+		assertThat(bibsFor(table, value), containsInAnyOrder(bib));
+	}
+
+	@Test
+	void shouldNoLongerFindRemovedEntry() {
+		final var table = new CompactMatchPointTable(1_000);
+		final var value = UUID.randomUUID();
+		final var bib = UUID.randomUUID();
+
+		put(table, value, bib, (byte) 2);
+		table.remove(value.getMostSignificantBits(), value.getLeastSignificantBits(),
+			bib.getMostSignificantBits(), bib.getLeastSignificantBits());
+
+		assertThat(table.size(), is(0));
+		assertThat(bibsFor(table, value), is(empty()));
+	}
+
+	@Test
+	void shouldRetainEntriesWhenGrowing() {
+		final var table = new CompactMatchPointTable(200_000);
+		final var values = new ArrayList<UUID>();
+
+		for (int i = 0; i < 100_000; i++) {
+			final var value = UUID.randomUUID();
+			values.add(value);
+			put(table, value, value, (byte) 2);
+		}
+
+		assertThat(table.size(), is(100_000));
+		values.forEach(value -> assertThat(bibsFor(table, value), containsInAnyOrder(value)));
+	}
+
+	@Test
+	void shouldRefuseEntriesBeyondLimit() {
+		final var table = new CompactMatchPointTable(10);
+
+		boolean accepted = true;
+		for (int i = 0; i < 100_000 && accepted; i++) {
+			accepted = put(table, UUID.randomUUID(), UUID.randomUUID(), (byte) 2);
+		}
+
+		assertThat(accepted, is(false));
+	}
+
+	private static boolean put(CompactMatchPointTable table, UUID value, UUID bib, byte type) {
+		return table.put(value.getMostSignificantBits(), value.getLeastSignificantBits(),
+			bib.getMostSignificantBits(), bib.getLeastSignificantBits(), type);
+	}
+
+	private static List<UUID> bibsFor(CompactMatchPointTable table, UUID value) {
+		final List<UUID> bibs = new ArrayList<>();
+		table.forEachWithValue(value.getMostSignificantBits(), value.getLeastSignificantBits(),
+			(msb, lsb, type) -> bibs.add(new UUID(msb, lsb)));
+
+		return bibs;
+	}
+}
@@ -0,0 +1,277 @@
+package org.olf.dcb.core.clustering.matching;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.core.clustering.model.MatchPoint;
+import org.olf.dcb.storage.MatchPointRepository;
+import org.olf.dcb.storage.MatchPointRepository.MatchPointIndexEntry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.context.event.StartupEvent;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+class MatchPointIndexTests {
+	private final MatchPointIndexConfig config = mock(MatchPointIndexConfig.class);
+	private final MatchPointRepository matchPointRepository = mock(MatchPointRepository.class);
+
+	private final UUID value = UUID.randomUUID();
+	private final UUID bib = UUID.randomUUID();
+
+	@BeforeEach
+	void beforeEach() {
+		reset(config, matchPointRepository);
+
+		when(config.getMaxEntries()).thenReturn(1_000L);
+		when(config.isDistributed()).thenReturn(false);
+	}
+
+	@Test
+	void shouldFindWarmedMatchPointsOfTheWantedType() {
+		// Arrange
+		final var otherBib = UUID.randomUUID();
+
+		final var index = warmedWith(
+			new MatchPointIndexEntry(value, bib, "Books"),
+			new MatchPointIndexEntry(value, otherBib, "Books"),
+			new MatchPointIndexEntry(value, UUID.randomUUID(), "Serials"));
+
+		// Act
+		final var matches = index.findMatches("Books", List.of(value));
+
+		// Assert
+		assertThat(bibsOf(matches), containsInAnyOrder(bib, otherBib));
+	}
+
+	@Test
+	void shouldDeferToDatabaseWhenNothingMatches() {
+		// Arrange
+		final var index = warmedWith(new MatchPointIndexEntry(value, bib, "Books"));
+
+		// Act & Assert
+		assertThat(index.findMatches("Books", List.of(UUID.randomUUID())).isPresent(), is(false));
+		assertThat(index.findMatches("Serials", List.of(value)).isPresent(), is(false));
+		assertThat(index.findMatches("Unseen", List.of(value)).isPresent(), is(false));
+	}
+
+	@Test
+	void shouldDeferToDatabaseUntilWarmed() {
+		// Arrange
+		final Sinks.Many<MatchPointIndexEntry> entries = Sinks.many().unicast().onBackpressureBuffer();
+		when(matchPointRepository.streamIndexEntries()).thenReturn(entries.asFlux());
+
+		final var index = started();
+		entries.tryEmitNext(new MatchPointIndexEntry(value, bib, "Books"));
+
+		// Act & Assert
+		assertThat(index.getState(), is(MatchPointIndex.State.WARMING));
+		assertThat(index.findMatches("Books", List.of(value)).isPresent(), is(false));
+
+		entries.tryEmitComplete();
+
+		assertThat(index.isReady(), is(true));
+		assertThat(bibsOf(index.findMatches("Books", List.of(value))), containsInAnyOrder(bib));
+	}
+
+	@Test
+	void shouldPreferChangesAppliedDuringWarmOverWarmedRows() {
+		// Arrange
+		final var newValue = UUID.randomUUID();
+
+		final Sinks.Many<MatchPointIndexEntry> entries = Sinks.many().unicast().onBackpressureBuffer();
+		when(matchPointRepository.streamIndexEntries()).thenReturn(entries.asFlux());
+
+		final var index = started();
+
+		// Act
+		index.apply(bib, "Books", List.of(newValue), List.of(value));
+
+		// The warm read this bib's row before the change committed
+		entries.tryEmitNext(new MatchPointIndexEntry(value, bib, "Books"));
+		entries.tryEmitComplete();
+
+		// Assert
+		assertThat(index.findMatches("Books", List.of(value)).isPresent(), is(false));
+		assertThat(bibsOf(index.findMatches("Books", List.of(newValue))), containsInAnyOrder(bib));
+	}
+
+	@Test
+	void shouldApplyChangedMatchPoints() {
+		// Arrange
+		final var newValue = UUID.randomUUID();
+		final var index = warmedWith(new MatchPointIndexEntry(value, bib, "Books"));
+
+		// Act
+		index.apply(bib, "Books", List.of(newValue), List.of(value));
+
+		// Assert
+		assertThat(index.findMatches("Books", List.of(value)).isPresent(), is(false));
+		assertThat(bibsOf(index.findMatches("Books", List.of(newValue))), containsInAnyOrder(bib));
+	}
+
+	@Test
+	void shouldForgetRemovedBib() {
+		// Arrange
+		final var otherBib = UUID.randomUUID();
+
+		final var index = warmedWith(
+			new MatchPointIndexEntry(value, bib, "Books"),
+			new MatchPointIndexEntry(value, otherBib, "Books"));
+
+		// Act
+		index.remove(bib, List.of(value));
+
+		// Assert
+		assertThat(bibsOf(index.findMatches("Books", List.of(value))), containsInAnyOrder(otherBib));
+	}
+
+	@Test
+	void shouldDisableWhenBoundIsExceeded() {
+		// Arrange
+		when(config.getMaxEntries()).thenReturn(1L);
+
+		final var index = warmedWith(new MatchPointIndexEntry(value, bib, "Books"));
+
+		// Act
+		index.apply(UUID.randomUUID(), "Books", List.of(UUID.randomUUID(), UUID.randomUUID()), List.of());
+
+		// Assert
+		assertThat(index.getState(), is(MatchPointIndex.State.DISABLED));
+		assertThat(index.findMatches("Books", List.of(value)).isPresent(), is(false));
+	}
+
+	@Test
+	void shouldStayDisabledWhenClusteringIsDistributed() {
+		// Arrange
+		when(config.isDistributed()).thenReturn(true);
+
+		// Act
+		final var index = started();
+
+		// Assert
+		assertThat(index.getState(), is(MatchPointIndex.State.DISABLED));
+		assertThat(index.findMatches("Books", List.of(value)).isPresent(), is(false));
+
+		verify(matchPointRepository, never()).streamIndexEntries();
+	}
+
+	@Test
+	void shouldWarmAgainFromDatabaseWhenInvalidated() {
+		// Arrange
+		final var otherBib = UUID.randomUUID();
+
+		final var index = warmedWith(
+			new MatchPointIndexEntry(value, bib, "Books"),
+			new MatchPointIndexEntry(value, otherBib, "Books"));
+
+		// Removed directly in the database
+		when(matchPointRepository.streamIndexEntries())
+			.thenReturn(Flux.just(new MatchPointIndexEntry(value, otherBib, "Books")));
+
+		// Act
+		index.invalidate();
+
+		// Assert
+		assertThat(index.isReady(), is(true));
+		assertThat(bibsOf(index.findMatches("Books", List.of(value))), containsInAnyOrder(otherBib));
+
+		verify(matchPointRepository, times(2)).streamIndexEntries();
+	}
+
+	@Test
+	void shouldDeferToDatabaseWhileWarmingAgain() {
+		// Arrange
+		final var index = warmedWith(new MatchPointIndexEntry(value, bib, "Books"));
+
+		final Sinks.Many<MatchPointIndexEntry> entries = Sinks.many().unicast().onBackpressureBuffer();
+		when(matchPointRepository.streamIndexEntries()).thenReturn(entries.asFlux());
+
+		// Act
+		index.invalidate();
+
+		// Assert
+		assertThat(index.getState(), is(MatchPointIndex.State.WARMING));
+		assertThat(index.findMatches("Books", List.of(value)).isPresent(), is(false));
+
+		entries.tryEmitNext(new MatchPointIndexEntry(value, bib, "Books"));
+		entries.tryEmitComplete();
+
+		assertThat(bibsOf(index.findMatches("Books", List.of(value))), containsInAnyOrder(bib));
+	}
+
+	@Test
+	void shouldIgnoreWarmReplacedByInvalidation() {
+		// Arrange
+		final Sinks.Many<MatchPointIndexEntry> firstWarm = Sinks.many().unicast().onBackpressureBuffer();
+		when(matchPointRepository.streamIndexEntries()).thenReturn(firstWarm.asFlux());
+
+		final var index = started();
+
+		final var otherBib = UUID.randomUUID();
+		when(matchPointRepository.streamIndexEntries())
+			.thenReturn(Flux.just(new MatchPointIndexEntry(value, otherBib, "Books")));
+
+		// Act
+		index.invalidate();
+
+		// The first warm read this row before it was removed
+		firstWarm.tryEmitNext(new MatchPointIndexEntry(value, bib, "Books"));
+		firstWarm.tryEmitComplete();
+
+		// Assert
+		assertThat(index.isReady(), is(true));
+		assertThat(bibsOf(index.findMatches("Books", List.of(value))), containsInAnyOrder(otherBib));
+	}
+
+	@Test
+	void shouldNotWarmWhenInvalidatedOnceDisabled() {
+		// Arrange
+		when(config.isDistributed()).thenReturn(true);
+
+		final var index = started();
+
+		// Act
+		index.invalidate();
+
+		// Assert
+		assertThat(index.getState(), is(MatchPointIndex.State.DISABLED));
+
+		verify(matchPointRepository, never()).streamIndexEntries();
+	}
+
+	private MatchPointIndex warmedWith(MatchPointIndexEntry... entries) {
+		when(matchPointRepository.streamIndexEntries()).thenReturn(Flux.just(entries));
+
+		final var index = started();
+		assertThat(index.isReady(), is(true));
+
+		return index;
+	}
+
+	private MatchPointIndex started() {
+		final var index = new MatchPointIndex(config, matchPointRepository, new SimpleMeterRegistry());
+		index.onApplicationEvent(mock(StartupEvent.class));
+
+		return index;
+	}
+
+	private static List<UUID> bibsOf(Optional<List<MatchPoint>> matches) {
+		return matches.orElseThrow().stream()
+			.map(MatchPoint::getBibId)
+			.toList();
+	}
+}
@@ -55,6 +55,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -572,6 +573,85 @@ class ConsortialFolioHostLmsClientGetItemsTests {
 		));
 	}
 
+	@Test
+	void shouldGetItemsForSeveralInstancesInOneRequest() {
+		// Arrange
+		final var firstInstanceId = randomUUID().toString();
+		final var secondInstanceId = randomUUID().toString();
+		final var instanceWithoutHoldingsId = randomUUID().toString();
+
+		mockFolioFixture.mockHoldingsByInstanceId(
+			String.join(",", firstInstanceId, secondInstanceId, instanceWithoutHoldingsId),
+			OuterHoldings.builder()
+				.holdings(List.of(
+					OuterHolding.builder()
+						.instanceId(firstInstanceId)
+						.holdings(List.of(
+							exampleHolding().id("first-instance-item").build()))
+						.build(),
+					OuterHolding.builder()
+						.instanceId(secondInstanceId)
+						.holdings(List.of(
+							exampleHolding().id("second-instance-item").build(),
+							exampleHolding().id("another-second-instance-item").build()))
+						.build()))
+				.build());
+
+		// Act
+		final var itemsByInstance = getItems(firstInstanceId, secondInstanceId, instanceWithoutHoldingsId);
+
+		// Assert
+		assertThat(itemsByInstance.get(firstInstanceId), containsInAnyOrder(
+			allOf(hasLocalId("first-instance-item"), hasLocalBibId(firstInstanceId))));
+
+		assertThat(itemsByInstance.get(secondInstanceId), containsInAnyOrder(
+			allOf(hasLocalId("second-instance-item"), hasLocalBibId(secondInstanceId)),
+			allOf(hasLocalId("another-second-instance-item"), hasLocalBibId(secondInstanceId))));
+
+		assertThat("Instance without holdings should have no items",
+			itemsByInstance.get(instanceWithoutHoldingsId), is(empty()));
+	}
+
+	@Test
+	void shouldReportBatchAsUnsupportedWhenHoldingsCannotBeAttributedToInstances() {
+		// Arrange
+		final var firstInstanceId = randomUUID().toString();
+		final var secondInstanceId = randomUUID().toString();
+
+		mockFolioFixture.mockHoldingsByInstanceId(String.join(",", firstInstanceId, secondInstanceId),
+			OuterHoldings.builder()
+				.holdings(List.of(
+					OuterHolding.builder()
+						.instanceId(randomUUID().toString())
+						.holdings(List.of(exampleHolding().build()))
+						.build()))
+				.build());
+
+		// Act & Assert
+		assertThrows(UnsupportedOperationException.class,
+			() -> getItems(firstInstanceId, secondInstanceId));
+	}
+
+	@Test
+	void shouldFailBatchWhenRtacRespondsWithUnexpectedHttpResponse() {
+		// Arrange
+		final var firstInstanceId = randomUUID().toString();
+		final var secondInstanceId = randomUUID().toString();
+
+		mockFolioFixture.mockHoldingsByInstanceId(String.join(",", firstInstanceId, secondInstanceId),
+			badRequest(Map.of("message", "something went wrong")));
+
+		// Act
+		final var problem = assertThrows(ThrowableProblem.class,
+			() -> getItems(firstInstanceId, secondInstanceId));
+
+		// Assert
+		assertThat(problem, allOf(
+			hasMessageForHostLms(CATALOGUING_HOST_LMS_CODE),
+			hasResponseStatusCode(400)
+		));
+	}
+
 	@Test
 	void shouldDefineAvailableSettings() {
 		final var settings = client.getSettings();
@@ -599,6 +679,14 @@ class ConsortialFolioHostLmsClientGetItemsTests {
 			.build()));
 	}
 
+	private Map<String, List<Item>> getItems(String... instanceIds) {
+		return singleValueFrom(client.getItems(Stream.of(instanceIds)
+			.map(instanceId -> BibRecord.builder()
+				.sourceRecordId(instanceId)
+				.build())
+			.toList()));
+	}
+
 	private static Holding.HoldingBuilder exampleHolding() {
 		return Holding.builder()
 			.id(randomUUID().toString())
@@ -0,0 +1,100 @@
+package org.olf.dcb.core.interaction.polaris;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.serde.ObjectMapper;
+import reactor.core.publisher.Mono;
+
+class PolarisStaffTokenCacheTests {
+	private PolarisStaffTokenCache cache;
+	private AtomicInteger authentications;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void beforeEach() {
+		cache = new PolarisStaffTokenCache(new PolarisStaffTokenCacheConfig() {
+			@Override
+			public Duration getRefreshBeforeExpiry() {
+				return Duration.ofMinutes(5);
+			}
+
+			@Override
+			public Duration getDefaultLifetime() {
+				return Duration.ofHours(1);
+			}
+
+			@Override
+			public boolean isDistributed() {
+				return false;
+			}
+		}, new SimpleMeterRegistry(), mock(BeanProvider.class), mock(ObjectMapper.class));
+
+		authentications = new AtomicInteger();
+	}
+
+	@Test
+	void shouldReuseTokenUntilExpiry() {
+		final var expires = Instant.now().plus(Duration.ofHours(2)).toString();
+
+		final var first = get(expires, Duration.ZERO).block();
+		final var second = get(expires, Duration.ZERO).block();
+
+		assertThat(second, is(first));
+		assertThat(authentications.get(), is(1));
+	}
+
+	@Test
+	void shouldShareSingleAuthenticationBetweenConcurrentRequests() {
+		final var expires = Instant.now().plus(Duration.ofHours(2)).toString();
+
+		Mono.zip(get(expires, Duration.ofMillis(100)), get(expires, Duration.ofMillis(100)))
+			.block();
+
+		assertThat(authentications.get(), is(1));
+	}
+
+	@Test
+	void shouldAuthenticateAgainWhenTokenHasExpired() {
+		final var expired = Instant.now().minus(Duration.ofMinutes(1)).toString();
+
+		get(expired, Duration.ZERO).block();
+		get(expired, Duration.ZERO).block();
+
+		assertThat(authentications.get(), is(2));
+	}
+
+	@Test
+	void shouldAuthenticateAgainWhenTokenIsInvalidated() {
+		final var expires = Instant.now().plus(Duration.ofHours(2)).toString();
+
+		get(expires, Duration.ZERO).block();
+		cache.invalidate("polaris", "papi", "staff");
+		get(expires, Duration.ZERO).block();
+
+		assertThat(authentications.get(), is(2));
+	}
+
+	@Test
+	void shouldParseMicrosoftJsonExpiryDate() {
+		final var expiry = cache.parseExpiry("/Date(1708419632890-0600)/", Instant.now());
+
+		assertThat(expiry, is(Instant.ofEpochMilli(1708419632890L)));
+	}
+
+	private Mono<String> get(String authExpDate, Duration latency) {
+		return cache.get("polaris", "papi", "staff", String.class, _token -> authExpDate,
+			() -> Mono.delay(latency)
+				.map(_v -> "token-" + authentications.incrementAndGet()));
+	}
+}
@@ -2,6 +2,11 @@ package org.olf.dcb.core.interaction.sierra;
 
 import static org.olf.dcb.test.MockServerCommonResponses.noContent;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.mockserver.model.HttpRequest;
 import org.olf.dcb.test.MockServer;
 import org.olf.dcb.test.MockServerCommonRequests;
 
@@ -26,6 +31,21 @@ public class SierraBibsAPIFixture {
 			"bibs/sierra-api-GET-bibs-success-response.json");
 	}
 
+	public void bibsInIdRange(String idRange, List<Long> ids) {
+		mockServer.mock(getBibsInIdRange(idRange), bibsResponse(ids));
+	}
+
+	public void bibsUpdatedInIdRange(String idRange, Instant updatedSince, List<Long> ids) {
+		mockServer.mock(getBibsInIdRange(idRange)
+				.withQueryStringParameter("updatedDate", "\\[%s,.*\\]".formatted(updatedSince)),
+			bibsResponse(ids));
+	}
+
+	public HttpRequest getBibsInIdRange(String idRange) {
+		return mockServerCommonRequests.get(bibsPath())
+			.withQueryStringParameter("id", idRange);
+	}
+
 	public void createPostBibsMock(BibPatch bibPatch, Integer returnId) {
 		mockServer.mockPost(bibsPath(), bibPatch,
 			LinkResult.builder()
@@ -37,6 +57,14 @@ public class SierraBibsAPIFixture {
 		mockServer.replaceMock(mockServerCommonRequests.delete(getBibPath(bibId)), noContent());
 	}
 
+	private static Map<String, Object> bibsResponse(List<Long> ids) {
+		return Map.of(
+			"total", ids.size(),
+			"entries", ids.stream()
+				.map(id -> Map.of("id", String.valueOf(id)))
+				.toList());
+	}
+
 	private static String bibsPath() {
 		return "/iii/sierra-api/v6/bibs";
 	}
@@ -0,0 +1,303 @@
+package org.olf.dcb.core.interaction.sierra;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.verify.VerificationTimes.never;
+import static org.olf.dcb.test.PublisherUtils.manyValuesFrom;
+import static org.olf.dcb.test.PublisherUtils.singleValueFrom;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mockserver.client.MockServerClient;
+import org.olf.dcb.core.interaction.sierra.SierraLmsClient.BibIdRangePartition;
+import org.olf.dcb.dataimport.job.SourceRecordImportChunk;
+import org.olf.dcb.dataimport.job.SourceRecordImportJob;
+import org.olf.dcb.dataimport.job.SourceRecordService;
+import org.olf.dcb.dataimport.job.model.SourceRecord;
+import org.olf.dcb.test.HostLmsFixture;
+
+import io.micronaut.json.tree.JsonNode;
+import io.micronaut.serde.ObjectMapper;
+import jakarta.inject.Inject;
+import lombok.SneakyThrows;
+import services.k_int.interaction.sierra.DateTimeRange;
+import services.k_int.interaction.sierra.SierraTestUtils;
+import services.k_int.interaction.sierra.bibs.BibParams;
+import services.k_int.test.mockserver.MockServerMicronautTest;
+
+@MockServerMicronautTest
+@TestInstance(PER_CLASS)
+class SierraHostLmsClientHarvestTests {
+	private static final String ID_RANGE_HOST_LMS_CODE = "sierra-harvest-id-range";
+	private static final String PARTITIONED_HOST_LMS_CODE = "sierra-harvest-partitioned";
+	private static final String OFFSET_HOST_LMS_CODE = "sierra-harvest-offset";
+
+	private static final String BASE_URL = "https://harvest-api-tests.com";
+	private static final String KEY = "harvest-key";
+	private static final String SECRET = "harvest-secret";
+
+	// Sierra answers with at most this many bibs in a page
+	private static final int PAGE_SIZE = 500;
+
+	@Inject
+	private SierraApiFixtureProvider sierraApiFixtureProvider;
+	@Inject
+	private HostLmsFixture hostLmsFixture;
+	@Inject
+	private SourceRecordService sourceRecordService;
+	@Inject
+	private ObjectMapper objectMapper;
+
+	private MockServerClient mockServerClient;
+	private SierraBibsAPIFixture sierraBibsAPIFixture;
+
+	@BeforeAll
+	public void beforeAll(MockServerClient mockServerClient) {
+		this.mockServerClient = mockServerClient;
+
+		SierraTestUtils.mockFor(mockServerClient, BASE_URL)
+			.setValidCredentials(KEY, SECRET, "test-token", 3600);
+
+		sierraBibsAPIFixture = sierraApiFixtureProvider.bibs(mockServerClient);
+
+		hostLmsFixture.deleteAll();
+
+		createSierraHostLms(ID_RANGE_HOST_LMS_CODE, Map.of("harvest-mode", "id-range"));
+
+		createSierraHostLms(PARTITIONED_HOST_LMS_CODE, Map.of(
+			"harvest-mode", "id-range",
+			"harvest-partitions", 4,
+			"harvest-highest-id", 1_999_999));
+
+		createSierraHostLms(OFFSET_HOST_LMS_CODE, Map.of());
+	}
+
+	@BeforeEach
+	void beforeEach() {
+		mockServerClient.clear(request().withPath("/iii/sierra-api/v6/bibs"));
+	}
+
+	@Test
+	@SneakyThrows
+	void shouldAdvanceIdCursorAcrossPages() {
+		// Arrange
+		sierraBibsAPIFixture.bibsInIdRange("[0,]", LongStream.range(1_000_000, 1_000_000 + PAGE_SIZE).boxed().toList());
+		sierraBibsAPIFixture.bibsInIdRange("[1000500,]", List.of(1_000_500L, 1_000_501L));
+
+		final var client = createClient(ID_RANGE_HOST_LMS_CODE);
+
+		// Act
+		final var firstChunk = singleValueFrom(client.getChunk(Optional.empty()));
+		final var secondChunk = singleValueFrom(client.getChunk(Optional.of(firstChunk.getCheckpoint())));
+
+		// Assert
+		assertThat(firstChunk.isLastChunk(), is(false));
+		assertThat(firstChunk.getData(), hasSize(PAGE_SIZE));
+
+		final var firstCursor = cursorFrom(firstChunk);
+		assertThat(firstCursor.nextId(), is(1_000_500L));
+		assertThat(firstCursor.updatedSince(), is(nullValue()));
+
+		assertThat(secondChunk.isLastChunk(), is(true));
+		assertThat(remoteIdsOf(secondChunk), contains("1000500", "1000501"));
+
+		// The next pass starts from the bottom, picking up what has changed since this pass started
+		final var secondCursor = cursorFrom(secondChunk);
+		assertThat(secondCursor.nextId(), is(0L));
+		assertThat(secondCursor.updatedSince(), is(firstCursor.passStarted()));
+
+		mockServerClient.verify(sierraBibsAPIFixture.getBibsInIdRange("[1000500,]"));
+	}
+
+	@Test
+	@SneakyThrows
+	void shouldOnlyFetchBibsUpdatedSincePreviousPassStarted() {
+		// Arrange
+		final var previousPassStarted = Instant.parse("2024-01-01T10:15:30Z");
+
+		sierraBibsAPIFixture.bibsInIdRange("[1000000,]", List.of(1_000_000L));
+		sierraBibsAPIFixture.bibsUpdatedInIdRange("[0,]", previousPassStarted, List.of(1_000_007L));
+
+		final var client = createClient(ID_RANGE_HOST_LMS_CODE);
+
+		final var endOfPass = checkpoint(new SierraBibIdCursor(1_000_000L, null, previousPassStarted));
+
+		// Act
+		final var lastChunkOfPass = singleValueFrom(client.getChunk(Optional.of(endOfPass)));
+		final var firstChunkOfNextPass = singleValueFrom(client.getChunk(Optional.of(lastChunkOfPass.getCheckpoint())));
+
+		// Assert
+		assertThat(lastChunkOfPass.isLastChunk(), is(true));
+		assertThat(cursorFrom(lastChunkOfPass).updatedSince(), is(previousPassStarted));
+
+		assertThat(remoteIdsOf(firstChunkOfNextPass), contains("1000007"));
+
+		final var nextPass = cursorFrom(firstChunkOfNextPass);
+		assertThat(nextPass.updatedSince(), is(cursorFrom(lastChunkOfPass).passStarted()));
+
+		mockServerClient.verify(sierraBibsAPIFixture.getBibsInIdRange("[0,]")
+			.withQueryStringParameter("updatedDate", "\\[2024-01-01T10:15:30Z,.*\\]"));
+	}
+
+	@Test
+	@SneakyThrows
+	void shouldCarryOnFromUpdatedDateOfOffsetCheckpoint() {
+		// Arrange
+		final var updatedSince = Instant.parse("2024-02-01T08:30:45Z");
+
+		sierraBibsAPIFixture.bibsUpdatedInIdRange("[0,]", updatedSince, List.of(1_000_003L, 1_000_004L));
+
+		final var client = createClient(ID_RANGE_HOST_LMS_CODE);
+
+		final var offsetCheckpoint = objectMapper.writeValueToTree(BibParams.builder()
+			.offset(1500)
+			.limit(PAGE_SIZE)
+			.updatedDate(DateTimeRange.builder()
+				.fromDate(LocalDateTime.parse("2024-02-01T08:30:45"))
+				.build())
+			.build());
+
+		// Act
+		final var chunk = singleValueFrom(client.getChunk(Optional.of(offsetCheckpoint)));
+
+		// Assert
+		assertThat(remoteIdsOf(chunk), contains("1000003", "1000004"));
+
+		assertThat(cursorFrom(chunk).nextId(), is(0L));
+
+		mockServerClient.verify(request()
+			.withPath("/iii/sierra-api/v6/bibs")
+			.withQueryStringParameter("offset", ".*"), never());
+	}
+
+	@Test
+	void shouldDivideIdsIntoRangesWithoutOverlapsOrGaps() {
+		// Arrange
+		final var client = createClient(PARTITIONED_HOST_LMS_CODE);
+
+		// Act
+		final var partitions = client.getPartitions(Integer.MAX_VALUE);
+
+		// Assert
+		assertThat(partitions, hasSize(4));
+
+		final var ranges = partitions.stream()
+			.map(partition -> (BibIdRangePartition) partition)
+			.toList();
+
+		assertThat("First range should take everything below the usual numbering",
+			ranges.get(0).getLowestId(), is(0L));
+
+		for (int index = 1; index < ranges.size(); index++) {
+			final var previous = ranges.get(index - 1);
+			final var current = ranges.get(index);
+
+			assertThat(previous.getHighestId(), is(notNullValue()));
+			assertThat("Range " + index + " should start straight after the one before it",
+				current.getLowestId(), is(previous.getHighestId() + 1));
+		}
+
+		assertThat("Last range should take everything above the highest id",
+			ranges.get(ranges.size() - 1).getHighestId(), is(nullValue()));
+	}
+
+	@Test
+	@SneakyThrows
+	void shouldHarvestPartitionWithinItsIdRange() {
+		// Arrange
+		final var client = createClient(PARTITIONED_HOST_LMS_CODE);
+		final var partition = (BibIdRangePartition) client.getPartitions(4).get(1);
+
+		final var idRange = "[%d,%d]".formatted(partition.getLowestId(), partition.getHighestId());
+		sierraBibsAPIFixture.bibsInIdRange(idRange, List.of(partition.getLowestId()));
+
+		// Act
+		final var chunk = singleValueFrom(partition.getChunk(Optional.empty()));
+
+		// Assert
+		assertThat(chunk.isLastChunk(), is(true));
+		assertThat(remoteIdsOf(chunk), contains(String.valueOf(partition.getLowestId())));
+
+		// Each pass of the partition starts again from the bottom of its own range
+		assertThat(cursorFrom(chunk).nextId(), is(partition.getLowestId()));
+	}
+
+	@Test
+	void shouldCreateJobForEachPartitionUpToConcurrencyLimit() {
+		// Arrange
+		final var ingestSource = hostLmsFixture.getIngestSource(PARTITIONED_HOST_LMS_CODE);
+
+		// Act
+		final var jobs = manyValuesFrom(sourceRecordService.createJobInstancesForSource(ingestSource));
+
+		// Assert
+		// The default concurrency group allows two at once
+		assertThat(jobs, hasSize(2));
+
+		final var names = jobs.stream().map(SourceRecordImportJob::getName).distinct().toList();
+		assertThat("Each partition needs its own job name to keep its own checkpoint", names, hasSize(2));
+	}
+
+	@Test
+	void shouldCreateSingleJobForSourceHarvestedByOffset() {
+		// Arrange
+		final var ingestSource = hostLmsFixture.getIngestSource(OFFSET_HOST_LMS_CODE);
+
+		// Act
+		final var jobs = manyValuesFrom(sourceRecordService.createJobInstancesForSource(ingestSource));
+
+		// Assert
+		assertThat(jobs, hasSize(1));
+		assertThat(jobs.get(0).getName(), is(ingestSource.getName() + " Source Record Import"));
+	}
+
+	private void createSierraHostLms(String code, Map<String, Object> harvestConfig) {
+		final Map<String, Object> clientConfig = new HashMap<>(harvestConfig);
+		clientConfig.put("key", KEY);
+		clientConfig.put("secret", SECRET);
+		clientConfig.put("base-url", BASE_URL);
+		clientConfig.put("get-holds-retry-attempts", 0);
+		clientConfig.put("place-hold-delay", 0);
+		clientConfig.put("get-hold-delay", 0);
+
+		hostLmsFixture.createHostLms(UUID.randomUUID(), code, SierraLmsClient.class,
+			Optional.empty(), clientConfig);
+	}
+
+	private SierraLmsClient createClient(String code) {
+		return (SierraLmsClient) hostLmsFixture.createClient(code);
+	}
+
+	@SneakyThrows
+	private JsonNode checkpoint(SierraBibIdCursor cursor) {
+		return objectMapper.writeValueToTree(cursor);
+	}
+
+	@SneakyThrows
+	private SierraBibIdCursor cursorFrom(SourceRecordImportChunk chunk) {
+		return objectMapper.readValueFromTree(chunk.getCheckpoint(), SierraBibIdCursor.class);
+	}
+
+	private static List<String> remoteIdsOf(SourceRecordImportChunk chunk) {
+		return chunk.getData().stream()
+			.map(SourceRecord::getRemoteId)
+			.toList();
+	}
+}
@@ -6,8 +6,10 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+import static org.olf.dcb.core.interaction.sierra.SierraLmsClient.ITEMS_PAGE_LIMIT;
 import static org.olf.dcb.core.model.ItemStatusCode.AVAILABLE;
 import static org.olf.dcb.core.model.ItemStatusCode.CHECKED_OUT;
 import static org.olf.dcb.test.PublisherUtils.singleValueFrom;
@@ -40,6 +42,8 @@ import static org.olf.dcb.test.matchers.interaction.HttpResponseProblemMatchers.
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -279,6 +283,95 @@ class SierraHostLmsClientItemTests {
 		));
 	}
 
+	@Test
+	void shouldGetItemsForSeveralBibsInOneQuery() {
+		// Arrange
+		final var bibIds = List.of("7916920", "7916921", "7916922");
+
+		sierraItemsAPIFixture.itemsForBibIds(bibIds, 0, List.of(
+			itemFor("first-bib-item", "7916920"),
+			itemFor("shared-item", "7916920", "7916921", "1234567")));
+
+		final var client = hostLmsFixture.createClient(CATALOGUING_HOST_LMS_CODE);
+
+		// Act
+		final var itemsByBib = getItems(client, bibIds);
+
+		// Assert
+		assertThat(itemsByBib.get("7916920"), containsInAnyOrder(
+			allOf(hasLocalId("first-bib-item"), hasLocalBibId("7916920")),
+			allOf(hasLocalId("shared-item"), hasLocalBibId("7916920"))));
+
+		assertThat("Item attached to several of the bibs should be included for each",
+			itemsByBib.get("7916921"), containsInAnyOrder(
+				allOf(hasLocalId("shared-item"), hasLocalBibId("7916921"))));
+
+		assertThat("Bib without items should have no items", itemsByBib.get("7916922"), is(empty()));
+
+		assertThat("Bib not asked for should not be included", itemsByBib.containsKey("1234567"), is(false));
+	}
+
+	@Test
+	void shouldPageThroughItemsForSeveralBibs() {
+		// Arrange
+		final var bibIds = List.of("7916930", "7916931");
+
+		final var firstPage = IntStream.range(0, ITEMS_PAGE_LIMIT)
+			.mapToObj(n -> itemFor("first-page-item-" + n, "7916930"))
+			.toList();
+
+		sierraItemsAPIFixture.itemsForBibIds(bibIds, 0, firstPage);
+		sierraItemsAPIFixture.itemsForBibIds(bibIds, ITEMS_PAGE_LIMIT,
+			List.of(itemFor("second-page-item", "7916931")));
+
+		final var client = hostLmsFixture.createClient(CATALOGUING_HOST_LMS_CODE);
+
+		// Act
+		final var itemsByBib = getItems(client, bibIds);
+
+		// Assert
+		assertThat(itemsByBib.get("7916930"), hasSize(ITEMS_PAGE_LIMIT));
+
+		assertThat(itemsByBib.get("7916931"), containsInAnyOrder(
+			allOf(hasLocalId("second-page-item"), hasLocalBibId("7916931"))));
+	}
+
+	@Test
+	void shouldFailWhenQueryForSeveralBibsFails() {
+		// Arrange
+		final var bibIds = List.of("7916940", "7916941");
+
+		sierraItemsAPIFixture.errorResponseForBibIds(bibIds);
+
+		final var client = hostLmsFixture.createClient(CATALOGUING_HOST_LMS_CODE);
+
+		// Act
+		final var problem = assertThrows(ThrowableProblem.class, () -> getItems(client, bibIds));
+
+		// Assert
+		assertThat(problem, hasResponseStatusCode(400));
+	}
+
+	private static Map<String, List<Item>> getItems(HostLmsClient client, List<String> sourceRecordIds) {
+		return singleValueFrom(client.getItems(sourceRecordIds.stream()
+			.map(sourceRecordId -> BibRecord.builder()
+				.sourceRecordId(sourceRecordId)
+				.build())
+			.toList()));
+	}
+
+	private static SierraItem itemFor(String id, String... bibIds) {
+		return SierraItem.builder()
+			.id(id)
+			.statusCode("-")
+			.locationName("King 7th Floor")
+			.locationCode("ab7")
+			.itemType("999")
+			.deleted(false)
+			.bibIds(List.of(bibIds))
+			.build();
+	}
+
 	private static List<Item> getItems(HostLmsClient client, String sourceRecordId) {
 		return singleValueFrom(client.getItems(BibRecord.builder()
 			.sourceRecordId(sourceRecordId)
@@ -1,6 +1,7 @@
 package org.olf.dcb.core.interaction.sierra;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 
 import io.micronaut.core.annotation.Nullable;
@@ -24,4 +25,5 @@ public class SierraItem {
 	Boolean suppressed;
 	Boolean deleted;
 	Map<Integer, FixedField> fixedFields;
+	@Nullable List<String> bibIds;
 }
@@ -75,6 +75,25 @@ public class SierraItemsAPIFixture {
 			.withDelay(MILLISECONDS, millisecondDelay));
 	}
 
+	/**
+	 * Items for a query on several bibs at once, one page at a time
+	 */
+	public void itemsForBibIds(List<String> bibIds, int offset,
+		List<org.olf.dcb.core.interaction.sierra.SierraItem> items) {
+
+		mockServer.replaceMock(getItemsForBib(String.join(",", bibIds))
+				.withQueryStringParameter("offset", String.valueOf(offset)),
+			okJson(ItemResultSet.builder()
+				.start(offset)
+				.total(items.size())
+				.entries(mapList(items, SierraItemsAPIFixture::mapItem))
+				.build()));
+	}
+
+	public void errorResponseForBibIds(List<String> bibIds) {
+		mockServer.mock(getItemsForBib(String.join(",", bibIds)), badRequestError());
+	}
+
 	public String checkoutsForItem(String itemId) {
 		mockServer.replaceMock(getItemCheckouts(itemId), "items/sierra-get-item-checkouts-success.json");
 
@@ -191,6 +210,7 @@ public class SierraItemsAPIFixture {
 			.holdCount(item.getHoldCount())
 			.deleted(item.getDeleted())
 			.suppressed(item.getSuppressed())
+			.bibIds(item.getBibIds() != null ? item.getBibIds().toArray(String[]::new) : null)
 			.build();
 	}
 
@@ -0,0 +1,180 @@
+package org.olf.dcb.core.svc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.core.model.DataAgency;
+import org.olf.dcb.core.model.Location;
+import org.olf.dcb.storage.AgencyRepository;
+import org.olf.dcb.storage.DataChangeLogRepository;
+import org.olf.dcb.storage.LibraryRepository;
+import org.olf.dcb.storage.LocationRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+class ReferenceDataCacheTests {
+	@Test
+	void shouldOnlyLoadAnAgencyOnce() {
+		final var agencyRepository = mock(AgencyRepository.class);
+		final var cache = cache(agencyRepository, true);
+
+		final var agency = agency();
+		when(agencyRepository.findById(agency.getId())).thenReturn(Mono.just(agency));
+
+		assertThat(cache.findAgencyById(agency.getId()).block(), is(agency));
+		assertThat(cache.findAgencyById(agency.getId()).block(), is(agency));
+
+		verify(agencyRepository, times(1)).findById(agency.getId());
+	}
+
+	@Test
+	void shouldGiveEachCallerItsOwnCopy() {
+		final var agencyRepository = mock(AgencyRepository.class);
+		final var cache = cache(agencyRepository, true);
+
+		final var agency = agency();
+		when(agencyRepository.findById(agency.getId())).thenReturn(Mono.just(agency));
+
+		final var first = cache.findAgencyById(agency.getId()).block();
+		first.setName("Changed by first caller");
+
+		final var second = cache.findAgencyById(agency.getId()).block();
+
+		assertThat(second, is(not(sameInstance(first))));
+		assertThat(second.getName(), is("Agency"));
+	}
+
+	@Test
+	void shouldCopyAgencyOfCachedLocation() {
+		final var locationRepository = mock(LocationRepository.class);
+		final var cache = new ReferenceDataCache(config(true), mock(AgencyRepository.class),
+			locationRepository, mock(LibraryRepository.class), mock(DataChangeLogRepository.class),
+			new SimpleMeterRegistry());
+
+		final var location = Location.builder()
+			.id(UUID.randomUUID())
+			.code("location")
+			.agency(agency())
+			.build();
+
+		when(locationRepository.findById(location.getId())).thenReturn(Mono.just(location));
+
+		cache.findLocationById(location.getId()).block().getAgency().setCode("changed");
+
+		assertThat(cache.findLocationById(location.getId()).block().getAgency().getCode(), is("agency"));
+	}
+
+	@Test
+	void shouldNotWatchForHostLmsChanges() {
+		// Host LMS changes are not recorded in the data change log
+		assertThat(ReferenceDataCache.ENTITY_TYPES.contains("host_lms"), is(false));
+	}
+
+	@Test
+	void shouldNotHoldOnToMissingEntries() {
+		final var agencyRepository = mock(AgencyRepository.class);
+		final var cache = cache(agencyRepository, true);
+
+		final var agency = agency();
+		when(agencyRepository.findById(agency.getId()))
+			.thenReturn(Mono.empty())
+			.thenReturn(Mono.just(agency));
+
+		assertThat(cache.findAgencyById(agency.getId()).block(), is(nullValue()));
+		assertThat(cache.findAgencyById(agency.getId()).block(), is(agency));
+	}
+
+	@Test
+	void shouldReloadAfterChangeIsLogged() {
+		final var agencyRepository = mock(AgencyRepository.class);
+		final var cache = cache(agencyRepository, true);
+
+		final var agency = agency();
+		when(agencyRepository.findById(agency.getId())).thenReturn(Mono.just(agency));
+
+		final var changed = Instant.parse("2024-01-01T00:00:00Z");
+		cache.onLatestChange(changed);
+		cache.findAgencyById(agency.getId()).block();
+
+		// No further change
+		cache.onLatestChange(changed);
+		cache.findAgencyById(agency.getId()).block();
+		verify(agencyRepository, times(1)).findById(agency.getId());
+
+		cache.onLatestChange(changed.plusSeconds(1));
+		cache.findAgencyById(agency.getId()).block();
+		verify(agencyRepository, times(2)).findById(agency.getId());
+	}
+
+	@Test
+	void shouldAlwaysLoadWhenDisabled() {
+		final var agencyRepository = mock(AgencyRepository.class);
+		final var cache = cache(agencyRepository, false);
+
+		final var agency = agency();
+		when(agencyRepository.findById(agency.getId())).thenReturn(Mono.just(agency));
+
+		cache.findAgencyById(agency.getId()).block();
+		cache.findAgencyById(agency.getId()).block();
+
+		verify(agencyRepository, times(2)).findById(agency.getId());
+	}
+
+	@Test
+	void shouldFindNothingForLocationIdThatIsNotAUuid() {
+		final var locationRepository = mock(LocationRepository.class);
+		final var cache = new ReferenceDataCache(config(true), mock(AgencyRepository.class),
+			locationRepository, mock(LibraryRepository.class), mock(DataChangeLogRepository.class),
+			new SimpleMeterRegistry());
+
+		assertThat(cache.findLocationById("not-a-uuid").block(), is(nullValue()));
+		verifyNoInteractions(locationRepository);
+	}
+
+	private static DataAgency agency() {
+		return DataAgency.builder()
+			.id(UUID.randomUUID())
+			.code("agency")
+			.name("Agency")
+			.build();
+	}
+
+	private static ReferenceDataCache cache(AgencyRepository agencyRepository, boolean enabled) {
+		return new ReferenceDataCache(config(enabled), agencyRepository,
+			mock(LocationRepository.class), mock(LibraryRepository.class), mock(DataChangeLogRepository.class),
+			new SimpleMeterRegistry());
+	}
+
+	private static ReferenceDataCacheConfig config(boolean enabled) {
+		return new ReferenceDataCacheConfig() {
+			@Override
+			public boolean isEnabled() {
+				return enabled;
+			}
+
+			@Override
+			public long getMaxEntries() {
+				return 100;
+			}
+
+			@Override
+			public Duration getMaxAge() {
+				return Duration.ofMinutes(15);
+			}
+		};
+	}
+}
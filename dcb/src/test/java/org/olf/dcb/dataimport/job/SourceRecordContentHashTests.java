@@ -0,0 +1,43 @@
+package org.olf.dcb.dataimport.job;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+import io.micronaut.json.tree.JsonNode;
+import io.micronaut.serde.ObjectMapper;
+
+class SourceRecordContentHashTests {
+	private final ObjectMapper objectMapper = ObjectMapper.getDefault();
+
+	@Test
+	void shouldHashSameContentTheSameRegardlessOfPropertyOrder() throws IOException {
+		final var first = json("{\"id\":\"1001\",\"deleted\":false,\"fixed\":{\"a\":1,\"b\":[\"x\",\"y\"]}}");
+		final var second = json("{\"fixed\":{\"b\":[\"x\",\"y\"],\"a\":1},\"deleted\":false,\"id\":\"1001\"}");
+
+		assertThat(SourceRecordContentHash.of(first), is(SourceRecordContentHash.of(second)));
+	}
+
+	@Test
+	void shouldHashDifferentContentDifferently() throws IOException {
+		final var original = SourceRecordContentHash.of(json("{\"id\":\"1001\",\"title\":\"Works\"}"));
+
+		assertThat(SourceRecordContentHash.of(json("{\"id\":\"1001\",\"title\":\"Work\"}")), is(not(original)));
+		assertThat(SourceRecordContentHash.of(json("{\"id\":\"1001\",\"title\":null}")), is(not(original)));
+		assertThat(SourceRecordContentHash.of(json("{\"id\":\"1001\"}")), is(not(original)));
+	}
+
+	@Test
+	void shouldNotConfuseValuesThatRunTogether() throws IOException {
+		assertThat(SourceRecordContentHash.of(json("[\"ab\",\"c\"]")),
+			is(not(SourceRecordContentHash.of(json("[\"a\",\"bc\"]")))));
+	}
+
+	private JsonNode json(String json) throws IOException {
+		return objectMapper.readValue(json, JsonNode.class);
+	}
+}
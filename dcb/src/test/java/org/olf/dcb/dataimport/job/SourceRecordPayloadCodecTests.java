@@ -0,0 +1,112 @@
+package org.olf.dcb.dataimport.job;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.marc4j.marc.DataField;
+import org.olf.dcb.dataimport.job.model.SourceRecord;
+
+import io.micronaut.json.tree.JsonNode;
+import io.micronaut.serde.ObjectMapper;
+
+class SourceRecordPayloadCodecTests {
+	private static final String LEADER = "00000nam a2200000 a 4500";
+
+	private static final String MARC = """
+		{"leader":"%s","fields":[
+			{"001":"ocm12345"},
+			{"245":{"ind1":"1","ind2":"0","subfields":[{"a":"The collected works"},{"c":"A. Author"}]}}
+		]}""".formatted(LEADER);
+
+	private final ObjectMapper objectMapper = ObjectMapper.create(Map.of(), "services.k_int.integration.marc4j");
+
+	@Test
+	void shouldHoldMarcInBinary() throws IOException {
+		final var codec = codec(true);
+		final var payload = json("{\"id\":\"1001\",\"deleted\":false,\"marc\":" + MARC + "}");
+
+		final byte[] compact = codec.encode(payload);
+
+		assertThat(compact[0], is(SourceRecordPayloadCodec.FORMAT_JSON_AND_MARC));
+		assertThat(codec.decode(compact), is(payload));
+	}
+
+	@Test
+	void shouldReadMarcStraightFromPayload() throws IOException {
+		final var compact = codec(true).encode(json("{\"id\":\"1001\",\"marc\":" + MARC + "}"));
+
+		final var marc = SourceRecordPayloadCodec.readMarc(compact).orElseThrow();
+
+		assertThat(marc.getLeader().marshal(), is(LEADER));
+		assertThat(((DataField) marc.getVariableField("245")).getSubfield('a').getData(),
+			is("The collected works"));
+	}
+
+	@Test
+	void shouldHoldPayloadWithoutMarcAsJson() throws IOException {
+		final var codec = codec(true);
+		final var payload = json("{\"id\":\"1001\",\"title\":\"The collected works\"}");
+
+		final byte[] compact = codec.encode(payload);
+
+		assertThat(compact[0], is(SourceRecordPayloadCodec.FORMAT_JSON));
+		assertThat(codec.decode(compact), is(payload));
+		assertThat(SourceRecordPayloadCodec.readMarc(compact).isPresent(), is(false));
+	}
+
+	@Test
+	void shouldLeaveMarcOutOfPayloadForIngest() throws IOException {
+		final var codec = codec(true);
+		final var compacted = codec.compact(sourceRecord(json("{\"id\":\"1001\",\"marc\":" + MARC + "}")));
+
+		final var expanded = codec.expandForIngest(compacted);
+
+		assertThat(expanded.getSourceRecordData(), is(json("{\"id\":\"1001\"}")));
+		assertThat(expanded.getSourceRecordDataCompact(), is(notNullValue()));
+	}
+
+	@Test
+	void shouldOnlyCompactWhenEnabled() throws IOException {
+		final var record = sourceRecord(json("{\"id\":\"1001\"}"));
+
+		assertThat(codec(false).compact(record), is(sameInstance(record)));
+
+		final var compacted = codec(true).compact(record);
+
+		assertThat(compacted.getSourceRecordData(), is(nullValue()));
+		assertThat(codec(false).expand(compacted).getSourceRecordData(), is(record.getSourceRecordData()));
+	}
+
+	private JsonNode json(String json) throws IOException {
+		return objectMapper.readValue(json, JsonNode.class);
+	}
+
+	private static SourceRecord sourceRecord(JsonNode payload) {
+		return SourceRecord.builder()
+			.id(UUID.randomUUID())
+			.hostLmsId(UUID.randomUUID())
+			.remoteId("1001")
+			.lastFetched(Instant.now())
+			.sourceRecordData(payload)
+			.build();
+	}
+
+	private SourceRecordPayloadCodec codec(boolean enabled) {
+		final var config = mock(SourceRecordPayloadConfig.class);
+		when(config.isEnabled()).thenReturn(enabled);
+		when(config.getCompressionLevel()).thenReturn(6);
+
+		return new SourceRecordPayloadCodec(config, objectMapper);
+	}
+}
@@ -0,0 +1,180 @@
+package org.olf.dcb.dataimport.job;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+import static org.olf.dcb.test.PublisherUtils.singleValueFrom;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.olf.dcb.dataimport.job.SourceRecordPayloadMigration.Pending;
+import org.olf.dcb.dataimport.job.model.SourceRecord;
+import org.olf.dcb.storage.SourceRecordRepository;
+import org.olf.dcb.test.DcbTestContainerContextBuilder;
+import org.olf.dcb.test.HostLmsFixture;
+
+import io.micronaut.data.r2dbc.operations.R2dbcOperations;
+import io.micronaut.json.tree.JsonNode;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Moving source records stored before compact payloads were enabled
+ */
+@MicronautTest(transactional = false, contextBuilder = DcbTestContainerContextBuilder.class)
+@TestInstance(PER_CLASS)
+class SourceRecordPayloadMigrationTests {
+	private static final String HOST_LMS_CODE = "source-record-payload-migration";
+
+	@Inject
+	private SourceRecordPayloadMigration migration;
+	@Inject
+	private SourceRecordService sourceRecordService;
+	@Inject
+	private SourceRecordRepository sourceRecordRepository;
+	@Inject
+	private R2dbcOperations r2dbcOperations;
+
+	@Inject
+	private HostLmsFixture hostLmsFixture;
+
+	private UUID hostLmsId;
+
+	@BeforeAll
+	void beforeAll() {
+		hostLmsFixture.deleteAll();
+
+		hostLmsId = hostLmsFixture.createSierraHostLms(HOST_LMS_CODE).getId();
+	}
+
+	@BeforeEach
+	void beforeEach() {
+		singleValueFrom(sourceRecordRepository.deleteAllByHostLmsId(hostLmsId));
+
+		// Move anything left by other tests, so only records from each test are still JSON
+		singleValueFrom(migration.migrateAll());
+	}
+
+	@Test
+	void shouldMoveJsonPayloadsToCompactForm() {
+		// Arrange
+		final var first = stored(payload("1001", "Brain of the Firm"));
+		final var second = stored(payload("1002", "The Heart of Enterprise"));
+
+		// Act
+		final var moved = singleValueFrom(migration.migrateAll());
+
+		// Assert
+		assertThat(moved, is(2L));
+
+		assertMovedToCompactForm(first, payload("1001", "Brain of the Firm"));
+		assertMovedToCompactForm(second, payload("1002", "The Heart of Enterprise"));
+	}
+
+	@Test
+	void shouldFindNothingToMoveOnceMoved() {
+		// Arrange
+		stored(payload("1003", "Platform for Change"));
+
+		singleValueFrom(migration.migrateAll());
+
+		// Act
+		final var moved = singleValueFrom(migration.migrateAll());
+
+		// Assert
+		assertThat(moved, is(0L));
+	}
+
+	@Test
+	void shouldLeaveRecordWrittenSinceItWasRead() {
+		// Arrange
+		final var unchanged = stored(payload("1004", "Designing Freedom"));
+		final var changed = stored(payload("1005", "Decision and Control"));
+
+		final var batch = singleValueFrom(r2dbcOperations.withConnection(connection ->
+			migration.nextBatch(connection, new UUID(0, 0))));
+
+		assertThat(batch.stream().map(Pending::id).toList(),
+			containsInAnyOrder(unchanged.getId(), changed.getId()));
+
+		// Harvested again between the batch being read and compacted
+		inTransaction(() -> sourceRecordService.save(changed.toBuilder()
+			.sourceRecordData(payload("1005", "Decision and Control, second edition"))
+			.build()));
+
+		// Act
+		final var moved = singleValueFrom(Flux.from(r2dbcOperations.withTransaction(status ->
+				migration.compactAll(status.getConnection(), batch)))
+			.reduce(0L, Long::sum));
+
+		// Assert
+		assertThat(moved, is(1L));
+
+		assertMovedToCompactForm(unchanged, payload("1004", "Designing Freedom"));
+
+		final var stillJson = storedForm(changed);
+
+		assertThat("Should keep payload written concurrently",
+			stillJson.data(), is(notNullValue()));
+		assertThat(stillJson.compact(), is(nullValue()));
+		assertThat(read(changed).getSourceRecordData(),
+			is(payload("1005", "Decision and Control, second edition")));
+	}
+
+	private SourceRecord stored(JsonNode payload) {
+		return inTransaction(() -> sourceRecordService.save(SourceRecord.builder()
+			.id(UUID.randomUUID())
+			.hostLmsId(hostLmsId)
+			.remoteId(payload.get("id").getStringValue())
+			.lastFetched(Instant.now())
+			.sourceRecordData(payload)
+			.build()));
+	}
+
+	private void assertMovedToCompactForm(SourceRecord sourceRecord, JsonNode expectedPayload) {
+		final var form = storedForm(sourceRecord);
+
+		assertThat(form.data(), is(nullValue()));
+		assertThat(form.compact(), is(notNullValue()));
+		assertThat(read(sourceRecord).getSourceRecordData(), is(expectedPayload));
+	}
+
+	private SourceRecord read(SourceRecord sourceRecord) {
+		return inTransaction(() -> sourceRecordService.getByLocalId(sourceRecord.getId()));
+	}
+
+	private StoredForm storedForm(SourceRecord sourceRecord) {
+		return singleValueFrom(r2dbcOperations.withConnection(connection ->
+			Flux.from(connection.createStatement(
+					"select source_record_data::text as data, source_record_data_compact as compact from source_record where id = $1")
+				.bind("$1", sourceRecord.getId())
+				.execute())
+			.flatMap(result -> result.map((row, _meta) -> new StoredForm(
+				row.get("data", String.class),
+				row.get("compact", byte[].class))))));
+	}
+
+	private <T> T inTransaction(Supplier<Mono<T>> work) {
+		return singleValueFrom(r2dbcOperations.withTransaction(_status -> work.get()));
+	}
+
+	private static JsonNode payload(String id, String title) {
+		return JsonNode.createObjectNode(Map.of(
+			"id", JsonNode.createStringNode(id),
+			"title", JsonNode.createStringNode(title)));
+	}
+
+	private record StoredForm(String data, byte[] compact) {}
+}
@@ -0,0 +1,185 @@
+package org.olf.dcb.dataimport.job;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+import static org.olf.dcb.dataimport.job.model.SourceRecord.ProcessingStatus.PROCESSING_REQUIRED;
+import static org.olf.dcb.dataimport.job.model.SourceRecord.ProcessingStatus.SUCCESS;
+import static org.olf.dcb.test.PublisherUtils.singleValueFrom;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.olf.dcb.dataimport.job.model.SourceRecord;
+import org.olf.dcb.ingest.IngestService;
+import org.olf.dcb.storage.SourceRecordRepository;
+import org.olf.dcb.test.BibRecordFixture;
+import org.olf.dcb.test.ClusterRecordFixture;
+import org.olf.dcb.test.DcbTestContainerContextBuilder;
+import org.olf.dcb.test.HostLmsFixture;
+
+import io.micronaut.data.r2dbc.operations.R2dbcOperations;
+import io.micronaut.json.tree.JsonNode;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import reactor.core.publisher.Mono;
+
+/**
+ * Harvesting a record again that has already been processed into a clustered bib
+ */
+@MicronautTest(transactional = false, contextBuilder = DcbTestContainerContextBuilder.class)
+@TestInstance(PER_CLASS)
+class SourceRecordServiceUnchangedTests {
+	private static final String HOST_LMS_CODE = "unchanged-source-records";
+
+	@Inject
+	private SourceRecordService sourceRecordService;
+	@Inject
+	private SourceRecordRepository sourceRecordRepository;
+	@Inject
+	private R2dbcOperations r2dbcOperations;
+
+	@Inject
+	private HostLmsFixture hostLmsFixture;
+	@Inject
+	private ClusterRecordFixture clusterRecordFixture;
+	@Inject
+	private BibRecordFixture bibRecordFixture;
+
+	private UUID hostLmsId;
+
+	@BeforeAll
+	void beforeAll() {
+		hostLmsFixture.deleteAll();
+
+		hostLmsId = hostLmsFixture.createSierraHostLms(HOST_LMS_CODE).getId();
+	}
+
+	@BeforeEach
+	void beforeEach() {
+		clusterRecordFixture.deleteAll();
+
+		singleValueFrom(sourceRecordRepository.deleteAllByHostLmsId(hostLmsId));
+	}
+
+	@Test
+	void shouldOnlyNoteFetchOfRecordThatHasNotChanged() {
+		// Arrange
+		final var firstFetched = Instant.now().minus(1, ChronoUnit.DAYS);
+
+		final var harvested = harvest(sourceRecord("1001", "Brain of the Firm", firstFetched));
+
+		processedIntoBib(harvested, IngestService.getProcessVersion());
+
+		// Act
+		harvest(sourceRecord("1001", "Brain of the Firm", Instant.now()));
+
+		// Assert
+		final var stored = fetch(harvested);
+
+		assertThat("Should not need processing again", stored.getProcessingState(), is(SUCCESS));
+		assertThat(stored.getContentHash(), is(harvested.getContentHash()));
+		assertThat(stored.getLastFetched(), is(greaterThan(firstFetched)));
+	}
+
+	@Test
+	void shouldProcessRecordAgainWhenItHasChanged() {
+		// Arrange
+		final var harvested = harvest(sourceRecord("1002", "Brain of the Firm", Instant.now()));
+
+		processedIntoBib(harvested, IngestService.getProcessVersion());
+
+		// Act
+		harvest(sourceRecord("1002", "The Heart of Enterprise", Instant.now()));
+
+		// Assert
+		final var stored = fetch(harvested);
+
+		assertThat(stored.getProcessingState(), is(PROCESSING_REQUIRED));
+		assertThat(stored.getContentHash(), is(not(harvested.getContentHash())));
+	}
+
+	@Test
+	void shouldProcessUnchangedRecordAgainWhenProcessingHasChanged() {
+		// Arrange
+		final var harvested = harvest(sourceRecord("1003", "Brain of the Firm", Instant.now()));
+
+		processedIntoBib(harvested, IngestService.getProcessVersion() - 1);
+
+		// Act
+		harvest(sourceRecord("1003", "Brain of the Firm", Instant.now()));
+
+		// Assert
+		final var stored = fetch(harvested);
+
+		assertThat(stored.getProcessingState(), is(PROCESSING_REQUIRED));
+		assertThat(stored.getContentHash(), is(harvested.getContentHash()));
+	}
+
+	@Test
+	void shouldProcessUnchangedRecordAgainWhenNotYetProcessed() {
+		// Arrange
+		final var harvested = harvest(sourceRecord("1004", "Brain of the Firm", Instant.now()));
+
+		// Act
+		harvest(sourceRecord("1004", "Brain of the Firm", Instant.now()));
+
+		// Assert
+		assertThat(fetch(harvested).getProcessingState(), is(PROCESSING_REQUIRED));
+	}
+
+	private SourceRecord sourceRecord(String remoteId, String title, Instant lastFetched) {
+		return SourceRecord.builder()
+			.hostLmsId(hostLmsId)
+			.remoteId(remoteId)
+			.lastFetched(lastFetched)
+			.sourceRecordData(JsonNode.createObjectNode(Map.of(
+				"id", JsonNode.createStringNode(remoteId),
+				"title", JsonNode.createStringNode(title))))
+			.build();
+	}
+
+	/**
+	 * Harvest a chunk holding only the given record, as the import job would
+	 *
+	 * @return the record as it was stored
+	 */
+	private SourceRecord harvest(SourceRecord sourceRecord) {
+		final var chunk = SourceRecordImportChunk.builder()
+			.jobId(UUID.randomUUID())
+			.checkpoint(JsonNode.nullNode())
+			.data(List.of(sourceRecord))
+			.build();
+
+		singleValueFrom(Mono.from(r2dbcOperations.withTransaction(
+			_status -> sourceRecordService.processChunk(chunk))));
+
+		return fetch(sourceRecord);
+	}
+
+	/**
+	 * Mark the record as successfully processed into a clustered bib, as ingest would
+	 */
+	private void processedIntoBib(SourceRecord sourceRecord, int processVersion) {
+		singleValueFrom(sourceRecordRepository.updateById(sourceRecord.getId(), Instant.now(),
+			SUCCESS, "Bib created/updated"));
+
+		final var cluster = clusterRecordFixture.createClusterRecord(UUID.randomUUID(), UUID.randomUUID());
+
+		bibRecordFixture.createBibRecordFromSourceRecord(sourceRecord.getId(), hostLmsId,
+			sourceRecord.getRemoteId(), sourceRecord.getContentHash(), processVersion, cluster);
+	}
+
+	private SourceRecord fetch(SourceRecord sourceRecord) {
+		return singleValueFrom(sourceRecordRepository.getById(sourceRecord.getId()));
+	}
+}
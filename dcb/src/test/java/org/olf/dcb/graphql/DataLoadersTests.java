@@ -0,0 +1,87 @@
+package org.olf.dcb.graphql;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import org.dataloader.DataLoader;
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.core.model.DataAgency;
+import org.olf.dcb.core.model.PatronRequest;
+import org.olf.dcb.core.model.SupplierRequest;
+import org.olf.dcb.graphql.GraphQLQueryMetrics.QueryCounter;
+import org.olf.dcb.storage.HostLmsRepository;
+import org.olf.dcb.storage.postgres.PostgresAgencyRepository;
+import org.olf.dcb.storage.postgres.PostgresClusterRecordRepository;
+import org.olf.dcb.storage.postgres.PostgresLocationRepository;
+import org.olf.dcb.storage.postgres.PostgresSupplierRequestRepository;
+
+import reactor.core.publisher.Flux;
+
+class DataLoadersTests {
+	private final PostgresAgencyRepository agencyRepository = mock(PostgresAgencyRepository.class);
+	private final PostgresSupplierRequestRepository supplierRequestRepository = mock(PostgresSupplierRequestRepository.class);
+
+	private final DataLoaders dataLoaders = new DataLoaders(agencyRepository, mock(HostLmsRepository.class),
+		mock(PostgresLocationRepository.class), mock(PostgresClusterRecordRepository.class), supplierRequestRepository);
+
+	@Test
+	void shouldFetchAllRequestedAgenciesWithSingleQuery() {
+		final var firstAgency = DataAgency.builder().id(UUID.randomUUID()).code("first").build();
+		final var secondAgency = DataAgency.builder().id(UUID.randomUUID()).code("second").build();
+
+		when(agencyRepository.findByIds(any()))
+			.thenReturn(Flux.just(secondAgency, firstAgency));
+
+		final var counter = new QueryCounter();
+		final DataLoader<UUID, DataAgency> loader = dataLoaders.newRegistry(counter)
+			.getDataLoader(DataLoaders.AGENCY_BY_ID);
+
+		final CompletableFuture<DataAgency> first = loader.load(firstAgency.getId());
+		final CompletableFuture<DataAgency> second = loader.load(secondAgency.getId());
+		final CompletableFuture<DataAgency> unknown = loader.load(UUID.randomUUID());
+		loader.dispatchAndJoin();
+
+		assertThat(first.join().getCode(), is("first"));
+		assertThat(second.join().getCode(), is("second"));
+		assertThat(unknown.join(), is(nullValue()));
+
+		assertThat(counter.get(), is(1));
+		verify(agencyRepository, times(1)).findByIds(any());
+	}
+
+	@Test
+	void shouldGroupSupplierRequestsByPatronRequest() {
+		final var patronRequest = PatronRequest.builder().id(UUID.randomUUID()).build();
+		final var supplierRequest = SupplierRequest.builder()
+			.id(UUID.randomUUID())
+			.patronRequest(patronRequest)
+			.build();
+
+		when(supplierRequestRepository.findAllByPatronRequestIds(any()))
+			.thenReturn(Flux.just(supplierRequest));
+
+		final var counter = new QueryCounter();
+		final DataLoader<UUID, List<SupplierRequest>> loader = dataLoaders.newRegistry(counter)
+			.getDataLoader(DataLoaders.SUPPLIER_REQUESTS_BY_PATRON_REQUEST_ID);
+
+		final var withSuppliers = loader.load(patronRequest.getId());
+		final var withoutSuppliers = loader.load(UUID.randomUUID());
+		loader.dispatchAndJoin();
+
+		assertThat(withSuppliers.join(), contains(supplierRequest));
+		assertThat(withoutSuppliers.join(), is(empty()));
+		assertThat(counter.get(), is(1));
+	}
+}
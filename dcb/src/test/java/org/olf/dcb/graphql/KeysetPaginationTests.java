@@ -0,0 +1,113 @@
+package org.olf.dcb.graphql;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.core.model.PatronRequest;
+
+import graphql.execution.DataFetcherResult;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Sort;
+
+class KeysetPaginationTests {
+	@Test
+	void shouldAskForOneRowMoreThanPageWithoutTotal() {
+		final var pageable = KeysetPagination.firstPage(2, "dateCreated", Sort.Order.Direction.DESC);
+
+		assertThat(pageable.getSize(), is(3));
+		assertThat(pageable.requestTotal(), is(false));
+		assertThat(pageable.getSort().getOrderBy(), contains(
+			Sort.Order.desc("dateCreated"), Sort.Order.desc("id")));
+	}
+
+	@Test
+	void shouldNotOrderByIdTwice() {
+		final var pageable = KeysetPagination.firstPage(2, "id", Sort.Order.Direction.ASC);
+
+		assertThat(pageable.getSort().getOrderBy(), contains(Sort.Order.asc("id")));
+	}
+
+	@Test
+	void shouldEncodeOrderValueAndIdOfLastRowWhenThereAreMoreRows() {
+		final var first = patronRequest(Instant.parse("2024-01-01T10:00:00.123456Z"));
+		final var last = patronRequest(Instant.parse("2024-01-02T10:00:00.654321Z"));
+		final var extra = patronRequest(Instant.parse("2024-01-03T10:00:00Z"));
+
+		final var result = toPage(first, last, extra);
+
+		assertThat(result.getData().getContent(), contains(first, last));
+		assertThat(new String(Base64.getUrlDecoder().decode((String) result.getLocalContext()), UTF_8),
+			is("2024-01-02T10:00:00.654321Z|" + last.getId()));
+	}
+
+	@Test
+	void shouldHaveNoCursorWhenFinalPageIsFull() {
+		final var first = patronRequest(Instant.now());
+		final var last = patronRequest(Instant.now());
+
+		final var result = toPage(first, last);
+
+		assertThat(result.getData().getContent(), contains(first, last));
+		assertThat(result.getLocalContext(), is(nullValue()));
+	}
+
+	@Test
+	void shouldHaveNoCursorAfterFinalPage() {
+		final var only = patronRequest(Instant.now());
+
+		final var result = toPage(only);
+
+		assertThat(result.getData().getContent(), contains(only));
+		assertThat(result.getLocalContext(), is(nullValue()));
+	}
+
+	@Test
+	void shouldNotCountCursorPages() {
+		final var result = toPage(patronRequest(Instant.now()));
+
+		assertThat(result.getData().hasTotalSize(), is(false));
+	}
+
+	@Test
+	void shouldParseSupportedOrderTypes() {
+		final var id = UUID.randomUUID();
+
+		assertThat(KeysetPagination.parse(Instant.class, "2024-01-01T10:00:00Z"), is(Instant.parse("2024-01-01T10:00:00Z")));
+		assertThat(KeysetPagination.parse(UUID.class, id.toString()), is(id));
+		assertThat(KeysetPagination.parse(Integer.class, "42"), is(42));
+	}
+
+	@Test
+	void shouldRejectOrderTypesThatCannotBeCompared() {
+		assertThrows(IllegalArgumentException.class, () -> KeysetPagination.parse(List.class, "[]"));
+	}
+
+	@Test
+	void shouldRejectUnknownOrderProperty() {
+		assertThrows(IllegalArgumentException.class, () -> KeysetPagination.after(null, PatronRequest.class,
+			"noSuchProperty", Sort.Order.Direction.ASC, ""));
+	}
+
+	private static DataFetcherResult<Page<PatronRequest>> toPage(PatronRequest... rows) {
+		return KeysetPagination.toPage(2, PatronRequest.class, "dateCreated", Sort.Order.Direction.ASC,
+				PatronRequest::getId)
+			.apply(Page.of(List.of(rows), KeysetPagination.firstPage(2, "dateCreated", Sort.Order.Direction.ASC), null));
+	}
+
+	private static PatronRequest patronRequest(Instant dateCreated) {
+		return PatronRequest.builder()
+			.id(UUID.randomUUID())
+			.dateCreated(dateCreated)
+			.build();
+	}
+}
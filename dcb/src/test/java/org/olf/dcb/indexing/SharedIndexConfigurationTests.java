@@ -33,6 +33,10 @@ class SharedIndexConfigurationTests {
 			Optional.empty(),
 			replicas,
 			Optional.empty(),
+			Optional.empty(),
+			Optional.empty(),
+			Optional.empty(),
+			Optional.empty(),
 			Optional.empty());
 	}
 }
@@ -0,0 +1,56 @@
+package org.olf.dcb.indexing.bulk;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class BulkPartitioningTests {
+	@Test
+	void shouldCloseBatchWhenTargetSizeWouldBeExceeded() {
+		final var partitions = BulkSharedIndexService.partitionByPayloadSize(
+			List.of(400L, 400L, 400L, 100L), Long::longValue, 1000, 100);
+
+		assertThat(partitions, contains(List.of(400L, 400L), List.of(400L, 100L)));
+	}
+
+	@Test
+	void shouldSendOversizedOperationOnItsOwn() {
+		final var partitions = BulkSharedIndexService.partitionByPayloadSize(
+			List.of(100L, 5000L, 100L), Long::longValue, 1000, 100);
+
+		assertThat(partitions, contains(List.of(100L), List.of(5000L), List.of(100L)));
+	}
+
+	@Test
+	void shouldCloseBatchAtMaximumCount() {
+		final var partitions = BulkSharedIndexService.partitionByPayloadSize(
+			List.of(1L, 1L, 1L), Long::longValue, 1000, 2);
+
+		assertThat(partitions, contains(List.of(1L, 1L), List.of(1L)));
+	}
+
+	@Test
+	void shouldSplitBulkResponseIntoCompletedRetryableAndFailed() {
+		final var outcome = BulkOutcome.fromItemStatuses(List.of("ok", "busy", "bad", "down"),
+			List.of(200, 429, 400, 503), i -> i > 0);
+
+		assertThat(outcome.completed(), contains("ok"));
+		assertThat(outcome.retryable(), contains("busy", "down"));
+		assertThat(outcome.failed(), contains("bad"));
+	}
+
+	@Test
+	void shouldRetryItemsMissingFromBulkResponse() {
+		final var outcome = BulkOutcome.fromItemStatuses(List.of("first", "second"),
+			List.of(200), i -> false);
+
+		assertThat(outcome.completed(), contains("first"));
+		assertThat(outcome.retryable(), contains("second"));
+		assertThat(outcome.failed(), is(empty()));
+	}
+}
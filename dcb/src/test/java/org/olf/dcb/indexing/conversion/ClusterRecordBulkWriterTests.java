@@ -0,0 +1,247 @@
+package org.olf.dcb.indexing.conversion;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.availability.job.BibAvailabilityCount;
+import org.olf.dcb.core.clustering.model.ClusterRecord;
+import org.olf.dcb.core.model.BibRecord;
+import org.olf.dcb.indexing.bulk.IndexOperation;
+import org.olf.dcb.indexing.model.ClusterRecordIndexDoc;
+import org.opensearch.client.json.jackson3.JacksonJsonpMapper;
+
+import io.micronaut.serde.ObjectMapper;
+
+class ClusterRecordBulkWriterTests {
+	private final ObjectMapper objectMapper = ObjectMapper.getDefault();
+
+	private final UUID hostLmsId = UUID.randomUUID();
+
+	@Test
+	void shouldWriteActionAndDocumentLines() {
+		final var bib = BibRecord.builder()
+			.id(UUID.randomUUID())
+			.title("A \"quoted\" title")
+			.sourceSystemId(hostLmsId)
+			.sourceRecordId("b123")
+			.canonicalMetadata("dateOfPublication", "c1999")
+			.build();
+
+		final var cluster = ClusterRecord.builder()
+			.id(UUID.randomUUID())
+			.title("A \"quoted\" title")
+			.bibs(Set.of(bib))
+			.build();
+
+		final var count = BibAvailabilityCount.builder()
+			.id(UUID.randomUUID())
+			.bibId(bib.getId())
+			.hostLms(hostLmsId)
+			.internalLocationCode("LIB")
+			.remoteLocationCode("MAIN")
+			.count(3)
+			.status(BibAvailabilityCount.Status.MAPPED)
+			.lastUpdated(Instant.now())
+			.build();
+
+		final var writer = writer(Map.of(bib.getId().toString(), List.of(count)));
+		final var lines = encode(writer, IndexOperation.update(cluster.getId(), cluster));
+
+		assertThat(lines.length, is(2));
+		assertThat(lines[0], is("{\"index\":{\"_index\":\"dcb\",\"_id\":\"" + cluster.getId() + "\"}}"));
+		assertThat(lines[1], containsString("\"title\":\"A \\\"quoted\\\" title\""));
+		assertThat(lines[1], containsString("\"yearOfPublication\":1999"));
+		assertThat(lines[1], containsString("\"sourceSystemCode\":\"CODE\""));
+		assertThat(lines[1], containsString(
+			"\"availability\":[{\"library\":\"LIB\",\"location\":\"MAIN\",\"combined\":\"LIB.MAIN\",\"count\":3}]"));
+		assertThat(lines[1], not(containsString("null")));
+	}
+
+	@Test
+	void shouldOnlyWriteActionLineForDelete() {
+		final var id = UUID.randomUUID();
+		final var lines = encode(writer(Map.of()), IndexOperation.delete(id));
+
+		assertThat(lines.length, is(1));
+		assertThat(lines[0], is("{\"delete\":{\"_index\":\"dcb\",\"_id\":\"" + id + "\"}}"));
+	}
+
+	@Test
+	void shouldEncodeDocumentAloneAsWrittenInBulkBody() {
+		final var cluster = ClusterRecord.builder()
+			.id(UUID.randomUUID())
+			.title("Brain of the Firm")
+			.bibs(Set.of(BibRecord.builder()
+				.id(UUID.randomUUID())
+				.title("Brain of the Firm")
+				.sourceSystemId(hostLmsId)
+				.sourceRecordId("b456")
+				.build()))
+			.build();
+
+		final var writer = writer(Map.of());
+		final var document = new String(writer.encodeDocument(cluster), StandardCharsets.UTF_8);
+
+		assertThat(document, is(encode(writer, IndexOperation.update(cluster.getId(), cluster))[1]));
+	}
+
+	@Test
+	void shouldWriteSameDocumentAsSerializingIndexDocumentForFullyDescribedCluster() throws IOException {
+		// Arrange
+		final var selected = BibRecord.builder()
+			.id(UUID.randomUUID())
+			.title("Brain of the Firm")
+			.sourceSystemId(hostLmsId)
+			.sourceRecordId("b100")
+			.canonicalMetadata("title", "Brain of the Firm")
+			.canonicalMetadata("author", Map.of("name", "Beer, Stafford"))
+			.canonicalMetadata("placeOfPublication", "Chichester")
+			.canonicalMetadata("publisher", "Wiley")
+			.canonicalMetadata("dateOfPublication", "[1981], c1972")
+			.canonicalMetadata("derivedType", "Books")
+			.canonicalMetadata("identifiers", List.of(
+				Map.of("namespace", "isbn", "value", "0471276871"),
+				Map.of("namespace", "ISSN", "value", "0000-0000"),
+				Map.of("namespace", "OCOLC", "value", 6814309)))
+			.canonicalMetadata("subjects", List.of("Cybernetics", "Management"))
+			.canonicalMetadata("metadataScore", 12.5)
+			.canonicalMetadata("largePrint", false)
+			.build();
+
+		final var other = BibRecord.builder()
+			.id(UUID.randomUUID())
+			.title("Brain of the firm : the managerial cybernetics of organization")
+			.sourceSystemId(UUID.randomUUID())
+			.sourceRecordId("c200")
+			.build();
+
+		final var cluster = ClusterRecord.builder()
+			.id(UUID.randomUUID())
+			.title("Brain of the Firm")
+			.selectedBib(selected.getId())
+			.lastIndexed(Instant.parse("2024-02-01T10:15:30Z"))
+			.bibs(new LinkedHashSet<>(List.of(other, selected)))
+			.build();
+
+		final Map<String, Collection<BibAvailabilityCount>> availability = Map.of(
+			selected.getId().toString(), List.of(
+				count(selected, "LIB", "MAIN", 3),
+				count(selected, "LIB", "STORE", 0)),
+			other.getId().toString(), List.of(count(other, "OTHER", "REF", 1)));
+
+		// Act & Assert
+		assertSameAsSerialized(cluster, availability);
+	}
+
+	@Test
+	void shouldWriteSameDocumentAsSerializingIndexDocumentForClusterWithoutSelectedBib() throws IOException {
+		// Arrange
+		final var cluster = ClusterRecord.builder()
+			.id(UUID.randomUUID())
+			.title("The Heart of Enterprise")
+			.bibs(Set.of(BibRecord.builder()
+				.id(UUID.randomUUID())
+				.sourceRecordId("b300")
+				.canonicalMetadata("dateOfPublication", "n.d.")
+				.build()))
+			.build();
+
+		// Act & Assert
+		assertSameAsSerialized(cluster, Map.of());
+	}
+
+	@Test
+	void shouldWriteSameDocumentAsSerializingIndexDocumentForClusterWithoutBibs() throws IOException {
+		// Arrange
+		final var cluster = ClusterRecord.builder()
+			.id(UUID.randomUUID())
+			.title("Platform for Change")
+			.build();
+
+		// Act & Assert
+		assertSameAsSerialized(cluster, Map.of());
+	}
+
+	/**
+	 * The writer leaves out properties that have no value, so those are ignored when comparing
+	 * with the serialized document. Everything else has to be the same.
+	 */
+	private void assertSameAsSerialized(ClusterRecord cluster,
+		Map<String, Collection<BibAvailabilityCount>> availability) throws IOException {
+
+		final var writer = writer(availability);
+		final var written = objectMapper.readValue(writer.encodeDocument(cluster), Object.class);
+		final var serialized = objectMapper.readValue(objectMapper.writeValueAsBytes(
+			new ClusterRecordIndexDoc(cluster, this::hostLmsCode, availability)), Object.class);
+
+		assertThat(withoutNulls(written), is(withoutNulls(serialized)));
+	}
+
+	private static Object withoutNulls(Object value) {
+		if (value instanceof Map<?, ?> map) {
+			final Map<Object, Object> result = new LinkedHashMap<>();
+
+			map.forEach((key, entry) -> {
+				if (entry != null) {
+					result.put(key, withoutNulls(entry));
+				}
+			});
+
+			return result;
+		}
+
+		if (value instanceof Collection<?> collection) {
+			return collection.stream()
+				.filter(Objects::nonNull)
+				.map(ClusterRecordBulkWriterTests::withoutNulls)
+				.toList();
+		}
+
+		return value;
+	}
+
+	private BibAvailabilityCount count(BibRecord bib, String library, String location, int count) {
+		return BibAvailabilityCount.builder()
+			.id(UUID.randomUUID())
+			.bibId(bib.getId())
+			.hostLms(bib.getSourceSystemId())
+			.internalLocationCode(library)
+			.remoteLocationCode(location)
+			.count(count)
+			.status(BibAvailabilityCount.Status.MAPPED)
+			.lastUpdated(Instant.now())
+			.build();
+	}
+
+	private ClusterRecordBulkWriter writer(Map<String, Collection<BibAvailabilityCount>> availability) {
+		return new ClusterRecordBulkWriter(new JacksonJsonpMapper().jsonProvider(),
+			this::hostLmsCode,
+			clusterId -> availability);
+	}
+
+	private String hostLmsCode(UUID id) {
+		return hostLmsId.equals(id) ? "CODE" : null;
+	}
+
+	private static String[] encode(ClusterRecordBulkWriter writer, IndexOperation<UUID, ClusterRecord> op) {
+		final String body = new String(writer.encode("dcb", op), StandardCharsets.UTF_8);
+
+		assertThat(body.endsWith("\n"), is(true));
+		return body.split("\n");
+	}
+}
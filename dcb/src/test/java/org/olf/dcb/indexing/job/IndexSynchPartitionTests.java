@@ -0,0 +1,371 @@
+package org.olf.dcb.indexing.job;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.core.clustering.RecordClusteringService;
+import org.olf.dcb.indexing.SharedIndexConfiguration;
+import org.olf.dcb.indexing.SharedIndexService;
+import org.olf.dcb.indexing.job.IndexSynch.PartitionPlan;
+import org.olf.dcb.operations.OperationsService;
+import org.olf.dcb.storage.JobCheckpointRepository;
+
+import io.micronaut.json.tree.JsonNode;
+import io.micronaut.serde.ObjectMapper;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import services.k_int.federation.local.LocalFederatedLockService;
+import services.k_int.federation.reactor.ReactorFederatedLockService;
+import services.k_int.jobs.Job;
+import services.k_int.jobs.JobChunk;
+import services.k_int.jobs.ReactiveJobRunnerService;
+import services.k_int.utils.UUIDUtils;
+
+class IndexSynchPartitionTests {
+	private static final int PARTITIONS = 4;
+
+	// Postgres orders uuids as unsigned bytes
+	private static final Comparator<UUID> DATABASE_ORDER = Comparator
+		.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+		.thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+	private final LocalFederatedLockService locks = new LocalFederatedLockService();
+
+	// Shared by every node, as the database is
+	private final NavigableSet<UUID> clusterIds = new ConcurrentSkipListSet<>(DATABASE_ORDER);
+	private final Map<UUID, JsonNode> checkpoints = new ConcurrentHashMap<>();
+
+	private final Queue<UUID> indexedIds = new ConcurrentLinkedQueue<>();
+
+	private SharedIndexService indexer;
+
+	@BeforeEach
+	void beforeEach() {
+		indexer = mock(SharedIndexService.class);
+
+		when(indexer.deleteDocsIndexedBefore(any())).thenReturn(Mono.empty());
+	}
+
+	@Test
+	void shouldStartFirstPartitionAtNilUuid() {
+		assertThat(IndexSynch.boundaryFor(0, 4), is(new UUID(0L, 0L)));
+	}
+
+	@Test
+	void shouldEndLastPartitionAtMaxUuid() {
+		assertThat(IndexSynch.boundaryFor(4, 4), is(UUID.fromString("ffffffff-ffff-ffff-ffff-ffffffffffff")));
+	}
+
+	@Test
+	void shouldSplitIdSpaceEvenlyInAscendingOrder() {
+		assertThat(IndexSynch.boundaryFor(1, 4), is(UUID.fromString("40000000-0000-0000-0000-000000000000")));
+		assertThat(IndexSynch.boundaryFor(2, 4), is(UUID.fromString("80000000-0000-0000-0000-000000000000")));
+		assertThat(IndexSynch.boundaryFor(3, 4), is(UUID.fromString("c0000000-0000-0000-0000-000000000000")));
+
+		// Postgres orders uuids as unsigned bytes, so compare the same way.
+		for (int i = 0; i < 7; i++) {
+			assertThat(Long.compareUnsigned(
+				IndexSynch.boundaryFor(i, 7).getMostSignificantBits(),
+				IndexSynch.boundaryFor(i + 1, 7).getMostSignificantBits()), lessThan(0));
+		}
+	}
+
+	@Test
+	void shouldIndexEveryClusterExactlyOnceAcrossPartitions() {
+		// Arrange
+		clustersAtAndAroundBoundaries();
+		randomClusters(5000);
+
+		// Act
+		node().buildPartitionedIndexingStream(true).block();
+
+		// Assert
+		assertThat(indexedIds.size(), is(clusterIds.size()));
+		assertThat(indexedIds, containsInAnyOrder(clusterIds.toArray()));
+
+		verify(indexer, times(1)).deleteDocsIndexedBefore(any());
+		assertThat("Plan should be cleared once complete", checkpoints.isEmpty(), is(true));
+	}
+
+	@Test
+	void shouldSkipPartitionClaimedByAnotherNode() throws InterruptedException {
+		// Arrange
+		randomClusters(2000);
+
+		final var node = node();
+		final var claimed = node.new PartitionJob(plan(), 2);
+
+		final var claimedIds = idsInPartition(2);
+
+		// Act
+		holdingLock(claimed.getName(), () -> node.buildPartitionedIndexingStream(true).block());
+
+		// Assert
+		assertThat(indexedIds.stream().filter(claimedIds::contains).toList(), is(List.of()));
+		assertThat("Should not complete while a partition is unfinished", checkpoints, hasKey(planId(node)));
+
+		verify(indexer, never()).deleteDocsIndexedBefore(any());
+
+		// Once released, the next poll should only pick up the partition that was skipped
+		node.buildPartitionedIndexingStream(false).block();
+
+		assertThat(indexedIds.size(), is(clusterIds.size()));
+		assertThat(indexedIds, containsInAnyOrder(clusterIds.toArray()));
+
+		verify(indexer, times(1)).deleteDocsIndexedBefore(any());
+		assertThat(checkpoints.isEmpty(), is(true));
+	}
+
+	@Test
+	void shouldNotHandOutPartitionToTwoNodesWorkingAtOnce() {
+		// Arrange
+		clustersAtAndAroundBoundaries();
+		randomClusters(5000);
+
+		final var first = node();
+		final var second = node();
+
+		// Act
+		Mono.when(
+				first.buildPartitionedIndexingStream(true)
+					.subscribeOn(Schedulers.boundedElastic()),
+				// Joins once the first node has planned the run
+				second.buildPartitionedIndexingStream(false)
+					.delaySubscription(Duration.ofMillis(50))
+					.subscribeOn(Schedulers.boundedElastic()))
+			.block(Duration.ofSeconds(30));
+
+		// The last node to finish may find the other completing the run, in which case the next poll does
+		second.buildPartitionedIndexingStream(false).block();
+
+		// Assert
+		assertThat(indexedIds.size(), is(clusterIds.size()));
+		assertThat(indexedIds, containsInAnyOrder(clusterIds.toArray()));
+
+		verify(indexer, times(1)).deleteDocsIndexedBefore(any());
+		assertThat(checkpoints.isEmpty(), is(true));
+	}
+
+	@Test
+	void shouldReindexEverythingWhenRestartedPartWayThroughRun() throws InterruptedException {
+		// Arrange
+		randomClusters(2000);
+
+		final var node = node();
+
+		leavePartWayThroughRun(node);
+
+		indexedIds.clear();
+
+		// Act
+		node.buildRestartedPartitionedIndexingStream().block();
+
+		// Assert
+		assertThat(indexedIds.size(), is(clusterIds.size()));
+		assertThat(indexedIds, containsInAnyOrder(clusterIds.toArray()));
+
+		verify(indexer, times(1)).deleteDocsIndexedBefore(any());
+		assertThat(checkpoints.isEmpty(), is(true));
+	}
+
+	@Test
+	void shouldNotRestartWhileAnotherNodeHoldsJobLock() throws InterruptedException {
+		// Arrange
+		randomClusters(2000);
+
+		final var node = node();
+
+		leavePartWayThroughRun(node);
+
+		final var checkpointedJobs = Set.copyOf(checkpoints.keySet());
+
+		indexedIds.clear();
+
+		// Act
+		holdingLock(IndexSynch.JOB_ID, () ->
+			assertThat(node.buildRestartedPartitionedIndexingStream().block(), is(nullValue())));
+
+		// Assert
+		assertThat(indexedIds.isEmpty(), is(true));
+		assertThat("Run in progress should be left alone", checkpoints.keySet(), is(checkpointedJobs));
+
+		verify(indexer, never()).deleteDocsIndexedBefore(any());
+	}
+
+	/**
+	 * A node with its own job runner and lock service, sharing clusters, checkpoints and locks
+	 * with every other node in the test
+	 */
+	@SuppressWarnings("unchecked")
+	private IndexSynch node() {
+		final var clusters = mock(RecordClusteringService.class);
+
+		// As the query does, an exclusive start and inclusive end, in database order
+		when(clusters.findNextIdsInRangeIndexedBefore(any(), any(), any(), anyInt()))
+			.thenAnswer(invocation -> {
+				final UUID after = invocation.getArgument(0);
+				final UUID upTo = invocation.getArgument(1);
+				final int max = invocation.getArgument(3);
+
+				return Mono.just(clusterIds.subSet(after, false, upTo, true).stream()
+					.limit(max)
+					.toList());
+			});
+
+		final var checkpointRepository = mock(JobCheckpointRepository.class);
+
+		when(checkpointRepository.findCheckpointByJobId(any()))
+			.thenAnswer(invocation -> Mono.justOrEmpty(checkpoints.get(invocation.<UUID>getArgument(0))));
+
+		when(checkpointRepository.saveCheckpointForJobId(any(), any()))
+			.thenAnswer(invocation -> Mono.fromCallable(() -> {
+				checkpoints.put(invocation.getArgument(0), invocation.getArgument(1));
+
+				return invocation.<JsonNode>getArgument(1);
+			}));
+
+		final var jobRunner = mock(ReactiveJobRunnerService.class);
+
+		when(jobRunner.processJobInstance(any()))
+			.thenAnswer(invocation -> run(invocation.getArgument(0)));
+
+		when(jobRunner.resetJob(any(Job.class)))
+			.thenAnswer(invocation -> reset(invocation.<Job<?>>getArgument(0).getId()));
+
+		when(jobRunner.resetJob(any(UUID.class)))
+			.thenAnswer(invocation -> reset(invocation.getArgument(0)));
+
+		final var node = new IndexSynch(jobRunner, new ReactorFederatedLockService(locks), clusters,
+			indexer, mock(OperationsService.class), ObjectMapper.getDefault(), checkpointRepository,
+			configuration());
+
+		node.deleteDelay = Duration.ZERO;
+
+		return node;
+	}
+
+	/**
+	 * Start or resume the job from its checkpoint, saving the checkpoint after each chunk, as the
+	 * job runner does
+	 */
+	private Flux<JobChunk<UUID>> run(Job<UUID> job) {
+		return Mono.defer(() -> Mono.from(Optional.ofNullable(checkpoints.get(job.getId()))
+				.map(job::resume)
+				.orElseGet(job::start)))
+			.expand(chunk -> chunk.isLastChunk() ? Mono.empty() : Mono.from(job.resume(chunk.getCheckpoint())))
+			// Long enough for other nodes to try to claim the partition while it is being worked on
+			.delayElements(Duration.ofMillis(50))
+			.doOnNext(chunk -> {
+				indexedIds.addAll(chunk.getData());
+				checkpoints.put(chunk.getJobId(), chunk.getCheckpoint());
+			});
+	}
+
+	private Mono<Void> reset(UUID jobId) {
+		return Mono.fromRunnable(() -> checkpoints.remove(jobId));
+	}
+
+	/**
+	 * Hold the named lock on this thread, as another node working on it would, while doing the work
+	 */
+	private void holdingLock(String lockName, Runnable work) throws InterruptedException {
+		final Lock lock = locks.getNamedLock(lockName);
+
+		assertThat(lock.tryLock(1, TimeUnit.SECONDS), is(true));
+
+		try {
+			work.run();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Every partition but one is worked through, as it is held by another node
+	private void leavePartWayThroughRun(IndexSynch node) throws InterruptedException {
+		holdingLock(node.new PartitionJob(plan(), 2).getName(),
+			() -> node.buildPartitionedIndexingStream(true).block());
+
+		assertThat(checkpoints, hasKey(planId(node)));
+	}
+
+	private void clustersAtAndAroundBoundaries() {
+		for (int i = 0; i <= PARTITIONS; i++) {
+			final var boundary = IndexSynch.boundaryFor(i, PARTITIONS);
+
+			clusterIds.add(boundary);
+			clusterIds.add(new UUID(boundary.getMostSignificantBits(), boundary.getLeastSignificantBits() + 1));
+			clusterIds.add(new UUID(boundary.getMostSignificantBits() - 1, -1L));
+		}
+
+		// The first partition starts after the nil uuid, which is never used as a cluster id
+		clusterIds.remove(new UUID(0L, 0L));
+	}
+
+	private void randomClusters(int count) {
+		for (int i = 0; i < count; i++) {
+			clusterIds.add(UUID.randomUUID());
+		}
+	}
+
+	private List<UUID> idsInPartition(int index) {
+		return List.copyOf(clusterIds.subSet(
+			IndexSynch.boundaryFor(index, PARTITIONS), false,
+			IndexSynch.boundaryFor(index + 1, PARTITIONS), true));
+	}
+
+	private static PartitionPlan plan() {
+		return PartitionPlan.builder()
+			.cutoff(Instant.now())
+			.partitions(PARTITIONS)
+			.build();
+	}
+
+	private static UUID planId(IndexSynch node) {
+		return UUIDUtils.nameUUIDFromNamespaceAndString(Job.NS, node.getName() + " partitions");
+	}
+
+	private static SharedIndexConfiguration configuration() {
+		return new SharedIndexConfiguration(
+			"shared-index",
+			Optional.empty(),
+			Optional.empty(),
+			Optional.empty(),
+			Optional.empty(),
+			Optional.empty(),
+			Optional.empty(),
+			Optional.empty(),
+			Optional.empty(),
+			Optional.empty(),
+			Optional.of(PARTITIONS));
+	}
+}
@@ -0,0 +1,200 @@
+package org.olf.dcb.ingest.job;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.olf.dcb.dataimport.job.model.SourceRecord.ProcessingStatus.FAILURE;
+import static org.olf.dcb.dataimport.job.model.SourceRecord.ProcessingStatus.SUCCESS;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.core.HostLmsService;
+import org.olf.dcb.core.clustering.RecordClusteringService;
+import org.olf.dcb.core.error.DcbException;
+import org.olf.dcb.core.model.BibRecord;
+import org.olf.dcb.core.svc.BibRecordService;
+import org.olf.dcb.dataimport.job.SourceRecordService;
+import org.olf.dcb.dataimport.job.model.SourceRecord.ProcessingStatus;
+import org.olf.dcb.ingest.model.IngestRecord;
+
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.core.convert.ConversionService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import services.k_int.federation.reactor.ReactorFederatedLockService;
+import services.k_int.jobs.ReactiveJobRunnerService;
+
+class IngestJobBatchTests {
+	private final Instant processedTime = Instant.now();
+
+	private SourceRecordService sourceRecordService;
+	private BibRecordService bibRecordService;
+	private RecordClusteringService recordClusteringService;
+
+	private IngestJob ingestJob;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void beforeEach() {
+		sourceRecordService = mock(SourceRecordService.class);
+		bibRecordService = mock(BibRecordService.class);
+		recordClusteringService = mock(RecordClusteringService.class);
+
+		ingestJob = new IngestJob(sourceRecordService, mock(ConversionService.class),
+			mock(ReactiveJobRunnerService.class), mock(HostLmsService.class), recordClusteringService,
+			bibRecordService, mock(ReactorFederatedLockService.class), mock(ApplicationEventPublisher.class),
+			10, 1);
+
+		when(sourceRecordService.updateProcessingInformation(any(), any(), any(), any()))
+			.thenReturn(Mono.empty());
+
+		// Each ingest record becomes a bib with the same id
+		when(bibRecordService.process(any())).thenAnswer(invocation -> {
+			final IngestRecord ingestRecord = invocation.getArgument(0);
+
+			return Mono.just(bibFor(ingestRecord.getUuid()));
+		});
+
+		when(recordClusteringService.clusterBib(any()))
+			.thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void shouldClusterBatchTogether() {
+		// Arrange
+		when(recordClusteringService.clusterBibs(anyList()))
+			.thenAnswer(invocation -> Flux.fromIterable((List<BibRecord>) invocation.getArgument(0)));
+
+		final var first = operation();
+		final var second = operation();
+
+		// Act
+		final var bibs = process(first, second);
+
+		// Assert
+		assertThat(bibs, containsInAnyOrder(bibFor(first), bibFor(second)));
+
+		verify(recordClusteringService, times(1)).clusterBibs(List.of(bibFor(first), bibFor(second)));
+		verify(recordClusteringService, never()).clusterBib(any());
+
+		verifyProcessed(first, SUCCESS);
+		verifyProcessed(second, SUCCESS);
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void shouldOnlyClusterOperationsWithIngestRecordsInBatch() {
+		// Arrange
+		when(recordClusteringService.clusterBibs(anyList()))
+			.thenAnswer(invocation -> Flux.fromIterable((List<BibRecord>) invocation.getArgument(0)));
+
+		final var good = operation();
+		final var unconvertible = IngestOperation.builder()
+			.sourceId(UUID.randomUUID())
+			.exception(new DcbException("Could not convert source record"))
+			.build();
+
+		// Act
+		final var bibs = process(good, unconvertible);
+
+		// Assert
+		assertThat(bibs, containsInAnyOrder(bibFor(good)));
+
+		verify(recordClusteringService, times(1)).clusterBibs(List.of(bibFor(good)));
+
+		verifyProcessed(good, SUCCESS);
+		verifyProcessed(unconvertible, FAILURE);
+	}
+
+	@Test
+	void shouldFallBackToClusteringEachOperationWhenBatchFails() {
+		// Arrange
+		when(recordClusteringService.clusterBibs(anyList()))
+			.thenReturn(Flux.error(new IllegalStateException("Batch clustering failed")));
+
+		final var first = operation();
+		final var second = operation();
+
+		// Act
+		final var bibs = process(first, second);
+
+		// Assert
+		assertThat(bibs, containsInAnyOrder(bibFor(first), bibFor(second)));
+
+		verify(recordClusteringService, times(1)).clusterBib(bibFor(first));
+		verify(recordClusteringService, times(1)).clusterBib(bibFor(second));
+
+		verifyProcessed(first, SUCCESS);
+		verifyProcessed(second, SUCCESS);
+	}
+
+	@Test
+	void shouldOnlyFailOperationThatCannotBeClusteredOnItsOwn() {
+		// Arrange
+		when(recordClusteringService.clusterBibs(anyList()))
+			.thenReturn(Flux.error(new IllegalStateException("Batch clustering failed")));
+
+		final var good = operation();
+		final var bad = operation();
+
+		when(recordClusteringService.clusterBib(bibFor(bad)))
+			.thenReturn(Mono.error(new IllegalStateException("Clustering failed")));
+
+		// Act
+		final var bibs = process(good, bad);
+
+		// Assert
+		assertThat(bibs, containsInAnyOrder(bibFor(good)));
+
+		verifyProcessed(good, SUCCESS);
+		verifyProcessed(bad, FAILURE);
+		verify(sourceRecordService, never())
+			.updateProcessingInformation(eq(bad.getSourceId()), any(), eq(SUCCESS), any());
+	}
+
+	private List<BibRecord> process(IngestOperation... operations) {
+		return ingestJob.processChunkInBatches(List.of(operations), processedTime)
+			.collectList()
+			.block(Duration.ofSeconds(5));
+	}
+
+	private void verifyProcessed(IngestOperation operation, ProcessingStatus status) {
+		verify(sourceRecordService, times(1))
+			.updateProcessingInformation(eq(operation.getSourceId()), eq(processedTime), eq(status), any());
+	}
+
+	private static IngestOperation operation() {
+		final var id = UUID.randomUUID();
+
+		return IngestOperation.builder()
+			.sourceId(id)
+			.ingest(IngestRecord.builder()
+				.uuid(id)
+				.title("Batch ingest " + id)
+				.build())
+			.build();
+	}
+
+	private static BibRecord bibFor(IngestOperation operation) {
+		return bibFor(operation.getSourceId());
+	}
+
+	private static BibRecord bibFor(UUID id) {
+		return BibRecord.builder()
+			.id(id)
+			.build();
+	}
+}
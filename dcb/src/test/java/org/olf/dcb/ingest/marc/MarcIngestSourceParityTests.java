@@ -0,0 +1,193 @@
+package org.olf.dcb.ingest.marc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.marc4j.MarcStreamReader;
+import org.marc4j.marc.Record;
+import org.olf.dcb.ingest.model.IngestRecord;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Enriching the records of the sample MARC file through {@link MarcFieldIndex} should give the
+ * same results as the way they were enriched before, kept as the expected output alongside this test.
+ *
+ * The expected output has to come from the implementation before MarcFieldIndex was introduced
+ * (the parent of the commit adding it). To produce it, copy this test onto that commit and run it
+ * with DCB_WRITE_MARC_EXPECTED set to the path to write to. Until it is present the comparisons
+ * are skipped.
+ */
+class MarcIngestSourceParityTests {
+	private static final String SAMPLE = "/18recordsSGCLsample1.mrc";
+	private static final String EXPECTED = "/org/olf/dcb/ingest/marc/18recordsSGCLsample1-expected.json";
+	private static final String WRITE_EXPECTED = "DCB_WRITE_MARC_EXPECTED";
+
+	private static final ObjectMapper mapper = new ObjectMapper()
+		.enable(SerializationFeature.INDENT_OUTPUT)
+		.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+	private MarcIngestSource<Record> source;
+
+	private List<Record> records;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void beforeEach() throws IOException {
+		source = mock(MarcIngestSource.class, CALLS_REAL_METHODS);
+		when(source.getDefaultControlIdNamespace()).thenReturn("TEST");
+
+		records = readSample();
+	}
+
+	@Test
+	void shouldReadEveryRecordInSample() {
+		assertThat(records, hasSize(18));
+	}
+
+	@Test
+	void shouldFindSameTitles() {
+		forEachRecord((current, expected) -> {
+			assertSame("title", current, expected);
+			assertSame("otherTitles", current, expected);
+		});
+	}
+
+	@Test
+	void shouldFindSameIdentifiers() {
+		forEachRecord((current, expected) -> assertSame("identifiers", current, expected));
+	}
+
+	@Test
+	void shouldFindSameBlockingKeys() {
+		forEachRecord((current, expected) -> {
+			assertSame("blockingTitle", current, expected);
+			assertSame("blockingWorkTitle", current, expected);
+		});
+	}
+
+	@Test
+	void shouldFindSameGoldrushKey() {
+		forEachRecord((current, expected) -> {
+			assertSame("goldrushKey", current, expected);
+			assertSame("goldrushIdentifier", current, expected);
+		});
+	}
+
+	@Test
+	void shouldBuildSameCanonicalMetadata() {
+		forEachRecord((current, expected) -> {
+			assertSame("canonicalMetadata", current, expected);
+			assertSame("metadataScore", current, expected);
+		});
+	}
+
+	@Test
+	@EnabledIfEnvironmentVariable(named = WRITE_EXPECTED, matches = ".+")
+	void writeExpected() throws IOException {
+		final var enriched = mapper.createArrayNode();
+		records.forEach(marcRecord -> enriched.add(enrich(marcRecord)));
+
+		mapper.writeValue(Path.of(System.getenv(WRITE_EXPECTED)).toFile(), enriched);
+	}
+
+	/**
+	 * Enrich each record of the sample and compare it with the expected output for that record
+	 */
+	private void forEachRecord(BiConsumer<JsonNode, JsonNode> assertion) {
+		final JsonNode expected = readExpected();
+
+		assumeTrue(expected != null, "No expected output for the sample, see " + WRITE_EXPECTED);
+		assertThat("expected records", expected.size(), is(records.size()));
+
+		for (int i = 0; i < records.size(); i++) {
+			assertion.accept(enrich(records.get(i)), expected.get(i));
+		}
+	}
+
+	private static void assertSame(String field, JsonNode current, JsonNode expected) {
+		assertThat("%s of record [%s]".formatted(field, expected.path("controlNumber").asText()),
+			current.path(field), is(expected.path(field)));
+	}
+
+	/**
+	 * The parts of the enriched record that are compared, as JSON so they can be stored
+	 */
+	private JsonNode enrich(Record marcRecord) {
+		final IngestRecord ingestRecord = source.populateRecordFromMarc(IngestRecord.builder()
+			.uuid(UUID.randomUUID())
+			.sourceRecordId(marcRecord.getControlNumber()), marcRecord).build();
+
+		final var goldrushKey = source.getGoldrushKey(marcRecord);
+
+		final var enriched = mapper.createObjectNode();
+		enriched.put("controlNumber", marcRecord.getControlNumber());
+		enriched.put("title", ingestRecord.getTitle());
+		enriched.set("otherTitles", sorted(ingestRecord.getOtherTitles()));
+		enriched.set("identifiers", sorted(ingestRecord.getIdentifiers() == null ? null
+			: ingestRecord.getIdentifiers().stream()
+				.map(id -> id.getNamespace() + ":" + id.getValue())
+				.collect(Collectors.toSet())));
+		enriched.put("blockingTitle", ingestRecord.getIdentifier("BLOCKING_TITLE"));
+		enriched.put("blockingWorkTitle", ingestRecord.getIdentifier("BLOCKING_WORK_TITLE"));
+		enriched.put("goldrushKey", goldrushKey != null ? goldrushKey.getText() : null);
+		enriched.put("goldrushIdentifier", ingestRecord.getIdentifier(MarcIngestSource.NS_GOLDRUSH));
+		enriched.set("canonicalMetadata", mapper.valueToTree(ingestRecord.getCanonicalMetadata()));
+		enriched.put("metadataScore", ingestRecord.getMetadataScore());
+
+		// Round trip, so values compare the same way as those read back from the expected output
+		try {
+			return mapper.readTree(mapper.writeValueAsString(enriched));
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Unable to write enriched record " + marcRecord.getControlNumber(), e);
+		}
+	}
+
+	private static JsonNode sorted(Set<String> values) {
+		return values == null ? null : mapper.valueToTree(values.stream().sorted().toList());
+	}
+
+	private static JsonNode readExpected() {
+		try (InputStream in = MarcIngestSourceParityTests.class.getResourceAsStream(EXPECTED)) {
+			return in != null ? mapper.readTree(in) : null;
+		}
+		catch (IOException e) {
+			throw new IllegalStateException("Unable to read expected output " + EXPECTED, e);
+		}
+	}
+
+	private static List<Record> readSample() throws IOException {
+		final List<Record> records = new ArrayList<>();
+
+		try (InputStream in = MarcIngestSourceParityTests.class.getResourceAsStream(SAMPLE)) {
+			final var reader = new MarcStreamReader(in);
+
+			while (reader.hasNext()) {
+				records.add(reader.next());
+			}
+		}
+
+		return records;
+	}
+}
@@ -0,0 +1,191 @@
+package org.olf.dcb.ingest.marc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.olf.dcb.test.PublisherUtils.singleValueFrom;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.marc4j.marc.DataField;
+import org.marc4j.marc.MarcFactory;
+import org.marc4j.marc.Record;
+import org.marc4j.marc.impl.MarcFactoryImpl;
+import org.mockito.ArgumentCaptor;
+import org.olf.dcb.dataimport.job.SourceRecordPayloadCodec;
+import org.olf.dcb.dataimport.job.SourceRecordPayloadConfig;
+import org.olf.dcb.dataimport.job.model.SourceRecord;
+import org.olf.dcb.ingest.model.Identifier;
+import org.olf.dcb.ingest.model.IngestRecord;
+
+import io.micronaut.json.tree.JsonNode;
+import io.micronaut.serde.ObjectMapper;
+
+class MarcIngestSourceTests {
+	private static final MarcFactory marcFactory = new MarcFactoryImpl();
+
+	private MarcIngestSource<Record> source;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void beforeEach() {
+		source = mock(MarcIngestSource.class, CALLS_REAL_METHODS);
+		when(source.getDefaultControlIdNamespace()).thenReturn("TEST");
+	}
+
+	@Test
+	void shouldTakeFirstTitleInTagOrderAndKeepTheRestAsOtherTitles() {
+		// Arrange
+		final var marcRecord = marcFactory.newRecord("00000nam a2200000 a 4500");
+		marcRecord.addVariableField(dataField("246", 'a', "Varying form"));
+		marcRecord.addVariableField(dataField("245", 'b', "a subtitle", 'a', "The main title"));
+
+		// Act
+		final var ingestRecord = populate(marcRecord);
+
+		// Assert
+		assertThat(ingestRecord.getTitle(), is("The main title a subtitle"));
+		assertThat(ingestRecord.getOtherTitles(), containsInAnyOrder("Varying form"));
+	}
+
+	@Test
+	void shouldOnlyAddEachIdentifierOnce() {
+		// Arrange
+		final var marcRecord = marcFactory.newRecord("00000nam a2200000 a 4500");
+		marcRecord.addVariableField(marcFactory.newControlField("001", "12345"));
+		marcRecord.addVariableField(dataField("020", 'a', "0-306-40615-2"));
+		marcRecord.addVariableField(dataField("020", 'a', "0306406152 :"));
+		marcRecord.addVariableField(dataField("035", 'a', "(OCoLC)ocm987"));
+		marcRecord.addVariableField(dataField("035", 'a', "(OCoLC)ocm987"));
+
+		// Act
+		final var ingestRecord = populate(marcRecord);
+
+		// Assert
+		final var identifiers = ingestRecord.getIdentifiers().stream()
+			.map(id -> id.getNamespace() + ":" + id.getValue())
+			.toList();
+
+		assertThat(identifiers, hasItem("TEST:12345"));
+		assertThat(countOf(ingestRecord, "OCoLC"), is(1L));
+		assertThat(countOf(ingestRecord, "ISBN-n"), is(1L));
+		assertThat(identifiers, hasItem("ONLY-ISBN-13:9780306406157"));
+	}
+
+	@Test
+	void shouldUseLinkedTitleForGoldrushKey() {
+		// Arrange
+		final var linked = marcFactory.newRecord("00000nam a2200000 a 4500");
+		linked.addVariableField(dataField("245", '6', "880-01", 'a', "Romanised title"));
+		linked.addVariableField(dataField("880", '6', "245-01", 'a', "Original script title"));
+
+		final var unlinked = marcFactory.newRecord("00000nam a2200000 a 4500");
+		unlinked.addVariableField(dataField("245", 'a', "Original script title"));
+
+		// Act
+		final var key = source.getGoldrushKey(linked);
+
+		// Assert
+		assertThat(key.getText(), is(source.getGoldrushKey(unlinked).getText()));
+	}
+
+	@Test
+	void shouldJoinSubfieldsInTheOrderOfTheSpec() {
+		// Arrange
+		final var marcRecord = marcFactory.newRecord();
+		final var field = dataField("245", 'c', "third", 'a', "first");
+		field.addSubfield(marcFactory.newSubfield('a', "second"));
+		marcRecord.addVariableField(field);
+
+		// Act
+		final var index = MarcFieldIndex.of(marcRecord);
+
+		// Assert
+		assertThat(index.join((DataField) index.first("245"), "ac"), is("first second third"));
+		assertThat(index.get("880").isEmpty(), is(true));
+	}
+
+	@Test
+	void shouldPutMarcFromCompactPayloadBackIntoInternalRecord() throws IOException {
+		// Arrange
+		final var objectMapper = ObjectMapper.create(Map.of(), "services.k_int.integration.marc4j");
+
+		final var config = mock(SourceRecordPayloadConfig.class);
+		when(config.isEnabled()).thenReturn(true);
+		when(config.getCompressionLevel()).thenReturn(6);
+
+		final var codec = new SourceRecordPayloadCodec(config, objectMapper);
+
+		final var payload = objectMapper.readValue("""
+			{"id":"1001","marc":{"leader":"00000nam a2200000 a 4500","fields":[
+				{"001":"ocm12345"},
+				{"245":{"ind1":"1","ind2":"0","subfields":[{"a":"The collected works"}]}}
+			]}}""", JsonNode.class);
+
+		final var sourceRecord = codec.expandForIngest(codec.compact(SourceRecord.builder()
+			.id(UUID.randomUUID())
+			.hostLmsId(UUID.randomUUID())
+			.remoteId("1001")
+			.lastFetched(Instant.now())
+			.sourceRecordData(payload)
+			.build()));
+
+		// Converted from the payload without its MARC, the way a source would
+		doReturn(marcFactory.newRecord()).when(source).convertSourceToInternalType(any());
+		// The internal record is the MARC here, so putting it back replaces it
+		doAnswer(invocation -> invocation.getArgument(1)).when(source).withMarc(any(), any());
+		doReturn(IngestRecord.builder().uuid(UUID.randomUUID())).when(source).initIngestRecordBuilder(any());
+
+		// Act
+		final var ingestRecord = singleValueFrom(source.convertSourceToIngestRecord(sourceRecord));
+
+		// Assert
+		final ArgumentCaptor<Record> internalRecord = ArgumentCaptor.forClass(Record.class);
+		verify(source).initIngestRecordBuilder(internalRecord.capture());
+
+		assertThat(internalRecord.getValue().getControlNumber(), is("ocm12345"));
+		assertThat(ingestRecord.getTitle(), is("The collected works"));
+	}
+
+	private IngestRecord populate(Record marcRecord) {
+		final var builder = IngestRecord.builder()
+			.uuid(UUID.randomUUID())
+			.sourceRecordId("12345");
+
+		return source.populateRecordFromMarc(builder, marcRecord).build();
+	}
+
+	private static long countOf(IngestRecord ingestRecord, String namespace) {
+		return ingestRecord.getIdentifiers().stream()
+			.map(Identifier::getNamespace)
+			.filter(namespace::equals)
+			.count();
+	}
+
+	private static DataField dataField(String tag, char code, String data) {
+		final var field = marcFactory.newDataField(tag, ' ', ' ');
+		field.addSubfield(marcFactory.newSubfield(code, data));
+		return field;
+	}
+
+	private static DataField dataField(String tag, char firstCode, String firstData,
+			char secondCode, String secondData) {
+
+		final var field = dataField(tag, firstCode, firstData);
+		field.addSubfield(marcFactory.newSubfield(secondCode, secondData));
+		return field;
+	}
+}
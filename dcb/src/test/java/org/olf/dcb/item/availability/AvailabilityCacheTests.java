@@ -0,0 +1,109 @@
+package org.olf.dcb.item.availability;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.olf.dcb.test.PublisherUtils.singleValueFrom;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.core.interaction.HostLmsClient;
+import org.olf.dcb.core.model.BibRecord;
+import org.olf.dcb.core.model.Item;
+import org.olf.dcb.item.availability.AvailabilityCache.CachedAvailability;
+import org.olf.dcb.item.availability.AvailabilityCache.Freshness;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AvailabilityCacheTests {
+	private final AvailabilityCache cache = new AvailabilityCache(config(Duration.ofMinutes(5), Duration.ofMinutes(2)),
+		new SimpleMeterRegistry(), null, null);
+
+	@Test
+	void shouldUseHostLmsSpecificTtlWhenConfigured() {
+		final var hostLms = mock(HostLmsClient.class);
+		when(hostLms.getConfig()).thenReturn(Map.of(AvailabilityCacheConfig.HOST_LMS_TTL_KEY, "PT30S"));
+
+		assertThat(cache.ttlFor(hostLms), is(Duration.ofSeconds(30)));
+	}
+
+	@Test
+	void shouldUseDefaultTtlWhenHostLmsSettingIsInvalid() {
+		final var hostLms = mock(HostLmsClient.class);
+		when(hostLms.getConfig()).thenReturn(Map.of(AvailabilityCacheConfig.HOST_LMS_TTL_KEY, "soon"));
+
+		assertThat(cache.ttlFor(hostLms), is(Duration.ofMinutes(5)));
+	}
+
+	@Test
+	void shouldClassifyEntriesByAge() {
+		final var ttl = Duration.ofMinutes(5);
+
+		assertThat(cache.freshness(fetchedAgo(Duration.ofMinutes(1)), ttl), is(Freshness.FRESH));
+		assertThat(cache.freshness(fetchedAgo(Duration.ofMinutes(6)), ttl), is(Freshness.STALE));
+		assertThat(cache.freshness(fetchedAgo(Duration.ofMinutes(8)), ttl), is(Freshness.EXPIRED));
+	}
+
+	@Test
+	void shouldHandOutCopiesOfCachedItems() {
+		// Arrange
+		final var bib = BibRecord.builder().id(UUID.randomUUID()).build();
+
+		final var fetched = Item.builder().localId("3746251").build();
+
+		cache.put(bib, AvailabilityReport.ofItems(List.of(fetched)));
+
+		// Act
+		fetched.setIsRequestable(true);
+
+		final var first = singleValueFrom(cache.get(bib)).report().getItems().get(0);
+
+		first.setIsRequestable(true);
+
+		final var second = singleValueFrom(cache.get(bib)).report().getItems().get(0);
+
+		// Assert
+		assertThat(second.getLocalId(), is("3746251"));
+		assertThat(second.getIsRequestable(), is(nullValue()));
+	}
+
+	private static CachedAvailability fetchedAgo(Duration age) {
+		return new CachedAvailability(List.of(), Instant.now().minus(age));
+	}
+
+	private static AvailabilityCacheConfig config(Duration defaultTtl, Duration staleWhileRevalidate) {
+		return new AvailabilityCacheConfig() {
+			@Override
+			public long getMaxItems() {
+				return 1_000;
+			}
+
+			@Override
+			public Duration getRetention() {
+				return Duration.ofDays(1);
+			}
+
+			@Override
+			public Duration getDefaultTtl() {
+				return defaultTtl;
+			}
+
+			@Override
+			public Duration getStaleWhileRevalidate() {
+				return staleWhileRevalidate;
+			}
+
+			@Override
+			public boolean isDistributed() {
+				return false;
+			}
+		};
+	}
+}
@@ -0,0 +1,128 @@
+package org.olf.dcb.item.availability;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class InFlightLookupsTests {
+	private final List<String> joined = new ArrayList<>();
+	private final InFlightLookups<String, String> lookups = new InFlightLookups<>(joined::add);
+
+	private final AtomicInteger started = new AtomicInteger();
+	private final AtomicBoolean cancelled = new AtomicBoolean();
+	private final Sinks.One<String> upstream = Sinks.one();
+
+	@Test
+	void shouldShareOneLookupBetweenConcurrentCallers() {
+		// Arrange
+		final var first = new ArrayList<String>();
+		final var second = new ArrayList<String>();
+
+		lookups.get("bib", this::lookup).subscribe(first::add);
+		lookups.get("bib", this::lookup).subscribe(second::add);
+
+		// Act
+		upstream.tryEmitValue("items");
+
+		// Assert
+		assertThat(started.get(), is(1));
+		assertThat(first, is(List.of("items")));
+		assertThat(second, is(List.of("items")));
+		assertThat(joined, is(List.of("bib")));
+		assertThat(lookups.size(), is(0));
+	}
+
+	@Test
+	void shouldGiveResultToCallerJoiningAsLookupFinishes() {
+		// Arrange
+		final var late = new ArrayList<String>();
+
+		// The late caller joins from within the emission, before the lookup has been removed
+		lookups.get("bib", this::lookup)
+			.subscribe(_items -> lookups.get("bib", this::lookup).subscribe(late::add));
+
+		// Act
+		upstream.tryEmitValue("items");
+
+		// Assert
+		assertThat(late, is(List.of("items")));
+		assertThat(started.get(), is(1));
+	}
+
+	@Test
+	void shouldStartFreshLookupOnceFinished() {
+		// Arrange
+		lookups.get("bib", this::lookup).subscribe();
+		upstream.tryEmitValue("items");
+
+		// Act
+		final var next = lookups.get("bib", () -> {
+			started.incrementAndGet();
+			return Mono.just("newer items");
+		}).block();
+
+		// Assert
+		assertThat(next, is("newer items"));
+		assertThat(started.get(), is(2));
+	}
+
+	@Test
+	void shouldOnlyCancelLookupOnceEveryCallerHasCancelled() {
+		// Arrange
+		final var second = new ArrayList<String>();
+
+		final var first = lookups.get("bib", this::lookup).subscribe();
+		lookups.get("bib", this::lookup).subscribe(second::add);
+
+		// Act
+		first.dispose();
+
+		// Assert
+		assertThat(cancelled.get(), is(false));
+
+		upstream.tryEmitValue("items");
+		assertThat(second, is(List.of("items")));
+	}
+
+	@Test
+	void shouldCancelLookupWhenEveryCallerHasCancelled() {
+		// Arrange
+		final var first = lookups.get("bib", this::lookup).subscribe();
+		final var second = lookups.get("bib", this::lookup).subscribe();
+
+		// Act
+		first.dispose();
+		second.dispose();
+
+		// Assert
+		assertThat(cancelled.get(), is(true));
+		assertThat(lookups.size(), is(0));
+	}
+
+	@Test
+	void shouldPassEmptyAndErrorsToEveryCaller() {
+		final var empty = lookups.get("empty", Mono::<String>empty).hasElement().block();
+		assertThat(empty, is(false));
+
+		final var error = lookups.get("error", () -> Mono.<String>error(new IllegalStateException("down")))
+			.onErrorResume(e -> Mono.just(e.getMessage()))
+			.block();
+		assertThat(error, is("down"));
+	}
+
+	private Mono<String> lookup() {
+		started.incrementAndGet();
+
+		return upstream.asMono()
+			.doOnCancel(() -> cancelled.set(true));
+	}
+}
@@ -0,0 +1,242 @@
+package org.olf.dcb.item.availability;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.core.interaction.HostLmsClient;
+import org.olf.dcb.core.model.BibRecord;
+import org.olf.dcb.core.model.Item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ItemLookupBatcherTests {
+	private ItemLookupBatcher batcher;
+	private HostLmsClient hostLms;
+
+	// Holds a request in progress, so that the lookups made meanwhile are batched
+	private final Sinks.One<List<Item>> inProgress = Sinks.one();
+
+	@BeforeEach
+	void beforeEach() {
+		batcher = new ItemLookupBatcher(Duration.ofMillis(50), new SimpleMeterRegistry());
+
+		hostLms = mock(HostLmsClient.class);
+		when(hostLms.getHostLmsCode()).thenReturn("batching-host-lms");
+		when(hostLms.getItemsBatchSize()).thenReturn(3);
+		when(hostLms.getItems(any(BibRecord.class))).thenAnswer(invocation -> {
+			final BibRecord bib = invocation.getArgument(0);
+
+			return "in-progress".equals(bib.getSourceRecordId())
+				? inProgress.asMono()
+				: Mono.just(List.of(itemFor(bib)));
+		});
+	}
+
+	@Test
+	void shouldSendLookupStraightAwayWhenNothingElseIsInProgress() {
+		// Arrange
+		batcher = new ItemLookupBatcher(Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+		// Act
+		final var items = batcher.getItems(bib("1"), hostLms).block(Duration.ofSeconds(5));
+
+		// Assert
+		assertThat(items, hasSize(1));
+		verify(hostLms, never()).getItems(anyCollection());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void shouldSendLookupsMadeWhileRequestInProgressAsOneBatch() {
+		// Arrange
+		when(hostLms.getItems(anyCollection())).thenAnswer(invocation -> Mono.just(
+			((Collection<BibRecord>) invocation.getArgument(0)).stream()
+				.collect(Collectors.toMap(BibRecord::getSourceRecordId, bib -> List.of(itemFor(bib))))));
+
+		holdRequestInProgress();
+
+		// Act
+		final var results = lookUp(bib("1"), bib("2"), bib("3"));
+
+		// Assert
+		assertThat(results, hasSize(3));
+		verify(hostLms, times(1)).getItems(anyCollection());
+		verify(hostLms, times(1)).getItems(any(BibRecord.class));
+	}
+
+	@Test
+	void shouldSendPartialBatchAfterLinger() {
+		// Arrange
+		when(hostLms.getItems(anyCollection())).thenReturn(Mono.just(Map.of("1", List.of(), "2", List.of())));
+
+		holdRequestInProgress();
+
+		// Act
+		final var results = lookUp(bib("1"), bib("2"));
+
+		// Assert
+		assertThat(results, contains(List.of(), List.of()));
+		verify(hostLms, times(1)).getItems(anyCollection());
+	}
+
+	@Test
+	void shouldLookUpBibMissingFromBatchResponseIndividually() {
+		// Arrange
+		when(hostLms.getItems(anyCollection())).thenReturn(Mono.just(Map.of("1", List.of())));
+
+		holdRequestInProgress();
+
+		// Act
+		final var results = lookUp(bib("1"), bib("2"));
+
+		// Assert
+		assertThat(results, hasSize(2));
+		verify(hostLms, times(1)).getItems(bib("2"));
+		verify(hostLms, never()).getItems(bib("1"));
+	}
+
+	@Test
+	void shouldLookUpEachBibIndividuallyWhenBatchIsNotSupported() {
+		// Arrange
+		when(hostLms.getItems(anyCollection()))
+			.thenReturn(Mono.error(new UnsupportedOperationException("cannot attribute items")));
+
+		holdRequestInProgress();
+
+		// Act
+		final var results = lookUp(bib("1"), bib("2"));
+
+		// Assert
+		assertThat(results, hasSize(2));
+		verify(hostLms, times(1)).getItems(bib("1"));
+		verify(hostLms, times(1)).getItems(bib("2"));
+	}
+
+	@Test
+	void shouldFailEveryLookupWhenBatchFails() {
+		// Arrange
+		when(hostLms.getItems(anyCollection())).thenReturn(Mono.error(new TimeoutException("timed out")));
+
+		holdRequestInProgress();
+
+		// Act
+		final var errors = Flux.just(bib("1"), bib("2"))
+			.flatMap(bib -> batcher.getItems(bib, hostLms)
+				.map(items -> (Throwable) new AssertionError("Expected lookup to fail"))
+				.onErrorResume(error -> Mono.just(error)))
+			.collectList()
+			.block(Duration.ofSeconds(5));
+
+		// Assert
+		assertThat(errors, hasSize(2));
+		errors.forEach(error -> assertThat(error, instanceOf(TimeoutException.class)));
+
+		// Only the lookup holding a request in progress was made on its own
+		verify(hostLms, times(1)).getItems(any(BibRecord.class));
+	}
+
+	@Test
+	void shouldOnlyCancelBatchOnceEveryLookupIsCancelled() {
+		// Arrange
+		final var cancelled = new AtomicBoolean();
+		final Sinks.One<Map<String, List<Item>>> batchResponse = Sinks.one();
+
+		when(hostLms.getItems(anyCollection()))
+			.thenReturn(batchResponse.asMono().doOnCancel(() -> cancelled.set(true)));
+
+		holdRequestInProgress();
+
+		final var first = batcher.getItems(bib("1"), hostLms).subscribe();
+		final var second = batcher.getItems(bib("2"), hostLms).subscribe();
+		final var third = batcher.getItems(bib("3"), hostLms).subscribe();
+
+		// Act
+		first.dispose();
+		second.dispose();
+
+		// Assert
+		assertThat(cancelled.get(), is(false));
+
+		third.dispose();
+		assertThat(cancelled.get(), is(true));
+	}
+
+	@Test
+	void shouldNotSendBatchWhenEveryLookupIsCancelledBeforeLinger() throws InterruptedException {
+		// Arrange
+		holdRequestInProgress();
+
+		final var first = batcher.getItems(bib("1"), hostLms).subscribe();
+		final var second = batcher.getItems(bib("2"), hostLms).subscribe();
+
+		// Act
+		first.dispose();
+		second.dispose();
+
+		Thread.sleep(200);
+
+		// Assert
+		verify(hostLms, never()).getItems(anyCollection());
+		verify(hostLms, never()).getItems(bib("1"));
+		verify(hostLms, never()).getItems(bib("2"));
+	}
+
+	@Test
+	void shouldNotBatchWhenHostLmsCannotBatch() {
+		// Arrange
+		when(hostLms.getItemsBatchSize()).thenReturn(1);
+
+		// Act
+		lookUp(bib("1"), bib("2"));
+
+		// Assert
+		verify(hostLms, never()).getItems(anyCollection());
+		verify(hostLms, times(2)).getItems(any(BibRecord.class));
+	}
+
+	private void holdRequestInProgress() {
+		batcher.getItems(bib("in-progress"), hostLms).subscribe();
+	}
+
+	private List<List<Item>> lookUp(BibRecord... bibs) {
+		return Flux.just(bibs)
+			.flatMap(bib -> batcher.getItems(bib, hostLms))
+			.collectList()
+			.block(Duration.ofSeconds(5));
+	}
+
+	private static BibRecord bib(String sourceRecordId) {
+		return BibRecord.builder()
+			.sourceRecordId(sourceRecordId)
+			.build();
+	}
+
+	private static Item itemFor(BibRecord bib) {
+		return Item.builder()
+			.localId("item-" + bib.getSourceRecordId())
+			.build();
+	}
+}
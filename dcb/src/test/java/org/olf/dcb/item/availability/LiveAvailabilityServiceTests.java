@@ -27,6 +27,7 @@ import static org.olf.dcb.utils.PropertyAccessUtils.getValueOrNull;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeAll;
@@ -39,6 +40,7 @@ import org.olf.dcb.core.clustering.model.ClusterRecord;
 import org.olf.dcb.core.interaction.sierra.SierraApiFixtureProvider;
 import org.olf.dcb.core.interaction.sierra.SierraItem;
 import org.olf.dcb.core.interaction.sierra.SierraItemsAPIFixture;
+import org.olf.dcb.core.model.BibRecord;
 import org.olf.dcb.core.model.DataAgency;
 import org.olf.dcb.core.model.DataHostLms;
 import org.olf.dcb.core.model.Item;
@@ -76,6 +78,7 @@ class LiveAvailabilityServiceTests {
 
 	private DataHostLms firstHostLms;
 	private DataHostLms secondHostLms;
+	private DataHostLms cachedHostLms;
 	private SierraItemsAPIFixture sierraItemsAPIFixture;
 
 	@BeforeAll
@@ -93,12 +96,21 @@ class LiveAvailabilityServiceTests {
 		final String SECOND_SYSTEM_KEY = "second-system-key";
 		final String SECOND_SYSTEM_SECRET = "second-system-secret";
 
+		final String CACHED_HOST_LMS_BASE_URL = "https://cached-live-availability-system.com";
+		final String CACHED_HOST_LMS_CODE = "cached-local-system";
+		final String CACHED_SYSTEM_TOKEN = "cached-system-token";
+		final String CACHED_SYSTEM_KEY = "cached-system-key";
+		final String CACHED_SYSTEM_SECRET = "cached-system-secret";
+
 		SierraTestUtils.mockFor(mockServerClient, FIRST_HOST_LMS_BASE_URL)
 			.setValidCredentials(FIRST_HOST_LMS_KEY, FIRST_HOST_LMS_SECRET, FIRST_HOST_LMS_TOKEN, 3600);
 
 		SierraTestUtils.mockFor(mockServerClient, SECOND_HOST_LMS_BASE_URL)
 			.setValidCredentials(SECOND_SYSTEM_KEY, SECOND_SYSTEM_SECRET, SECOND_SYSTEM_TOKEN, 3600);
 
+		SierraTestUtils.mockFor(mockServerClient, CACHED_HOST_LMS_BASE_URL)
+			.setValidCredentials(CACHED_SYSTEM_KEY, CACHED_SYSTEM_SECRET, CACHED_SYSTEM_TOKEN, 3600);
+
 		hostLmsFixture.deleteAll();
 
 		firstHostLms = hostLmsFixture.createSierraHostLms(FIRST_HOST_LMS_CODE,
@@ -107,6 +119,10 @@ class LiveAvailabilityServiceTests {
 		secondHostLms = hostLmsFixture.createSierraHostLms(SECOND_HOST_LMS_CODE,
 			SECOND_SYSTEM_KEY, SECOND_SYSTEM_SECRET, SECOND_HOST_LMS_BASE_URL, "item");
 
+		cachedHostLms = hostLmsFixture.createSierraHostLms(CACHED_HOST_LMS_CODE,
+			CACHED_SYSTEM_KEY, CACHED_SYSTEM_SECRET, CACHED_HOST_LMS_BASE_URL,
+			Map.of(AvailabilityCacheConfig.HOST_LMS_TTL_KEY, "PT1H"));
+
 		sierraItemsAPIFixture = sierraApiFixtureProvider.items(mockServerClient, null);
 	}
 
@@ -414,6 +430,72 @@ class LiveAvailabilityServiceTests {
 		));
 	}
 
+	@Test
+	void shouldFilterCachedReportFetchedWithoutFilters() {
+		// Arrange
+		final var clusterRecord = clusterRecordFixture.createClusterRecord(randomUUID(), randomUUID());
+
+		final var bib = cachedBibWithItemNotAssociatedWithAnAgency("837465", clusterRecord);
+
+		// Act
+		final var unfilteredReport = singleValueFrom(
+			liveAvailabilityService.checkBibAvailability(bib, null, "none"));
+
+		final var filteredReport = checkAvailability(clusterRecord);
+
+		// Assert
+		assertThat(unfilteredReport, hasItems(1));
+
+		assertThat(filteredReport, allOf(
+			hasNoItems(),
+			hasNoErrors()
+		));
+	}
+
+	@Test
+	void shouldNotFilterCachedReportFetchedWithFilters() {
+		// Arrange
+		final var clusterRecord = clusterRecordFixture.createClusterRecord(randomUUID(), randomUUID());
+
+		final var bib = cachedBibWithItemNotAssociatedWithAnAgency("264738", clusterRecord);
+
+		// Act
+		final var filteredReport = checkAvailability(clusterRecord);
+
+		final var unfilteredReport = singleValueFrom(
+			liveAvailabilityService.checkBibAvailability(bib, null, "none"));
+
+		// Assert
+		assertThat(filteredReport, hasNoItems());
+
+		assertThat(unfilteredReport, allOf(
+			hasItems(1),
+			hasNoErrors()
+		));
+	}
+
+	@Test
+	void shouldFilterCachedReportWrittenByRefresh() {
+		// Arrange
+		final var clusterRecord = clusterRecordFixture.createClusterRecord(randomUUID(), randomUUID());
+
+		final var bib = cachedBibWithItemNotAssociatedWithAnAgency("573920", clusterRecord);
+
+		// Act
+		final var refreshedReport = singleValueFrom(
+			liveAvailabilityService.refreshBibAvailability(bib, null));
+
+		final var filteredReport = checkAvailability(clusterRecord);
+
+		// Assert
+		assertThat(refreshedReport, hasItems(1));
+
+		assertThat(filteredReport, allOf(
+			hasNoItems(),
+			hasNoErrors()
+		));
+	}
+
 	@Test
 	void shouldReportZeroItemsWhenHostLmsRespondsWithZeroItems() {
 		// Arrange
@@ -538,6 +620,39 @@ class LiveAvailabilityServiceTests {
 		return checkAvailability(clusterRecord.getId());
 	}
 
+	/**
+	 * A bib from the Host LMS with cached availability, with an item that is excluded by the default filters
+	 */
+	private BibRecord cachedBibWithItemNotAssociatedWithAnAgency(String bibId,
+		ClusterRecord clusterRecord) {
+
+		final var bibRecordId = randomUUID();
+
+		bibRecordFixture.createBibRecord(bibRecordId, cachedHostLms.getId(), bibId, clusterRecord);
+
+		sierraItemsAPIFixture.itemsForBibId(bibId, List.of(
+			SierraItem.builder()
+				.id("4736251")
+				.barcode("7364521")
+				.callNumber("HD30.2 .B44")
+				.statusCode("-")
+				.itemType("1")
+				.locationCode("unmapped")
+				.locationName("Unmapped")
+				.build()
+		));
+
+		referenceValueMappingFixture.defineLocalToCanonicalItemTypeRangeMapping(
+			cachedHostLms.getCode(), 1, 1, "loanable-item");
+
+		return BibRecord.builder()
+			.id(bibRecordId)
+			.sourceSystemId(cachedHostLms.getId())
+			.sourceRecordId(bibId)
+			.contributesTo(clusterRecord)
+			.build();
+	}
+
 	private void mapLocationToAgency(String locationCode,
 		DataHostLms hostLms, DataAgency agency) {
 
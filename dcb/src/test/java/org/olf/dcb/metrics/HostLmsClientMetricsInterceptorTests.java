@@ -0,0 +1,114 @@
+package org.olf.dcb.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.core.interaction.HostLmsClient;
+import org.reactivestreams.Publisher;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.core.type.ReturnType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class HostLmsClientMetricsInterceptorTests {
+	private SimpleMeterRegistry meterRegistry;
+	private HostLmsClientMetricsInterceptor interceptor;
+
+	@BeforeEach
+	void beforeEach() {
+		meterRegistry = new SimpleMeterRegistry();
+		interceptor = new HostLmsClientMetricsInterceptor(meterRegistry);
+	}
+
+	@Test
+	void shouldTimeFromSubscriptionUntilCompletion() {
+		final var result = (Mono<?>) interceptor.intercept(
+			invocation("getItems", Mono.delay(Duration.ofMillis(50)).thenReturn("items")));
+
+		assertThat("Nothing recorded before subscription", timer("success"), is(nullValue()));
+
+		result.block();
+
+		final var timer = timer("success");
+		assertThat(timer.count(), is(1L));
+		assertThat(timer.totalTime(TimeUnit.MILLISECONDS), greaterThanOrEqualTo(50d));
+	}
+
+	@Test
+	void shouldRecordEmptyOutcome() {
+		((Mono<?>) interceptor.intercept(invocation("getItems", Mono.empty()))).block();
+
+		assertThat(timer("empty").count(), is(1L));
+	}
+
+	@Test
+	void shouldRecordErrorOutcome() {
+		final var result = (Mono<?>) interceptor.intercept(
+			invocation("getItems", Mono.error(new RuntimeException("failed"))));
+
+		result.onErrorResume(_t -> Mono.empty()).block();
+
+		assertThat(timer("error").count(), is(1L));
+	}
+
+	@Test
+	void shouldOnlyRecordSuccessWhenOperationCompletes() {
+		((Flux<?>) interceptor.intercept(invocation("getItems", Flux.just("first", "second"), Flux.class)))
+			.blockLast();
+
+		assertThat(timer("success").count(), is(1L));
+	}
+
+	@Test
+	void shouldRecordCancelledOutcomeWhenCancelledAfterEmitting() {
+		((Flux<?>) interceptor.intercept(invocation("getItems", Flux.just("first", "second"), Flux.class)))
+			.take(1)
+			.blockLast();
+
+		assertThat(timer("cancelled").count(), is(1L));
+		assertThat("Should not count as a success", timer("success"), is(nullValue()));
+	}
+
+	private Timer timer(String outcome) {
+		return meterRegistry.find(HostLmsClientMetricsInterceptor.METRIC_NAME)
+			.tag("lms", "test-lms")
+			.tag("operation", "getItems")
+			.tag("outcome", outcome)
+			.timer();
+	}
+
+	private static MethodInvocationContext<Object, Object> invocation(String methodName, Mono<?> result) {
+		return invocation(methodName, result, Mono.class);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static MethodInvocationContext<Object, Object> invocation(String methodName,
+		Publisher<?> result, Class<? extends Publisher> declaredType) {
+
+		final var client = mock(HostLmsClient.class);
+		when(client.getHostLmsCode()).thenReturn("test-lms");
+
+		final ReturnType<Object> returnType = mock(ReturnType.class);
+		when(returnType.getType()).thenReturn((Class) declaredType);
+
+		final MethodInvocationContext<Object, Object> context = mock(MethodInvocationContext.class);
+		when(context.getMethodName()).thenReturn(methodName);
+		when(context.getTarget()).thenReturn(client);
+		when(context.getReturnType()).thenReturn(returnType);
+		when(context.proceed()).thenReturn(result);
+
+		return context;
+	}
+}
@@ -16,10 +16,9 @@ import org.junit.jupiter.api.Test;
 import org.olf.dcb.core.HostLmsService;
 import org.olf.dcb.core.model.DataHostLms;
 import org.olf.dcb.core.model.SupplierRequest;
-import org.olf.dcb.core.svc.LocationService;
+import org.olf.dcb.core.svc.ReferenceDataCache;
 import org.olf.dcb.request.resolution.SupplierRequestService;
 import org.olf.dcb.storage.AgencyRepository;
-import org.olf.dcb.storage.LibraryRepository;
 import org.olf.dcb.storage.PatronRequestRepository;
 import org.olf.dcb.storage.SupplierRequestRepository;
 
@@ -40,8 +39,7 @@ class LenderDetailsEnrichmentResilienceTests {
 		mock(SupplierRequestRepository.class),
 		mock(PatronRequestRepository.class),
 		mock(AgencyRepository.class),
-		mock(LibraryRepository.class),
-		mock(LocationService.class),
+		mock(ReferenceDataCache.class),
 		hostLmsService,
 		mock(PatronService.class),
 		mock(PatronRequestAuditService.class));
@@ -0,0 +1,124 @@
+package org.olf.dcb.request.fulfilment;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.core.model.PatronRequestAudit;
+import org.olf.dcb.storage.PatronRequestAuditRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class PatronRequestAuditBufferTests {
+	@Test
+	void shouldWriteImmediatelyWhenDisabled() {
+		final var repository = repository();
+		final var buffer = buffer(repository, false, 10, 100);
+
+		final var audit = audit();
+
+		assertThat(buffer.write(audit).block(), is(sameInstance(audit)));
+
+		verify(repository).save(audit);
+		verify(repository, never()).saveAll(anyCollection());
+	}
+
+	@Test
+	void shouldHoldAuditsUntilFlushed() {
+		final var repository = repository();
+		final var buffer = buffer(repository, true, 10, 100);
+
+		final var audits = List.of(audit(), audit(), audit());
+		audits.forEach(audit -> buffer.write(audit).block());
+
+		verify(repository, never()).saveAll(anyCollection());
+
+		buffer.flush().block();
+
+		verify(repository).saveAll(audits);
+		verify(repository, never()).save(any());
+	}
+
+	@Test
+	void shouldWriteOnceBatchIsFull() {
+		final var repository = repository();
+		final var buffer = buffer(repository, true, 2, 100);
+
+		final var audits = List.of(audit(), audit());
+		audits.forEach(audit -> buffer.write(audit).block());
+
+		verify(repository).saveAll(audits);
+	}
+
+	@Test
+	void shouldWriteIndividuallyWhenBatchFails() {
+		final var repository = repository();
+		when(repository.saveAll(anyCollection()))
+			.thenReturn(Flux.error(new RuntimeException("Batch failed")));
+
+		final var buffer = buffer(repository, true, 10, 100);
+
+		final var audits = List.of(audit(), audit());
+		audits.forEach(audit -> buffer.write(audit).block());
+
+		buffer.flush().block();
+
+		audits.forEach(audit -> verify(repository).save(audit));
+	}
+
+	@Test
+	void shouldWriteImmediatelyWhenBufferIsFull() {
+		final var repository = repository();
+		final var buffer = buffer(repository, true, 10, 1);
+
+		final var buffered = audit();
+		final var overflow = audit();
+
+		buffer.write(buffered).block();
+		buffer.write(overflow).block();
+
+		verify(repository, never()).save(buffered);
+		verify(repository).save(overflow);
+	}
+
+	private static PatronRequestAudit audit() {
+		return PatronRequestAudit.builder()
+			.id(UUID.randomUUID())
+			.build();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static PatronRequestAuditRepository repository() {
+		final var repository = mock(PatronRequestAuditRepository.class);
+
+		when(repository.save(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+		when(repository.saveAll(anyCollection())).thenAnswer(invocation ->
+			Flux.fromIterable((Collection<PatronRequestAudit>) invocation.getArgument(0)));
+
+		return repository;
+	}
+
+	private static PatronRequestAuditBuffer buffer(PatronRequestAuditRepository repository,
+		boolean enabled, int maxBatchSize, int maxPending) {
+
+		final var config = mock(PatronRequestAuditBufferConfig.class);
+		when(config.isEnabled()).thenReturn(enabled);
+		when(config.getMaxBatchSize()).thenReturn(maxBatchSize);
+		when(config.getMaxPending()).thenReturn(maxPending);
+
+		return new PatronRequestAuditBuffer(config, repository, new SimpleMeterRegistry());
+	}
+}
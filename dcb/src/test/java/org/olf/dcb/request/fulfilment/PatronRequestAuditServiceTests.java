@@ -21,8 +21,11 @@ import org.olf.dcb.core.model.PatronRequest;
 import org.olf.dcb.test.DcbTest;
 import org.olf.dcb.test.PatronRequestsFixture;
 
+import io.micronaut.context.annotation.Property;
 import jakarta.inject.Inject;
 
+// Checks audits as soon as the action being audited completes
+@Property(name = "dcb.audit.write-behind.enabled", value = "false")
 @DcbTest
 class PatronRequestAuditServiceTests {
 	@Inject
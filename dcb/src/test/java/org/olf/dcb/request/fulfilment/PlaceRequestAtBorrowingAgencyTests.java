@@ -54,6 +54,7 @@ import org.olf.dcb.test.ReferenceValueMappingFixture;
 import org.olf.dcb.test.SupplierRequestsFixture;
 import org.zalando.problem.ThrowableProblem;
 
+import io.micronaut.context.annotation.Property;
 import jakarta.inject.Inject;
 import reactor.core.publisher.Mono;
 import services.k_int.interaction.sierra.FixedField;
@@ -63,6 +64,8 @@ import services.k_int.interaction.sierra.bibs.BibPatch;
 import services.k_int.interaction.sierra.holds.SierraPatronHold;
 import services.k_int.test.mockserver.MockServerMicronautTest;
 
+// Checks audits as soon as the action being audited completes
+@Property(name = "dcb.audit.write-behind.enabled", value = "false")
 @MockServerMicronautTest
 @TestInstance(PER_CLASS)
 class PlaceRequestAtBorrowingAgencyTests {
@@ -63,6 +63,7 @@ import org.olf.dcb.test.ReferenceValueMappingFixture;
 import org.olf.dcb.test.SupplierRequestsFixture;
 import org.zalando.problem.ThrowableProblem;
 
+import io.micronaut.context.annotation.Property;
 import jakarta.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
@@ -72,6 +73,8 @@ import services.k_int.interaction.sierra.patrons.SierraPatronRecord;
 import services.k_int.test.mockserver.MockServerMicronautTest;
 
 @Slf4j
+// Checks audits as soon as the action being audited completes
+@Property(name = "dcb.audit.write-behind.enabled", value = "false")
 @MockServerMicronautTest
 @TestInstance(PER_CLASS)
 class PlaceRequestAtSupplyingAgencyTests {
@@ -0,0 +1,71 @@
+package org.olf.dcb.request.fulfilment;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.core.HostLmsService;
+import org.olf.dcb.core.model.Patron;
+import org.olf.dcb.core.model.PatronRequest;
+import org.olf.dcb.core.svc.ReferenceDataCache;
+import org.olf.dcb.request.resolution.SupplierRequestService;
+import org.olf.dcb.storage.AgencyRepository;
+import org.olf.dcb.storage.PatronRequestRepository;
+import org.olf.dcb.storage.SupplierRequestRepository;
+
+import reactor.core.publisher.Mono;
+
+class RequestWorkflowContextHelperTests {
+	private final SupplierRequestService supplierRequestService = mock(SupplierRequestService.class);
+	private final PatronRequestRepository patronRequestRepository = mock(PatronRequestRepository.class);
+	private final ReferenceDataCache referenceDataCache = mock(ReferenceDataCache.class);
+	private final PatronService patronService = mock(PatronService.class);
+	private final PatronRequestAuditService patronRequestAuditService = mock(PatronRequestAuditService.class);
+
+	private final RequestWorkflowContextHelper helper = new RequestWorkflowContextHelper(
+		supplierRequestService,
+		mock(SupplierRequestRepository.class),
+		patronRequestRepository,
+		mock(AgencyRepository.class),
+		referenceDataCache,
+		mock(HostLmsService.class),
+		patronService,
+		patronRequestAuditService);
+
+	@BeforeEach
+	void resetMocks() {
+		reset(supplierRequestService, patronRequestRepository, referenceDataCache, patronService,
+			patronRequestAuditService);
+	}
+
+	@Test
+	void shouldProvideNoContextWhenPatronCannotBeFound() {
+		// Arrange
+		when(patronService.findById(any())).thenReturn(Mono.empty());
+
+		final var patronRequest = PatronRequest.builder()
+			.id(UUID.randomUUID())
+			.patron(Patron.builder().id(UUID.randomUUID()).build())
+			.pickupLocationCode(UUID.randomUUID().toString())
+			.build();
+
+		// Act
+		final var context = helper.fromPatronRequest(patronRequest).block();
+
+		// Assert
+		assertThat(context, is(nullValue()));
+
+		// None of the other branches are started without a patron
+		verifyNoInteractions(supplierRequestService, patronRequestRepository, referenceDataCache,
+			patronRequestAuditService);
+	}
+}
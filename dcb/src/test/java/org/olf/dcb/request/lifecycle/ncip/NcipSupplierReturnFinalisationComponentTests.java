@@ -12,6 +12,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.k_int.peerauth.service.PeerJwksResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.micronaut.context.BeanProvider;
 import jakarta.inject.Inject;
 import java.util.List;
@@ -30,6 +31,8 @@ import org.olf.dcb.core.model.PatronRequest;
 import org.olf.dcb.core.model.SupplierRequest;
 import org.olf.dcb.core.svc.AlarmsService;
 import org.olf.dcb.request.fulfilment.BorrowingAgencyService;
+import org.olf.dcb.request.fulfilment.PatronRequestAuditBuffer;
+import org.olf.dcb.request.fulfilment.PatronRequestAuditBufferConfig;
 import org.olf.dcb.request.fulfilment.PatronRequestAuditService;
 import org.olf.dcb.request.fulfilment.PickupAgencyService;
 import org.olf.dcb.request.fulfilment.RequestWorkflowContext;
@@ -99,7 +102,8 @@ class NcipSupplierReturnFinalisationComponentTests {
 		supplierRequestsFixture.saveSupplierRequest(supplierRequest);
 
 		final var auditService = new PatronRequestAuditService(
-			auditRepository, patronRequestRepository);
+			auditRepository, patronRequestRepository, new PatronRequestAuditBuffer(
+				mock(PatronRequestAuditBufferConfig.class), auditRepository, new SimpleMeterRegistry()));
 
 		final var contextHelper = mock(RequestWorkflowContextHelper.class);
 		when(contextHelper.fromPatronRequest(any(PatronRequest.class)))
@@ -152,7 +156,8 @@ class NcipSupplierReturnFinalisationComponentTests {
 			contextHelper,
 			mock(TrackingHelpers.class),
 			trackingPolicy,
-			mock(AlarmsService.class));
+			mock(AlarmsService.class),
+			new SimpleMeterRegistry());
 		final var projector = new DefaultLifecycleEvidenceProjector(
 			patronRequestRepository,
 			supplierRequestRepository,
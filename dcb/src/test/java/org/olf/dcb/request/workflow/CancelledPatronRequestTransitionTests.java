@@ -46,6 +46,7 @@ import org.olf.dcb.test.PatronRequestsFixture;
 import org.olf.dcb.test.ReferenceValueMappingFixture;
 import org.olf.dcb.test.SupplierRequestsFixture;
 
+import io.micronaut.context.annotation.Property;
 import jakarta.inject.Inject;
 import reactor.core.publisher.Mono;
 import services.k_int.interaction.sierra.SierraCodeTuple;
@@ -53,6 +54,8 @@ import services.k_int.interaction.sierra.SierraTestUtils;
 import services.k_int.interaction.sierra.holds.SierraPatronHold;
 import services.k_int.test.mockserver.MockServerMicronautTest;
 
+// Checks audits as soon as the action being audited completes
+@Property(name = "dcb.audit.write-behind.enabled", value = "false")
 @MockServerMicronautTest
 @TestInstance(PER_CLASS)
 class CancelledPatronRequestTransitionTests {
@@ -25,8 +25,11 @@ import org.olf.dcb.tracking.HostLmsReactions;
 import org.olf.dcb.tracking.LifecycleEvidenceTrackingEventSink;
 import org.olf.dcb.tracking.model.StateChange;
 
+import io.micronaut.context.annotation.Property;
 import jakarta.inject.Inject;
 
+// Checks audits as soon as the action being audited completes
+@Property(name = "dcb.audit.write-behind.enabled", value = "false")
 @DcbTest
 class ConfirmedSupplierRequestReactionTests {
 	@Inject
@@ -0,0 +1,97 @@
+package org.olf.dcb.request.workflow;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.olf.dcb.core.model.PatronRequest.Status.CONFIRMED;
+import static org.olf.dcb.core.model.PatronRequest.Status.LOANED;
+import static org.olf.dcb.core.model.PatronRequest.Status.RESOLVED;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.core.model.PatronRequest;
+import org.olf.dcb.core.model.PatronRequest.Status;
+import org.olf.dcb.core.svc.AlarmsService;
+import org.olf.dcb.request.fulfilment.PatronRequestAuditService;
+import org.olf.dcb.request.fulfilment.RequestWorkflowContext;
+import org.olf.dcb.request.fulfilment.RequestWorkflowContextHelper;
+import org.olf.dcb.request.lifecycle.tracking.RequestTrackingPolicy;
+import org.olf.dcb.storage.PatronRequestRepository;
+import org.olf.dcb.tracking.TrackingHelpers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PatronRequestWorkflowDispatchTests {
+	@Test
+	void shouldOnlyCheckGuardsOfTransitionsFromCurrentStatus() {
+		final var fromResolved = transition("a-from-resolved", true, true, RESOLVED);
+		final var fromLoaned = transition("b-from-loaned", true, true, LOANED);
+
+		final var service = service(List.of(fromResolved, fromLoaned));
+
+		assertThat(service.getPossibleStateTransitionsFor(contextIn(RESOLVED)).toList(), contains(fromResolved));
+		verify(fromLoaned, never()).isApplicableFor(any());
+	}
+
+	@Test
+	void shouldTryTransitionsWithoutSourceStatusesInEveryStatus() {
+		final var anyStatus = transition("any-status", true, true);
+
+		final var service = service(List.of(anyStatus));
+
+		assertThat(service.getPossibleStateTransitionsFor(contextIn(CONFIRMED)).toList(), contains(anyStatus));
+	}
+
+	@Test
+	void shouldPreserveOrderOfTransitionsByDescendingName() {
+		final var first = transition("a-transition", true, true, RESOLVED);
+		final var second = transition("b-transition", true, true, RESOLVED);
+
+		final var service = service(List.of(first, second));
+
+		assertThat(service.getPossibleStateTransitionsFor(contextIn(RESOLVED)).toList(), contains(second, first));
+	}
+
+	@Test
+	void shouldNotOfferManualTransitions() {
+		final var manual = transition("manual", true, false, RESOLVED);
+
+		final var service = service(List.of(manual));
+
+		assertThat(service.getPossibleStateTransitionsFor(contextIn(RESOLVED)).toList(), empty());
+	}
+
+	private static PatronRequestStateTransition transition(String name, boolean applicable,
+		boolean automatic, Status... sourceStatuses) {
+
+		final var transition = mock(PatronRequestStateTransition.class);
+		when(transition.getName()).thenReturn(name);
+		when(transition.getPossibleSourceStatus()).thenReturn(List.of(sourceStatuses));
+		when(transition.attemptAutomatically()).thenReturn(automatic);
+		when(transition.isApplicableFor(any())).thenReturn(applicable);
+
+		return transition;
+	}
+
+	private static RequestWorkflowContext contextIn(Status status) {
+		return new RequestWorkflowContext()
+			.setPatronRequest(PatronRequest.builder().status(status).build());
+	}
+
+	private static PatronRequestWorkflowService service(List<PatronRequestStateTransition> transitions) {
+		return new PatronRequestWorkflowService(transitions,
+			mock(PatronRequestRepository.class),
+			mock(PatronRequestAuditService.class),
+			mock(RequestWorkflowContextHelper.class),
+			mock(TrackingHelpers.class),
+			mock(RequestTrackingPolicy.class),
+			mock(AlarmsService.class),
+			new SimpleMeterRegistry());
+	}
+}
@@ -23,11 +23,14 @@ import org.olf.dcb.test.PatronRequestsFixture;
 import org.zalando.problem.Problem;
 import org.zalando.problem.ThrowableProblem;
 
+import io.micronaut.context.annotation.Property;
 import jakarta.inject.Inject;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
+// Checks audits as soon as the action being audited completes
+@Property(name = "dcb.audit.write-behind.enabled", value = "false")
 @DcbTest
 class PatronRequestWorkflowServiceTests {
 	@Inject
@@ -0,0 +1,283 @@
+package org.olf.dcb.request.workflow;
+
+import static java.util.UUID.randomUUID;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.olf.dcb.test.PublisherUtils.manyValuesFrom;
+import static org.olf.dcb.test.PublisherUtils.singleValueFrom;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.olf.dcb.core.model.Patron;
+import org.olf.dcb.core.model.PatronRequest;
+import org.olf.dcb.request.workflow.WorkflowQueue.Claimed;
+import org.olf.dcb.storage.PatronRequestRepository;
+import org.olf.dcb.test.DcbTestContainerContextBuilder;
+import org.olf.dcb.test.PatronFixture;
+import org.olf.dcb.test.PatronRequestsFixture;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.data.r2dbc.operations.R2dbcOperations;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import reactor.core.publisher.Flux;
+
+/**
+ * How nodes share the queue held in the database. Each queue built here acts as a separate node.
+ * None of them start working on what they claim, so each step can be checked in turn.
+ */
+@MicronautTest(transactional = false, contextBuilder = DcbTestContainerContextBuilder.class)
+// Stop the queue in the application context from claiming requests from under these tests
+@Property(name = "dcb.workflow.queue.enabled", value = "false")
+@TestInstance(PER_CLASS)
+class WorkflowQueueClaimTests {
+	private static final Duration LONG_LEASE = Duration.ofMinutes(5);
+	private static final Duration SHORT_LEASE = Duration.ofMillis(100);
+	private static final Duration BACKOFF = Duration.ofMillis(200);
+
+	@Inject
+	private R2dbcOperations operations;
+	@Inject
+	private PatronRequestRepository patronRequestRepository;
+
+	@Inject
+	private PatronFixture patronFixture;
+	@Inject
+	private PatronRequestsFixture patronRequestsFixture;
+
+	@BeforeEach
+	void beforeEach() {
+		patronRequestsFixture.deleteAll();
+		patronFixture.deleteAllPatrons();
+	}
+
+	@Test
+	void shouldNotLetTwoNodesClaimTheSameRequest() {
+		// Arrange
+		final var first = node(LONG_LEASE);
+		final var second = node(LONG_LEASE);
+
+		final var requestIds = List.of(queued(first), queued(first), queued(first), queued(first));
+
+		// Act
+		final var claimed = manyValuesFrom(Flux.merge(first.claim(4), second.claim(4)));
+
+		// Assert
+		assertThat(patronRequestIdsOf(claimed), containsInAnyOrder(requestIds.toArray()));
+		assertThat("Requests should still be claimed", manyValuesFrom(second.claim(4)), is(empty()));
+	}
+
+	@Test
+	void shouldLeaveRequestsBeyondLimitForOtherNodes() {
+		// Arrange
+		final var first = node(LONG_LEASE);
+		final var second = node(LONG_LEASE);
+
+		queued(first);
+		queued(first);
+		queued(first);
+
+		// Act
+		final var claimedByFirst = manyValuesFrom(first.claim(2));
+		final var claimedBySecond = manyValuesFrom(second.claim(5));
+
+		// Assert
+		assertThat(claimedByFirst, hasSize(2));
+		assertThat(claimedBySecond, hasSize(1));
+	}
+
+	@Test
+	void shouldRemoveRequestOnceCompleted() {
+		// Arrange
+		final var node = node(LONG_LEASE);
+
+		final var requestId = queued(node);
+
+		final var claimed = claimOnly(node);
+
+		// Act
+		singleValueFrom(node.complete(claimed));
+
+		// Assert
+		assertThat(entryFor(requestId), is(nullValue()));
+	}
+
+	@Test
+	void shouldProgressRequestOnceMoreWhenQueuedAgainWhileClaimed() {
+		// Arrange
+		final var node = node(LONG_LEASE);
+
+		final var requestId = queued(node);
+
+		final var claimed = claimOnly(node);
+
+		singleValueFrom(node.enqueue(patronRequest(requestId)));
+
+		// Act
+		singleValueFrom(node.complete(claimed));
+
+		// Assert
+		final var claimedAgain = claimOnly(node);
+
+		assertThat(claimedAgain.patronRequestId(), is(requestId));
+		assertThat(claimedAgain.generation(), is(claimed.generation() + 1));
+		assertThat("Should be a fresh attempt", claimedAgain.attempts(), is(1));
+
+		singleValueFrom(node.complete(claimedAgain));
+
+		assertThat(entryFor(requestId), is(nullValue()));
+	}
+
+	@Test
+	void shouldLetAnotherNodeClaimRequestOnceLeaseHasExpired() throws InterruptedException {
+		// Arrange
+		final var first = node(SHORT_LEASE);
+		final var second = node(LONG_LEASE);
+
+		final var requestId = queued(first);
+
+		final var claimedByFirst = claimOnly(first);
+
+		assertThat("Should not be claimed during lease", manyValuesFrom(second.claim(1)), is(empty()));
+
+		// Act
+		Thread.sleep(SHORT_LEASE.multipliedBy(3).toMillis());
+
+		final var claimedBySecond = claimOnly(second);
+
+		// Assert
+		assertThat(claimedBySecond.patronRequestId(), is(requestId));
+		assertThat(claimedBySecond.attempts(), is(2));
+
+		// The first node finishing late shouldn't remove a request another node is working on
+		singleValueFrom(first.complete(claimedByFirst));
+
+		assertThat(entryFor(requestId).claimedBy(), is(notNullValue()));
+	}
+
+	@Test
+	void shouldRetryFailedAttemptAfterBackoff() throws InterruptedException {
+		// Arrange
+		final var node = node(LONG_LEASE);
+
+		final var requestId = queued(node);
+
+		final var claimed = claimOnly(node);
+
+		// Act
+		singleValueFrom(node.retry(claimed, new RuntimeException("Host LMS unavailable")));
+
+		// Assert
+		assertThat(entryFor(requestId).lastError(), is("Host LMS unavailable"));
+		assertThat("Should not be claimed during backoff", manyValuesFrom(node.claim(1)), is(empty()));
+
+		Thread.sleep(BACKOFF.multipliedBy(3).toMillis());
+
+		final var retried = claimOnly(node);
+
+		assertThat(retried.patronRequestId(), is(requestId));
+		assertThat(retried.attempts(), is(2));
+	}
+
+	@Test
+	void shouldRemoveRequestAfterTooManyAttempts() throws InterruptedException {
+		// Arrange
+		final var node = node(LONG_LEASE);
+
+		final var requestId = queued(node);
+
+		singleValueFrom(node.retry(claimOnly(node), new RuntimeException("first failure")));
+
+		Thread.sleep(BACKOFF.multipliedBy(3).toMillis());
+
+		final var lastAttempt = claimOnly(node);
+
+		// Act
+		singleValueFrom(node.retry(lastAttempt, new RuntimeException("second failure")));
+
+		// Assert
+		assertThat(entryFor(requestId), is(nullValue()));
+	}
+
+	/**
+	 * A queue with its own node id, that never works on requests itself
+	 */
+	@SuppressWarnings("unchecked")
+	private WorkflowQueue node(Duration lease) {
+		final var config = mock(WorkflowQueueConfig.class);
+		when(config.isEnabled()).thenReturn(true);
+		// Nothing is claimed unless a test asks for it
+		when(config.getMaxConcurrency()).thenReturn(0);
+		when(config.getLease()).thenReturn(lease);
+		when(config.getMaxAttempts()).thenReturn(2);
+		when(config.getInitialBackoff()).thenReturn(BACKOFF);
+		when(config.getMaxBackoff()).thenReturn(Duration.ofMinutes(1));
+
+		return new WorkflowQueue(config, operations, patronRequestRepository,
+			mock(BeanProvider.class), new SimpleMeterRegistry());
+	}
+
+	private UUID queued(WorkflowQueue queue) {
+		final var patron = patronFixture.savePatron(Patron.builder()
+			.id(randomUUID())
+			.build());
+
+		final var patronRequest = patronRequestsFixture.savePatronRequest(PatronRequest.builder()
+			.id(randomUUID())
+			.patron(patron)
+			.status(PatronRequest.Status.SUBMITTED_TO_DCB)
+			.build());
+
+		singleValueFrom(queue.enqueue(patronRequest));
+
+		return patronRequest.getId();
+	}
+
+	private Claimed claimOnly(WorkflowQueue queue) {
+		final var claimed = manyValuesFrom(queue.claim(5));
+
+		assertThat(claimed, hasSize(1));
+
+		return claimed.get(0);
+	}
+
+	private static PatronRequest patronRequest(UUID id) {
+		return PatronRequest.builder()
+			.id(id)
+			.build();
+	}
+
+	private static List<UUID> patronRequestIdsOf(List<Claimed> claimed) {
+		return claimed.stream()
+			.map(Claimed::patronRequestId)
+			.toList();
+	}
+
+	private QueueEntry entryFor(UUID patronRequestId) {
+		return singleValueFrom(operations.withConnection(connection ->
+			Flux.from(connection.createStatement(
+					"select claimed_by, last_error from workflow_queue where patron_request_id = $1")
+				.bind("$1", patronRequestId)
+				.execute())
+			.flatMap(result -> result.map((row, _meta) -> new QueueEntry(
+				row.get("claimed_by", String.class),
+				row.get("last_error", String.class))))));
+	}
+
+	private record QueueEntry(String claimedBy, String lastError) {}
+}
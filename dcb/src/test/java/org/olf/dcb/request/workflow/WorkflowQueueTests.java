@@ -0,0 +1,64 @@
+package org.olf.dcb.request.workflow;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.core.model.PatronRequest;
+import org.olf.dcb.storage.PatronRequestRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.data.r2dbc.operations.R2dbcOperations;
+
+class WorkflowQueueTests {
+	@Test
+	void shouldDoubleBackoffWithEachAttempt() {
+		final var queue = queue(true, mock(PatronRequestWorkflowService.class));
+
+		assertThat(queue.backoff(1), is(Duration.ofSeconds(10)));
+		assertThat(queue.backoff(2), is(Duration.ofSeconds(20)));
+		assertThat(queue.backoff(3), is(Duration.ofSeconds(40)));
+	}
+
+	@Test
+	void shouldNotBackoffLongerThanMaximum() {
+		final var queue = queue(true, mock(PatronRequestWorkflowService.class));
+
+		assertThat(queue.backoff(10), is(Duration.ofMinutes(10)));
+		assertThat(queue.backoff(1_000), is(Duration.ofMinutes(10)));
+	}
+
+	@Test
+	void shouldStartWorkflowDirectlyWhenQueueIsDisabled() {
+		final var workflowService = mock(PatronRequestWorkflowService.class);
+		final var queue = queue(false, workflowService);
+
+		final var patronRequest = PatronRequest.builder().id(UUID.randomUUID()).build();
+
+		queue.enqueue(patronRequest).block();
+
+		verify(workflowService).initiate(patronRequest);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static WorkflowQueue queue(boolean enabled, PatronRequestWorkflowService workflowService) {
+		final var config = mock(WorkflowQueueConfig.class);
+		when(config.isEnabled()).thenReturn(enabled);
+		when(config.getMaxConcurrency()).thenReturn(2);
+		when(config.getInitialBackoff()).thenReturn(Duration.ofSeconds(10));
+		when(config.getMaxBackoff()).thenReturn(Duration.ofMinutes(10));
+
+		final BeanProvider<PatronRequestWorkflowService> provider = mock(BeanProvider.class);
+		when(provider.get()).thenReturn(workflowService);
+
+		return new WorkflowQueue(config, mock(R2dbcOperations.class), mock(PatronRequestRepository.class),
+			provider, new SimpleMeterRegistry());
+	}
+}
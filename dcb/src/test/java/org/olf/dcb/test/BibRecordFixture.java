@@ -8,8 +8,10 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 
+import org.olf.dcb.core.model.BibIdentifier;
 import org.olf.dcb.core.model.BibRecord;
 import org.olf.dcb.core.clustering.model.ClusterRecord;
+import org.olf.dcb.ingest.IngestService;
 import org.olf.dcb.ingest.model.Author;
 import org.olf.dcb.storage.BibIdentifierRepository;
 import org.olf.dcb.storage.BibRepository;
@@ -62,6 +64,64 @@ public class BibRecordFixture {
 			.block();
 	}
 
+	public BibRecord createBibRecordWithIdentifiers(UUID sourceSystemId,
+		String sourceRecordId, String title, Map<String, String> identifiers) {
+
+		final var bibRecord = Mono.from(bibRepository.save(
+				BibRecord
+					.builder()
+					.id(UUID.randomUUID())
+					.dateCreated(now())
+					.dateUpdated(now())
+					.sourceRecordId(sourceRecordId)
+					.sourceSystemId(sourceSystemId)
+					.title(title)
+					.blockingTitle(generateBlockingString(title))
+					.recordStatus("a")
+					.typeOfRecord("a")
+					.derivedType("Books")
+					.processVersion(IngestService.getProcessVersion())
+					.build()
+			))
+			.block();
+
+		identifiers.forEach((namespace, value) -> Mono.from(bibIdentifierRepository.save(
+				BibIdentifier.builder()
+					.id(UUID.randomUUID())
+					.owner(bibRecord)
+					.namespace(namespace)
+					.value(value)
+					.build()))
+			.block());
+
+		return bibRecord;
+	}
+
+	public BibRecord createBibRecordFromSourceRecord(UUID sourceRecordUuid, UUID sourceSystemId,
+		String sourceRecordId, String contentHash, int processVersion, ClusterRecord clusterRecord) {
+
+		return Mono.from(bibRepository.save(
+				BibRecord
+					.builder()
+					.id(UUID.randomUUID())
+					.dateCreated(now())
+					.dateUpdated(now())
+					.sourceRecordId(sourceRecordId)
+					.sourceSystemId(sourceSystemId)
+					.sourceRecordUuid(sourceRecordUuid)
+					.contentHash(contentHash)
+					.processVersion(processVersion)
+					.title("Brain of the Firm")
+					.contributesTo(clusterRecord)
+					.blockingTitle(generateBlockingString("Brain of the Firm"))
+					.recordStatus("a")
+					.typeOfRecord("a")
+					.derivedType("Books")
+					.build()
+			))
+			.block();
+	}
+
 	public void deleteAll() {
 
 		dataAccess.deleteAll(matchPointRepository.queryAll(),
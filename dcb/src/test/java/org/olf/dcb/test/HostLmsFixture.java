@@ -77,6 +77,22 @@ public class HostLmsFixture {
 			"get-hold-delay", 0));
 	}
 
+	public DataHostLms createSierraHostLms(String code, String username,
+		String password, String baseUrl, Map<String, Object> additionalConfig) {
+
+		Map<String, Object> clientConfig = new HashMap<>(Map.of(
+			"key", username,
+			"secret", password,
+			"base-url", baseUrl,
+			"get-holds-retry-attempts", 0,
+			"place-hold-delay", 0,
+			"get-hold-delay", 0));
+
+		clientConfig.putAll(additionalConfig);
+
+		return createSierraHostLms(code, clientConfig);
+	}
+
 	public DataHostLms createSierraHostLms(String code, String username,
 		String password, String baseUrl, String holdPolicy) {
 
@@ -0,0 +1,153 @@
+package services.k_int.data.querying;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.lucene.queryparser.flexible.standard.config.StandardQueryConfigHandler;
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.core.model.BibRecord;
+import org.olf.dcb.core.model.DataAgency;
+import org.olf.dcb.core.model.PatronRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import services.k_int.data.querying.QueryIndex.Type;
+import services.k_int.data.querying.QueryPlan.Access;
+import services.k_int.data.querying.QueryPlanningConfig.UnindexedPolicy;
+import services.k_int.data.querying.lucene.JpaSpecificationQueryParser;
+
+class QueryPlannerTests {
+	@Test
+	void shouldTreatIndexedFieldAsIndexed() throws Exception {
+		assertThat(plan(UnindexedPolicy.ALLOW, 5, "status:ERROR").getAccess(), is(Access.INDEXED));
+	}
+
+	@Test
+	void shouldTreatUnindexedFieldAsUnindexed() throws Exception {
+		assertThat(plan(UnindexedPolicy.ALLOW, 5, "errorMessage:failed").getAccess(), is(Access.UNINDEXED));
+	}
+
+	@Test
+	void shouldOnlyUseTrigramIndexForWildcardWithEnoughLiteralText() throws Exception {
+		assertThat(plan(UnindexedPolicy.ALLOW, 5, "description:*wizard*").getAccess(), is(Access.INDEXED));
+		assertThat(plan(UnindexedPolicy.ALLOW, 5, "description:*wi*").getAccess(), is(Access.UNINDEXED));
+	}
+
+	@Test
+	void shouldOnlyUseTrigramIndexForPatronBarcodeWithEnoughText() throws Exception {
+		// Matched anywhere in the barcode, so is a wildcard search in all but name
+		assertThat(plan(UnindexedPolicy.ALLOW, 5, "patronBarcode:1234").getAccess(), is(Access.INDEXED));
+		assertThat(plan(UnindexedPolicy.ALLOW, 5, "patronBarcode:12").getAccess(), is(Access.UNINDEXED));
+	}
+
+	@Test
+	void shouldOnlyTreatPatronRequestSearchFieldsAsIndexedForPatronRequests() throws Exception {
+		final var planner = planner(UnindexedPolicy.ALLOW, 5);
+
+		assertThat(plan(planner, "supplyingAgencyCode:ABC", PatronRequest.class).getAccess(), is(Access.INDEXED));
+		assertThat(plan(planner, "supplyingAgencyCode:ABC", BibRecord.class).getAccess(), is(Access.UNINDEXED));
+		assertThat(plan(planner, "patronBarcode:1234", BibRecord.class).getAccess(), is(Access.UNINDEXED));
+	}
+
+	@Test
+	void shouldNotUseBtreeIndexForWildcard() throws Exception {
+		assertThat(plan(UnindexedPolicy.ALLOW, 5, "patronHostlmsCode:abc*").getAccess(), is(Access.UNINDEXED));
+	}
+
+	@Test
+	void shouldTreatConjunctionWithAnyIndexedTermAsIndexed() throws Exception {
+		assertThat(plan(UnindexedPolicy.ALLOW, 5, "status:ERROR AND errorMessage:failed").getAccess(),
+			is(Access.INDEXED));
+	}
+
+	@Test
+	void shouldTreatDisjunctionWithAnyUnindexedTermAsUnindexed() throws Exception {
+		assertThat(plan(UnindexedPolicy.ALLOW, 5, "status:ERROR OR errorMessage:failed").getAccess(),
+			is(Access.UNINDEXED));
+	}
+
+	@Test
+	void shouldRejectUnindexedQueryWhenConfiguredTo() {
+		assertThrows(UnindexedQueryException.class,
+			() -> plan(UnindexedPolicy.REJECT, 5, "errorMessage:failed"));
+	}
+
+	@Test
+	void shouldLimitUnindexedQueriesPerWindow() throws Exception {
+		final var planner = planner(UnindexedPolicy.LIMIT, 1);
+
+		plan(planner, "errorMessage:failed", PatronRequest.class);
+
+		assertThrows(UnindexedQueryException.class,
+			() -> plan(planner, "errorMessage:failed", PatronRequest.class));
+
+		// Indexed queries are unaffected
+		assertThat(plan(planner, "status:ERROR", PatronRequest.class).getAccess(), is(Access.INDEXED));
+	}
+
+	@Test
+	void shouldLimitUnindexedQueriesForEachPrincipalSeparately() throws Exception {
+		final var planner = planner(UnindexedPolicy.LIMIT, 1);
+
+		plan(planner, "errorMessage:failed", PatronRequest.class, "first-user");
+
+		assertThrows(UnindexedQueryException.class,
+			() -> plan(planner, "errorMessage:failed", PatronRequest.class, "first-user"));
+
+		// Another user still has their own allowance
+		assertThat(plan(planner, "errorMessage:failed", PatronRequest.class, "second-user").getAccess(),
+			is(Access.UNINDEXED));
+	}
+
+	@Test
+	void shouldNotPlanEntitiesWithoutDeclaredIndexes() throws Exception {
+		final var planner = planner(UnindexedPolicy.REJECT, 0);
+
+		assertThat(plan(planner, "name:*anything*", DataAgency.class).getAccess(), is(Access.INDEXED));
+	}
+
+	@Test
+	void shouldFindLongestRunOfLiteralCharacters() {
+		assertThat(QueryPlanner.longestLiteral("*ab?cde*"), is(3));
+		assertThat(QueryPlanner.longestLiteral("*"), is(0));
+	}
+
+	private static QueryPlan<PatronRequest> plan(UnindexedPolicy policy, int limit, String query) throws Exception {
+		return plan(planner(policy, limit), query, PatronRequest.class);
+	}
+
+	private static <T> QueryPlan<T> plan(QueryPlanner planner, String query, Class<T> entityClass) throws Exception {
+		return plan(planner, query, entityClass, null);
+	}
+
+	private static <T> QueryPlan<T> plan(QueryPlanner planner, String query, Class<T> entityClass,
+			String principal) throws Exception {
+
+		final var parser = new JpaSpecificationQueryParser<T>();
+		parser.getQueryConfigHandler().set(StandardQueryConfigHandler.ConfigurationKeys.ALLOW_LEADING_WILDCARD, true);
+
+		final var parsed = parser.parseTree(query, "id");
+
+		return planner.plan(query, entityClass, parsed.tree(), parsed.specification(), principal);
+	}
+
+	private static QueryPlanner planner(UnindexedPolicy policy, int limit) {
+		final var config = mock(QueryPlanningConfig.class);
+		when(config.getUnindexedPolicy()).thenReturn(policy);
+		when(config.getUnindexedLimit()).thenReturn(limit);
+		when(config.getUnindexedWindow()).thenReturn(Duration.ofMinutes(1));
+
+		// As declared for DCB Admin by PatronRequestQueryFields
+		final var virtualFields = List.of(
+			new VirtualQueryField(PatronRequest.class, "patronBarcode", Set.of(Type.TRIGRAM), true),
+			new VirtualQueryField(PatronRequest.class, "supplyingAgencyCode", Set.of(Type.BTREE), false));
+
+		return new QueryPlanner(config, new SimpleMeterRegistry(), virtualFields);
+	}
+}
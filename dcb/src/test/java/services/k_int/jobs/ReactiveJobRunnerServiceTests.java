@@ -0,0 +1,161 @@
+package services.k_int.jobs;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.olf.dcb.storage.JobCheckpointRepository;
+import org.reactivestreams.Publisher;
+
+import io.micronaut.context.BeanContext;
+import io.micronaut.core.annotation.NonNull;
+import io.micronaut.json.tree.JsonNode;
+import reactor.core.publisher.Mono;
+
+class ReactiveJobRunnerServiceTests {
+	@Test
+	void shouldFetchNextChunkWhileProcessingWhenJobIsPrefetchable() {
+		final var runner = new RecordingRunner(2);
+
+		runner.processJobInstance(new CountingJob(runner.events, 3, true, -1)).blockLast();
+
+		assertThat(runner.events.indexOf("fetch 1"), lessThan(runner.events.indexOf("processed 0")));
+		assertThat(processed(runner), contains("processed 0", "processed 1", "processed 2"));
+	}
+
+	@Test
+	void shouldOnlyFetchNextChunkOnceProcessedWhenJobIsNotPrefetchable() {
+		final var runner = new RecordingRunner(2);
+
+		runner.processJobInstance(new CountingJob(runner.events, 3, false, -1)).blockLast();
+
+		assertThat(runner.events, contains(
+			"fetch 0", "processed 0", "fetch 1", "processed 1", "fetch 2", "processed 2"));
+	}
+
+	@Test
+	void shouldOnlyFetchNextChunkOnceProcessedWhenPrefetchIsDisabled() {
+		final var runner = new RecordingRunner(0);
+
+		runner.processJobInstance(new CountingJob(runner.events, 2, true, -1)).blockLast();
+
+		assertThat(runner.events, contains("fetch 0", "processed 0", "fetch 1", "processed 1"));
+	}
+
+	@Test
+	void shouldFinishProcessingCurrentChunkWhenFetchingAheadFails() {
+		final var runner = new RecordingRunner(2);
+
+		assertThrows(RuntimeException.class, () ->
+			runner.processJobInstance(new CountingJob(runner.events, 3, true, 1)).blockLast());
+
+		assertThat(runner.events, hasItem("processed 0"));
+		assertThat(runner.events, not(hasItem("processed 1")));
+	}
+
+	private static List<String> processed(RecordingRunner runner) {
+		return runner.events.stream()
+			.filter(event -> event.startsWith("processed"))
+			.toList();
+	}
+
+	private static class RecordingRunner extends ReactiveJobRunnerService {
+		private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+		RecordingRunner(int prefetch) {
+			super(checkpoints(), mock(BeanContext.class), () -> prefetch);
+		}
+
+		private static JobCheckpointRepository checkpoints() {
+			final var checkpoints = mock(JobCheckpointRepository.class);
+			when(checkpoints.findCheckpointByJobId(CountingJob.ID)).thenReturn(Mono.empty());
+			return checkpoints;
+		}
+
+		@Override
+		protected <CT> Mono<JobChunk<CT>> processChunkAndSaveCheckpoint(JobChunk<CT> chunk) {
+			return Mono.delay(Duration.ofMillis(50))
+				.doOnNext(_tick -> events.add("processed " + chunk.getCheckpoint().getIntValue()))
+				.thenReturn(chunk);
+		}
+	}
+
+	private record CountingJob(List<String> events, int chunks, boolean prefetchable, int failAt)
+		implements Job<Integer> {
+
+		private static final UUID ID = UUID.randomUUID();
+
+		@Override
+		public UUID getId() {
+			return ID;
+		}
+
+		@NonNull
+		@Override
+		public String getName() {
+			return "Counting job";
+		}
+
+		@Override
+		public Publisher<JobChunk<Integer>> start() {
+			return chunk(0);
+		}
+
+		@Override
+		public Publisher<JobChunk<Integer>> resume(JsonNode lastCheckpoint) {
+			return chunk(lastCheckpoint.getIntValue() + 1);
+		}
+
+		@Override
+		public boolean isPrefetchable() {
+			return prefetchable;
+		}
+
+		private Mono<JobChunk<Integer>> chunk(int number) {
+			return Mono.fromSupplier(() -> {
+				if (number == failAt) throw new IllegalStateException("Unable to fetch chunk " + number);
+
+				events.add("fetch " + number);
+				return new CountingChunk(number, number == chunks - 1);
+			});
+		}
+	}
+
+	private record CountingChunk(int number, boolean lastChunk) implements JobChunk<Integer> {
+		@NonNull
+		@Override
+		public UUID getJobId() {
+			return CountingJob.ID;
+		}
+
+		@NonNull
+		@Override
+		public Collection<Integer> getData() {
+			return List.of(number);
+		}
+
+		@NonNull
+		@Override
+		public JsonNode getCheckpoint() {
+			return JsonNode.createNumberNode(number);
+		}
+
+		@Override
+		public boolean isLastChunk() {
+			return lastChunk;
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package services.k_int.micronaut.concurrency;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ConcurrencyGroupServiceTests {
+	private final ConcurrencyGroupService service = new ConcurrencyGroupService(new ConcurrencyGroup[0]);
+
+	private final AtomicInteger inProgress = new AtomicInteger();
+	private final AtomicInteger mostInProgress = new AtomicInteger();
+
+	// Holds up everything from the slow group until released
+	private final Sinks.Empty<Void> slowGroupReleased = Sinks.empty();
+
+	@Test
+	void shouldNotLetSlowGroupHoldUpOthers() {
+		// Arrange
+		final var completed = new CopyOnWriteArrayList<String>();
+
+		final var records = Flux.just("slow-1", "slow-2", "slow-3", "slow-4", "fast-1", "fast-2", "fast-3", "fast-4");
+
+		// Act
+		final var subscription = service.getGroupedSubscription(records, this::groupFor, _group -> 2, 3, this::process)
+			.subscribe(completed::add);
+
+		// Assert
+		assertThat("Fast group should finish while slow group is stuck", completed,
+			containsInAnyOrder("fast-1", "fast-2", "fast-3", "fast-4"));
+
+		slowGroupReleased.tryEmitEmpty();
+
+		assertThat(completed, containsInAnyOrder("fast-1", "fast-2", "fast-3", "fast-4",
+			"slow-1", "slow-2", "slow-3", "slow-4"));
+
+		assertThat(subscription.isDisposed(), is(true));
+	}
+
+	@Test
+	void shouldKeepTotalInProgressWithinLimit() {
+		// Arrange
+		final var records = Flux.range(0, 60)
+			.map(n -> "group-" + (n % 6) + "-" + n);
+
+		// Act
+		final var processed = service.getGroupedSubscription(records,
+				record -> record.substring(0, record.lastIndexOf('-')), _group -> 5, 4,
+				record -> Mono.delay(Duration.ofMillis(5))
+					.doOnSubscribe(_s -> started())
+					.doFinally(_s -> inProgress.decrementAndGet())
+					.thenReturn(record))
+			.collectList()
+			.block(Duration.ofSeconds(10));
+
+		// Assert
+		assertThat(processed.size(), is(60));
+		assertThat(mostInProgress.get(), is(lessThanOrEqualTo(4)));
+	}
+
+	@Test
+	void shouldKeepEachGroupWithinItsOwnLimit() {
+		// Arrange
+		final var records = Flux.range(0, 20).map(n -> "only-group-" + n);
+
+		// Act
+		final List<String> processed = service.getGroupedSubscription(records,
+				_record -> "only-group", _group -> 2, 10,
+				record -> Mono.delay(Duration.ofMillis(5))
+					.doOnSubscribe(_s -> started())
+					.doFinally(_s -> inProgress.decrementAndGet())
+					.thenReturn(record))
+			.collectList()
+			.block(Duration.ofSeconds(10));
+
+		// Assert
+		assertThat(processed.size(), is(20));
+		assertThat(mostInProgress.get(), is(lessThanOrEqualTo(2)));
+	}
+
+	@Test
+	void shouldStartProcessingBeforeSourceCompletes() {
+		// Arrange
+		final Sinks.Many<String> records = Sinks.many().unicast().onBackpressureBuffer();
+
+		final var completed = new CopyOnWriteArrayList<String>();
+
+		// Act
+		final var subscription = service.getGroupedSubscription(records.asFlux(), this::groupFor,
+				_group -> 2, this::process)
+			.subscribe(completed::add);
+
+		records.tryEmitNext("fast-1");
+		records.tryEmitNext("fast-2");
+
+		// Assert
+		assertThat("Should not wait for the whole source", completed, containsInAnyOrder("fast-1", "fast-2"));
+
+		records.tryEmitNext("fast-3");
+		records.tryEmitComplete();
+
+		assertThat(completed, containsInAnyOrder("fast-1", "fast-2", "fast-3"));
+		assertThat(subscription.isDisposed(), is(true));
+	}
+
+	private String groupFor(String record) {
+		return record.startsWith("slow") ? "slow" : "fast";
+	}
+
+	private Mono<String> process(String record) {
+		return record.startsWith("slow")
+			? slowGroupReleased.asMono().thenReturn(record)
+			: Mono.just(record);
+	}
+
+	private void started() {
+		mostInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+	}
+}
@@ -0,0 +1,74 @@
+package services.k_int.micronaut.concurrency;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.jupiter.api.Test;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ConcurrencyLimiterTests {
+	@Test
+	void shouldHoldPublishersBeyondLimitUntilOneFinishes() {
+		// Arrange
+		final var limiter = new ConcurrencyLimiter(1);
+		final Sinks.One<String> first = Sinks.one();
+
+		limiter.limit(first::asMono).subscribe();
+
+		// Act
+		final var second = limiter.limit(() -> Mono.just("second")).next().toFuture();
+
+		// Assert
+		assertThat(second.isDone(), is(false));
+
+		first.tryEmitValue("first");
+
+		assertThat(second.isDone(), is(true));
+		assertThat(limiter.getInProgress(), is(0));
+	}
+
+	@Test
+	void shouldStartWaitingPublishersWhenLimitRaised() {
+		// Arrange
+		final var limiter = new ConcurrencyLimiter(1);
+		final Sinks.One<String> held = Sinks.one();
+
+		limiter.limit(held::asMono).subscribe();
+		limiter.limit(held::asMono).subscribe();
+		limiter.limit(held::asMono).subscribe();
+
+		// Act
+		limiter.setLimit(3);
+
+		// Assert
+		assertThat(limiter.getInProgress(), is(3));
+	}
+
+	@Test
+	void shouldHoldBackWaitingPublishersUntilWithinLoweredLimit() {
+		// Arrange
+		final var limiter = new ConcurrencyLimiter(2);
+		final Sinks.One<String> first = Sinks.one();
+		final Sinks.One<String> second = Sinks.one();
+
+		limiter.limit(first::asMono).subscribe();
+		limiter.limit(second::asMono).subscribe();
+
+		final var waiting = limiter.limit(() -> Mono.just("waiting")).next().toFuture();
+
+		// Act
+		limiter.setLimit(1);
+
+		first.tryEmitValue("first");
+
+		// Assert
+		assertThat("Still at the lowered limit", waiting.isDone(), is(false));
+
+		second.tryEmitValue("second");
+
+		assertThat(waiting.isDone(), is(true));
+		assertThat(limiter.getInProgress(), is(0));
+	}
+}